@@ -81,27 +81,22 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_common_CertificateX509_create(JNIEnv
 /*
  * Class:     org_alljoyn_bus_common_CertificateX509
  * Method:    destroy
- * Signature: ()V
+ * Signature: (J)V
  */
-JNIEXPORT void JNICALL Java_org_alljoyn_bus_common_CertificateX509_destroy(JNIEnv* jenv, jobject thiz)
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_common_CertificateX509_destroy(JNIEnv* jenv, jclass clazz, jlong jhandle)
 {
-    QCC_DbgTrace(("%s", __FUNCTION__));
+    QCC_UNUSED(jenv);
+    QCC_UNUSED(clazz);
 
-    CertificateX509* cx509Ptr = GetHandle<CertificateX509*>(thiz);
-    if (jenv->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("%s: Exception", __FUNCTION__));
-        return;
-    }
+    QCC_DbgTrace(("%s", __FUNCTION__));
 
+    CertificateX509* cx509Ptr = (CertificateX509*)jhandle;
     if (cx509Ptr == NULL) {
         QCC_DbgPrintf(("%s: Already destroyed. Returning.", __FUNCTION__));
         return;
     }
 
     delete cx509Ptr;
-    cx509Ptr = NULL;
-
-    SetHandle(thiz, NULL);
 }
 
 /*
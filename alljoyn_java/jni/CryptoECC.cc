@@ -75,23 +75,18 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_common_CryptoECC_create(JNIEnv* jenv
 /*
  * Class:     org_alljoyn_bus_common_CryptoECC
  * Method:    destroy
- * Signature: ()V
+ * Signature: (J)V
  */
-JNIEXPORT void JNICALL Java_org_alljoyn_bus_common_CryptoECC_destroy(JNIEnv* jenv, jobject thiz)
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_common_CryptoECC_destroy(JNIEnv* jenv, jclass clazz, jlong jhandle)
 {
-    QCC_DbgTrace(("%s", __FUNCTION__));
+    QCC_UNUSED(jenv);
+    QCC_UNUSED(clazz);
 
-    Crypto_ECC* cryptoPtr = GetHandle<Crypto_ECC*>(thiz);
-    if (jenv->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("%s: Exception", __FUNCTION__));
-        return;
-    }
+    QCC_DbgTrace(("%s", __FUNCTION__));
 
+    Crypto_ECC* cryptoPtr = (Crypto_ECC*)jhandle;
     QCC_ASSERT(cryptoPtr);
     delete cryptoPtr;
-
-    SetHandle(thiz, NULL);
-    return;
 }
 
 /*
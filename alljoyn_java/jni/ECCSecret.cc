@@ -72,23 +72,18 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_common_ECCSecret_create(JNIEnv* jenv
 /*
  * Class:     org_alljoyn_bus_common_ECCSecret
  * Method:    destroy
- * Signature: ()V
+ * Signature: (J)V
  */
-JNIEXPORT void JNICALL Java_org_alljoyn_bus_common_ECCSecret_destroy(JNIEnv* jenv, jobject thiz)
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_common_ECCSecret_destroy(JNIEnv* jenv, jclass clazz, jlong jhandle)
 {
-    QCC_DbgTrace(("%s", __FUNCTION__));
+    QCC_UNUSED(jenv);
+    QCC_UNUSED(clazz);
 
-    ECCSecret* eccsecret = GetHandle<ECCSecret*>(thiz);
-    if (jenv->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("%s: Exception", __FUNCTION__));
-        return;
-    }
+    QCC_DbgTrace(("%s", __FUNCTION__));
 
+    ECCSecret* eccsecret = (ECCSecret*)jhandle;
     QCC_ASSERT(eccsecret);
     delete eccsecret;
-
-    SetHandle(thiz, NULL);
-    return;
 }
 
 /*
@@ -74,7 +74,10 @@ class JBusAttachment : public ajn::BusAttachment {
     QStatus EnablePeerSecurity(const char* authMechanisms, jobject jauthListener, const char* keyStoreFileName, jboolean isShared, JPermissionConfigurationListener* jpcl = NULL);
     QStatus RegisterBusObject(const char* objPath, jobject jbusObject, jobjectArray jbusInterfaces,
                               jboolean jsecure, jstring jlangTag, jstring jdesc, jobject jtranslator);
+    QStatus RegisterBusObjects(jobjectArray jobjPaths, jobjectArray jbusObjects, jobjectArray jbusInterfaces,
+                               jboolean jsecure);
     void UnregisterBusObject(jobject jbusObject);
+    void UnregisterBusObjects(jobjectArray jbusObjects);
 
     template <typename T>
     QStatus RegisterSignalHandler(const char* ifaceName, const char* signalName,
@@ -287,6 +290,14 @@ class JBusAttachment : public ajn::BusAttachment {
     JBusAttachment(const JBusAttachment& other);
     JBusAttachment& operator =(const JBusAttachment& other);
 
+    /*
+     * Register and unregister a single bus object.  The caller must hold
+     * the bus object map lock of the object and baCommonLock.
+     */
+    QStatus RegisterBusObjectLocked(const char* objPath, jobject jbusObject, jobjectArray jbusInterfaces,
+                                    jboolean jsecure, jstring jlangTag, jstring jdesc, jobject jtranslator);
+    void UnregisterBusObjectLocked(jobject jbusObject);
+
     /*
      * An intrusive reference count
      */
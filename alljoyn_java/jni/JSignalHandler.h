@@ -33,6 +33,7 @@
 #include <jni.h>
 #include <alljoyn/BusAttachment.h>
 #include <qcc/String.h>
+#include "alljoyn_jni_helper.h"
 
 class JSignalHandler : public ajn::MessageReceiver {
   public:
@@ -44,7 +45,7 @@ class JSignalHandler : public ajn::MessageReceiver {
     void SignalHandler(const ajn::InterfaceDescription::Member* member, const char* sourcePath, ajn::Message& msg);
   protected:
     jweak jsignalHandler;
-    jobject jmethod;
+    JMethodInvoker invoker;
     const ajn::InterfaceDescription::Member* member;
     qcc::String ancillary_data; /* can be both source or matchRule; */
 
@@ -33,6 +33,11 @@
 #include <map>
 #include <list>
 #include <algorithm>
+#if defined(QCC_OS_GROUP_WINDOWS)
+#include <windows.h>
+#else
+#include <pthread.h>
+#endif
 #include <qcc/Debug.h>
 #include <qcc/Log.h>
 #include <qcc/ManagedObj.h>
@@ -41,6 +46,7 @@
 #include <qcc/String.h>
 #include <qcc/Thread.h>
 #include <qcc/ScopedMutexLock.h>
+#include <qcc/Socket.h>
 #include <alljoyn/BusAttachment.h>
 #include <alljoyn/AutoPinger.h>
 #include <alljoyn/PingListener.h>
@@ -553,7 +559,7 @@ using namespace ajn;
  * (5) Signal Emitters have a reference to the Java Bus Object with which they
  *     are associated.  In order to actually emit signals, the C++ object
  *     associated with the Java Bus Object must be looked up.  This is done
- *     by looking up the Java Object reference in a global gBusObjectMap.
+ *     by looking up the Java Object reference in the global gBusObjectMap.
  *
  * (6) In the normal (not Bus Object) case, we use the Java garbage collector to
  *     reference count our Java objects, and override the finalize() method of
@@ -767,8 +773,12 @@ static JavaVM* jvm = NULL;
 /** java/lang cached items - these are guaranteed to be loaded at all times. */
 static jclass CLS_Integer = NULL;
 static jclass CLS_Object = NULL;
+static jclass CLS_System = NULL;
 jclass CLS_String = NULL;
 
+/** java/io */
+static jclass CLS_FileDescriptor = NULL;
+
 /** org/alljoyn/bus */
 jclass CLS_BusException = NULL;
 static jclass CLS_IntrospectionListener = NULL;
@@ -804,11 +814,56 @@ jmethodID MID_KeyInfoNISTP256_setPublicKey = NULL;
 
 static jmethodID MID_Integer_intValue = NULL;
 static jmethodID MID_Object_equals = NULL;
+static jmethodID MID_System_identityHashCode = NULL;
+static jmethodID MID_FileDescriptor_init = NULL;
+/** The int descriptor of a java.io.FileDescriptor, looked up by GetFileDescriptorField() */
+static jfieldID FID_FileDescriptor_fd = NULL;
 static jmethodID MID_BusException_log = NULL;
 static jmethodID MID_MsgArg_marshal = NULL;
 static jmethodID MID_MsgArg_marshal_array = NULL;
 static jmethodID MID_MsgArg_unmarshal = NULL;
 static jmethodID MID_MsgArg_unmarshal_array = NULL;
+static jmethodID MID_Method_getParameterTypes = NULL;
+static jmethodID MID_Method_getReturnType = NULL;
+static jmethodID MID_Status_getErrorCode = NULL;
+static jmethodID MID_ErrorReplyBusException_getErrorStatus = NULL;
+static jmethodID MID_ErrorReplyBusException_getErrorName = NULL;
+static jmethodID MID_ErrorReplyBusException_getErrorMessage = NULL;
+static jmethodID MID_MethodCallFuture_onReply = NULL;
+static jmethodID MID_MethodCallFuture_onError = NULL;
+
+/**
+ * The primitive types a Java method may take or return, together with the
+ * reflection needed to unbox arguments and box return values when calling
+ * the method directly (see JMethodInvoker).
+ */
+struct JPrimitive {
+    char type;                  /**< The JNI type signature of the primitive */
+    const char* wrapperName;    /**< The wrapper class */
+    const char* unboxName;      /**< The wrapper method returning the primitive value */
+    const char* unboxSig;
+    const char* valueOfSig;     /**< The signature of the static wrapper valueOf() */
+    jclass primitiveClass;      /**< The Class of the primitive, i.e. the wrapper TYPE */
+    jclass wrapperClass;
+    jmethodID unbox;
+    jmethodID valueOf;
+};
+
+static JPrimitive gPrimitives[] = {
+    { 'Z', "java/lang/Boolean", "booleanValue", "()Z", "(Z)Ljava/lang/Boolean;", NULL, NULL, NULL, NULL },
+    { 'B', "java/lang/Byte", "byteValue", "()B", "(B)Ljava/lang/Byte;", NULL, NULL, NULL, NULL },
+    { 'C', "java/lang/Character", "charValue", "()C", "(C)Ljava/lang/Character;", NULL, NULL, NULL, NULL },
+    { 'S', "java/lang/Short", "shortValue", "()S", "(S)Ljava/lang/Short;", NULL, NULL, NULL, NULL },
+    { 'I', "java/lang/Integer", "intValue", "()I", "(I)Ljava/lang/Integer;", NULL, NULL, NULL, NULL },
+    { 'J', "java/lang/Long", "longValue", "()J", "(J)Ljava/lang/Long;", NULL, NULL, NULL, NULL },
+    { 'F', "java/lang/Float", "floatValue", "()F", "(F)Ljava/lang/Float;", NULL, NULL, NULL, NULL },
+    { 'D', "java/lang/Double", "doubleValue", "()D", "(D)Ljava/lang/Double;", NULL, NULL, NULL, NULL }
+};
+
+static const size_t NUM_PRIMITIVES = sizeof(gPrimitives) / sizeof(gPrimitives[0]);
+
+/** The Class of void, i.e. Void.TYPE. */
+static jclass CLS_Void_TYPE = NULL;
 
 jfieldID FID_ECCPrivateKey_d = NULL;
 jfieldID FID_ECCPublicKey_x = NULL;
@@ -828,6 +883,46 @@ jobject CertificateX509Type_INVALID = NULL;
 
 // predeclare some methods as necessary
 static jobject Unmarshal(const MsgArg* arg, jobject jtype);
+class JProxyBusObject;
+static void ReleasePendingCalls(JNIEnv* env, JBusAttachment* busPtr, JProxyBusObject* proxyBusObj, const char* reason);
+
+/**
+ * The number of times a native thread has been attached to or detached from
+ * the JVM by the bindings.
+ */
+static volatile int32_t gThreadAttachCount = 0;
+static volatile int32_t gThreadDetachCount = 0;
+
+/**
+ * When set, native threads attached by GetEnv() stay attached until the
+ * thread exits instead of being detached when the callback returns.
+ */
+static volatile bool gPersistentThreadAttach = false;
+
+/**
+ * Thread local storage holding the innermost MessageContext of each thread.
+ */
+#if defined(QCC_OS_GROUP_WINDOWS)
+static DWORD gMessageContextKey = TLS_OUT_OF_INDEXES;
+#else
+static pthread_key_t gMessageContextKey;
+#endif
+
+#if !defined(QCC_OS_GROUP_WINDOWS)
+/**
+ * Thread local storage marking a native thread that must be detached from
+ * the JVM when it exits.  The destructor runs on the exiting thread.
+ */
+static pthread_key_t gAttachedThreadKey;
+static bool gAttachedThreadKeyValid = false;
+
+static void DetachThread(void* value)
+{
+    QCC_UNUSED(value);
+    jvm->DetachCurrentThread();
+    IncrementAndFetch(&gThreadDetachCount);
+}
+#endif
 
 JNIEnv* GetEnv(jint* result)
 {
@@ -842,6 +937,21 @@ JNIEnv* GetEnv(jint* result)
 #else
         ret = jvm->AttachCurrentThread((void**)&env, NULL);
 #endif
+        if (JNI_OK == ret) {
+            IncrementAndFetch(&gThreadAttachCount);
+#if !defined(QCC_OS_GROUP_WINDOWS)
+            /*
+             * Callers that do not ask for the result never detach, so such
+             * threads, and all threads in persistent mode, are detached from
+             * the JVM when they exit instead.
+             */
+            if ((!result || gPersistentThreadAttach) && gAttachedThreadKeyValid) {
+                if (pthread_setspecific(gAttachedThreadKey, jvm) == 0 && result) {
+                    *result = JNI_OK;
+                }
+            }
+#endif
+        }
     }
     QCC_ASSERT(JNI_OK == ret);
     return env;
@@ -854,6 +964,7 @@ static void DeleteEnv(jint result)
 {
     if (JNI_EDETACHED == result) {
         jvm->DetachCurrentThread();
+        IncrementAndFetch(&gThreadDetachCount);
     }
 }
 
@@ -916,6 +1027,17 @@ JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM* vm,
 #endif
     QCC_UseOSLogging(true);
     jvm = vm;
+#if defined(QCC_OS_GROUP_WINDOWS)
+    gMessageContextKey = TlsAlloc();
+    if (TLS_OUT_OF_INDEXES == gMessageContextKey) {
+        return JNI_ERR;
+    }
+#else
+    if (pthread_key_create(&gMessageContextKey, NULL) != 0) {
+        return JNI_ERR;
+    }
+    gAttachedThreadKeyValid = (pthread_key_create(&gAttachedThreadKey, DetachThread) == 0);
+#endif
     JNIEnv* env;
     if (jvm->GetEnv((void**)&env, JNI_VERSION_1_2)) {
         return JNI_ERR;
@@ -943,12 +1065,34 @@ JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM* vm,
             return JNI_ERR;
         }
 
+        clazz = env->FindClass("java/lang/System");
+        if (!clazz) {
+            return JNI_ERR;
+        }
+        CLS_System = (jclass)env->NewGlobalRef(clazz);
+
+        MID_System_identityHashCode = env->GetStaticMethodID(CLS_System, "identityHashCode", "(Ljava/lang/Object;)I");
+        if (!MID_System_identityHashCode) {
+            return JNI_ERR;
+        }
+
         clazz = env->FindClass("java/lang/String");
         if (!clazz) {
             return JNI_ERR;
         }
         CLS_String = (jclass)env->NewGlobalRef(clazz);
 
+        clazz = env->FindClass("java/io/FileDescriptor");
+        if (!clazz) {
+            return JNI_ERR;
+        }
+        CLS_FileDescriptor = (jclass)env->NewGlobalRef(clazz);
+
+        MID_FileDescriptor_init = env->GetMethodID(CLS_FileDescriptor, "<init>", "()V");
+        if (!MID_FileDescriptor_init) {
+            return JNI_ERR;
+        }
+
         clazz = env->FindClass("org/alljoyn/bus/BusException");
         if (!clazz) {
             return JNI_ERR;
@@ -965,6 +1109,86 @@ JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM* vm,
         }
         CLS_ErrorReplyBusException = (jclass)env->NewGlobalRef(clazz);
 
+        MID_ErrorReplyBusException_getErrorStatus = env->GetMethodID(CLS_ErrorReplyBusException, "getErrorStatus", "()Lorg/alljoyn/bus/Status;");
+        if (!MID_ErrorReplyBusException_getErrorStatus) {
+            return JNI_ERR;
+        }
+
+        MID_ErrorReplyBusException_getErrorName = env->GetMethodID(CLS_ErrorReplyBusException, "getErrorName", "()Ljava/lang/String;");
+        if (!MID_ErrorReplyBusException_getErrorName) {
+            return JNI_ERR;
+        }
+
+        MID_ErrorReplyBusException_getErrorMessage = env->GetMethodID(CLS_ErrorReplyBusException, "getErrorMessage", "()Ljava/lang/String;");
+        if (!MID_ErrorReplyBusException_getErrorMessage) {
+            return JNI_ERR;
+        }
+
+        clazz = env->FindClass("org/alljoyn/bus/MethodCallFuture");
+        if (!clazz) {
+            return JNI_ERR;
+        }
+        MID_MethodCallFuture_onReply = env->GetMethodID(clazz, "onReply", "(Ljava/lang/Object;)V");
+        if (!MID_MethodCallFuture_onReply) {
+            return JNI_ERR;
+        }
+        MID_MethodCallFuture_onError = env->GetMethodID(clazz, "onError", "(Ljava/lang/Throwable;)V");
+        if (!MID_MethodCallFuture_onError) {
+            return JNI_ERR;
+        }
+
+        clazz = env->FindClass("java/lang/reflect/Method");
+        if (!clazz) {
+            return JNI_ERR;
+        }
+
+        MID_Method_getParameterTypes = env->GetMethodID(clazz, "getParameterTypes", "()[Ljava/lang/Class;");
+        if (!MID_Method_getParameterTypes) {
+            return JNI_ERR;
+        }
+
+        MID_Method_getReturnType = env->GetMethodID(clazz, "getReturnType", "()Ljava/lang/Class;");
+        if (!MID_Method_getReturnType) {
+            return JNI_ERR;
+        }
+
+        for (size_t i = 0; i < NUM_PRIMITIVES; ++i) {
+            JPrimitive& primitive = gPrimitives[i];
+            clazz = env->FindClass(primitive.wrapperName);
+            if (!clazz) {
+                return JNI_ERR;
+            }
+            primitive.wrapperClass = (jclass)env->NewGlobalRef(clazz);
+
+            jfieldID fid = env->GetStaticFieldID(primitive.wrapperClass, "TYPE", "Ljava/lang/Class;");
+            if (!fid) {
+                return JNI_ERR;
+            }
+            primitive.primitiveClass = (jclass)env->NewGlobalRef(env->GetStaticObjectField(primitive.wrapperClass, fid));
+
+            primitive.unbox = env->GetMethodID(primitive.wrapperClass, primitive.unboxName, primitive.unboxSig);
+            if (!primitive.unbox) {
+                return JNI_ERR;
+            }
+
+            primitive.valueOf = env->GetStaticMethodID(primitive.wrapperClass, "valueOf", primitive.valueOfSig);
+            if (!primitive.valueOf) {
+                return JNI_ERR;
+            }
+        }
+
+        clazz = env->FindClass("java/lang/Void");
+        if (!clazz) {
+            return JNI_ERR;
+        }
+        {
+            jfieldID fid = env->GetStaticFieldID(clazz, "TYPE", "Ljava/lang/Class;");
+            if (!fid) {
+                return JNI_ERR;
+            }
+            CLS_Void_TYPE = (jclass)env->NewGlobalRef(env->GetStaticObjectField(clazz, fid));
+        }
+
         clazz = env->FindClass("org/alljoyn/bus/common/KeyInfoNISTP256");
         if (!clazz) {
             return JNI_ERR;
@@ -1045,6 +1269,11 @@ JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM* vm,
         }
         CLS_Status = (jclass)env->NewGlobalRef(clazz);
 
+        MID_Status_getErrorCode = env->GetMethodID(CLS_Status, "getErrorCode", "()I");
+        if (!MID_Status_getErrorCode) {
+            return JNI_ERR;
+        }
+
         clazz = env->FindClass("org/alljoyn/bus/Variant");
         if (!clazz) {
             return JNI_ERR;
@@ -1259,6 +1488,15 @@ JNIEXPORT void JNI_OnUnload(JavaVM* vm,
 {
     QCC_UNUSED(vm);
     QCC_UNUSED(reserved);
+#if defined(QCC_OS_GROUP_WINDOWS)
+    TlsFree(gMessageContextKey);
+#else
+    pthread_key_delete(gMessageContextKey);
+    if (gAttachedThreadKeyValid) {
+        gAttachedThreadKeyValid = false;
+        pthread_key_delete(gAttachedThreadKey);
+    }
+#endif
 #ifdef ROUTER
     AllJoynRouterShutdown();
 #endif
@@ -1289,6 +1527,251 @@ JScopedEnv::~JScopedEnv()
     DeleteEnv(detached);
 }
 
+/**
+ * Find the primitive type corresponding to a Class.
+ *
+ * @return the primitive type, or NULL if jclazz is not a primitive class
+ */
+static const JPrimitive* GetPrimitive(JNIEnv* env, jclass jclazz)
+{
+    for (size_t i = 0; i < NUM_PRIMITIVES; ++i) {
+        if (env->IsSameObject(jclazz, gPrimitives[i].primitiveClass)) {
+            return &gPrimitives[i];
+        }
+    }
+    return NULL;
+}
+
+/**
+ * Find a primitive type from its JNI type signature.
+ */
+static const JPrimitive* GetPrimitive(char type)
+{
+    for (size_t i = 0; i < NUM_PRIMITIVES; ++i) {
+        if (gPrimitives[i].type == type) {
+            return &gPrimitives[i];
+        }
+    }
+    return NULL;
+}
+
+QStatus JMethodInvoker::Init(JNIEnv* env, jobject jmeth)
+{
+    QCC_DbgPrintf(("JMethodInvoker::Init()"));
+
+    mid = env->FromReflectedMethod(jmeth);
+    if (!mid) {
+        return ER_FAIL;
+    }
+
+    JLocalRef<jobjectArray> jparamTypes = (jobjectArray)CallObjectMethod(env, jmeth, MID_Method_getParameterTypes);
+    if (env->ExceptionCheck() || !jparamTypes) {
+        return ER_FAIL;
+    }
+
+    jsize numParams = env->GetArrayLength(jparamTypes);
+    for (jsize i = 0; i < numParams; ++i) {
+        JLocalRef<jclass> jparamType = (jclass)GetObjectArrayElement(env, jparamTypes, i);
+        if (env->ExceptionCheck()) {
+            return ER_FAIL;
+        }
+
+        /*
+         * Primitive arguments arrive boxed in their wrapper class, so that is
+         * the class the argument is checked against before it is unboxed.
+         */
+        const JPrimitive* primitive = GetPrimitive(env, jparamType);
+        jclass jclazz = (jclass)env->NewGlobalRef(primitive ? primitive->wrapperClass : (jclass)jparamType);
+        if (!jclazz) {
+            return ER_FAIL;
+        }
+        paramTypes.push_back(primitive ? primitive->type : 'L');
+        paramClasses.push_back(jclazz);
+    }
+
+    JLocalRef<jclass> jreturnType = (jclass)CallObjectMethod(env, jmeth, MID_Method_getReturnType);
+    if (env->ExceptionCheck() || !jreturnType) {
+        return ER_FAIL;
+    }
+    if (env->IsSameObject(jreturnType, CLS_Void_TYPE)) {
+        returnType = 'V';
+    } else {
+        const JPrimitive* primitive = GetPrimitive(env, jreturnType);
+        returnType = primitive ? primitive->type : 'L';
+    }
+
+    jmethod = env->NewGlobalRef(jmeth);
+    if (!jmethod) {
+        return ER_FAIL;
+    }
+    return ER_OK;
+}
+
+void JMethodInvoker::Release(JNIEnv* env)
+{
+    QCC_DbgPrintf(("JMethodInvoker::Release()"));
+
+    for (std::vector<jclass>::const_iterator i = paramClasses.begin(); i != paramClasses.end(); ++i) {
+        env->DeleteGlobalRef(*i);
+    }
+    paramClasses.clear();
+    paramTypes.clear();
+
+    if (jmethod) {
+        env->DeleteGlobalRef(jmethod);
+        jmethod = NULL;
+    }
+    mid = NULL;
+}
+
+jobject JMethodInvoker::Invoke(JNIEnv* env, jobject jobj, jobjectArray jargs) const
+{
+    if (!mid) {
+        Throw("java/lang/IllegalStateException", "method not resolved");
+        return NULL;
+    }
+
+    size_t numParams = paramTypes.size();
+    size_t numArgs = jargs ? env->GetArrayLength(jargs) : 0;
+    if (numArgs != numParams) {
+        Throw("java/lang/IllegalArgumentException", "wrong number of arguments");
+        return NULL;
+    }
+
+    /*
+     * Most bus methods take a handful of arguments, so avoid going to the
+     * heap for the argument values in the common case.
+     */
+    jvalue stackValues[8];
+    std::vector<jvalue> heapValues;
+    jvalue* values = stackValues;
+    if (numParams > sizeof(stackValues) / sizeof(stackValues[0])) {
+        heapValues.resize(numParams);
+        values = &heapValues[0];
+    }
+
+    /*
+     * Reference arguments are passed as the local references taken from the
+     * argument array, so the local references live until after the call.
+     */
+    if (env->PushLocalFrame(numParams + 1) < 0) {
+        return NULL;
+    }
+
+    for (size_t i = 0; i < numParams; ++i) {
+        jobject jarg = GetObjectArrayElement(env, jargs, i);
+        if (env->ExceptionCheck()) {
+            env->PopLocalFrame(NULL);
+            return NULL;
+        }
+
+        /*
+         * Method.invoke() checks the arguments against the parameter types;
+         * calling through JNI does not, so do the check here.
+         */
+        char type = paramTypes[i];
+        if (jarg ? !env->IsInstanceOf(jarg, paramClasses[i]) : ('L' != type)) {
+            env->PopLocalFrame(NULL);
+            Throw("java/lang/IllegalArgumentException", "argument type mismatch");
+            return NULL;
+        }
+
+        const JPrimitive* primitive = ('L' == type) ? NULL : GetPrimitive(type);
+        switch (type) {
+        case 'Z': values[i].z = env->CallBooleanMethod(jarg, primitive->unbox); break;
+        case 'B': values[i].b = env->CallByteMethod(jarg, primitive->unbox); break;
+        case 'C': values[i].c = env->CallCharMethod(jarg, primitive->unbox); break;
+        case 'S': values[i].s = env->CallShortMethod(jarg, primitive->unbox); break;
+        case 'I': values[i].i = env->CallIntMethod(jarg, primitive->unbox); break;
+        case 'J': values[i].j = env->CallLongMethod(jarg, primitive->unbox); break;
+        case 'F': values[i].f = env->CallFloatMethod(jarg, primitive->unbox); break;
+        case 'D': values[i].d = env->CallDoubleMethod(jarg, primitive->unbox); break;
+        default: values[i].l = jarg; break;
+        }
+    }
+
+    jobject jreply = NULL;
+    const JPrimitive* primitive = ('L' == returnType || 'V' == returnType) ? NULL : GetPrimitive(returnType);
+    switch (returnType) {
+    case 'V':
+        env->CallVoidMethodA(jobj, mid, values);
+        break;
+
+    case 'L':
+        jreply = env->CallObjectMethodA(jobj, mid, values);
+        break;
+
+    case 'Z': {
+            jboolean value = env->CallBooleanMethodA(jobj, mid, values);
+            if (!env->ExceptionCheck()) {
+                jreply = env->CallStaticObjectMethod(primitive->wrapperClass, primitive->valueOf, value);
+            }
+            break;
+        }
+
+    case 'B': {
+            jbyte value = env->CallByteMethodA(jobj, mid, values);
+            if (!env->ExceptionCheck()) {
+                jreply = env->CallStaticObjectMethod(primitive->wrapperClass, primitive->valueOf, value);
+            }
+            break;
+        }
+
+    case 'C': {
+            jchar value = env->CallCharMethodA(jobj, mid, values);
+            if (!env->ExceptionCheck()) {
+                jreply = env->CallStaticObjectMethod(primitive->wrapperClass, primitive->valueOf, value);
+            }
+            break;
+        }
+
+    case 'S': {
+            jshort value = env->CallShortMethodA(jobj, mid, values);
+            if (!env->ExceptionCheck()) {
+                jreply = env->CallStaticObjectMethod(primitive->wrapperClass, primitive->valueOf, value);
+            }
+            break;
+        }
+
+    case 'I': {
+            jint value = env->CallIntMethodA(jobj, mid, values);
+            if (!env->ExceptionCheck()) {
+                jreply = env->CallStaticObjectMethod(primitive->wrapperClass, primitive->valueOf, value);
+            }
+            break;
+        }
+
+    case 'J': {
+            jlong value = env->CallLongMethodA(jobj, mid, values);
+            if (!env->ExceptionCheck()) {
+                jreply = env->CallStaticObjectMethod(primitive->wrapperClass, primitive->valueOf, value);
+            }
+            break;
+        }
+
+    case 'F': {
+            jfloat value = env->CallFloatMethodA(jobj, mid, values);
+            if (!env->ExceptionCheck()) {
+                jreply = env->CallStaticObjectMethod(primitive->wrapperClass, primitive->valueOf, value);
+            }
+            break;
+        }
+
+    case 'D': {
+            jdouble value = env->CallDoubleMethodA(jobj, mid, values);
+            if (!env->ExceptionCheck()) {
+                jreply = env->CallStaticObjectMethod(primitive->wrapperClass, primitive->valueOf, value);
+            }
+            break;
+        }
+    }
+
+    if (env->ExceptionCheck()) {
+        jreply = NULL;
+    }
+    return env->PopLocalFrame(jreply);
+}
+
 /**
  * Construct a representation of a string with wrapped StringUTFChars.
  *
@@ -1720,16 +2203,24 @@ class JBusObject : public BusObject {
     void ObjectRegistered();
     void ObjectUnregistered();
     void SetDescriptions(jstring jlangTag, jstring jdescription, jobject jtranslator);
+
+    /*
+     * The number of signal batches sending from the object without holding
+     * the lock of its bus object map shard, and whether the object must be
+     * deleted once the last of them is done.  Both are guarded by that lock.
+     */
+    uint32_t pins;
+    bool orphaned;
   private:
     JBusObject(const JBusObject& other);
     JBusObject& operator =(const JBusObject& other);
 
     struct Property {
         String signature;
-        jobject jget;
-        jobject jset;
+        JMethodInvoker get;
+        JMethodInvoker set;
     };
-    typedef map<String, jobject> JMethod;
+    typedef map<String, JMethodInvoker> JMethod;
     typedef map<String, Property> JProperty;
     jobject jbusObj;
     jmethodID MID_generateIntrospection;
@@ -1737,6 +2228,12 @@ class JBusObject : public BusObject {
     jmethodID MID_registered;
     jmethodID MID_unregistered;
 
+    /*
+     * The methods and properties are filled in by AddInterfaces() before the
+     * object is registered with AllJoyn, and only released by the destructor
+     * after it has been unregistered.  While calls can flow in they are never
+     * modified, so the handlers look them up without taking mapLock.
+     */
     JMethod methods;
     JProperty properties;
     Mutex mapLock;
@@ -1765,14 +2262,100 @@ class JBusObject : public BusObject {
  * This is a different use case than a smart pointer, so once again, instead of
  * (mis) using the ManagedObj in another strange way, we just provide a
  * non-intrusive reference count here.
+ *
+ * Every bus attachment in the process shares the map, so it is split into
+ * shards selected by the identity hash code of the Java object, each with its
+ * own lock.  Bus attachments working on different bus objects rarely contend,
+ * and within a shard the objects are indexed by identity hash code so that
+ * only objects with colliding hash codes have to be compared with
+ * IsSameObject.
  */
-map<jobject, pair<uint32_t, JBusObject*> > gBusObjectMap;
-Mutex gBusObjectMapLock;
+struct BusObjectEntry {
+    jobject jbusObject;
+    uint32_t refCount;
+    JBusObject* cppObject;
+};
+
+struct BusObjectShard {
+    Mutex lock;
+    multimap<jint, BusObjectEntry> entries;
+};
+
+static const size_t BUS_OBJECT_MAP_SHARDS = 64;
+static BusObjectShard gBusObjectMap[BUS_OBJECT_MAP_SHARDS];
 
 /**
- * This function takes a Java Bus Object and a newly created C++ backing
- * object and creates an entry in a global structure to establish the
- * relationship between the two.
+ * Get the identity hash code of a Java object, which is stable for the
+ * lifetime of the object regardless of the reference used to reach it.
+ */
+static jint IdentityHashCode(jobject jobj)
+{
+    return GetEnv()->CallStaticIntMethod(CLS_System, MID_System_identityHashCode, jobj);
+}
+
+static BusObjectShard& GetBusObjectShard(jint hash)
+{
+    uint32_t h = (uint32_t)hash;
+    return gBusObjectMap[(h ^ (h >> 16)) % BUS_OBJECT_MAP_SHARDS];
+}
+
+/**
+ * Get the lock guarding the part of the gBusObjectMap a Java Bus Object lives
+ * in.  This must be held while calling any of the functions below for that
+ * object.
+ */
+Mutex& GetBusObjectMapLock(jobject jbusObject)
+{
+    return GetBusObjectShard(IdentityHashCode(jbusObject)).lock;
+}
+
+/**
+ * Take the locks of all of the shards of the gBusObjectMap, for operations
+ * that need to keep every bus object in place.  The shard locks are always
+ * taken in the same order, so this may be mixed with taking the lock of a
+ * single shard.  As with a single shard, the bus attachment lock must only be
+ * taken after this.
+ */
+void LockBusObjectMap()
+{
+    for (size_t i = 0; i < BUS_OBJECT_MAP_SHARDS; ++i) {
+        gBusObjectMap[i].lock.Lock();
+    }
+}
+
+void UnlockBusObjectMap()
+{
+    for (size_t i = BUS_OBJECT_MAP_SHARDS; i > 0; --i) {
+        gBusObjectMap[i - 1].lock.Unlock();
+    }
+}
+
+/**
+ * Find the entry of a Java Bus Object in the gBusObjectMap.  The lock of its
+ * shard must be held.
+ */
+static BusObjectEntry* FindBusObjectEntry(jobject javaObject, multimap<jint, BusObjectEntry>::iterator* it = NULL)
+{
+    JNIEnv* env = GetEnv();
+    jint hash = IdentityHashCode(javaObject);
+    multimap<jint, BusObjectEntry>& entries = GetBusObjectShard(hash).entries;
+
+    pair<multimap<jint, BusObjectEntry>::iterator, multimap<jint, BusObjectEntry>::iterator> range = entries.equal_range(hash);
+    for (multimap<jint, BusObjectEntry>::iterator i = range.first; i != range.second; ++i) {
+        if (env->IsSameObject(javaObject, i->second.jbusObject)) {
+            if (it) {
+                *it = i;
+            }
+            return &i->second;
+        }
+    }
+    return NULL;
+}
+
+/**
+ * This function takes a Java Bus Object and a newly created C++ backing
+ * object and creates an entry in a global structure to establish the
+ * relationship between the two.
  *
  * Whevever a Java Bus Listener is registered with a Bus Attachment, a
  * corresponding C++ object must be created to form the plumbing between
@@ -1798,21 +2381,25 @@ Mutex gBusObjectMapLock;
  * Note that the lock on the underlying map is not taken in this and other
  * associated functions.  This is because, in most cases, atomicity must be
  * ensured across several calls that access the underlying map.  Therefore it is
- * the responsibility of the calling code to acquire the lock (i.e. call
- * gBusObjectMapLock.Lock) before calling any of the functions which access the
- * gBusObjectMap.
+ * the responsibility of the calling code to acquire the lock of the shard the
+ * Java object lives in (i.e. call GetBusObjectMapLock(javaObject).Lock) before
+ * calling any of the functions which access the gBusObjectMap.
  */
 void NewRefBackingObject(jobject javaObject, JBusObject* cppObject)
 {
     QCC_DbgPrintf(("NewRefBackingObject(%p, %p)", javaObject, cppObject));
 
-    map<jobject, pair<uint32_t, JBusObject*> >::iterator i = gBusObjectMap.find(javaObject);
-    if (i != gBusObjectMap.end()) {
+    if (FindBusObjectEntry(javaObject)) {
         QCC_LogError(ER_FAIL, ("NewRefBackingObject(): Mapping already established for Bus Object %p", javaObject));
         return;
     }
 
-    gBusObjectMap[javaObject] = make_pair((uint32_t)1, (JBusObject*)cppObject);
+    jint hash = IdentityHashCode(javaObject);
+    BusObjectEntry entry;
+    entry.jbusObject = javaObject;
+    entry.refCount = 1;
+    entry.cppObject = cppObject;
+    GetBusObjectShard(hash).entries.insert(make_pair(hash, entry));
 }
 
 /**
@@ -1842,24 +2429,19 @@ void NewRefBackingObject(jobject javaObject, JBusObject* cppObject)
  * Note that the lock on the underlying map is not taken in this and other
  * associated functions.  This is because, in most cases, atomicity must be
  * ensured across several calls that access the underlying map.  Therefore it is
- * the responsibility of the calling code to acquire the lock (i.e. call
- * gBusObjectMapLock.Lock) before calling any of the functions which access the
- * gBusObjectMap.
+ * the responsibility of the calling code to acquire the lock of the shard the
+ * Java object lives in (i.e. call GetBusObjectMapLock(javaObject).Lock) before
+ * calling any of the functions which access the gBusObjectMap.
  */
 void IncRefBackingObject(jobject javaObject)
 {
     QCC_DbgPrintf(("IncRefBackingObject()"));
 
-    JNIEnv* env = GetEnv();
-
-    for (map<jobject, pair<uint32_t, JBusObject*> >::iterator i = gBusObjectMap.begin(); i != gBusObjectMap.end(); ++i) {
-        if (env->IsSameObject(javaObject, i->first)) {
-            QCC_DbgPrintf(("IncRefBackingObject(): Found mapping for Java Bus Object %p.", javaObject));
-            uint32_t refCount = i->second.first + 1;
-            JBusObject* cppObject = i->second.second;
-            gBusObjectMap[javaObject] = make_pair((uint32_t)refCount, (JBusObject*) cppObject);
-            return;
-        }
+    BusObjectEntry* entry = FindBusObjectEntry(javaObject);
+    if (entry) {
+        QCC_DbgPrintf(("IncRefBackingObject(): Found mapping for Java Bus Object %p.", javaObject));
+        ++entry->refCount;
+        return;
     }
 
     QCC_LogError(ER_FAIL, ("IncRefBackingObject(): No mapping exists for Java Bus Object %p", javaObject));
@@ -1895,32 +2477,27 @@ void IncRefBackingObject(jobject javaObject)
  * Note that the lock on the underlying map is not taken in this and other
  * associated functions.  This is because, in most cases, atomicity must be
  * ensured across several calls that access the underlying map.  Therefore it is
- * the responsibility of the calling code to acquire the lock (i.e. call
- * gBusObjectMapLock.Lock) before calling any of the functions which access the
- * gBusObjectMap.
+ * the responsibility of the calling code to acquire the lock of the shard the
+ * Java object lives in (i.e. call GetBusObjectMapLock(javaObject).Lock) before
+ * calling any of the functions which access the gBusObjectMap.
  */
 JBusObject* DecRefBackingObject(jobject javaObject)
 {
     QCC_DbgPrintf(("DecRefBackingObject(%p)", javaObject));
 
-    JNIEnv* env = GetEnv();
-
-    for (map<jobject, pair<uint32_t, JBusObject*> >::iterator i = gBusObjectMap.begin(); i != gBusObjectMap.end(); ++i) {
-        QCC_DbgPrintf(("DecRefBackingObject(%p): trying %p", javaObject, i->first));
-        if (env->IsSameObject(javaObject, i->first)) {
-            QCC_DbgPrintf(("IncRefBackingObject(): Found mapping for Java Bus Object %p.", javaObject));
-            JBusObject* cppObject = i->second.second;
-            uint32_t refCount = i->second.first - 1;
-            if (refCount) {
-                QCC_DbgPrintf(("DecRefBackingObject(): More references to %p.", javaObject));
-                gBusObjectMap[javaObject] = make_pair((uint32_t)refCount, (JBusObject*)cppObject);
-                cppObject = NULL;
-            } else {
-                QCC_DbgPrintf(("DecRefBackingObject(): Last reference to %p.", javaObject));
-                gBusObjectMap.erase(i);
-            }
-            return cppObject;
+    multimap<jint, BusObjectEntry>::iterator i;
+    BusObjectEntry* entry = FindBusObjectEntry(javaObject, &i);
+    if (entry) {
+        QCC_DbgPrintf(("DecRefBackingObject(): Found mapping for Java Bus Object %p.", javaObject));
+        JBusObject* cppObject = entry->cppObject;
+        if (--entry->refCount) {
+            QCC_DbgPrintf(("DecRefBackingObject(): More references to %p.", javaObject));
+            cppObject = NULL;
+        } else {
+            QCC_DbgPrintf(("DecRefBackingObject(): Last reference to %p.", javaObject));
+            GetBusObjectShard(i->first).entries.erase(i);
         }
+        return cppObject;
     }
 
     QCC_LogError(ER_FAIL, ("DecRefBackingObject(): No mapping exists for Java Bus Object %p", javaObject));
@@ -1935,27 +2512,74 @@ JBusObject* DecRefBackingObject(jobject javaObject)
  * Note that the lock on the underlying map is not taken in this and other
  * associated functions.  This is because, in most cases, atomicity must be
  * ensured across several calls that access the underlying map.  Therefore it is
- * the responsibility of the calling code to acquire the lock (i.e. call
- * gBusObjectMapLock.Lock) before calling any of the functions which access the
- * gBusObjectMap.
+ * the responsibility of the calling code to acquire the lock of the shard the
+ * Java object lives in (i.e. call GetBusObjectMapLock(javaObject).Lock) before
+ * calling any of the functions which access the gBusObjectMap.
  */
 JBusObject* GetBackingObject(jobject jbusObject)
 {
     QCC_DbgPrintf(("GetBackingObject(%p)", jbusObject));
 
-    JNIEnv* env = GetEnv();
-
-    for (map<jobject, pair<uint32_t, JBusObject*> >::iterator i = gBusObjectMap.begin(); i != gBusObjectMap.end(); ++i) {
-        if (env->IsSameObject(jbusObject, i->first)) {
-            QCC_DbgPrintf(("GetBackingObject(): Found mapping for Java Bus Object %p.", jbusObject));
-            return i->second.second;
-        }
+    BusObjectEntry* entry = FindBusObjectEntry(jbusObject);
+    if (entry) {
+        QCC_DbgPrintf(("GetBackingObject(): Found mapping for Java Bus Object %p.", jbusObject));
+        return entry->cppObject;
     }
 
     QCC_DbgPrintf(("GetBackingObject(): No mapping exists for Java Bus Object %p.", jbusObject));
     return NULL;
 }
 
+/**
+ * Delete a C++ backing object that DecRefBackingObject handed back to the
+ * caller.  If a signal batch is still sending from the object the deletion
+ * is left to UnpinBackingObject.
+ *
+ * The lock of the shard the Java object lives in must be held.
+ */
+void DeleteBackingObject(JBusObject* cppObject)
+{
+    QCC_DbgPrintf(("DeleteBackingObject(%p)", cppObject));
+
+    if (cppObject->pins) {
+        QCC_DbgPrintf(("DeleteBackingObject(): %p is pinned, deferring", cppObject));
+        cppObject->orphaned = true;
+        return;
+    }
+    delete cppObject;
+}
+
+/**
+ * Keep the C++ backing object of a Java Bus Object from being deleted after
+ * the lock of its shard is released, so that a long running call such as
+ * sending a batch of signals does not block every other object in the shard.
+ * Returns NULL if there is no backing object.
+ *
+ * The lock of the shard the Java object lives in must be held.
+ */
+JBusObject* PinBackingObject(jobject jbusObject)
+{
+    JBusObject* cppObject = GetBackingObject(jbusObject);
+    if (cppObject) {
+        ++cppObject->pins;
+    }
+    return cppObject;
+}
+
+/**
+ * Release a C++ backing object pinned by PinBackingObject, deleting it if it
+ * was unregistered in the meantime.
+ *
+ * The lock of the shard the Java object lives in must be held.
+ */
+void UnpinBackingObject(JBusObject* cppObject)
+{
+    if (--cppObject->pins == 0 && cppObject->orphaned) {
+        QCC_DbgPrintf(("UnpinBackingObject(): deleting orphaned %p", cppObject));
+        delete cppObject;
+    }
+}
+
 /**
  * Given a Java object that someone is claiming has been registered as a bus
  * object with a bus attachment; return the corresponding strong reference to it
@@ -1965,13 +2589,10 @@ jobject GetGlobalRefForObject(jobject jbusObject)
 {
     QCC_DbgPrintf(("GetGlobalRefForObject(%p)", jbusObject));
 
-    JNIEnv* env = GetEnv();
-
-    for (map<jobject, pair<uint32_t, JBusObject*> >::iterator i = gBusObjectMap.begin(); i != gBusObjectMap.end(); ++i) {
-        if (env->IsSameObject(jbusObject, i->first)) {
-            QCC_DbgPrintf(("GetBackingObject(): Found global reference for Java Bus Object %p.", jbusObject));
-            return i->first;
-        }
+    BusObjectEntry* entry = FindBusObjectEntry(jbusObject);
+    if (entry) {
+        QCC_DbgPrintf(("GetBackingObject(): Found global reference for Java Bus Object %p.", jbusObject));
+        return entry->jbusObject;
     }
 
     QCC_DbgPrintf(("GetBackingObject(): No mapping exists for Java Bus Object %p.", jbusObject));
@@ -2074,48 +2695,91 @@ class JTranslator : public Translator {
  * some gyrations here to keep the Message info straight, and we do have some
  * additional API with respect to the C++ version.
  *
- * TODO:
- * Message map is a global.  Why?
+ * The innermost MessageContext of the current thread is kept in thread local
+ * storage, so callbacks running concurrently on different dispatcher threads
+ * never contend for it.  A MessageContext created while another is live on
+ * the same thread (a nested local call) hides the outer one until it is
+ * destroyed.
  */
 class MessageContext {
   public:
-    static Message GetMessage();
+    static const Message* GetMessage();
+    static void SetLendingArgs(bool lending);
+    static bool IsLendingArgs();
     MessageContext(const Message& msg);
     ~MessageContext();
   private:
     MessageContext(const MessageContext& other);
     MessageContext& operator =(const MessageContext& other);
+
+    static MessageContext* GetCurrent();
+    static void SetCurrent(MessageContext* context);
+
+    Message msg;
+    MessageContext* outer;
+    bool lendingArgs;
 };
 
-map<Thread*, Message> gMessageMap;
-Mutex gMessageMapLock;
+#if defined(QCC_OS_GROUP_WINDOWS)
+MessageContext* MessageContext::GetCurrent()
+{
+    return static_cast<MessageContext*>(TlsGetValue(gMessageContextKey));
+}
+
+void MessageContext::SetCurrent(MessageContext* context)
+{
+    TlsSetValue(gMessageContextKey, context);
+}
+#else
+MessageContext* MessageContext::GetCurrent()
+{
+    return static_cast<MessageContext*>(pthread_getspecific(gMessageContextKey));
+}
+
+void MessageContext::SetCurrent(MessageContext* context)
+{
+    pthread_setspecific(gMessageContextKey, context);
+}
+#endif
 
-Message MessageContext::GetMessage()
+const Message* MessageContext::GetMessage()
 {
     QCC_DbgPrintf(("MessageContext::GetMessage()"));
-    gMessageMapLock.Lock();
-    map<Thread*, Message>::iterator it = gMessageMap.find(Thread::GetThread());
-    QCC_ASSERT(gMessageMap.end() != it);
-    Message m = it->second;
-    gMessageMapLock.Unlock();
-    return m;
+    MessageContext* context = GetCurrent();
+    return context ? &context->msg : NULL;
+}
+
+/**
+ * Mark whether the arguments of the current message are being unmarshalled
+ * for a handler that accepts lent byte arrays, in which case they may be lent
+ * to Java by reference since the message outlives the handler.  Set from Java
+ * only for handlers annotated with LendByteBuffers.
+ */
+void MessageContext::SetLendingArgs(bool lending)
+{
+    MessageContext* context = GetCurrent();
+    if (context) {
+        context->lendingArgs = lending;
+    }
+}
+
+bool MessageContext::IsLendingArgs()
+{
+    MessageContext* context = GetCurrent();
+    return context && context->lendingArgs;
 }
 
 MessageContext::MessageContext(const Message& msg)
+    : msg(msg), outer(GetCurrent()), lendingArgs(false)
 {
     QCC_DbgPrintf(("MessageContext::MessageContext()"));
-    gMessageMapLock.Lock();
-    gMessageMap.insert(pair<Thread*, Message>(Thread::GetThread(), msg));
-    gMessageMapLock.Unlock();
+    SetCurrent(this);
 }
 
 MessageContext::~MessageContext()
 {
     QCC_DbgPrintf(("MessageContext::~MessageContext()"));
-    gMessageMapLock.Lock();
-    map<Thread*, Message>::iterator it = gMessageMap.find(Thread::GetThread());
-    gMessageMap.erase(it);
-    gMessageMapLock.Unlock();
+    SetCurrent(outer);
 }
 
 /**
@@ -3979,13 +4643,13 @@ void JBusAttachment::Disconnect()
      * We need to be able to access objects in both the global bus object map
      * and the bus attachment in a critical section.  Since we have multiple
      * threads accessing multiple critical sections, lock order is important.
-     * We always acquire the global lock first and then the bus attachment lock
-     * and we always release the bus attachment lock first and then the global
-     * object lock.  This must be done wherever these two lock objects are used
-     * to avoid deadlock.
+     * We always acquire the bus object map lock first and then the bus
+     * attachment lock and we always release the bus attachment lock first and
+     * then the bus object map lock.  This must be done wherever these two lock
+     * objects are used to avoid deadlock.
      */
-    QCC_DbgPrintf(("JBusAttachment::Disconnect(): Taking global Bus Object map lock"));
-    gBusObjectMapLock.Lock();
+    QCC_DbgPrintf(("JBusAttachment::Disconnect(): Taking Bus Object map locks"));
+    LockBusObjectMap();
 
     QCC_DbgPrintf(("JBusAttachment::Disconnect(): Taking Bus Attachment common lock"));
     baCommonLock.Lock();
@@ -3999,7 +4663,7 @@ void JBusAttachment::Disconnect()
         if (env->ExceptionCheck()) {
             QCC_LogError(ER_FAIL, ("JBusAttachment::Disconnect(): Exception"));
             baCommonLock.Unlock();
-            gBusObjectMapLock.Unlock();
+            UnlockBusObjectMap();
             return;
         }
         QCC_DbgPrintf(("JBusAttachment::Disconnect(): Call UnregisterBusListener()"));
@@ -4125,8 +4789,8 @@ void JBusAttachment::Disconnect()
     QCC_DbgPrintf(("JBusAttachment::Disconnect(): Releasing Bus Attachment common lock"));
     baCommonLock.Unlock();
 
-    QCC_DbgPrintf(("JBusAttachment::Disconnect(): Releasing global Bus Object map lock"));
-    gBusObjectMapLock.Unlock();
+    QCC_DbgPrintf(("JBusAttachment::Disconnect(): Releasing Bus Object map locks"));
+    UnlockBusObjectMap();
 
 }
 
@@ -4290,27 +4954,192 @@ QStatus JBusAttachment::RegisterBusObject(const char* objPath, jobject jbusObjec
      * We need to be able to access objects in both the global bus object map
      * and the bus attachment in a critical section.  Since we have multiple
      * threads accessing multiple critical sections, lock order is important.
-     * We always acquire the global lock first and then the bus attachment lock
-     * and we always release the bus attachment lock first and then the global
-     * object lock.  This must be done wherever these two lock objects are used
-     * to avoid deadlock.
+     * We always acquire the bus object map lock first and then the bus
+     * attachment lock and we always release the bus attachment lock first and
+     * then the bus object map lock.  This must be done wherever these two lock
+     * objects are used to avoid deadlock.
      */
-    QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Taking global Bus Object map lock"));
-    gBusObjectMapLock.Lock();
+    QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Taking Bus Object map lock"));
+    Mutex& busObjectMapLock = GetBusObjectMapLock(jbusObject);
+    busObjectMapLock.Lock();
 
     QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Taking Bus Attachment common lock"));
     baCommonLock.Lock();
 
+    QStatus status = RegisterBusObjectLocked(objPath, jbusObject, jbusInterfaces, jsecure, jlangTag, jdesc, jtranslator);
+
+    /*
+     * We've completed the registration process of the bus object to the Bus Attachment.
+     * Release our hold on the shared resources, remembering to reverse the lock order.
+     */
+    QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Releasing Bus Attachment common lock"));
+    baCommonLock.Unlock();
+
+    QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Releasing Bus Object map lock"));
+    busObjectMapLock.Unlock();
+    return status;
+}
+
+QStatus JBusAttachment::RegisterBusObjects(jobjectArray jobjPaths, jobjectArray jbusObjects,
+                                           jobjectArray jbusInterfaces, jboolean jsecure)
+{
+    QCC_DbgPrintf(("JBusAttachment::RegisterBusObjects()"));
+
+    JNIEnv* env = GetEnv();
+    jsize count = env->GetArrayLength(jbusObjects);
+
+    /*
+     * The whole batch is registered under a single acquisition of the bus
+     * object map locks and the bus attachment lock, in the usual lock order.
+     */
+    QCC_DbgPrintf(("JBusAttachment::RegisterBusObjects(): Taking Bus Object map locks"));
+    LockBusObjectMap();
+
+    QCC_DbgPrintf(("JBusAttachment::RegisterBusObjects(): Taking Bus Attachment common lock"));
+    baCommonLock.Lock();
+
+    QStatus status = ER_OK;
+    jsize registered = 0;
+    for (; registered < count; ++registered) {
+        JLocalRef<jstring> jobjPath = (jstring)GetObjectArrayElement(env, jobjPaths, registered);
+        JLocalRef<jobject> jbusObject = GetObjectArrayElement(env, jbusObjects, registered);
+        JLocalRef<jobjectArray> jinterfaces = (jobjectArray)GetObjectArrayElement(env, jbusInterfaces, registered);
+        if (env->ExceptionCheck()) {
+            status = ER_FAIL;
+            break;
+        }
+
+        JString objPath(jobjPath);
+        if (env->ExceptionCheck()) {
+            status = ER_FAIL;
+            break;
+        }
+
+        status = RegisterBusObjectLocked(objPath.c_str(), jbusObject, jinterfaces, jsecure, NULL, NULL, NULL);
+        if (status != ER_OK) {
+            QCC_LogError(status, ("JBusAttachment::RegisterBusObjects(): Cannot register %s", objPath.c_str()));
+            break;
+        }
+    }
+
+    if (status != ER_OK) {
+        /*
+         * The batch is registered as a whole or not at all, so take back the
+         * objects registered so far, children first.  A pending exception
+         * has to be set aside while we make the JNI calls needed for that.
+         */
+        JLocalRef<jthrowable> jexception = env->ExceptionOccurred();
+        env->ExceptionClear();
+
+        while (registered > 0) {
+            JLocalRef<jobject> jbusObject = GetObjectArrayElement(env, jbusObjects, --registered);
+            if (env->ExceptionCheck()) {
+                env->ExceptionClear();
+                continue;
+            }
+            UnregisterBusObjectLocked(jbusObject);
+        }
+
+        if (jexception) {
+            env->Throw(jexception);
+        }
+    }
+
+    QCC_DbgPrintf(("JBusAttachment::RegisterBusObjects(): Releasing Bus Attachment common lock"));
+    baCommonLock.Unlock();
+
+    QCC_DbgPrintf(("JBusAttachment::RegisterBusObjects(): Releasing Bus Object map locks"));
+    UnlockBusObjectMap();
+    return status;
+}
+
+void JBusAttachment::UnregisterBusObject(jobject jbusObject)
+{
+    QCC_DbgPrintf(("JBusAttachment::UnregisterBusObject(%p)", jbusObject));
+
+    /*
+     * We need to be able to access objects in both the global bus object map
+     * and the bus attachment in a critical section.  Since we have multiple
+     * threads accessing multiple critical sections, lock order is important.
+     * We always acquire the bus object map lock first and then the bus
+     * attachment lock and we always release the bus attachment lock first and
+     * then the bus object map lock.  This must be done wherever these two lock
+     * objects are used to avoid deadlock.
+     */
+    QCC_DbgPrintf(("JBusAttachment::UnregisterBusObject(): Taking Bus Object map lock"));
+    Mutex& busObjectMapLock = GetBusObjectMapLock(jbusObject);
+    busObjectMapLock.Lock();
+
+    QCC_DbgPrintf(("JBusAttachment::UnregisterBusObject(): Taking Bus Attachment common lock"));
+    baCommonLock.Lock();
+
+    UnregisterBusObjectLocked(jbusObject);
+
+    /*
+     * Release our hold on the shared resources, remembering to reverse the
+     * lock order.
+     */
+    QCC_DbgPrintf(("JBusAttachment::UnregisterBusObject(): Releasing Bus Attachment common lock"));
+    baCommonLock.Unlock();
+
+    QCC_DbgPrintf(("JBusAttachment::UnregisterBusObject(): Releasing Bus Object map lock"));
+    busObjectMapLock.Unlock();
+}
+
+void JBusAttachment::UnregisterBusObjects(jobjectArray jbusObjects)
+{
+    QCC_DbgPrintf(("JBusAttachment::UnregisterBusObjects()"));
+
+    JNIEnv* env = GetEnv();
+    jsize count = env->GetArrayLength(jbusObjects);
+
+    QCC_DbgPrintf(("JBusAttachment::UnregisterBusObjects(): Taking Bus Object map locks"));
+    LockBusObjectMap();
+
+    QCC_DbgPrintf(("JBusAttachment::UnregisterBusObjects(): Taking Bus Attachment common lock"));
+    baCommonLock.Lock();
+
+    /*
+     * Unregistering a parent also unregisters its children in AllJoyn, so
+     * take the objects down deepest path first.
+     */
+    vector<pair<qcc::String, jsize> > objects;
+    for (jsize i = 0; i < count; ++i) {
+        JLocalRef<jobject> jbusObject = GetObjectArrayElement(env, jbusObjects, i);
+        if (env->ExceptionCheck()) {
+            break;
+        }
+        JBusObject* cppObject = IsLocalBusObject(jbusObject) ? GetBackingObject(jbusObject) : NULL;
+        objects.push_back(make_pair(qcc::String(cppObject ? cppObject->GetPath() : ""), i));
+    }
+    sort(objects.begin(), objects.end());
+
+    for (vector<pair<qcc::String, jsize> >::reverse_iterator i = objects.rbegin(); i != objects.rend(); ++i) {
+        JLocalRef<jobject> jbusObject = GetObjectArrayElement(env, jbusObjects, i->second);
+        if (env->ExceptionCheck()) {
+            break;
+        }
+        UnregisterBusObjectLocked(jbusObject);
+    }
+
+    QCC_DbgPrintf(("JBusAttachment::UnregisterBusObjects(): Releasing Bus Attachment common lock"));
+    baCommonLock.Unlock();
+
+    QCC_DbgPrintf(("JBusAttachment::UnregisterBusObjects(): Releasing Bus Object map locks"));
+    UnlockBusObjectMap();
+}
+
+QStatus JBusAttachment::RegisterBusObjectLocked(const char* objPath, jobject jbusObject,
+                                                jobjectArray jbusInterfaces, jboolean jsecure,
+                                                jstring jlangTag, jstring jdesc, jobject jtranslator)
+{
+    QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(%p)", jbusObject));
+
     /*
      * It is a programming error to register any bus object with a given bus
      * attachment multiple times.
      */
     if (IsLocalBusObject(jbusObject)) {
-        QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Releasing Bus Attachment common lock"));
-        baCommonLock.Unlock();
-
-        QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Releasing global Bus Object map lock"));
-        gBusObjectMapLock.Unlock();
         return ER_BUS_OBJ_ALREADY_EXISTS;
     }
 
@@ -4323,11 +5152,6 @@ QStatus JBusAttachment::RegisterBusObject(const char* objPath, jobject jbusObjec
     QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Taking strong global reference to BusObject %p", jbusObject));
     jobject jglobalref = env->NewGlobalRef(jbusObject);
     if (!jglobalref) {
-        QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Releasing Bus Attachment common lock"));
-        baCommonLock.Unlock();
-
-        QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Releasing global Bus Object map lock"));
-        gBusObjectMapLock.Unlock();
         return ER_FAIL;
     }
 
@@ -4350,16 +5174,6 @@ QStatus JBusAttachment::RegisterBusObject(const char* objPath, jobject jbusObjec
          */
         QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Forgetting jglobalref"));
         env->DeleteGlobalRef(jglobalref);
-
-        /*
-         * Release our hold on the shared resources, remembering to reverse the
-         * lock order.
-         */
-        QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Releasing Bus Attachment common lock"));
-        baCommonLock.Unlock();
-
-        QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Releasing global Bus Object map lock"));
-        gBusObjectMapLock.Unlock();
         return ER_BUS_OBJ_ALREADY_EXISTS;
     } else {
         busObject = new JBusObject(this, objPath, jglobalref);
@@ -4367,11 +5181,6 @@ QStatus JBusAttachment::RegisterBusObject(const char* objPath, jobject jbusObjec
         busObject->SetDescriptions(jlangTag, jdesc, jtranslator);
         if (env->ExceptionCheck()) {
             delete busObject;
-            QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Releasing Bus Attachment common lock"));
-            baCommonLock.Unlock();
-
-            QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Releasing global Bus Object map lock"));
-            gBusObjectMapLock.Unlock();
             env->DeleteGlobalRef(jglobalref);
             return ER_FAIL;
         }
@@ -4396,7 +5205,7 @@ QStatus JBusAttachment::RegisterBusObject(const char* objPath, jobject jbusObjec
         QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): RegisterBusObject fails.  DecRefBackingObject on %p", jbusObject));
         JBusObject* cppObject = DecRefBackingObject(jglobalref);
         if (cppObject) {
-            delete cppObject;
+            DeleteBackingObject(cppObject);
             cppObject = NULL;
         }
 
@@ -4413,38 +5222,13 @@ QStatus JBusAttachment::RegisterBusObject(const char* objPath, jobject jbusObjec
          */
         busObjects.push_back(jglobalref);
     }
-
-    /*
-     * We've completed the registration process of the bus object to the Bus Attachment.
-     * Release our hold on the shared resources, remembering to reverse the lock order.
-     */
-    QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Releasing Bus Attachment common lock"));
-    baCommonLock.Unlock();
-
-    QCC_DbgPrintf(("JBusAttachment::RegisterBusObject(): Releasing global Bus Object map lock"));
-    gBusObjectMapLock.Unlock();
     return status;
 }
 
-void JBusAttachment::UnregisterBusObject(jobject jbusObject)
+void JBusAttachment::UnregisterBusObjectLocked(jobject jbusObject)
 {
     QCC_DbgPrintf(("JBusAttachment::UnregisterBusObject(%p)", jbusObject));
 
-    /*
-     * We need to be able to access objects in both the global bus object map
-     * and the bus attachment in a critical section.  Since we have multiple
-     * threads accessing multiple critical sections, lock order is important.
-     * We always acquire the global lock first and then the bus attachment lock
-     * and we always release the bus attachment lock first and then the global
-     * object lock.  This must be done wherever these two lock objects are used
-     * to avoid deadlock.
-     */
-    QCC_DbgPrintf(("JBusAttachment::UnregisterBusObject(): Taking global Bus Object map lock"));
-    gBusObjectMapLock.Lock();
-
-    QCC_DbgPrintf(("JBusAttachment::UnregisterBusObject(): Releasing Bus Attachment common lock"));
-    baCommonLock.Lock();
-
     /*
      * It is a programming error to 1) register a Bus Object on one Bus
      * Attachment and unregister it on another; 2) unregister a Bus Object that
@@ -4455,22 +5239,12 @@ void JBusAttachment::UnregisterBusObject(jobject jbusObject)
      * Attachment.
      */
     if (!IsLocalBusObject(jbusObject)) {
-        QCC_DbgPrintf(("JBusAttachment::UnregisterBusObject(): Releasing Bus Attachment common lock"));
-        baCommonLock.Unlock();
-
-        QCC_DbgPrintf(("JBusAttachment::UnregisterBusObject(): Releasing global Bus Object map lock"));
-        gBusObjectMapLock.Unlock();
         QCC_LogError(ER_BUS_OBJ_NOT_FOUND, ("JBusAttachment::UnregisterBusObject(): No existing Java Bus Object"));
         return;
     }
 
     JBusObject* cppObject = GetBackingObject(jbusObject);
     if (cppObject == NULL) {
-        QCC_DbgPrintf(("JBusAttachment::UnregisterBusObject(): Releasing Bus Attachment common lock"));
-        baCommonLock.Unlock();
-
-        QCC_DbgPrintf(("JBusAttachment::UnregisterBusObject(): Releasing global Bus Object map lock"));
-        gBusObjectMapLock.Unlock();
         QCC_LogError(ER_BUS_OBJ_NOT_FOUND, ("JBusAttachment::UnregisterBusObject(): No existing Backing Object"));
         return;
     }
@@ -4504,7 +5278,7 @@ void JBusAttachment::UnregisterBusObject(jobject jbusObject)
          * about.
          */
         QCC_ASSERT(cppObjectToDelete == cppObject);
-        delete cppObject;
+        DeleteBackingObject(cppObject);
         cppObject = NULL;
     }
 
@@ -4522,18 +5296,6 @@ void JBusAttachment::UnregisterBusObject(jobject jbusObject)
      */
     QCC_DbgPrintf(("JBusAttachment::UnregisterBusObject(): Deleting global reference to  %p", jo));
     GetEnv()->DeleteGlobalRef(jo);
-
-    /*
-     * We've successfully arranged for our AllJoyn Bus Attachment to stop using
-     * the provided Bus Object.  Release our hold on the shared resources,
-     * remembering to reverse the lock order.
-     */
-    QCC_DbgPrintf(("JBusAttachment::UnregisterBusObject(): Releasing Bus Attachment common lock"));
-    baCommonLock.Unlock();
-
-    QCC_DbgPrintf(("JBusAttachment::UnregisterBusObject(): Releasing global Bus Object map lock"));
-    gBusObjectMapLock.Unlock();
-    return;
 }
 
 template <typename T>
@@ -4696,13 +5458,13 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_BusAttachment_emitChangedSignal(
         return;
     }
 
-    //ScopedMutexLock guard(gBusObjectMapLock);
-    gBusObjectMapLock.Lock();
+    Mutex& busObjectMapLock = GetBusObjectMapLock(jbusObject);
+    busObjectMapLock.Lock();
     JBusObject* busObject = GetBackingObject(jbusObject);
 
     if (!busObject) {
-        QCC_DbgPrintf(("BusAttachment_emitChangedSignal(): Releasing global Bus Object map lock"));
-        gBusObjectMapLock.Unlock();
+        QCC_DbgPrintf(("BusAttachment_emitChangedSignal(): Releasing Bus Object map lock"));
+        busObjectMapLock.Unlock();
         QCC_LogError(ER_FAIL, ("BusAttachment_emitChangedSignal(): Exception"));
         env->ThrowNew(CLS_BusException, QCC_StatusText(ER_BUS_NO_SUCH_OBJECT));
         return;
@@ -4724,8 +5486,8 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_BusAttachment_emitChangedSignal(
         busObject->EmitPropChanged(ifaceName.c_str(), propName.c_str(), (arg ? *arg : value), sessionId);
     }
 
-    gBusObjectMapLock.Unlock();
-    QCC_DbgPrintf(("BusAttachment_emitChangedSignal(): Releasing global Bus Object map lock"));
+    busObjectMapLock.Unlock();
+    QCC_DbgPrintf(("BusAttachment_emitChangedSignal(): Releasing Bus Object map lock"));
 }
 
 /**
@@ -4801,20 +5563,30 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_BusAttachment_destroy(JNIEnv* env,
          * the memory management responsibility for the associated C++ object.
          * This is a vestige of an obsolete idea, but we still need to do it.
          * We expect we will always have the memory management responsibility.
+         * The shard lock is only taken to coordinate with a SignalEmitter that
+         * may still be sending a batch of signals from the object.
          */
         QCC_DbgPrintf(("BusAttachment_destroy(): DecRefBackingObject on %p", *i));
+        Mutex& busObjectMapLock = GetBusObjectMapLock(*i);
+        busObjectMapLock.Lock();
         JBusObject* cppObject = DecRefBackingObject(*i);
         if (cppObject) {
             QCC_DbgPrintf(("BusAttachment_destroy(): deleting cppObject %p", cppObject));
-            delete cppObject;
+            DeleteBackingObject(cppObject);
             cppObject = NULL;
         }
+        busObjectMapLock.Unlock();
 
         QCC_DbgPrintf(("BusAttachment_destroy(): Releasing strong global reference to Bus Object %p", *i));
         env->DeleteGlobalRef(*i);
     }
     busPtr->busObjects.clear();
 
+    /*
+     * Replies to the asynchronous calls still in flight can no longer arrive.
+     */
+    ReleasePendingCalls(env, busPtr, NULL, "BusAttachment released");
+
     /*
      * We don't want to directly delete a reference counted object, we want to
      * decrement the refererence count.  As soon as this refcount goes to zero
@@ -5083,21 +5855,16 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_BusListener_create(JNIEnv* env, jobj
     }
 }
 
-JNIEXPORT void JNICALL Java_org_alljoyn_bus_BusListener_destroy(JNIEnv* env, jobject thiz)
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_BusListener_destroy(JNIEnv* env, jclass clazz, jlong jhandle)
 {
-    QCC_DbgPrintf(("BusListener_destroy()"));
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
 
-    JBusListener* jbl = GetHandle<JBusListener*>(thiz);
-    if (env->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("BusListener_destroy(): Exception"));
-        return;
-    }
+    QCC_DbgPrintf(("BusListener_destroy()"));
 
+    JBusListener* jbl = (JBusListener*)jhandle;
     QCC_ASSERT(jbl);
     delete jbl;
-
-    SetHandle(thiz, NULL);
-    return;
 }
 
 JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_BusAttachment_requestName(JNIEnv*env, jobject thiz,
@@ -5897,21 +6664,16 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_SessionPortListener_create(JNIEnv* e
     }
 }
 
-JNIEXPORT void JNICALL Java_org_alljoyn_bus_SessionPortListener_destroy(JNIEnv* env, jobject thiz)
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_SessionPortListener_destroy(JNIEnv* env, jclass clazz, jlong jhandle)
 {
-    QCC_DbgPrintf(("SessionPortListener_destroy()"));
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
 
-    JSessionPortListener* jspl = GetHandle<JSessionPortListener*>(thiz);
-    if (env->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("SessionPortListener_destroy(): Exception"));
-        return;
-    }
+    QCC_DbgPrintf(("SessionPortListener_destroy()"));
 
+    JSessionPortListener* jspl = (JSessionPortListener*)jhandle;
     QCC_ASSERT(jspl);
     delete jspl;
-
-    SetHandle(thiz, NULL);
-    return;
 }
 
 /**
@@ -6666,21 +7428,16 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_SessionListener_create(JNIEnv* env,
     }
 }
 
-JNIEXPORT void JNICALL Java_org_alljoyn_bus_SessionListener_destroy(JNIEnv* env, jobject thiz)
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_SessionListener_destroy(JNIEnv* env, jclass clazz, jlong jhandle)
 {
-    QCC_DbgPrintf(("SessionListener_destroy()"));
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
 
-    JSessionListener* jsl = GetHandle<JSessionListener*>(thiz);
-    if (env->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("SessionListener_destroy(): Exception"));
-        return;
-    }
+    QCC_DbgPrintf(("SessionListener_destroy()"));
 
+    JSessionListener* jsl = (JSessionListener*)jhandle;
     QCC_ASSERT(jsl);
     delete jsl;
-
-    SetHandle(thiz, NULL);
-    return;
 }
 
 JOnJoinSessionListener::JOnJoinSessionListener(jobject jonJoinSessionListener)
@@ -7189,21 +7946,16 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_OnJoinSessionListener_create(JNIEnv*
     }
 }
 
-JNIEXPORT void JNICALL Java_org_alljoyn_bus_OnJoinSessionListener_destroy(JNIEnv* env, jobject thiz)
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_OnJoinSessionListener_destroy(JNIEnv* env, jclass clazz, jlong jhandle)
 {
-    QCC_DbgPrintf(("OnJoinSessionListener_destroy()"));
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
 
-    JOnJoinSessionListener* jojsl = GetHandle<JOnJoinSessionListener*>(thiz);
-    if (env->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("OnJoinSessionListener_destroy(): Exception"));
-        return;
-    }
+    QCC_DbgPrintf(("OnJoinSessionListener_destroy()"));
 
+    JOnJoinSessionListener* jojsl = (JOnJoinSessionListener*)jhandle;
     QCC_ASSERT(jojsl);
     delete jojsl;
-
-    SetHandle(thiz, NULL);
-    return;
 }
 
 JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_BusAttachment_getSessionFd(JNIEnv* env, jobject thiz,
@@ -7825,21 +8577,16 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_OnPingListener_create(JNIEnv* env, j
     }
 }
 
-JNIEXPORT void JNICALL Java_org_alljoyn_bus_OnPingListener_destroy(JNIEnv* env, jobject thiz)
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_OnPingListener_destroy(JNIEnv* env, jclass clazz, jlong jhandle)
 {
-    QCC_DbgPrintf(("OnPingListener_destroy()"));
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
 
-    JOnPingListener* jopl = GetHandle<JOnPingListener*>(thiz);
-    if (env->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("OnPingListener_destroy(): Exception"));
-        return;
-    }
+    QCC_DbgPrintf(("OnPingListener_destroy()"));
 
+    JOnPingListener* jopl = (JOnPingListener*)jhandle;
     QCC_ASSERT(jopl);
     delete jopl;
-
-    SetHandle(thiz, NULL);
-    return;
 }
 
 JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_BusAttachment_setDaemonDebug(JNIEnv*env,
@@ -7938,6 +8685,31 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_BusAttachment_setDebugLevel(JNIEnv*e
     QCC_SetDebugLevel(module.c_str(), jlevel);
 }
 
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_BusAttachment_setPersistentThreadAttach(JNIEnv*env, jclass clazz, jboolean jpersistent)
+{
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
+
+    QCC_DbgPrintf(("BusAttachment_setPersistentThreadAttach(%d)", jpersistent));
+    gPersistentThreadAttach = (jpersistent == JNI_TRUE);
+}
+
+JNIEXPORT jint JNICALL Java_org_alljoyn_bus_BusAttachment_getThreadAttachCount(JNIEnv*env, jclass clazz)
+{
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
+
+    return gThreadAttachCount;
+}
+
+JNIEXPORT jint JNICALL Java_org_alljoyn_bus_BusAttachment_getThreadDetachCount(JNIEnv*env, jclass clazz)
+{
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
+
+    return gThreadDetachCount;
+}
+
 JNIEXPORT void JNICALL Java_org_alljoyn_bus_BusAttachment_useOSLogging(JNIEnv*env, jobject thiz, jboolean juseOSLog)
 {
     QCC_UNUSED(env);
@@ -7969,12 +8741,13 @@ JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_BusAttachment_setAnnounceFlag(JNI
     }
 
 
-    gBusObjectMapLock.Lock();
+    Mutex& busObjectMapLock = GetBusObjectMapLock(jbusObject);
+    busObjectMapLock.Lock();
     JBusObject* busObject = GetBackingObject(jbusObject);
 
     if (!busObject) {
-        QCC_DbgPrintf(("BusAttachment_setAnnounceFlag(): Releasing global Bus Object map lock"));
-        gBusObjectMapLock.Unlock();
+        QCC_DbgPrintf(("BusAttachment_setAnnounceFlag(): Releasing Bus Object map lock"));
+        busObjectMapLock.Unlock();
         QCC_LogError(ER_BUS_NO_SUCH_OBJECT, ("BusAttachment_setAnnounceFlag(): BusObject not found"));
         return JStatus(ER_BUS_NO_SUCH_OBJECT);
     }
@@ -7982,7 +8755,7 @@ JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_BusAttachment_setAnnounceFlag(JNI
     QStatus status = ER_OK;
     const InterfaceDescription* iface = busPtr->GetInterface(ifaceName.c_str());
     if (!iface) {
-        gBusObjectMapLock.Unlock();
+        busObjectMapLock.Unlock();
         return JStatus(ER_BUS_OBJECT_NO_SUCH_INTERFACE);
     }
     if (jisAnnounced) {
@@ -7993,8 +8766,8 @@ JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_BusAttachment_setAnnounceFlag(JNI
         status = busObject->SetAnnounceFlag(iface, BusObject::UNANNOUNCED);
     }
 
-    gBusObjectMapLock.Unlock();
-    QCC_DbgPrintf(("BusAttachment_setAnnounceFlag(): Releasing global Bus Object map lock"));
+    busObjectMapLock.Unlock();
+    QCC_DbgPrintf(("BusAttachment_setAnnounceFlag(): Releasing Bus Object map lock"));
     return JStatus(status);
 }
 
@@ -8152,8 +8925,8 @@ JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_BusAttachment_enablePeerSecurity(
  * JBusObject pair.
  */
 JBusObject::JBusObject(JBusAttachment* jbap, const char* path, jobject jobj)
-    : BusObject(path), jbusObj(NULL), MID_generateIntrospection(NULL), MID_generateIntrospectionWithDesc(NULL),
-    MID_registered(NULL), MID_unregistered(NULL), jtranslatorRef(NULL)
+    : BusObject(path), pins(0), orphaned(false), jbusObj(NULL), MID_generateIntrospection(NULL),
+    MID_generateIntrospectionWithDesc(NULL), MID_registered(NULL), MID_unregistered(NULL), jtranslatorRef(NULL)
 {
     QCC_DbgPrintf(("JBusObject::JBusObject()"));
 
@@ -8229,18 +9002,18 @@ JBusObject::~JBusObject()
     mapLock.Lock();
 
     QCC_DbgPrintf(("JBusObject::~JBusObject(): Deleting methods"));
-    for (JMethod::const_iterator method = methods.begin(); method != methods.end(); ++method) {
-        QCC_DbgPrintf(("JBusObject::~JBusObject(): Deleting method %p", method->second));
-        env->DeleteGlobalRef(method->second);
+    for (JMethod::iterator method = methods.begin(); method != methods.end(); ++method) {
+        QCC_DbgPrintf(("JBusObject::~JBusObject(): Deleting method %p", method->second.GetMethod()));
+        method->second.Release(env);
     }
 
     QCC_DbgPrintf(("JBusObject::~JBusObject(): Deleting properties"));
-    for (JProperty::const_iterator property = properties.begin(); property != properties.end(); ++property) {
-        QCC_DbgPrintf(("JBusObject::~JBusObject(): Deleting property getter %p", property->second.jget));
-        env->DeleteGlobalRef(property->second.jget);
+    for (JProperty::iterator property = properties.begin(); property != properties.end(); ++property) {
+        QCC_DbgPrintf(("JBusObject::~JBusObject(): Deleting property getter %p", property->second.get.GetMethod()));
+        property->second.get.Release(env);
 
-        QCC_DbgPrintf(("JBusObject::~JBusObject(): Deleting property setter %p", property->second.jset));
-        env->DeleteGlobalRef(property->second.jset);
+        QCC_DbgPrintf(("JBusObject::~JBusObject(): Deleting property setter %p", property->second.set.GetMethod()));
+        property->second.set.Release(env);
     }
 
     mapLock.Unlock();
@@ -8342,14 +9115,15 @@ QStatus JBusObject::AddInterfaces(const jobjectArray jbusInterfaces)
                     break;
                 }
 
-                jobject jref = env->NewGlobalRef(jmethod);
-                if (!jref) {
-                    status = ER_FAIL;
+                JMethodInvoker invoker;
+                status = invoker.Init(env, jmethod);
+                if (ER_OK != status) {
+                    invoker.Release(env);
                     break;
                 }
 
                 String key = intf->GetName() + membs[m]->name;
-                methods.insert(pair<String, jobject>(key, jref));
+                methods.insert(pair<String, JMethodInvoker>(key, invoker));
             }
         }
 
@@ -8401,13 +9175,11 @@ QStatus JBusObject::AddInterfaces(const jobjectArray jbusInterfaces)
                 break;
             }
             if (jget) {
-                property.jget = env->NewGlobalRef(jget);
-                if (!property.jget) {
-                    status = ER_FAIL;
+                status = property.get.Init(env, jget);
+                if (ER_OK != status) {
+                    property.get.Release(env);
                     break;
                 }
-            } else {
-                property.jget = NULL;
             }
 
             JLocalRef<jobject> jset = GetObjectArrayElement(env, jmethods, 1);
@@ -8417,13 +9189,12 @@ QStatus JBusObject::AddInterfaces(const jobjectArray jbusInterfaces)
             }
 
             if (jset) {
-                property.jset = env->NewGlobalRef(jset);
-                if (!property.jset) {
-                    status = ER_FAIL;
+                status = property.set.Init(env, jset);
+                if (ER_OK != status) {
+                    property.get.Release(env);
+                    property.set.Release(env);
                     break;
                 }
-            } else {
-                property.jset = NULL;
             }
 
             String key = intf->GetName() + props[p]->name;
@@ -8533,6 +9304,55 @@ static QStatus Unmarshal(Message& msg, jobject jmethod, JLocalRef<jobjectArray>&
     return Unmarshal(args, numArgs, jmethod, junmarshalled);
 }
 
+/**
+ * Get the details of an ErrorReplyBusException thrown by a bus method or a
+ * property accessor.
+ *
+ * @param[in] env the JNIEnv of the calling thread
+ * @param[in] ex the exception thrown
+ * @param[out] errorCode the status of the exception
+ * @param[out] errorName the error name of the exception, empty if none
+ * @param[out] errorMessage the error message of the exception, empty if none
+ * @return true if ex is an ErrorReplyBusException and its details were retrieved
+ */
+static bool GetErrorReply(JNIEnv* env, jthrowable ex, QStatus& errorCode, String& errorName, String& errorMessage)
+{
+    if (!ex || !env->IsInstanceOf(ex, CLS_ErrorReplyBusException)) {
+        return false;
+    }
+
+    JLocalRef<jobject> jstatus = CallObjectMethod(env, ex, MID_ErrorReplyBusException_getErrorStatus);
+    if (env->ExceptionCheck() || !jstatus) {
+        return false;
+    }
+    errorCode = (QStatus)env->CallIntMethod(jstatus, MID_Status_getErrorCode);
+    if (env->ExceptionCheck()) {
+        return false;
+    }
+
+    JLocalRef<jstring> jerrorName = (jstring)CallObjectMethod(env, ex, MID_ErrorReplyBusException_getErrorName);
+    if (env->ExceptionCheck()) {
+        return false;
+    }
+    JString name(jerrorName);
+    if (env->ExceptionCheck()) {
+        return false;
+    }
+
+    JLocalRef<jstring> jerrorMessage = (jstring)CallObjectMethod(env, ex, MID_ErrorReplyBusException_getErrorMessage);
+    if (env->ExceptionCheck()) {
+        return false;
+    }
+    JString message(jerrorMessage);
+    if (env->ExceptionCheck()) {
+        return false;
+    }
+
+    errorName = name.c_str() ? name.c_str() : "";
+    errorMessage = message.c_str() ? message.c_str() : "";
+    return true;
+}
+
 void JBusObject::MethodHandler(const InterfaceDescription::Member* member, Message& msg)
 {
     QCC_DbgPrintf(("JBusObject::MethodHandler()"));
@@ -8545,136 +9365,52 @@ void JBusObject::MethodHandler(const InterfaceDescription::Member* member, Messa
 
     MessageContext context(msg);
     /*
-     * The Java method is called via invoke() on the
-     * java.lang.reflect.Method object.  This allows us to package up
-     * all the message args into an Object[], saving us from having to
-     * figure out the signature of each method to lookup.
+     * The Java method is called through the JMethodInvoker resolved when the
+     * object was registered.  The message args are packaged up into an
+     * Object[] by unmarshalling them against the java.lang.reflect.Method, and
+     * the invoker unboxes them for the call.
      */
     String key = member->iface->GetName() + member->name;
 
-    /*
-     * We're going to wander into a list of methods and pick one.  Lock the
-     * mutex that protects this list for the entire time we'll be using the
-     * list and the found method.
-     */
-    mapLock.Lock();
-
     JMethod::const_iterator method = methods.find(key);
     if (methods.end() == method) {
-        mapLock.Unlock();
         MethodReply(member, msg, ER_BUS_OBJECT_NO_SUCH_MEMBER);
         return;
     }
 
     JLocalRef<jobjectArray> jargs;
-    QStatus status = Unmarshal(msg, method->second, jargs);
+    QStatus status = Unmarshal(msg, method->second.GetMethod(), jargs);
     if (ER_OK != status) {
-        mapLock.Unlock();
         MethodReply(member, msg, status);
         return;
     }
 
-    JLocalRef<jclass> clazz = env->GetObjectClass(method->second);
-    jmethodID mid = env->GetMethodID(clazz, "invoke", "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;");
-    if (!mid) {
-        mapLock.Unlock();
-        MethodReply(member, msg, ER_FAIL);
-        return;
-    }
-
     /*
      * The weak global reference jbusObj cannot be directly used.  We have to
      * get a "hard" reference to it and then use that.  If you try to use a weak
      * reference directly you will crash and burn.
      */
-    jobject jo = env->NewLocalRef(jbusObj);
+    JLocalRef<jobject> jo = env->NewLocalRef(jbusObj);
     if (!jo) {
-        mapLock.Unlock();
         QCC_LogError(ER_FAIL, ("JBusObject::MethodHandler(): Can't get new local reference to BusObject"));
         return;
     }
 
-    mapLock.Unlock();
-
-    JLocalRef<jobject> jreply = CallObjectMethod(env, method->second, mid, jo, (jobjectArray)jargs);
+    JLocalRef<jobject> jreply = method->second.Invoke(env, jo, jargs);
     JLocalRef<jthrowable> ex = env->ExceptionOccurred();
     if (ex) {
         env->ExceptionClear();
-        JLocalRef<jclass> clazz = env->GetObjectClass(ex);
-        jmethodID mid = env->GetMethodID(clazz, "getCause", "()Ljava/lang/Throwable;");
-        if (!mid) {
-            MethodReply(member, msg, ER_FAIL);
-            return;
-        }
-        ex = (jthrowable)CallObjectMethod(env, ex, mid);
-        if (env->ExceptionCheck()) {
-            MethodReply(member, msg, ER_FAIL);
-            return;
-        }
-
-        clazz = env->GetObjectClass(ex);
-        if (env->IsInstanceOf(ex, CLS_ErrorReplyBusException)) {
-            mid = env->GetMethodID(clazz, "getErrorStatus", "()Lorg/alljoyn/bus/Status;");
-            if (!mid) {
-                MethodReply(member, msg, ER_FAIL);
-                return;
-            }
-            JLocalRef<jobject> jstatus = CallObjectMethod(env, ex, mid);
-            if (env->ExceptionCheck()) {
-                MethodReply(member, msg, ER_FAIL);
-                return;
-            }
-            JLocalRef<jclass> statusClazz = env->GetObjectClass(jstatus);
-            mid = env->GetMethodID(statusClazz, "getErrorCode", "()I");
-            if (!mid) {
-                MethodReply(member, msg, ER_FAIL);
-                return;
-            }
-            QStatus errorCode = (QStatus)env->CallIntMethod(jstatus, mid);
-            if (env->ExceptionCheck()) {
-                MethodReply(member, msg, ER_FAIL);
-                return;
-            }
-
-            mid = env->GetMethodID(clazz, "getErrorName", "()Ljava/lang/String;");
-            if (!mid) {
-                MethodReply(member, msg, ER_FAIL);
-                return;
-            }
-            JLocalRef<jstring> jerrorName = (jstring)CallObjectMethod(env, ex, mid);
-            if (env->ExceptionCheck()) {
-                MethodReply(member, msg, ER_FAIL);
-                return;
-            }
-            JString errorName(jerrorName);
-            if (env->ExceptionCheck()) {
-                MethodReply(member, msg, ER_FAIL);
-                return;
-            }
-
-            mid = env->GetMethodID(clazz, "getErrorMessage", "()Ljava/lang/String;");
-            if (!mid) {
-                MethodReply(member, msg, ER_FAIL);
-                return;
-            }
-            JLocalRef<jstring> jerrorMessage = (jstring)CallObjectMethod(env, ex, mid);
-            if (env->ExceptionCheck()) {
-                MethodReply(member, msg, ER_FAIL);
-                return;
-            }
-            JString errorMessage(jerrorMessage);
-            if (env->ExceptionCheck()) {
-                MethodReply(member, msg, ER_FAIL);
-                return;
-            }
 
-            if (errorName.c_str()) {
-                MethodReply(member, msg, errorName.c_str(), errorMessage.c_str());
-            } else {
-                MethodReply(member, msg, errorCode);
-            }
-        } else {
+        QStatus errorCode = ER_FAIL;
+        String errorName;
+        String errorMessage;
+        if (!GetErrorReply(env, ex, errorCode, errorName, errorMessage)) {
+            env->ExceptionClear();
             MethodReply(member, msg, ER_FAIL);
+        } else if (!errorName.empty()) {
+            MethodReply(member, msg, errorName.c_str(), errorMessage.c_str());
+        } else {
+            MethodReply(member, msg, errorCode);
         }
         return;
     }
@@ -8812,115 +9548,49 @@ QStatus JBusObject::Get(const char* ifcName, const char* propName, Message& msg,
 
     String key = String(ifcName) + propName;
 
-    /*
-     * We're going to wander into a list of properties and pick one.  Lock the
-     * mutex that protects this list for the entire time we'll be using the list
-     * and the found method.
-     */
-    mapLock.Lock();
-
     JProperty::const_iterator property = properties.find(key);
     if (properties.end() == property) {
-        mapLock.Unlock();
         return ER_BUS_NO_SUCH_PROPERTY;
     }
-    if (!property->second.jget) {
-        mapLock.Unlock();
+    if (!property->second.get.GetMethod()) {
         return ER_BUS_PROPERTY_ACCESS_DENIED;
     }
 
-    JLocalRef<jclass> clazz = env->GetObjectClass(property->second.jget);
-    jmethodID mid = env->GetMethodID(clazz, "invoke", "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;");
-    if (!mid) {
-        mapLock.Unlock();
-        return ER_FAIL;
-    }
-
     /*
      * The weak global reference jbusObj cannot be directly used.  We have to
      * get a "hard" reference to it and then use that.  If you try to use a weak
      * reference directly you will crash and burn.
      */
-    jobject jo = env->NewLocalRef(jbusObj);
+    JLocalRef<jobject> jo = env->NewLocalRef(jbusObj);
     if (!jo) {
-        mapLock.Unlock();
         QCC_LogError(ER_FAIL, ("JBusObject::Get(): Can't get new local reference to BusObject"));
         return ER_FAIL;
     }
 
-    JLocalRef<jobject> jvalue = CallObjectMethod(env, property->second.jget, mid, jo, NULL);
+    JLocalRef<jobject> jvalue = property->second.get.Invoke(env, jo, NULL);
     JLocalRef<jthrowable> exception = env->ExceptionOccurred();
     if (exception) {
         env->ExceptionClear();
-        JLocalRef<jclass> clazz = env->GetObjectClass(exception);
-        jmethodID mid = env->GetMethodID(clazz, "getCause", "()Ljava/lang/Throwable;");
-        if (!mid) {
-            mapLock.Unlock();
-            return ER_FAIL;
-        }
-        exception = (jthrowable) CallObjectMethod(env, exception, mid);
-
-        if (env->IsInstanceOf(exception, CLS_ErrorReplyBusException)) {
-            mid = env->GetMethodID(CLS_ErrorReplyBusException, "getErrorName", "()Ljava/lang/String;");
-            if (!mid) {
-                mapLock.Unlock();
-                return ER_FAIL;
-            }
-
-            JLocalRef<jstring> jerrorName = (jstring) CallObjectMethod(env, exception, mid);
-            if (env->ExceptionCheck()) {
-                mapLock.Unlock();
-                return ER_FAIL;
-            }
-
-            JString locErrorName(jerrorName);
-            if (env->ExceptionCheck()) {
-                mapLock.Unlock();
-                return ER_FAIL;
-            }
-
-            mid = env->GetMethodID(CLS_ErrorReplyBusException, "getErrorMessage", "()Ljava/lang/String;");
-            if (!mid) {
-                mapLock.Unlock();
-                return ER_FAIL;
-            }
-
-            JLocalRef<jstring> jerrorMessage = (jstring) CallObjectMethod(env, exception, mid);
-            if (env->ExceptionCheck()) {
-                mapLock.Unlock();
-                return ER_FAIL;
-            }
-
-            JString locErrorMessage(jerrorMessage);
-            if (env->ExceptionCheck()) {
-                mapLock.Unlock();
-                return ER_FAIL;
-            }
-
-            if (locErrorName.c_str()) {
-                errorName = locErrorName.c_str();
-            }
-
-            if (locErrorMessage.c_str()) {
-                errorMessage = locErrorMessage.c_str();
-            }
 
-            QCC_DbgPrintf(("JBusObject::Get errorName: %s errorMessage: %s", errorName.c_str(), errorMessage.c_str()));
-            mapLock.Unlock();
-            return ER_BUS_REPLY_IS_ERROR_MESSAGE;
-
-        } else {
-            mapLock.Unlock();
+        QStatus errorCode;
+        if (!GetErrorReply(env, exception, errorCode, errorName, errorMessage)) {
+            env->ExceptionClear();
             return ER_FAIL;
         }
+
+        QCC_DbgPrintf(("JBusObject::Get errorName: %s errorMessage: %s", errorName.c_str(), errorMessage.c_str()));
+        return ER_BUS_REPLY_IS_ERROR_MESSAGE;
     }
 
     if (!Marshal(property->second.signature.c_str(), (jobject)jvalue, &val)) {
-        mapLock.Unlock();
         return ER_FAIL;
     }
+    /*
+     * The value may refer to the contents of a direct ByteBuffer, which is
+     * not kept alive once we return.
+     */
+    val.Stabilize();
 
-    mapLock.Unlock();
     return ER_OK;
 }
 
@@ -8946,118 +9616,46 @@ QStatus JBusObject::Set(const char* ifcName, const char* propName, MsgArg& val,
 
     String key = String(ifcName) + propName;
 
-    /*
-     * We're going to wander into a list of properties and pick one.  Lock the
-     * mutex that protects this list for the entire time we'll be using the list
-     * and the found method.
-     */
-    mapLock.Lock();
-
     JProperty::const_iterator property = properties.find(key);
     if (properties.end() == property) {
-        mapLock.Unlock();
         return ER_BUS_NO_SUCH_PROPERTY;
     }
-    if (!property->second.jset) {
-        mapLock.Unlock();
+    if (!property->second.set.GetMethod()) {
         return ER_BUS_PROPERTY_ACCESS_DENIED;
     }
 
     JLocalRef<jobjectArray> jvalue;
-    QStatus status = Unmarshal(&val, 1, property->second.jset, jvalue);
+    QStatus status = Unmarshal(&val, 1, property->second.set.GetMethod(), jvalue);
     if (ER_OK != status) {
-        mapLock.Unlock();
         return status;
     }
 
-    JLocalRef<jclass> clazz = env->GetObjectClass(property->second.jset);
-    jmethodID mid = env->GetMethodID(clazz, "invoke", "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;");
-    if (!mid) {
-        mapLock.Unlock();
-        return ER_FAIL;
-    }
-
     /*
      * The weak global reference jbusObj cannot be directly used.  We have to
      * get a "hard" reference to it and then use that.  If you try to use a weak
      * reference directly you will crash and burn.
      */
-    jobject jo = env->NewLocalRef(jbusObj);
+    JLocalRef<jobject> jo = env->NewLocalRef(jbusObj);
     if (!jo) {
-        mapLock.Unlock();
         QCC_LogError(ER_FAIL, ("JBusObject::Set(): Can't get new local reference to BusObject"));
         return ER_FAIL;
     }
 
-    CallObjectMethod(env, property->second.jset, mid, jo, (jobjectArray)jvalue);
+    JLocalRef<jobject> jresult = property->second.set.Invoke(env, jo, jvalue);
     JLocalRef<jthrowable> exception = env->ExceptionOccurred();
     if (exception) {
         env->ExceptionClear();
-        JLocalRef<jclass> clazz = env->GetObjectClass(exception);
-        jmethodID mid = env->GetMethodID(clazz, "getCause", "()Ljava/lang/Throwable;");
-        if (!mid) {
-            mapLock.Unlock();
-            return ER_FAIL;
-        }
-        exception = (jthrowable) CallObjectMethod(env, exception, mid);
-
-        if (env->IsInstanceOf(exception, CLS_ErrorReplyBusException)) {
-            mid = env->GetMethodID(CLS_ErrorReplyBusException, "getErrorName", "()Ljava/lang/String;");
-            if (!mid) {
-                mapLock.Unlock();
-                return ER_FAIL;
-            }
-
-            JLocalRef<jstring> jerrorName = (jstring) CallObjectMethod(env, exception, mid);
-            if (env->ExceptionCheck()) {
-                mapLock.Unlock();
-                return ER_FAIL;
-            }
-
-            JString locErrorName(jerrorName);
-            if (env->ExceptionCheck()) {
-                mapLock.Unlock();
-                return ER_FAIL;
-            }
-
-            mid = env->GetMethodID(CLS_ErrorReplyBusException, "getErrorMessage", "()Ljava/lang/String;");
-            if (!mid) {
-                mapLock.Unlock();
-                return ER_FAIL;
-            }
-
-            JLocalRef<jstring> jerrorMessage = (jstring) CallObjectMethod(env, exception, mid);
-            if (env->ExceptionCheck()) {
-                mapLock.Unlock();
-                return ER_FAIL;
-            }
-
-            JString locErrorMessage(jerrorMessage);
-            if (env->ExceptionCheck()) {
-                mapLock.Unlock();
-                return ER_FAIL;
-            }
-
-            if (locErrorName.c_str()) {
-                errorName = locErrorName.c_str();
-            }
-
-            if (locErrorMessage.c_str()) {
-                errorMessage = locErrorMessage.c_str();
-            }
 
-            QCC_DbgPrintf(("JBusObject::Set errorName: %s errorMessage: %s", errorName.c_str(), errorMessage.c_str()));
-            mapLock.Unlock();
-            return ER_BUS_REPLY_IS_ERROR_MESSAGE;
-
-        } else {
-            mapLock.Unlock();
+        QStatus errorCode;
+        if (!GetErrorReply(env, exception, errorCode, errorName, errorMessage)) {
+            env->ExceptionClear();
             return ER_FAIL;
         }
 
+        QCC_DbgPrintf(("JBusObject::Set errorName: %s errorMessage: %s", errorName.c_str(), errorMessage.c_str()));
+        return ER_BUS_REPLY_IS_ERROR_MESSAGE;
     }
 
-    mapLock.Unlock();
     return ER_OK;
 }
 
@@ -9272,23 +9870,53 @@ JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_BusAttachment_registerBusObject(J
     return JStatus(status);
 }
 
+JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_BusAttachment_registerBusObjects(JNIEnv* env, jobject thiz, jobjectArray jobjPaths,
+                                                                                jobjectArray jbusObjects, jobjectArray jbusInterfaces,
+                                                                                jboolean jsecure)
+{
+    QCC_DbgPrintf(("BusAttachment_registerBusObjects()"));
+
+    JBusAttachment* busPtr = GetHandle<JBusAttachment*>(thiz);
+    if (env->ExceptionCheck()) {
+        QCC_LogError(ER_FAIL, ("BusAttachment_registerBusObjects(): Exception"));
+        return NULL;
+    }
+
+    if (busPtr == NULL) {
+        QCC_LogError(ER_FAIL, ("BusAttachment_registerBusObjects(): NULL bus pointer"));
+        env->ThrowNew(CLS_BusException, QCC_StatusText(ER_FAIL));
+        return NULL;
+    }
+
+    QCC_DbgPrintf(("BusAttachment_registerBusObjects(): Refcount on busPtr is %d", busPtr->GetRef()));
+
+    QStatus status = busPtr->RegisterBusObjects(jobjPaths, jbusObjects, jbusInterfaces, jsecure);
+    if (env->ExceptionCheck()) {
+        QCC_LogError(ER_FAIL, ("BusAttachment_registerBusObjects(): Exception"));
+        return NULL;
+    }
+
+    return JStatus(status);
+}
+
 JNIEXPORT jboolean JNICALL Java_org_alljoyn_bus_BusAttachment_isSecureBusObject(JNIEnv* env, jobject thiz, jobject jbusObject)
 {
     QCC_UNUSED(thiz);
 
     QCC_DbgPrintf(("BusAttachment_isSecureBusObjectt()"));
-    gBusObjectMapLock.Lock();
+    Mutex& busObjectMapLock = GetBusObjectMapLock(jbusObject);
+    busObjectMapLock.Lock();
     JBusObject* busObject = GetBackingObject(jbusObject);
 
     if (!busObject) {
-        QCC_DbgPrintf(("BusAttachment_isSecureBusObject(): Releasing global Bus Object map lock"));
-        gBusObjectMapLock.Unlock();
+        QCC_DbgPrintf(("BusAttachment_isSecureBusObject(): Releasing Bus Object map lock"));
+        busObjectMapLock.Unlock();
         QCC_LogError(ER_FAIL, ("BusAttachment_isSecureBusObject(): Exception"));
         env->ThrowNew(CLS_BusException, QCC_StatusText(ER_BUS_NO_SUCH_OBJECT));
         return false;
     }
     bool result = busObject->IsSecure();
-    gBusObjectMapLock.Unlock();
+    busObjectMapLock.Unlock();
     return result;
 }
 
@@ -9312,22 +9940,42 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_BusAttachment_unregisterBusObject(JN
     busPtr->UnregisterBusObject(jbusObject);
 }
 
-JSignalHandler::JSignalHandler(jobject jobj, jobject jmeth)
-    : jsignalHandler(NULL), jmethod(NULL), member(NULL)
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_BusAttachment_unregisterBusObjects(JNIEnv* env, jobject thiz, jobjectArray jbusObjects)
 {
-    JNIEnv* env = GetEnv();
-    jsignalHandler = env->NewWeakGlobalRef(jobj);
-    jmethod = env->NewGlobalRef(jmeth);
-}
+    QCC_DbgPrintf(("BusAttachment_unregisterBusObjects()"));
 
-JSignalHandler::~JSignalHandler()
-{
-    JNIEnv* env = GetEnv();
-    if (jmethod) {
-        QCC_DbgPrintf(("JSignalHandler::~JSignalHandler(): Forgetting jmethod"));
-        env->DeleteGlobalRef(jmethod);
-        jmethod = NULL;
+    JBusAttachment* busPtr = GetHandle<JBusAttachment*>(thiz);
+    if (env->ExceptionCheck()) {
+        QCC_LogError(ER_FAIL, ("BusAttachment_unregisterBusObjects(): Exception"));
+        return;
+    }
+
+    if (busPtr == NULL) {
+        QCC_LogError(ER_FAIL, ("BusAttachment_unregisterBusObjects(): NULL bus pointer"));
+        return;
+    }
+
+    QCC_DbgPrintf(("BusAttachment_unregisterBusObjects(): Refcount on busPtr is %d", busPtr->GetRef()));
+
+    busPtr->UnregisterBusObjects(jbusObjects);
+}
+
+JSignalHandler::JSignalHandler(jobject jobj, jobject jmeth)
+    : jsignalHandler(NULL), member(NULL)
+{
+    JNIEnv* env = GetEnv();
+    jsignalHandler = env->NewWeakGlobalRef(jobj);
+    if (ER_OK != invoker.Init(env, jmeth)) {
+        QCC_LogError(ER_FAIL, ("JSignalHandler::JSignalHandler(): Can't resolve signal handler method"));
+        invoker.Release(env);
     }
+}
+
+JSignalHandler::~JSignalHandler()
+{
+    JNIEnv* env = GetEnv();
+    QCC_DbgPrintf(("JSignalHandler::~JSignalHandler(): Forgetting jmethod"));
+    invoker.Release(env);
     if (jsignalHandler) {
         QCC_DbgPrintf(("JSignalHandler::~JSignalHandler(): Forgetting jsignalHandler"));
         env->DeleteWeakGlobalRef(jsignalHandler);
@@ -9348,7 +9996,8 @@ bool JSignalHandler::IsSameObject(jobject jobj, jobject jmeth)
         return false;
     }
 
-    return env->IsSameObject(jo, jobj) && env->CallBooleanMethod(jmethod, MID_Object_equals, jmeth);
+    jobject jmethod = invoker.GetMethod();
+    return env->IsSameObject(jo, jobj) && jmethod && env->CallBooleanMethod(jmethod, MID_Object_equals, jmeth);
 }
 
 QStatus JSignalHandler::Register(BusAttachment& bus, const char* ifaceName, const char* signalName,
@@ -9385,16 +10034,13 @@ void JSignalHandler::SignalHandler(const InterfaceDescription::Member* member,
 
     MessageContext context(msg);
 
-    JLocalRef<jobjectArray> jargs;
-    QStatus status = Unmarshal(msg, jmethod, jargs);
-    if (ER_OK != status) {
+    if (!invoker.GetMethod()) {
         return;
     }
 
-    JLocalRef<jclass> clazz = env->GetObjectClass(jmethod);
-    jmethodID mid = env->GetMethodID(clazz, "invoke",
-                                     "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;");
-    if (!mid) {
+    JLocalRef<jobjectArray> jargs;
+    QStatus status = Unmarshal(msg, invoker.GetMethod(), jargs);
+    if (ER_OK != status) {
         return;
     }
 
@@ -9403,11 +10049,11 @@ void JSignalHandler::SignalHandler(const InterfaceDescription::Member* member,
      * have to get a "hard" reference to it and then use that.  If you try to
      * use a weak reference directly you will crash and burn.
      */
-    jobject jo = env->NewLocalRef(jsignalHandler);
+    JLocalRef<jobject> jo = env->NewLocalRef(jsignalHandler);
     if (!jo) {
         return;
     }
-    CallObjectMethod(env, jmethod, mid, jo, (jobjectArray)jargs);
+    JLocalRef<jobject> jresult = invoker.Invoke(env, jo, jargs);
 }
 
 QStatus JSignalHandlerWithSrc::Register(BusAttachment& bus, const char* ifaceName, const char* signalName,
@@ -9935,13 +10581,18 @@ JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_BusAttachment_reloadKeyStore(JNIE
     return JStatus(status);
 }
 
-JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_BusAttachment_getMessageContext(JNIEnv* env, jobject thiz)
+JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_BusAttachment_getNativeMessageContext(JNIEnv* env, jobject thiz)
 {
     QCC_UNUSED(thiz);
 
-    QCC_DbgPrintf(("BusAttachment_getMessageContext()"));
+    QCC_DbgPrintf(("BusAttachment_getNativeMessageContext()"));
 
-    Message msg = MessageContext::GetMessage();
+    const Message* context = MessageContext::GetMessage();
+    if (!context) {
+        QCC_LogError(ER_FAIL, ("BusAttachment_getNativeMessageContext(): Not called from a method or signal handler"));
+        return NULL;
+    }
+    Message msg = *context;
 
     JLocalRef<jstring> jobjectPath = env->NewStringUTF(msg->GetObjectPath());
     if (!jobjectPath) {
@@ -11555,18 +12206,13 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_ProxyBusObject_create(JNIEnv* env, j
     }
 }
 
-JNIEXPORT void JNICALL Java_org_alljoyn_bus_ProxyBusObject_destroy(JNIEnv* env, jobject thiz)
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_ProxyBusObject_destroy(JNIEnv* env, jclass clazz, jlong jhandle)
 {
-    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
 
     QCC_DbgPrintf(("ProxyBusObject_destroy()"));
 
-    JProxyBusObject* proxyBusObj = GetHandle<JProxyBusObject*>(thiz);
-    if (!proxyBusObj) {
-        QCC_DbgPrintf(("ProxyBusObject_destroy(): Already destroyed. Returning."));
-        return;
-    }
-
+    JProxyBusObject* proxyBusObj = (JProxyBusObject*)jhandle;
     if (proxyBusObj == NULL) {
         QCC_LogError(ER_FAIL, ("ProxyBusObject_destroy(): NULL bus object pointer"));
         return;
@@ -11574,6 +12220,8 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_ProxyBusObject_destroy(JNIEnv* env,
 
     QCC_DbgPrintf(("ProxyBusObject_destroy(): Refcount on busPtr now %d", proxyBusObj->busPtr->GetRef()));
 
+    ReleasePendingCalls(env, NULL, proxyBusObj, "ProxyBusObject released");
+
     /*
      * We need to delete the JProxyBusObject.  It is holding pointer to the
      * reference counted bus attachment so one would think that when it is
@@ -11588,7 +12236,6 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_ProxyBusObject_destroy(JNIEnv* env,
     delete proxyBusObj;
     QCC_DbgPrintf(("ProxyBusObject_destroy(): Refcount on busPtr before decrement is %d", busPtr->GetRef()));
     busPtr->DecRef();
-    SetHandle(thiz, NULL);
 }
 
 JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_ProxyBusObject_registerPropertiesChangedListener(JNIEnv* env,
@@ -11661,21 +12308,16 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_PropertiesChangedListener_create(JNI
     }
 }
 
-JNIEXPORT void JNICALL Java_org_alljoyn_bus_PropertiesChangedListener_destroy(JNIEnv* env, jobject thiz)
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_PropertiesChangedListener_destroy(JNIEnv* env, jclass clazz, jlong jhandle)
 {
-    QCC_DbgPrintf(("PropertiesChangedListener_destroy()"));
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
 
-    JPropertiesChangedListener* jojcl = GetHandle<JPropertiesChangedListener*>(thiz);
-    if (env->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("PropertiesChangedListener_destroy(): Exception"));
-        return;
-    }
+    QCC_DbgPrintf(("PropertiesChangedListener_destroy()"));
 
+    JPropertiesChangedListener* jojcl = (JPropertiesChangedListener*)jhandle;
     QCC_ASSERT(jojcl);
     delete jojcl;
-
-    SetHandle(thiz, NULL);
-    return;
 }
 
 /*
@@ -11695,40 +12337,28 @@ static inline bool SecurityApplies(const JProxyBusObject* obj, const InterfaceDe
     }
 }
 
-JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_ProxyBusObject_methodCall(JNIEnv* env,
-                                                                         jobject thiz,
-                                                                         jobject jbus,
-                                                                         jstring jinterfaceName,
-                                                                         jstring jmethodName,
-                                                                         jstring jinputSig,
-                                                                         jobject joutType,
-                                                                         jobjectArray jargs,
-                                                                         jint replyTimeoutMsecs,
-                                                                         jint flags)
+/**
+ * Look up the proxy bus object and interface member a method call is made on,
+ * lazily adding the interface to the proxy bus object if needed.
+ *
+ * @param thiz the Java ProxyBusObject
+ * @param jbus the Java BusAttachment
+ * @param jinterfaceName the Java interface name
+ * @param interfaceName the interface name
+ * @param methodName the method name
+ * @param member returns the interface member
+ *
+ * @return the JProxyBusObject, or NULL with a Java exception pending
+ */
+static JProxyBusObject* GetProxyMember(jobject thiz, jobject jbus, jstring jinterfaceName,
+                                       const char* interfaceName, const char* methodName,
+                                       const InterfaceDescription::Member*& member)
 {
-    QCC_DbgPrintf(("ProxyBusObject_methodCall()"));
-
-    JSafeString interfaceName(jinterfaceName);
-    if (env->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_methodCall(): Exception"));
-        return NULL;
-    }
-
-    JSafeString methodName(jmethodName);
-    if (env->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_methodCall(): Exception"));
-        return NULL;
-    }
-
-    JString inputSig(jinputSig);
-    if (env->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_methodCall(): Exception"));
-        return NULL;
-    }
+    JNIEnv* env = GetEnv();
 
     JBusAttachment* busPtr = GetHandle<JBusAttachment*>(jbus);
     if (env->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_methodCall(): Exception"));
+        QCC_LogError(ER_FAIL, ("GetProxyMember(): Exception"));
         return NULL;
     }
 
@@ -11737,12 +12367,12 @@ JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_ProxyBusObject_methodCall(JNIEnv*
      * codes, so if we have a problem, we throw an exception.
      */
     if (busPtr == NULL) {
-        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_methodCall(): NULL bus pointer"));
+        QCC_LogError(ER_FAIL, ("GetProxyMember(): NULL bus pointer"));
         env->ThrowNew(CLS_BusException, QCC_StatusText(ER_FAIL));
         return NULL;
     }
 
-    QCC_DbgPrintf(("ProxybusObject_methodCall(): Refcount on busPtr is %d", busPtr->GetRef()));
+    QCC_DbgPrintf(("GetProxyMember(): Refcount on busPtr is %d", busPtr->GetRef()));
 
     /*
      * This part of the binding and on down lower is fundamentally single
@@ -11760,32 +12390,28 @@ JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_ProxyBusObject_methodCall(JNIEnv*
      */
     busPtr->baProxyLock.Lock();
 
-    Message replyMsg(*busPtr);
-
     JProxyBusObject* proxyBusObj = GetHandle<JProxyBusObject*>(thiz);
     if (env->ExceptionCheck()) {
         busPtr->baProxyLock.Unlock();
-        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_methodCall(): Exception"));
+        QCC_LogError(ER_FAIL, ("GetProxyMember(): Exception"));
         return NULL;
     }
 
     QCC_ASSERT(proxyBusObj);
 
-    const InterfaceDescription::Member* member = NULL;
-
-    const InterfaceDescription* intf = proxyBusObj->GetInterface(interfaceName.c_str());
+    const InterfaceDescription* intf = proxyBusObj->GetInterface(interfaceName);
     if (!intf) {
         AddInterface(thiz, busPtr, jinterfaceName);
         if (env->ExceptionCheck()) {
             busPtr->baProxyLock.Unlock();
-            QCC_LogError(ER_FAIL, ("ProxyBusObjexct_methodCall(): Exception"));
+            QCC_LogError(ER_FAIL, ("GetProxyMember(): Exception"));
             return NULL;
         }
-        intf = proxyBusObj->GetInterface(interfaceName.c_str());
+        intf = proxyBusObj->GetInterface(interfaceName);
         QCC_ASSERT(intf);
     }
 
-    member = intf->GetMember(methodName.c_str());
+    member = intf->GetMember(methodName);
     if (!member) {
         busPtr->baProxyLock.Unlock();
         env->ThrowNew(CLS_BusException, QCC_StatusText(ER_BUS_INTERFACE_NO_SUCH_MEMBER));
@@ -11793,40 +12419,35 @@ JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_ProxyBusObject_methodCall(JNIEnv*
     }
 
     busPtr->baProxyLock.Unlock();
+    return proxyBusObj;
+}
 
-    MsgArg args;
-    QStatus status;
-    const MsgArg* replyArgs;
-    size_t numReplyArgs;
-    jobject jreplyArg = NULL;
-
-    if (!Marshal(inputSig.c_str(), jargs, &args)) {
-        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_methodCall(): Marshal failure"));
-        return jreplyArg;
-    }
-
-    /*
-     * If we call any method on the org.freedesktop.DBus.Properties interface
-     *    - org.freedesktop.DBus.Properties.Get(ssv)
-     *    - org.freedesktop.DBus.Properties.Set(ssv)
-     *    - org.freedesktop.DBus.Properties.GetAll(sa{sv})
-     * If the properties are part of an encrypted interface then the they must
-     * also be encrypted.  The first parameter of Get, Set, and GetAll is the
-     * interface name that the property belongs to.
-     *    - this code reads the interface name from the Properties method call
-     *    - tries to Get the InterfaceDescription from the proxyBusObj based on
-     *      the interface name
-     *    - Checks the InterfaceDescription to see if it has Security Annotation
-     *      or object security
-     *    - if security is set change the security flag to for the property
-     *      method so the properties are encrypted.
-     *    - if it is unable to get the InterfaceDescription it will check the
-     *      security of the ProxyObject.
-     *    - Failure to find a security indication will result the properties
-     *      methods being used without encryption.
-     */
-    if (interfaceName.c_str() != NULL) {     //if interfaceName.c_str() is null strcmp is undefined behavior
-        if (strcmp(interfaceName.c_str(), org::freedesktop::DBus::Properties::InterfaceName) == 0) {
+/**
+ * Compute the message flags of a method call.
+ *
+ * If we call any method on the org.freedesktop.DBus.Properties interface
+ *    - org.freedesktop.DBus.Properties.Get(ssv)
+ *    - org.freedesktop.DBus.Properties.Set(ssv)
+ *    - org.freedesktop.DBus.Properties.GetAll(sa{sv})
+ * If the properties are part of an encrypted interface then the they must
+ * also be encrypted.  The first parameter of Get, Set, and GetAll is the
+ * interface name that the property belongs to.
+ *    - this code reads the interface name from the Properties method call
+ *    - tries to Get the InterfaceDescription from the proxyBusObj based on
+ *      the interface name
+ *    - Checks the InterfaceDescription to see if it has Security Annotation
+ *      or object security
+ *    - if security is set change the security flag to for the property
+ *      method so the properties are encrypted.
+ *    - if it is unable to get the InterfaceDescription it will check the
+ *      security of the ProxyObject.
+ *    - Failure to find a security indication will result the properties
+ *      methods being used without encryption.
+ */
+static jint MethodCallFlags(const JProxyBusObject* proxyBusObj, const char* interfaceName, const MsgArg& args, jint flags)
+{
+    if (interfaceName != NULL) {     //if interfaceName is null strcmp is undefined behavior
+        if (strcmp(interfaceName, org::freedesktop::DBus::Properties::InterfaceName) == 0) {
             char* interface_name;
             /* the fist member of the struct is the interface name*/
             args.v_struct.members[0].Get("s", &interface_name);
@@ -11845,45 +12466,54 @@ JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_ProxyBusObject_methodCall(JNIEnv*
             }
         }
     }
-    qcc::String val;
-    if (member->GetAnnotation(org::freedesktop::DBus::AnnotateNoReply, val) && val == "true") {
-        status = proxyBusObj->MethodCallAsync(*member, NULL, NULL, args.v_struct.members,
-                                              args.v_struct.numMembers, NULL, replyTimeoutMsecs, flags);
-        if (ER_OK != status) {
-            env->ThrowNew(CLS_BusException, QCC_StatusText(status));
-        }
-    } else {
-        status = proxyBusObj->MethodCall(*member, args.v_struct.members, args.v_struct.numMembers,
-                                         replyMsg, replyTimeoutMsecs, flags);
-        if (ER_OK == status) {
-            replyMsg->GetArgs(numReplyArgs, replyArgs);
-            if (numReplyArgs > 1) {
-                MsgArg structArg(ALLJOYN_STRUCT);
-                structArg.v_struct.numMembers = numReplyArgs;
-                structArg.v_struct.members = new MsgArg[numReplyArgs];
-                for (size_t i = 0; i < numReplyArgs; ++i) {
-                    structArg.v_struct.members[i] = replyArgs[i];
-                }
-                structArg.SetOwnershipFlags(MsgArg::OwnsArgs);
-                jreplyArg = Unmarshal(&structArg, joutType);
-            } else if (numReplyArgs > 0) {
-                jreplyArg = Unmarshal(&replyArgs[0], joutType);
+    return flags;
+}
+
+/**
+ * Convert the reply to a method call to its Java return value.
+ *
+ * @param replyMsg the reply message
+ * @param status the status of the method call
+ * @param joutType the Java return type
+ *
+ * @return the Java return value, or NULL with a Java exception pending if
+ *         the method call failed
+ */
+static jobject UnmarshalReply(Message& replyMsg, QStatus status, jobject joutType)
+{
+    JNIEnv* env = GetEnv();
+    const MsgArg* replyArgs;
+    size_t numReplyArgs;
+    jobject jreplyArg = NULL;
+
+    if (ER_OK == status) {
+        replyMsg->GetArgs(numReplyArgs, replyArgs);
+        if (numReplyArgs > 1) {
+            MsgArg structArg(ALLJOYN_STRUCT);
+            structArg.v_struct.numMembers = numReplyArgs;
+            structArg.v_struct.members = new MsgArg[numReplyArgs];
+            for (size_t i = 0; i < numReplyArgs; ++i) {
+                structArg.v_struct.members[i] = replyArgs[i];
             }
-        } else if (ER_BUS_REPLY_IS_ERROR_MESSAGE == status) {
-            String errorMessage;
-            const char* errorName = replyMsg->GetErrorName(&errorMessage);
-            if (errorName) {
-                if (!strcmp(org::alljoyn::Bus::ErrorName, errorName)) {
-                    env->ThrowNew(CLS_BusException, errorMessage.c_str());
-                } else {
-                    ThrowErrorReplyBusException(errorName, errorMessage.c_str());
-                }
+            structArg.SetOwnershipFlags(MsgArg::OwnsArgs);
+            jreplyArg = Unmarshal(&structArg, joutType);
+        } else if (numReplyArgs > 0) {
+            jreplyArg = Unmarshal(&replyArgs[0], joutType);
+        }
+    } else if (ER_BUS_REPLY_IS_ERROR_MESSAGE == status) {
+        String errorMessage;
+        const char* errorName = replyMsg->GetErrorName(&errorMessage);
+        if (errorName) {
+            if (!strcmp(org::alljoyn::Bus::ErrorName, errorName)) {
+                env->ThrowNew(CLS_BusException, errorMessage.c_str());
             } else {
-                env->ThrowNew(CLS_BusException, QCC_StatusText(status));
+                ThrowErrorReplyBusException(errorName, errorMessage.c_str());
             }
         } else {
             env->ThrowNew(CLS_BusException, QCC_StatusText(status));
         }
+    } else {
+        env->ThrowNew(CLS_BusException, QCC_StatusText(status));
     }
 
     if (env->ExceptionCheck()) {
@@ -11893,107 +12523,418 @@ JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_ProxyBusObject_methodCall(JNIEnv*
     }
 }
 
-JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_ProxyBusObject_getProperty(JNIEnv* env, jobject thiz, jobject jbus,
-                                                                          jstring jinterfaceName, jstring jpropertyName)
+JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_ProxyBusObject_methodCall(JNIEnv* env,
+                                                                         jobject thiz,
+                                                                         jobject jbus,
+                                                                         jstring jinterfaceName,
+                                                                         jstring jmethodName,
+                                                                         jstring jinputSig,
+                                                                         jobject joutType,
+                                                                         jobjectArray jargs,
+                                                                         jint replyTimeoutMsecs,
+                                                                         jint flags)
 {
-    QCC_DbgPrintf(("ProxyBusObject_getProperty()"));
+    QCC_DbgPrintf(("ProxyBusObject_methodCall()"));
 
     JSafeString interfaceName(jinterfaceName);
     if (env->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getProperty(): Exception"));
+        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_methodCall(): Exception"));
         return NULL;
     }
 
-    JString propertyName(jpropertyName);
+    JSafeString methodName(jmethodName);
     if (env->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getProperty(): Exception"));
+        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_methodCall(): Exception"));
         return NULL;
     }
 
-    JBusAttachment* busPtr = GetHandle<JBusAttachment*>(jbus);
+    JString inputSig(jinputSig);
     if (env->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getProperty(): Exception"));
+        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_methodCall(): Exception"));
         return NULL;
     }
 
-    /*
-     * We don't want to force the user to constantly check for NULL return
-     * codes, so if we have a problem, we throw an exception.
-     */
-    if (busPtr == NULL) {
-        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getProperty(): NULL bus pointer"));
-        env->ThrowNew(CLS_BusException, QCC_StatusText(ER_FAIL));
+    const InterfaceDescription::Member* member = NULL;
+    JProxyBusObject* proxyBusObj = GetProxyMember(thiz, jbus, jinterfaceName, interfaceName.c_str(), methodName.c_str(), member);
+    if (!proxyBusObj) {
         return NULL;
     }
 
-    QCC_DbgPrintf(("ProxybusObject_getproperty(): Refcount on busPtr is %d\n", busPtr->GetRef()));
-
-    /*
-     * This part of the binding and on down lower is fundamentally single
-     * threaded.  We want to eventually support multiple overlapping synchronous
-     * calls, but we do not support this now.
-     *
-     * It might sound reasonable for a user of the bindings to get around this
-     * limitation by spinning up a bunch of threads to make overlapping get
-     * property calls.  Since these calls will be coming in here to be
-     * dispatched, We have to actively prevent this from happening for now.
-     *
-     * It's a bit of a blunt instrument, but we acquire a common method call lock
-     * in the underlying bus attachment before allowing any method call on a
-     * proxy bus object to proceed.
-     */
-    busPtr->baProxyLock.Lock();
+    MsgArg args;
+    QStatus status;
 
-    JProxyBusObject* proxyBusObj = GetHandle<JProxyBusObject*>(thiz);
-    if (env->ExceptionCheck()) {
-        busPtr->baProxyLock.Unlock();
-        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getProperty(): Exception"));
+    if (!Marshal(inputSig.c_str(), jargs, &args)) {
+        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_methodCall(): Marshal failure"));
         return NULL;
     }
 
-    QCC_ASSERT(proxyBusObj);
+    flags = MethodCallFlags(proxyBusObj, interfaceName.c_str(), args, flags);
 
-    if (!proxyBusObj->ImplementsInterface(interfaceName.c_str())) {
-        AddInterface(thiz, busPtr, jinterfaceName);
-        if (env->ExceptionCheck()) {
-            busPtr->baProxyLock.Unlock();
-            QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getProperty(): Exception"));
-            return NULL;
+    qcc::String val;
+    if (member->GetAnnotation(org::freedesktop::DBus::AnnotateNoReply, val) && val == "true") {
+        status = proxyBusObj->MethodCallAsync(*member, NULL, NULL, args.v_struct.members,
+                                              args.v_struct.numMembers, NULL, replyTimeoutMsecs, flags);
+        if (ER_OK != status) {
+            env->ThrowNew(CLS_BusException, QCC_StatusText(status));
         }
+        return NULL;
+    } else {
+        Message replyMsg(*proxyBusObj->busPtr);
+        status = proxyBusObj->MethodCall(*member, args.v_struct.members, args.v_struct.numMembers,
+                                         replyMsg, replyTimeoutMsecs, flags);
+        return UnmarshalReply(replyMsg, status, joutType);
     }
+}
 
-    MsgArg value;
+/**
+ * The receiver of the replies to asynchronous proxy method calls.  A single
+ * receiver serves all calls; the state of each call is carried in its
+ * context.
+ */
+class JMethodCallReceiver : public MessageReceiver {
+  public:
+    /**
+     * The context of an asynchronous method call, holding strong global
+     * references to the Java objects needed to complete it.
+     */
+    struct Context {
+        jobject jfuture;
+        jobject joutType;
+        JBusAttachment* busPtr;
+        JProxyBusObject* proxyBusObj;
+    };
 
-    qcc::String errorName;
-    qcc::String errorMessage;
+    void ReplyHandler(Message& message, void* context);
+};
 
-    QStatus status = proxyBusObj->GetProperty(interfaceName.c_str(), propertyName.c_str(), value, errorName, errorMessage);
+static JMethodCallReceiver gMethodCallReceiver;
 
-    if (ER_OK == status) {
-        jobject obj = Unmarshal(&value, CLS_Variant);
-        busPtr->baProxyLock.Unlock();
-        return obj;
-    } else {
-        QCC_LogError(status, ("ProxyBusObjexct_getProperty(): Exception"));
-        if (!errorName.empty()) {
-            QCC_DbgPrintf(("ProxyBusObject_getProperty(): Exception ErrorName: %s\nException ErrorMessage: %s", (errorName.c_str(), errorMessage.c_str())));
-            /* errorName is returned as org.alljoyn.Bus.ErStatus
-             * if the exception thrown has a null or empty "" string.
-             * This occurs when the exception is a BusException or any of
-             * the children of BusException besides ErrorReplyBusException.
-             * This also occurs if the exception thrown is an ErrorReplyBusException
-             * with an empty errorName.
-             */
-            if (!strcmp(org::alljoyn::Bus::ErrorName, errorName.c_str())) {
-                env->ThrowNew(CLS_BusException, errorMessage.c_str());
-            } else {
-                ThrowErrorReplyBusException(errorName.c_str(), errorMessage.c_str());
-            }
-        } else {
-            env->ThrowNew(CLS_BusException, QCC_StatusText(status));
-        }
+/**
+ * The asynchronous calls in flight.  The core is not handed the context of a
+ * call but a key into this map, and the context belongs to whoever removes it
+ * from here: the reply handler when the reply arrives, or
+ * ReleasePendingCalls() when the proxy bus object or bus attachment goes away
+ * first.  The core drops its reply handlers on teardown without calling them,
+ * and a reply arriving after the release finds no context and is ignored.
+ */
+static Mutex gPendingCallsLock;
+static map<uintptr_t, JMethodCallReceiver::Context*> gPendingCalls;
+static uintptr_t gNextPendingCallKey = 0;
 
-        busPtr->baProxyLock.Unlock();
+/**
+ * Create the context of an asynchronous call and track it as in flight.
+ *
+ * @return the key of the context, or NULL with an exception pending if the
+ *         global references cannot be created.
+ */
+static void* AddPendingCall(JNIEnv* env, JProxyBusObject* proxyBusObj, jobject jfuture, jobject joutType)
+{
+    JMethodCallReceiver::Context* ctx = new JMethodCallReceiver::Context;
+    ctx->jfuture = env->NewGlobalRef(jfuture);
+    ctx->joutType = env->NewGlobalRef(joutType);
+    ctx->busPtr = proxyBusObj->busPtr;
+    ctx->proxyBusObj = proxyBusObj;
+    if (!ctx->jfuture || !ctx->joutType) {
+        if (ctx->jfuture) {
+            env->DeleteGlobalRef(ctx->jfuture);
+        }
+        if (ctx->joutType) {
+            env->DeleteGlobalRef(ctx->joutType);
+        }
+        delete ctx;
+        Throw("java/lang/OutOfMemoryError", NULL);
+        return NULL;
+    }
+
+    ScopedMutexLock lock(gPendingCallsLock);
+    if (++gNextPendingCallKey == 0) {
+        ++gNextPendingCallKey;
+    }
+    gPendingCalls[gNextPendingCallKey] = ctx;
+    return reinterpret_cast<void*>(gNextPendingCallKey);
+}
+
+/**
+ * Stop tracking an asynchronous call.
+ *
+ * @return the context of the call, or NULL if it has already been released.
+ */
+static JMethodCallReceiver::Context* RemovePendingCall(void* key)
+{
+    ScopedMutexLock lock(gPendingCallsLock);
+    map<uintptr_t, JMethodCallReceiver::Context*>::iterator it = gPendingCalls.find(reinterpret_cast<uintptr_t>(key));
+    if (it == gPendingCalls.end()) {
+        return NULL;
+    }
+    JMethodCallReceiver::Context* ctx = it->second;
+    gPendingCalls.erase(it);
+    return ctx;
+}
+
+static void DeleteContext(JNIEnv* env, JMethodCallReceiver::Context* ctx)
+{
+    env->DeleteGlobalRef(ctx->jfuture);
+    env->DeleteGlobalRef(ctx->joutType);
+    delete ctx;
+}
+
+/**
+ * Release the asynchronous calls in flight on a bus attachment or a proxy bus
+ * object, completing their futures with a BusException.
+ */
+static void ReleasePendingCalls(JNIEnv* env, JBusAttachment* busPtr, JProxyBusObject* proxyBusObj, const char* reason)
+{
+    list<JMethodCallReceiver::Context*> released;
+    gPendingCallsLock.Lock();
+    for (map<uintptr_t, JMethodCallReceiver::Context*>::iterator it = gPendingCalls.begin(); it != gPendingCalls.end();) {
+        if ((busPtr && it->second->busPtr == busPtr) || (proxyBusObj && it->second->proxyBusObj == proxyBusObj)) {
+            released.push_back(it->second);
+            gPendingCalls.erase(it++);
+        } else {
+            ++it;
+        }
+    }
+    gPendingCallsLock.Unlock();
+
+    /*
+     * The futures are completed outside of the lock since their listeners
+     * may start new calls.
+     */
+    for (list<JMethodCallReceiver::Context*>::iterator it = released.begin(); it != released.end(); ++it) {
+        env->ThrowNew(CLS_BusException, reason);
+        JLocalRef<jthrowable> jex = env->ExceptionOccurred();
+        env->ExceptionClear();
+        env->CallVoidMethod((*it)->jfuture, MID_MethodCallFuture_onError, (jthrowable)jex);
+        if (env->ExceptionCheck()) {
+            QCC_LogError(ER_FAIL, ("ReleasePendingCalls(): Exception"));
+            env->ExceptionClear();
+        }
+        DeleteContext(env, *it);
+    }
+}
+
+void JMethodCallReceiver::ReplyHandler(Message& message, void* context)
+{
+    QCC_DbgPrintf(("JMethodCallReceiver::ReplyHandler()"));
+
+    /*
+     * JScopedEnv will automagically attach the JVM to the current native
+     * thread.
+     */
+    JScopedEnv env;
+
+    Context* ctx = RemovePendingCall(context);
+    if (!ctx) {
+        QCC_DbgPrintf(("JMethodCallReceiver::ReplyHandler(): Call already released"));
+        return;
+    }
+
+    /*
+     * Timeouts and other local failures are delivered to us as error replies
+     * generated by the local endpoint.
+     */
+    QStatus status = (message->GetType() == MESSAGE_ERROR) ? ER_BUS_REPLY_IS_ERROR_MESSAGE : ER_OK;
+    JLocalRef<jobject> jreplyArg = UnmarshalReply(message, status, ctx->joutType);
+    JLocalRef<jthrowable> jex = env->ExceptionOccurred();
+    if (jex) {
+        env->ExceptionClear();
+        env->CallVoidMethod(ctx->jfuture, MID_MethodCallFuture_onError, (jthrowable)jex);
+    } else {
+        env->CallVoidMethod(ctx->jfuture, MID_MethodCallFuture_onReply, (jobject)jreplyArg);
+    }
+    if (env->ExceptionCheck()) {
+        QCC_LogError(ER_FAIL, ("JMethodCallReceiver::ReplyHandler(): Exception"));
+        env->ExceptionClear();
+    }
+
+    DeleteContext(env, ctx);
+}
+
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_ProxyBusObject_methodCallAsync(JNIEnv* env,
+                                                                           jobject thiz,
+                                                                           jobject jbus,
+                                                                           jstring jinterfaceName,
+                                                                           jstring jmethodName,
+                                                                           jstring jinputSig,
+                                                                           jobject joutType,
+                                                                           jobjectArray jargs,
+                                                                           jint replyTimeoutMsecs,
+                                                                           jint flags,
+                                                                           jobject jfuture)
+{
+    QCC_DbgPrintf(("ProxyBusObject_methodCallAsync()"));
+
+    JSafeString interfaceName(jinterfaceName);
+    if (env->ExceptionCheck()) {
+        QCC_LogError(ER_FAIL, ("ProxyBusObject_methodCallAsync(): Exception"));
+        return;
+    }
+
+    JSafeString methodName(jmethodName);
+    if (env->ExceptionCheck()) {
+        QCC_LogError(ER_FAIL, ("ProxyBusObject_methodCallAsync(): Exception"));
+        return;
+    }
+
+    JString inputSig(jinputSig);
+    if (env->ExceptionCheck()) {
+        QCC_LogError(ER_FAIL, ("ProxyBusObject_methodCallAsync(): Exception"));
+        return;
+    }
+
+    const InterfaceDescription::Member* member = NULL;
+    JProxyBusObject* proxyBusObj = GetProxyMember(thiz, jbus, jinterfaceName, interfaceName.c_str(), methodName.c_str(), member);
+    if (!proxyBusObj) {
+        return;
+    }
+
+    MsgArg args;
+    QStatus status;
+
+    if (!Marshal(inputSig.c_str(), jargs, &args)) {
+        QCC_LogError(ER_FAIL, ("ProxyBusObject_methodCallAsync(): Marshal failure"));
+        return;
+    }
+
+    flags = MethodCallFlags(proxyBusObj, interfaceName.c_str(), args, flags);
+
+    qcc::String val;
+    if (member->GetAnnotation(org::freedesktop::DBus::AnnotateNoReply, val) && val == "true") {
+        status = proxyBusObj->MethodCallAsync(*member, NULL, NULL, args.v_struct.members,
+                                              args.v_struct.numMembers, NULL, replyTimeoutMsecs, flags);
+        if (ER_OK != status) {
+            env->ThrowNew(CLS_BusException, QCC_StatusText(status));
+            return;
+        }
+        /*
+         * There is no reply to wait for, so the call is complete once sent.
+         */
+        env->CallVoidMethod(jfuture, MID_MethodCallFuture_onReply, (jobject)NULL);
+        return;
+    }
+
+    void* key = AddPendingCall(env, proxyBusObj, jfuture, joutType);
+    if (!key) {
+        return;
+    }
+
+    status = proxyBusObj->MethodCallAsync(*member, &gMethodCallReceiver,
+                                          static_cast<MessageReceiver::ReplyHandler>(&JMethodCallReceiver::ReplyHandler),
+                                          args.v_struct.members, args.v_struct.numMembers,
+                                          key, replyTimeoutMsecs, flags);
+    if (ER_OK != status) {
+        /*
+         * The reply handler is only called if the method call was sent.
+         */
+        JMethodCallReceiver::Context* ctx = RemovePendingCall(key);
+        if (ctx) {
+            DeleteContext(env, ctx);
+        }
+        env->ThrowNew(CLS_BusException, QCC_StatusText(status));
+    }
+}
+
+JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_ProxyBusObject_getProperty(JNIEnv* env, jobject thiz, jobject jbus,
+                                                                          jstring jinterfaceName, jstring jpropertyName)
+{
+    QCC_DbgPrintf(("ProxyBusObject_getProperty()"));
+
+    JSafeString interfaceName(jinterfaceName);
+    if (env->ExceptionCheck()) {
+        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getProperty(): Exception"));
+        return NULL;
+    }
+
+    JString propertyName(jpropertyName);
+    if (env->ExceptionCheck()) {
+        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getProperty(): Exception"));
+        return NULL;
+    }
+
+    JBusAttachment* busPtr = GetHandle<JBusAttachment*>(jbus);
+    if (env->ExceptionCheck()) {
+        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getProperty(): Exception"));
+        return NULL;
+    }
+
+    /*
+     * We don't want to force the user to constantly check for NULL return
+     * codes, so if we have a problem, we throw an exception.
+     */
+    if (busPtr == NULL) {
+        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getProperty(): NULL bus pointer"));
+        env->ThrowNew(CLS_BusException, QCC_StatusText(ER_FAIL));
+        return NULL;
+    }
+
+    QCC_DbgPrintf(("ProxybusObject_getproperty(): Refcount on busPtr is %d\n", busPtr->GetRef()));
+
+    /*
+     * This part of the binding and on down lower is fundamentally single
+     * threaded.  We want to eventually support multiple overlapping synchronous
+     * calls, but we do not support this now.
+     *
+     * It might sound reasonable for a user of the bindings to get around this
+     * limitation by spinning up a bunch of threads to make overlapping get
+     * property calls.  Since these calls will be coming in here to be
+     * dispatched, We have to actively prevent this from happening for now.
+     *
+     * It's a bit of a blunt instrument, but we acquire a common method call lock
+     * in the underlying bus attachment before allowing any method call on a
+     * proxy bus object to proceed.
+     */
+    busPtr->baProxyLock.Lock();
+
+    JProxyBusObject* proxyBusObj = GetHandle<JProxyBusObject*>(thiz);
+    if (env->ExceptionCheck()) {
+        busPtr->baProxyLock.Unlock();
+        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getProperty(): Exception"));
+        return NULL;
+    }
+
+    QCC_ASSERT(proxyBusObj);
+
+    if (!proxyBusObj->ImplementsInterface(interfaceName.c_str())) {
+        AddInterface(thiz, busPtr, jinterfaceName);
+        if (env->ExceptionCheck()) {
+            busPtr->baProxyLock.Unlock();
+            QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getProperty(): Exception"));
+            return NULL;
+        }
+    }
+
+    MsgArg value;
+
+    qcc::String errorName;
+    qcc::String errorMessage;
+
+    QStatus status = proxyBusObj->GetProperty(interfaceName.c_str(), propertyName.c_str(), value, errorName, errorMessage);
+
+    if (ER_OK == status) {
+        jobject obj = Unmarshal(&value, CLS_Variant);
+        busPtr->baProxyLock.Unlock();
+        return obj;
+    } else {
+        QCC_LogError(status, ("ProxyBusObjexct_getProperty(): Exception"));
+        if (!errorName.empty()) {
+            QCC_DbgPrintf(("ProxyBusObject_getProperty(): Exception ErrorName: %s\nException ErrorMessage: %s", (errorName.c_str(), errorMessage.c_str())));
+            /* errorName is returned as org.alljoyn.Bus.ErStatus
+             * if the exception thrown has a null or empty "" string.
+             * This occurs when the exception is a BusException or any of
+             * the children of BusException besides ErrorReplyBusException.
+             * This also occurs if the exception thrown is an ErrorReplyBusException
+             * with an empty errorName.
+             */
+            if (!strcmp(org::alljoyn::Bus::ErrorName, errorName.c_str())) {
+                env->ThrowNew(CLS_BusException, errorMessage.c_str());
+            } else {
+                ThrowErrorReplyBusException(errorName.c_str(), errorMessage.c_str());
+            }
+        } else {
+            env->ThrowNew(CLS_BusException, QCC_StatusText(status));
+        }
+
+        busPtr->baProxyLock.Unlock();
         return NULL;
     }
 }
@@ -12046,8 +12987,131 @@ JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_ProxyBusObject_getAllProperties(J
     JProxyBusObject* proxyBusObj = GetHandle<JProxyBusObject*>(thiz);
     if (env->ExceptionCheck()) {
         busPtr->baProxyLock.Unlock();
-        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getAllProperties(): Exception"));
-        return NULL;
+        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getAllProperties(): Exception"));
+        return NULL;
+    }
+
+    QCC_ASSERT(proxyBusObj);
+
+    if (!proxyBusObj->ImplementsInterface(interfaceName.c_str())) {
+        AddInterface(thiz, busPtr, jinterfaceName);
+        if (env->ExceptionCheck()) {
+            busPtr->baProxyLock.Unlock();
+            QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getAllProperties(): Exception"));
+            return NULL;
+        }
+    }
+
+    MsgArg value;
+    QStatus status = proxyBusObj->GetAllProperties(interfaceName.c_str(), value);
+    if (ER_OK == status) {
+        jobject obj = Unmarshal(&value, joutType);
+        busPtr->baProxyLock.Unlock();
+        return obj;
+    } else {
+        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getAllProperties(): Exception"));
+        busPtr->baProxyLock.Unlock();
+        env->ThrowNew(CLS_BusException, QCC_StatusText(status));
+        return NULL;
+    }
+}
+
+/**
+ * The listener of asynchronous GetAll calls.  Like JMethodCallReceiver, a
+ * single listener serves all calls and the state of each call is carried in
+ * its context.
+ */
+class JGetAllPropertiesListener : public ProxyBusObject::Listener {
+  public:
+    void GetAllPropertiesCB(QStatus status, ProxyBusObject* obj, const MsgArg& values,
+                            const qcc::String& errorName, const qcc::String& errorDescription, void* context);
+};
+
+static JGetAllPropertiesListener gGetAllPropertiesListener;
+
+void JGetAllPropertiesListener::GetAllPropertiesCB(QStatus status, ProxyBusObject* obj, const MsgArg& values,
+                                                   const qcc::String& errorName, const qcc::String& errorDescription,
+                                                   void* context)
+{
+    QCC_UNUSED(obj);
+    QCC_DbgPrintf(("JGetAllPropertiesListener::GetAllPropertiesCB()"));
+
+    /*
+     * JScopedEnv will automagically attach the JVM to the current native
+     * thread.
+     */
+    JScopedEnv env;
+
+    JMethodCallReceiver::Context* ctx = RemovePendingCall(context);
+    if (!ctx) {
+        QCC_DbgPrintf(("JGetAllPropertiesListener::GetAllPropertiesCB(): Call already released"));
+        return;
+    }
+
+    JLocalRef<jobject> jvalues;
+    if (ER_OK == status) {
+        jvalues = Unmarshal(&values, ctx->joutType);
+    } else if (!errorName.empty() && strcmp(org::alljoyn::Bus::ErrorName, errorName.c_str())) {
+        ThrowErrorReplyBusException(errorName.c_str(), errorDescription.c_str());
+    } else {
+        env->ThrowNew(CLS_BusException, QCC_StatusText(status));
+    }
+
+    JLocalRef<jthrowable> jex = env->ExceptionOccurred();
+    if (jex) {
+        env->ExceptionClear();
+        env->CallVoidMethod(ctx->jfuture, MID_MethodCallFuture_onError, (jthrowable)jex);
+    } else {
+        env->CallVoidMethod(ctx->jfuture, MID_MethodCallFuture_onReply, (jobject)jvalues);
+    }
+    if (env->ExceptionCheck()) {
+        QCC_LogError(ER_FAIL, ("JGetAllPropertiesListener::GetAllPropertiesCB(): Exception"));
+        env->ExceptionClear();
+    }
+
+    DeleteContext(env, ctx);
+}
+
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_ProxyBusObject_getAllPropertiesAsync(JNIEnv* env,
+                                                                                 jobject thiz,
+                                                                                 jobject jbus,
+                                                                                 jobject joutType,
+                                                                                 jstring jinterfaceName,
+                                                                                 jint replyTimeoutMsecs,
+                                                                                 jobject jfuture)
+{
+    QCC_DbgPrintf(("ProxyBusObject_getAllPropertiesAsync()"));
+
+    JSafeString interfaceName(jinterfaceName);
+    if (env->ExceptionCheck()) {
+        QCC_LogError(ER_FAIL, ("ProxyBusObject_getAllPropertiesAsync(): Exception"));
+        return;
+    }
+
+    JBusAttachment* busPtr = GetHandle<JBusAttachment*>(jbus);
+    if (env->ExceptionCheck()) {
+        QCC_LogError(ER_FAIL, ("ProxyBusObject_getAllPropertiesAsync(): Exception"));
+        return;
+    }
+
+    if (busPtr == NULL) {
+        QCC_LogError(ER_FAIL, ("ProxyBusObject_getAllPropertiesAsync(): NULL bus pointer"));
+        env->ThrowNew(CLS_BusException, QCC_StatusText(ER_FAIL));
+        return;
+    }
+
+    /*
+     * The common method call lock is only held while the interface is looked
+     * up, not while the call is outstanding, so many calls may be in flight
+     * at once.
+     */
+    busPtr->baProxyLock.Lock();
+
+    JProxyBusObject* proxyBusObj = GetHandle<JProxyBusObject*>(thiz);
+    if (env->ExceptionCheck()) {
+        busPtr->baProxyLock.Unlock();
+        QCC_LogError(ER_FAIL, ("ProxyBusObject_getAllPropertiesAsync(): Exception"));
+        return;
     }
 
     QCC_ASSERT(proxyBusObj);
@@ -12056,22 +13120,30 @@ JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_ProxyBusObject_getAllProperties(J
         AddInterface(thiz, busPtr, jinterfaceName);
         if (env->ExceptionCheck()) {
             busPtr->baProxyLock.Unlock();
-            QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getAllProperties(): Exception"));
-            return NULL;
+            QCC_LogError(ER_FAIL, ("ProxyBusObject_getAllPropertiesAsync(): Exception"));
+            return;
         }
     }
 
-    MsgArg value;
-    QStatus status = proxyBusObj->GetAllProperties(interfaceName.c_str(), value);
-    if (ER_OK == status) {
-        jobject obj = Unmarshal(&value, joutType);
-        busPtr->baProxyLock.Unlock();
-        return obj;
-    } else {
-        QCC_LogError(ER_FAIL, ("ProxyBusObjexct_getAllProperties(): Exception"));
-        busPtr->baProxyLock.Unlock();
+    busPtr->baProxyLock.Unlock();
+
+    void* key = AddPendingCall(env, proxyBusObj, jfuture, joutType);
+    if (!key) {
+        return;
+    }
+
+    QStatus status = proxyBusObj->GetAllPropertiesAsync(interfaceName.c_str(), &gGetAllPropertiesListener,
+                                                        static_cast<ProxyBusObject::Listener::GetAllPropertiesAsyncCB>(&JGetAllPropertiesListener::GetAllPropertiesCB),
+                                                        key, replyTimeoutMsecs);
+    if (ER_OK != status) {
+        /*
+         * The callback is only called if the call was issued.
+         */
+        JMethodCallReceiver::Context* ctx = RemovePendingCall(key);
+        if (ctx) {
+            DeleteContext(env, ctx);
+        }
         env->ThrowNew(CLS_BusException, QCC_StatusText(status));
-        return NULL;
     }
 }
 
@@ -12221,6 +13293,38 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_ProxyBusObject_enablePropertyCaching
     proxyBusObj->EnablePropertyCaching();
 }
 
+/**
+ * Update the Java MessageContext of a SignalEmitter to describe a signal sent.
+ *
+ * @param jmsgContext the Java MessageContext
+ * @param msg the signal message
+ */
+static void SetSignalMessageContext(jobject jmsgContext, Message& msg)
+{
+    JNIEnv* env = GetEnv();
+    jclass msgCtxClass = env->FindClass("org/alljoyn/bus/MessageContext");
+    jfieldID fid = env->GetFieldID(msgCtxClass, "isUnreliable", "Z");
+    env->SetBooleanField(jmsgContext, fid, msg->IsUnreliable());
+    fid = env->GetFieldID(msgCtxClass, "objectPath", "Ljava/lang/String;");
+    env->SetObjectField(jmsgContext, fid, env->NewStringUTF(msg->GetObjectPath()));
+    fid = env->GetFieldID(msgCtxClass, "interfaceName", "Ljava/lang/String;");
+    env->SetObjectField(jmsgContext, fid, env->NewStringUTF(msg->GetInterface()));
+    fid = env->GetFieldID(msgCtxClass, "memberName", "Ljava/lang/String;");
+    env->SetObjectField(jmsgContext, fid, env->NewStringUTF(msg->GetMemberName()));
+    fid = env->GetFieldID(msgCtxClass, "destination", "Ljava/lang/String;");
+    env->SetObjectField(jmsgContext, fid, env->NewStringUTF(msg->GetDestination()));
+    fid = env->GetFieldID(msgCtxClass, "sender", "Ljava/lang/String;");
+    env->SetObjectField(jmsgContext, fid, env->NewStringUTF(msg->GetSender()));
+    fid = env->GetFieldID(msgCtxClass, "sessionId", "I");
+    env->SetIntField(jmsgContext, fid, msg->GetSessionId());
+    fid = env->GetFieldID(msgCtxClass, "serial", "I");
+    env->SetIntField(jmsgContext, fid, msg->GetCallSerial());
+    fid = env->GetFieldID(msgCtxClass, "signature", "Ljava/lang/String;");
+    env->SetObjectField(jmsgContext, fid, env->NewStringUTF(msg->GetSignature()));
+    fid = env->GetFieldID(msgCtxClass, "authMechanism", "Ljava/lang/String;");
+    env->SetObjectField(jmsgContext, fid, env->NewStringUTF(msg->GetAuthMechanism().c_str()));
+}
+
 JNIEXPORT void JNICALL Java_org_alljoyn_bus_SignalEmitter_signal(JNIEnv* env, jobject thiz, jobject jbusObject, jstring jdestination,
                                                                  jint sessionId, jstring jifaceName, jstring jsignalName,
                                                                  jstring jinputSig, jobjectArray jargs, jint timeToLive, jint flags,
@@ -12268,17 +13372,18 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_SignalEmitter_signal(JNIEnv* env, jo
      * would mess us up.  For example, she could call signal on one thread and also
      * "simultaneously" call UnregisterBusObject on another, which could cause the
      * C++ backing object to be deleted out from under us.  To prevent such scenarios
-     * we take the global bus object map lock during the entire signal processing
+     * we take the bus object map lock of the object during the entire signal processing
      * time.  This does mean that if the Signal function causes the execution of
      * something that needs to come back in and manage the global bus objects, we
      * will deadlock.
      */
-    QCC_DbgPrintf(("SignalEmitter_signal(): Taking global Bus Object map lock"));
-    gBusObjectMapLock.Lock();
+    QCC_DbgPrintf(("SignalEmitter_signal(): Taking Bus Object map lock"));
+    Mutex& busObjectMapLock = GetBusObjectMapLock(jbusObject);
+    busObjectMapLock.Lock();
     JBusObject* busObject = GetBackingObject(jbusObject);
     if (!busObject) {
-        QCC_DbgPrintf(("SignalEmitter_signal(): Releasing global Bus Object map lock"));
-        gBusObjectMapLock.Unlock();
+        QCC_DbgPrintf(("SignalEmitter_signal(): Releasing Bus Object map lock"));
+        busObjectMapLock.Unlock();
         QCC_LogError(ER_FAIL, ("SignalEmitter_signal(): Exception"));
         env->ThrowNew(CLS_BusException, QCC_StatusText(ER_BUS_NO_SUCH_OBJECT));
         return;
@@ -12289,32 +13394,12 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_SignalEmitter_signal(JNIEnv* env, jo
     QStatus status = busObject->Signal(destination.c_str(), sessionId, ifaceName.c_str(), signalName.c_str(),
                                        args.v_struct.members, args.v_struct.numMembers, timeToLive, flags, msg);
 
-    QCC_DbgPrintf(("SignalEmitter_signal(): Releasing global Bus Object map lock"));
-    gBusObjectMapLock.Unlock();
+    QCC_DbgPrintf(("SignalEmitter_signal(): Releasing Bus Object map lock"));
+    busObjectMapLock.Unlock();
 
     if (ER_OK == status) {
         /* Update MessageContext */
-        jclass msgCtxClass = env->FindClass("org/alljoyn/bus/MessageContext");
-        jfieldID fid = env->GetFieldID(msgCtxClass, "isUnreliable", "Z");
-        env->SetBooleanField(jmsgContext, fid, msg->IsUnreliable());
-        fid = env->GetFieldID(msgCtxClass, "objectPath", "Ljava/lang/String;");
-        env->SetObjectField(jmsgContext, fid, env->NewStringUTF(msg->GetObjectPath()));
-        fid = env->GetFieldID(msgCtxClass, "interfaceName", "Ljava/lang/String;");
-        env->SetObjectField(jmsgContext, fid, env->NewStringUTF(msg->GetInterface()));
-        fid = env->GetFieldID(msgCtxClass, "memberName", "Ljava/lang/String;");
-        env->SetObjectField(jmsgContext, fid, env->NewStringUTF(msg->GetMemberName()));
-        fid = env->GetFieldID(msgCtxClass, "destination", "Ljava/lang/String;");
-        env->SetObjectField(jmsgContext, fid, env->NewStringUTF(msg->GetDestination()));
-        fid = env->GetFieldID(msgCtxClass, "sender", "Ljava/lang/String;");
-        env->SetObjectField(jmsgContext, fid, env->NewStringUTF(msg->GetSender()));
-        fid = env->GetFieldID(msgCtxClass, "sessionId", "I");
-        env->SetIntField(jmsgContext, fid, msg->GetSessionId());
-        fid = env->GetFieldID(msgCtxClass, "serial", "I");
-        env->SetIntField(jmsgContext, fid, msg->GetCallSerial());
-        fid = env->GetFieldID(msgCtxClass, "signature", "Ljava/lang/String;");
-        env->SetObjectField(jmsgContext, fid, env->NewStringUTF(msg->GetSignature()));
-        fid = env->GetFieldID(msgCtxClass, "authMechanism", "Ljava/lang/String;");
-        env->SetObjectField(jmsgContext, fid, env->NewStringUTF(msg->GetAuthMechanism().c_str()));
+        SetSignalMessageContext(jmsgContext, msg);
     }
 
     if (ER_OK != status) {
@@ -12323,16 +13408,110 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_SignalEmitter_signal(JNIEnv* env, jo
     }
 }
 
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_SignalEmitter_signals(JNIEnv* env, jobject thiz, jobject jbusObject, jstring jdestination,
+                                                                  jint sessionId, jobjectArray jifaceNames, jobjectArray jsignalNames,
+                                                                  jobjectArray jinputSigs, jobjectArray jargs, jint count, jint timeToLive,
+                                                                  jint flags, jobject jmsgContext)
+{
+    QCC_UNUSED(thiz);
+
+    QCC_DbgPrintf(("SignalEmitter_signals(%d)", count));
+
+    JString destination(jdestination);
+    if (env->ExceptionCheck()) {
+        QCC_LogError(ER_FAIL, ("SignalEmitter_signals(): Exception"));
+        return;
+    }
+
+    /*
+     * Marshal all the signals before taking the bus object map lock,
+     * since marshaling may call back into Java.
+     */
+    vector<String> ifaceNames(count);
+    vector<String> signalNames(count);
+    MsgArg* args = new MsgArg[count];
+    for (jint i = 0; i < count; ++i) {
+        JLocalRef<jstring> jifaceName = (jstring)GetObjectArrayElement(env, jifaceNames, i);
+        JLocalRef<jstring> jsignalName = (jstring)GetObjectArrayElement(env, jsignalNames, i);
+        JLocalRef<jstring> jinputSig = (jstring)GetObjectArrayElement(env, jinputSigs, i);
+        JLocalRef<jobjectArray> jsignalArgs = (jobjectArray)GetObjectArrayElement(env, jargs, i);
+        if (env->ExceptionCheck()) {
+            QCC_LogError(ER_FAIL, ("SignalEmitter_signals(): Exception"));
+            delete [] args;
+            return;
+        }
+
+        JString ifaceName(jifaceName);
+        JString signalName(jsignalName);
+        JString inputSig(jinputSig);
+        if (env->ExceptionCheck()) {
+            QCC_LogError(ER_FAIL, ("SignalEmitter_signals(): Exception"));
+            delete [] args;
+            return;
+        }
+        ifaceNames[i] = ifaceName.c_str();
+        signalNames[i] = signalName.c_str();
+
+        if (!Marshal(inputSig.c_str(), jsignalArgs, &args[i])) {
+            QCC_LogError(ER_FAIL, ("SignalEmitter_signals(): Marshal() error"));
+            delete [] args;
+            return;
+        }
+    }
+
+    /*
+     * The backing object is looked up once for the whole batch.  Rather than
+     * holding the bus object map lock of the object across every Signal() of
+     * the batch, as SignalEmitter_signal does for a single signal, the object
+     * is pinned so that a concurrent unregistration defers deleting it.
+     */
+    QCC_DbgPrintf(("SignalEmitter_signals(): Taking Bus Object map lock"));
+    Mutex& busObjectMapLock = GetBusObjectMapLock(jbusObject);
+    busObjectMapLock.Lock();
+    JBusObject* busObject = PinBackingObject(jbusObject);
+    QCC_DbgPrintf(("SignalEmitter_signals(): Releasing Bus Object map lock"));
+    busObjectMapLock.Unlock();
+    if (!busObject) {
+        QCC_LogError(ER_FAIL, ("SignalEmitter_signals(): Exception"));
+        delete [] args;
+        env->ThrowNew(CLS_BusException, QCC_StatusText(ER_BUS_NO_SUCH_OBJECT));
+        return;
+    }
+
+    BusAttachment& bus = const_cast<BusAttachment&>(busObject->GetBusAttachment());
+    Message msg(bus);
+    QStatus status = ER_OK;
+    for (jint i = 0; i < count && ER_OK == status; ++i) {
+        status = busObject->Signal(destination.c_str(), sessionId, ifaceNames[i].c_str(), signalNames[i].c_str(),
+                                   args[i].v_struct.members, args[i].v_struct.numMembers, timeToLive, flags, msg);
+    }
+
+    busObjectMapLock.Lock();
+    UnpinBackingObject(busObject);
+    busObjectMapLock.Unlock();
+
+    delete [] args;
+
+    if (ER_OK == status) {
+        /* Update MessageContext with the last signal sent */
+        SetSignalMessageContext(jmsgContext, msg);
+    } else {
+        QCC_LogError(ER_FAIL, ("SignalEmitter_signals(): Exception"));
+        env->ThrowNew(CLS_BusException, QCC_StatusText(status));
+    }
+}
+
 JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_SignalEmitter_cancelSessionlessSignal(JNIEnv* env, jobject thiz, jobject jbusObject, jint serialNum)
 {
     QCC_UNUSED(thiz);
 
     QCC_DbgPrintf(("SignalEmitter_cancelSessionlessSignal()"));
 
-    gBusObjectMapLock.Lock();
+    Mutex& busObjectMapLock = GetBusObjectMapLock(jbusObject);
+    busObjectMapLock.Lock();
     JBusObject* busObject = GetBackingObject(jbusObject);
     if (!busObject) {
-        gBusObjectMapLock.Unlock();
+        busObjectMapLock.Unlock();
         QCC_LogError(ER_FAIL, ("SignalEmitter_cancelSessionlessSignal(): Exception"));
         env->ThrowNew(CLS_BusException, QCC_StatusText(ER_BUS_NO_SUCH_OBJECT));
         return NULL;
@@ -12340,19 +13519,19 @@ JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_SignalEmitter_cancelSessionlessSi
 
     QStatus status = busObject->CancelSessionlessMessage(serialNum);
 
-    gBusObjectMapLock.Unlock();
+    busObjectMapLock.Unlock();
 
     return JStatus(status);
 }
 
-JNIEXPORT jobjectArray JNICALL Java_org_alljoyn_bus_Signature_split(JNIEnv* env, jclass clazz, jstring jsignature)
+JNIEXPORT jobjectArray JNICALL Java_org_alljoyn_bus_Signature_nativeSplit(JNIEnv* env, jclass clazz, jstring jsignature)
 {
     QCC_UNUSED(clazz);
-    // QCC_DbgPrintf(("Signature_split()"));
+    // QCC_DbgPrintf(("Signature_nativeSplit()"));
 
     JString signature(jsignature);
     if (env->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("Signature_split(): Exception"));
+        QCC_LogError(ER_FAIL, ("Signature_nativeSplit(): Exception"));
         return NULL;
     }
     const char* next = signature.c_str();
@@ -12388,26 +13567,20 @@ JNIEXPORT jobjectArray JNICALL Java_org_alljoyn_bus_Signature_split(JNIEnv* env,
     }
 }
 
-JNIEXPORT void JNICALL Java_org_alljoyn_bus_Variant_destroy(JNIEnv* env, jobject thiz)
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_Variant_destroy(JNIEnv* env, jclass clazz, jlong jmsgArg)
 {
-    // QCC_DbgPrintf(("Variant_destroy()"));
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
 
-    MsgArg* arg = GetHandle<MsgArg*>(thiz);
-    if (env->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("Variant_destroy(): Exception"));
-        return;
-    }
+    // QCC_DbgPrintf(("Variant_destroy()"));
 
-    if (!arg) {
-        return;
-    }
+    MsgArg* arg = (MsgArg*)jmsgArg;
     delete arg;
-    SetHandle(thiz, NULL);
 }
 
-JNIEXPORT void JNICALL Java_org_alljoyn_bus_Variant_setMsgArg(JNIEnv* env, jobject thiz, jlong jmsgArg)
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_Variant_create(JNIEnv* env, jobject thiz, jlong jmsgArg)
 {
-    // QCC_DbgPrintf(("Variant_setMsgArg()"));
+    // QCC_DbgPrintf(("Variant_create()"));
 
     MsgArg* arg = (MsgArg*)jmsgArg;
     QCC_ASSERT(ALLJOYN_VARIANT == arg->typeId);
@@ -12422,6 +13595,76 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_Variant_setMsgArg(JNIEnv* env, jobje
     }
 }
 
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_Variant_wrap(JNIEnv* env, jobject thiz, jlong jmsgArg)
+{
+    // QCC_DbgPrintf(("Variant_wrap()"));
+
+    MsgArg* arg = (MsgArg*)jmsgArg;
+    MsgArg* argCopy = new MsgArg(*arg);
+    if (!argCopy) {
+        Throw("java/lang/OutOfMemoryError", NULL);
+        return;
+    }
+    SetHandle(thiz, argCopy);
+    if (env->ExceptionCheck()) {
+        delete argCopy;
+    }
+}
+
+JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_VariantArena_copy(JNIEnv* env, jclass clazz, jlong jtarget, jlong jmsgArg)
+{
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("VariantArena_copy()"));
+
+    MsgArg* arg = (MsgArg*)jmsgArg;
+    QCC_ASSERT(ALLJOYN_VARIANT == arg->typeId);
+    MsgArg* target = (MsgArg*)jtarget;
+    if (target) {
+        *target = *arg->v_variant.val;
+    } else {
+        target = new MsgArg(*arg->v_variant.val);
+        if (!target) {
+            Throw("java/lang/OutOfMemoryError", NULL);
+            return 0;
+        }
+    }
+    return (jlong)target;
+}
+
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_VariantArena_clear(JNIEnv* env, jclass clazz, jlongArray jmsgArgs, jint count)
+{
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("VariantArena_clear()"));
+
+    if (count == 0) {
+        return;
+    }
+    jlong* jelements = env->GetLongArrayElements(jmsgArgs, NULL);
+    if (!jelements) {
+        return;
+    }
+    for (jint i = 0; i < count; ++i) {
+        ((MsgArg*)jelements[i])->Clear();
+    }
+    env->ReleaseLongArrayElements(jmsgArgs, jelements, JNI_ABORT);
+}
+
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_VariantArena_destroy(JNIEnv* env, jclass clazz, jlongArray jmsgArgs, jint from, jint to)
+{
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("VariantArena_destroy()"));
+
+    jlong* jelements = env->GetLongArrayElements(jmsgArgs, NULL);
+    if (!jelements) {
+        return;
+    }
+    for (jint i = from; i < to; ++i) {
+        delete (MsgArg*)jelements[i];
+    }
+    env->ReleaseLongArrayElements(jmsgArgs, jelements, JNI_ABORT);
+}
+
 JNIEXPORT void JNICALL Java_org_alljoyn_bus_BusException_logln(JNIEnv* env, jclass clazz, jstring jline)
 {
     QCC_UNUSED(clazz);
@@ -12432,91 +13675,395 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_BusException_logln(JNIEnv* env, jcla
     _QCC_DbgPrint(DBG_LOCAL_ERROR, ("%s", line.c_str()));
 }
 
-JNIEXPORT jint JNICALL Java_org_alljoyn_bus_MsgArg_getNumElements(JNIEnv* env, jclass clazz, jlong jmsgArg)
+JNIEXPORT jint JNICALL Java_org_alljoyn_bus_MsgArg_getNumElements(JNIEnv* env, jclass clazz, jlong jmsgArg)
+{
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("MsgArg_getNumElements()"));
+
+    MsgArg* msgArg = (MsgArg*)jmsgArg;
+    QCC_ASSERT(ALLJOYN_ARRAY == msgArg->typeId);
+    return msgArg->v_array.GetNumElements();
+}
+
+JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_getElement(JNIEnv* env, jclass clazz, jlong jmsgArg, jint index)
+{
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("MsgArg_getElement()"));
+
+    MsgArg* msgArg = (MsgArg*)jmsgArg;
+    QCC_ASSERT(ALLJOYN_ARRAY == msgArg->typeId);
+    QCC_ASSERT(index < (jint)msgArg->v_array.GetNumElements());
+    return (jlong) & msgArg->v_array.GetElements()[index];
+}
+
+JNIEXPORT jstring JNICALL Java_org_alljoyn_bus_MsgArg_getElemSig(JNIEnv* env, jclass clazz, jlong jmsgArg)
+{
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("MsgArg_getElementSig()"));
+
+    MsgArg* msgArg = (MsgArg*)jmsgArg;
+    QCC_ASSERT(ALLJOYN_ARRAY == msgArg->typeId);
+    return env->NewStringUTF(msgArg->v_array.GetElemSig());
+}
+
+JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_getVal(JNIEnv* env, jclass clazz, jlong jmsgArg)
+{
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("MsgArg_getVal()"));
+
+    MsgArg* msgArg = (MsgArg*)jmsgArg;
+    switch (msgArg->typeId) {
+    case ALLJOYN_VARIANT:
+        return (jlong)msgArg->v_variant.val;
+
+    case ALLJOYN_DICT_ENTRY:
+        return (jlong)msgArg->v_dictEntry.val;
+
+    default:
+        QCC_ASSERT(0);
+        return 0;
+    }
+}
+
+JNIEXPORT jint JNICALL Java_org_alljoyn_bus_MsgArg_getNumMembers(JNIEnv* env, jclass clazz, jlong jmsgArg)
+{
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("MsgArg_getNumMembers()"));
+
+    MsgArg* msgArg = (MsgArg*)jmsgArg;
+    QCC_ASSERT(ALLJOYN_STRUCT == msgArg->typeId);
+    return msgArg->v_struct.numMembers;
+}
+
+JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_getMember(JNIEnv* env, jclass clazz, jlong jmsgArg, jint index)
+{
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("MsgArg_getMember()"));
+
+    MsgArg* msgArg = (MsgArg*)jmsgArg;
+    QCC_ASSERT(ALLJOYN_STRUCT == msgArg->typeId);
+    QCC_ASSERT(index < (jint)msgArg->v_struct.numMembers);
+    return (jlong) & msgArg->v_struct.members[index];
+}
+
+JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_getKey(JNIEnv* env, jclass clazz, jlong jmsgArg)
+{
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("MsgArg_getKey()"));
+
+    MsgArg* msgArg = (MsgArg*)jmsgArg;
+    QCC_ASSERT(ALLJOYN_DICT_ENTRY == msgArg->typeId);
+    return (jlong)msgArg->v_dictEntry.key;
+}
+
+/**
+ * Return the handles of a run of MsgArgs to Java in one call.
+ */
+static jlongArray NewHandleArray(JNIEnv* env, const MsgArg* args, size_t numArgs)
+{
+    jlongArray jarray = env->NewLongArray(numArgs);
+    if (!jarray) {
+        return NULL;
+    }
+    jlong* jelements = env->GetLongArrayElements(jarray, NULL);
+    for (size_t i = 0; i < numArgs; ++i) {
+        jelements[i] = (jlong) & args[i];
+    }
+    env->ReleaseLongArrayElements(jarray, jelements, 0);
+    return jarray;
+}
+
+JNIEXPORT jlongArray JNICALL Java_org_alljoyn_bus_MsgArg_getElements(JNIEnv* env, jclass clazz, jlong jmsgArg)
+{
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("MsgArg_getElements()"));
+
+    MsgArg* msgArg = (MsgArg*)jmsgArg;
+    QCC_ASSERT(ALLJOYN_ARRAY == msgArg->typeId);
+    return NewHandleArray(env, msgArg->v_array.GetElements(), msgArg->v_array.GetNumElements());
+}
+
+JNIEXPORT jlongArray JNICALL Java_org_alljoyn_bus_MsgArg_getMembers(JNIEnv* env, jclass clazz, jlong jmsgArg)
+{
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("MsgArg_getMembers()"));
+
+    MsgArg* msgArg = (MsgArg*)jmsgArg;
+    QCC_ASSERT(ALLJOYN_STRUCT == msgArg->typeId);
+    return NewHandleArray(env, msgArg->v_struct.members, msgArg->v_struct.numMembers);
+}
+
+/**
+ * Return the handles of the keys (or values) of an array of dictionary
+ * entries to Java in one call.
+ */
+static jlongArray GetDictHandles(JNIEnv* env, jlong jmsgArg, bool keys)
+{
+    MsgArg* msgArg = (MsgArg*)jmsgArg;
+    QCC_ASSERT(ALLJOYN_ARRAY == msgArg->typeId);
+    size_t numElements = msgArg->v_array.GetNumElements();
+    const MsgArg* elements = msgArg->v_array.GetElements();
+    jlongArray jarray = env->NewLongArray(numElements);
+    if (!jarray) {
+        return NULL;
+    }
+    jlong* jelements = env->GetLongArrayElements(jarray, NULL);
+    for (size_t i = 0; i < numElements; ++i) {
+        QCC_ASSERT(ALLJOYN_DICT_ENTRY == elements[i].typeId);
+        jelements[i] = (jlong)(keys ? elements[i].v_dictEntry.key : elements[i].v_dictEntry.val);
+    }
+    env->ReleaseLongArrayElements(jarray, jelements, 0);
+    return jarray;
+}
+
+JNIEXPORT jlongArray JNICALL Java_org_alljoyn_bus_MsgArg_getDictKeys(JNIEnv* env, jclass clazz, jlong jmsgArg)
 {
-    QCC_UNUSED(env);
     QCC_UNUSED(clazz);
-    // QCC_DbgPrintf(("MsgArg_getNumElements()"));
-
-    MsgArg* msgArg = (MsgArg*)jmsgArg;
-    QCC_ASSERT(ALLJOYN_ARRAY == msgArg->typeId);
-    return msgArg->v_array.GetNumElements();
+    // QCC_DbgPrintf(("MsgArg_getDictKeys()"));
+    return GetDictHandles(env, jmsgArg, true);
 }
 
-JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_getElement(JNIEnv* env, jclass clazz, jlong jmsgArg, jint index)
+JNIEXPORT jlongArray JNICALL Java_org_alljoyn_bus_MsgArg_getDictVals(JNIEnv* env, jclass clazz, jlong jmsgArg)
 {
-    QCC_UNUSED(env);
     QCC_UNUSED(clazz);
-    // QCC_DbgPrintf(("MsgArg_getElement()"));
-
-    MsgArg* msgArg = (MsgArg*)jmsgArg;
-    QCC_ASSERT(ALLJOYN_ARRAY == msgArg->typeId);
-    QCC_ASSERT(index < (jint)msgArg->v_array.GetNumElements());
-    return (jlong) & msgArg->v_array.GetElements()[index];
+    // QCC_DbgPrintf(("MsgArg_getDictVals()"));
+    return GetDictHandles(env, jmsgArg, false);
 }
 
-JNIEXPORT jstring JNICALL Java_org_alljoyn_bus_MsgArg_getElemSig(JNIEnv* env, jclass clazz, jlong jmsgArg)
+JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_getDictVal(JNIEnv* env, jclass clazz, jlong jmsgArg, jstring jkey)
 {
     QCC_UNUSED(clazz);
-    // QCC_DbgPrintf(("MsgArg_getElementSig()"));
+    // QCC_DbgPrintf(("MsgArg_getDictVal()"));
 
+    JString key(jkey);
+    if (env->ExceptionCheck()) {
+        return 0;
+    }
     MsgArg* msgArg = (MsgArg*)jmsgArg;
     QCC_ASSERT(ALLJOYN_ARRAY == msgArg->typeId);
-    return env->NewStringUTF(msgArg->v_array.GetElemSig());
+    size_t numElements = msgArg->v_array.GetNumElements();
+    const MsgArg* elements = msgArg->v_array.GetElements();
+    for (size_t i = 0; i < numElements; ++i) {
+        QCC_ASSERT(ALLJOYN_DICT_ENTRY == elements[i].typeId);
+        const MsgArg* k = elements[i].v_dictEntry.key;
+        if (ALLJOYN_STRING == k->typeId && !strcmp(k->v_string.str, key.c_str())) {
+            return (jlong)elements[i].v_dictEntry.val;
+        }
+    }
+    return 0;
 }
 
-JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_getVal(JNIEnv* env, jclass clazz, jlong jmsgArg)
+/**
+ * Fold bytes into a 64-bit FNV-1a hash.
+ */
+static uint64_t HashBytes(uint64_t hash, const void* data, size_t len)
 {
-    QCC_UNUSED(env);
-    QCC_UNUSED(clazz);
-    // QCC_DbgPrintf(("MsgArg_getVal()"));
+    const uint8_t* p = (const uint8_t*)data;
+    for (size_t i = 0; i < len; ++i) {
+        hash ^= p[i];
+        hash *= 1099511628211ULL;
+    }
+    return hash;
+}
 
-    MsgArg* msgArg = (MsgArg*)jmsgArg;
-    switch (msgArg->typeId) {
-    case ALLJOYN_VARIANT:
-        return (jlong)msgArg->v_variant.val;
+/**
+ * Fold the type and contents of a MsgArg, recursively, into a 64-bit FNV-1a
+ * hash.
+ */
+static uint64_t HashMsgArg(uint64_t hash, const MsgArg* arg)
+{
+    uint32_t typeId = arg->typeId;
+    hash = HashBytes(hash, &typeId, sizeof(typeId));
+    switch (arg->typeId) {
+    case ALLJOYN_BOOLEAN: {
+            uint8_t b = arg->v_bool ? 1 : 0;
+            return HashBytes(hash, &b, sizeof(b));
+        }
+
+    case ALLJOYN_BYTE:
+        return HashBytes(hash, &arg->v_byte, sizeof(arg->v_byte));
+
+    case ALLJOYN_INT16:
+    case ALLJOYN_UINT16:
+        return HashBytes(hash, &arg->v_int16, sizeof(arg->v_int16));
+
+    case ALLJOYN_INT32:
+    case ALLJOYN_UINT32:
+        return HashBytes(hash, &arg->v_int32, sizeof(arg->v_int32));
+
+    case ALLJOYN_INT64:
+    case ALLJOYN_UINT64:
+        return HashBytes(hash, &arg->v_int64, sizeof(arg->v_int64));
+
+    case ALLJOYN_DOUBLE:
+        return HashBytes(hash, &arg->v_double, sizeof(arg->v_double));
+
+    case ALLJOYN_HANDLE:
+        return HashBytes(hash, &arg->v_handle.fd, sizeof(arg->v_handle.fd));
+
+    case ALLJOYN_STRING:
+        return HashBytes(hash, arg->v_string.str, arg->v_string.len);
+
+    case ALLJOYN_OBJECT_PATH:
+        return HashBytes(hash, arg->v_objPath.str, arg->v_objPath.len);
+
+    case ALLJOYN_SIGNATURE:
+        return HashBytes(hash, arg->v_signature.sig, arg->v_signature.len);
+
+    case ALLJOYN_ARRAY: {
+            const char* elemSig = arg->v_array.GetElemSig();
+            hash = HashBytes(hash, elemSig, strlen(elemSig));
+            size_t numElements = arg->v_array.GetNumElements();
+            const MsgArg* elements = arg->v_array.GetElements();
+            hash = HashBytes(hash, &numElements, sizeof(numElements));
+            for (size_t i = 0; i < numElements; ++i) {
+                hash = HashMsgArg(hash, &elements[i]);
+            }
+            return hash;
+        }
+
+    case ALLJOYN_STRUCT:
+        hash = HashBytes(hash, &arg->v_struct.numMembers, sizeof(arg->v_struct.numMembers));
+        for (size_t i = 0; i < arg->v_struct.numMembers; ++i) {
+            hash = HashMsgArg(hash, &arg->v_struct.members[i]);
+        }
+        return hash;
 
     case ALLJOYN_DICT_ENTRY:
-        return (jlong)msgArg->v_dictEntry.val;
+        hash = HashMsgArg(hash, arg->v_dictEntry.key);
+        return HashMsgArg(hash, arg->v_dictEntry.val);
+
+    case ALLJOYN_VARIANT:
+        return HashMsgArg(hash, arg->v_variant.val);
+
+    case ALLJOYN_BOOLEAN_ARRAY:
+        hash = HashBytes(hash, &arg->v_scalarArray.numElements, sizeof(arg->v_scalarArray.numElements));
+        for (size_t i = 0; i < arg->v_scalarArray.numElements; ++i) {
+            uint8_t b = arg->v_scalarArray.v_bool[i] ? 1 : 0;
+            hash = HashBytes(hash, &b, sizeof(b));
+        }
+        return hash;
+
+    case ALLJOYN_BYTE_ARRAY:
+        return HashBytes(hash, arg->v_scalarArray.v_byte, arg->v_scalarArray.numElements);
+
+    case ALLJOYN_INT16_ARRAY:
+    case ALLJOYN_UINT16_ARRAY:
+        return HashBytes(hash, arg->v_scalarArray.v_int16, arg->v_scalarArray.numElements * sizeof(int16_t));
+
+    case ALLJOYN_INT32_ARRAY:
+    case ALLJOYN_UINT32_ARRAY:
+        return HashBytes(hash, arg->v_scalarArray.v_int32, arg->v_scalarArray.numElements * sizeof(int32_t));
+
+    case ALLJOYN_INT64_ARRAY:
+    case ALLJOYN_UINT64_ARRAY:
+    case ALLJOYN_DOUBLE_ARRAY:
+        return HashBytes(hash, arg->v_scalarArray.v_int64, arg->v_scalarArray.numElements * sizeof(int64_t));
 
     default:
-        QCC_ASSERT(0);
-        return 0;
+        return hash;
     }
 }
 
-JNIEXPORT jint JNICALL Java_org_alljoyn_bus_MsgArg_getNumMembers(JNIEnv* env, jclass clazz, jlong jmsgArg)
+JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_hash(JNIEnv* env, jclass clazz, jlong jmsgArg)
 {
     QCC_UNUSED(env);
     QCC_UNUSED(clazz);
-    // QCC_DbgPrintf(("MsgArg_getNumMembers()"));
+    // QCC_DbgPrintf(("MsgArg_hash()"));
 
-    MsgArg* msgArg = (MsgArg*)jmsgArg;
-    QCC_ASSERT(ALLJOYN_STRUCT == msgArg->typeId);
-    return msgArg->v_struct.numMembers;
+    return (jlong)HashMsgArg(14695981039346656037ULL, (const MsgArg*)jmsgArg);
 }
 
-JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_getMember(JNIEnv* env, jclass clazz, jlong jmsgArg, jint index)
+/**
+ * Box the value of a MsgArg of basic type the same way MsgArg.unmarshal()
+ * does for a non-enum type.
+ */
+static jobject BoxBasicValue(JNIEnv* env, const MsgArg* msgArg)
 {
-    QCC_UNUSED(env);
-    QCC_UNUSED(clazz);
-    // QCC_DbgPrintf(("MsgArg_getMember()"));
+    switch (msgArg->typeId) {
+    case ALLJOYN_BOOLEAN: {
+            const JPrimitive* primitive = GetPrimitive('Z');
+            return env->CallStaticObjectMethod(primitive->wrapperClass, primitive->valueOf, (jboolean)msgArg->v_bool);
+        }
 
-    MsgArg* msgArg = (MsgArg*)jmsgArg;
-    QCC_ASSERT(ALLJOYN_STRUCT == msgArg->typeId);
-    QCC_ASSERT(index < (jint)msgArg->v_struct.numMembers);
-    return (jlong) & msgArg->v_struct.members[index];
+    case ALLJOYN_BYTE: {
+            const JPrimitive* primitive = GetPrimitive('B');
+            return env->CallStaticObjectMethod(primitive->wrapperClass, primitive->valueOf, (jbyte)msgArg->v_byte);
+        }
+
+    case ALLJOYN_INT16:
+    case ALLJOYN_UINT16: {
+            const JPrimitive* primitive = GetPrimitive('S');
+            jshort value = (ALLJOYN_INT16 == msgArg->typeId) ? msgArg->v_int16 : msgArg->v_uint16;
+            return env->CallStaticObjectMethod(primitive->wrapperClass, primitive->valueOf, value);
+        }
+
+    case ALLJOYN_INT32:
+    case ALLJOYN_UINT32: {
+            const JPrimitive* primitive = GetPrimitive('I');
+            jint value = (ALLJOYN_INT32 == msgArg->typeId) ? msgArg->v_int32 : msgArg->v_uint32;
+            return env->CallStaticObjectMethod(primitive->wrapperClass, primitive->valueOf, value);
+        }
+
+    case ALLJOYN_INT64:
+    case ALLJOYN_UINT64: {
+            const JPrimitive* primitive = GetPrimitive('J');
+            jlong value = (ALLJOYN_INT64 == msgArg->typeId) ? msgArg->v_int64 : msgArg->v_uint64;
+            return env->CallStaticObjectMethod(primitive->wrapperClass, primitive->valueOf, value);
+        }
+
+    case ALLJOYN_DOUBLE: {
+            const JPrimitive* primitive = GetPrimitive('D');
+            return env->CallStaticObjectMethod(primitive->wrapperClass, primitive->valueOf, msgArg->v_double);
+        }
+
+    case ALLJOYN_STRING:
+        return env->NewStringUTF(String(msgArg->v_string.str, msgArg->v_string.len).c_str());
+
+    case ALLJOYN_OBJECT_PATH:
+        return env->NewStringUTF(String(msgArg->v_objPath.str, msgArg->v_objPath.len).c_str());
+
+    case ALLJOYN_SIGNATURE:
+        return env->NewStringUTF(String(msgArg->v_signature.sig, msgArg->v_signature.len).c_str());
+
+    default:
+        env->ThrowNew(CLS_BusException, QCC_StatusText(ER_BUS_BAD_VALUE_TYPE));
+        return NULL;
+    }
 }
 
-JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_getKey(JNIEnv* env, jclass clazz, jlong jmsgArg)
+JNIEXPORT jobjectArray JNICALL Java_org_alljoyn_bus_MsgArg_getBasicValues(JNIEnv* env, jclass clazz, jlongArray jmsgArgs)
 {
-    QCC_UNUSED(env);
     QCC_UNUSED(clazz);
-    // QCC_DbgPrintf(("MsgArg_getKey()"));
+    // QCC_DbgPrintf(("MsgArg_getBasicValues()"));
 
-    MsgArg* msgArg = (MsgArg*)jmsgArg;
-    QCC_ASSERT(ALLJOYN_DICT_ENTRY == msgArg->typeId);
-    return (jlong)msgArg->v_dictEntry.key;
+    jsize numValues = env->GetArrayLength(jmsgArgs);
+    JLocalRef<jobjectArray> jvalues = env->NewObjectArray(numValues, CLS_Object, NULL);
+    if (!jvalues) {
+        return NULL;
+    }
+    jlong* jelements = env->GetLongArrayElements(jmsgArgs, NULL);
+    if (!jelements) {
+        return NULL;
+    }
+    for (jsize i = 0; i < numValues; ++i) {
+        JLocalRef<jobject> jvalue = BoxBasicValue(env, (MsgArg*)jelements[i]);
+        if (env->ExceptionCheck()) {
+            break;
+        }
+        env->SetObjectArrayElement(jvalues, i, jvalue);
+    }
+    env->ReleaseLongArrayElements(jmsgArgs, jelements, JNI_ABORT);
+    if (env->ExceptionCheck()) {
+        return NULL;
+    }
+    return jvalues.move();
 }
 
 JNIEXPORT jbyteArray JNICALL Java_org_alljoyn_bus_MsgArg_getByteArray(JNIEnv* env, jclass clazz, jlong jmsgArg)
@@ -13021,6 +14568,52 @@ JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_set__JLjava_lang_String_2_3B
     return (jlong)arg;
 }
 
+JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_setByteBuffer(JNIEnv* env, jclass clazz, jlong jmsgArg, jstring jsignature, jobject jbuffer, jint position, jint length)
+{
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("MsgArg_setByteBuffer"));
+
+    /*
+     * The MsgArg refers to the contents of the buffer rather than copying
+     * them, so the buffer must stay reachable until the MsgArg is marshalled
+     * into a message.
+     */
+    uint8_t* address = (uint8_t*)env->GetDirectBufferAddress(jbuffer);
+    if (!address && length) {
+        env->ThrowNew(CLS_BusException, QCC_StatusText(ER_BUS_BAD_VALUE));
+        return 0;
+    }
+    return (jlong)Set(env, (MsgArg*)jmsgArg, jsignature, (size_t)length, address ? address + position : address);
+}
+
+JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_MsgArg_getByteBuffer(JNIEnv* env, jclass clazz, jlong jmsgArg)
+{
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("MsgArg_getByteBuffer()"));
+
+    MsgArg* msgArg = (MsgArg*)jmsgArg;
+    QCC_ASSERT(ALLJOYN_BYTE_ARRAY == msgArg->typeId);
+
+    /*
+     * Only the arguments of a message being delivered to a handler that opted
+     * in are lent out, since the message outlives the handler.  Anything else
+     * is copied.
+     */
+    if (!MessageContext::IsLendingArgs() || !msgArg->v_scalarArray.numElements) {
+        return NULL;
+    }
+    return env->NewDirectByteBuffer((void*)msgArg->v_scalarArray.v_byte, msgArg->v_scalarArray.numElements);
+}
+
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_MsgArg_setLendingArgs(JNIEnv* env, jclass clazz, jboolean jlending)
+{
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("MsgArg_setLendingArgs(%d)", jlending));
+
+    MessageContext::SetLendingArgs(jlending == JNI_TRUE);
+}
+
 JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_set__JLjava_lang_String_2_3Z(JNIEnv* env, jclass clazz, jlong jmsgArg, jstring jsignature, jbooleanArray jarray)
 {
     QCC_UNUSED(clazz);
@@ -13167,25 +14760,50 @@ JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_setStruct(JNIEnv* env, jclas
     return (jlong)arg;
 }
 
-JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_setDictEntry(JNIEnv* env, jclass clazz, jlong jmsgArg)
+static bool SetDictEntry(MsgArg* arg)
 {
-    QCC_UNUSED(env);
-    QCC_UNUSED(clazz);
-    // QCC_DbgPrintf(("MsgArg_setDictEntry"));
-
-    MsgArg* arg = (MsgArg*)jmsgArg;
     MsgArg* key = new MsgArg;
     MsgArg* val = new MsgArg;
     if (!key || !val) {
         delete val;
         delete key;
         Throw("java/lang/OutOfMemoryError", NULL);
-        return 0;
+        return false;
     }
     arg->v_dictEntry.key = key;
     arg->v_dictEntry.val = val;
     arg->SetOwnershipFlags(MsgArg::OwnsArgs);
     arg->typeId = ALLJOYN_DICT_ENTRY;
+    return true;
+}
+
+JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_setDictEntry(JNIEnv* env, jclass clazz, jlong jmsgArg)
+{
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("MsgArg_setDictEntry"));
+
+    MsgArg* arg = (MsgArg*)jmsgArg;
+    if (!SetDictEntry(arg)) {
+        return 0;
+    }
+    return (jlong)arg;
+}
+
+JNIEXPORT jlong JNICALL Java_org_alljoyn_bus_MsgArg_setDictEntries(JNIEnv* env, jclass clazz, jlong jmsgArg)
+{
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("MsgArg_setDictEntries"));
+
+    MsgArg* arg = (MsgArg*)jmsgArg;
+    QCC_ASSERT(ALLJOYN_ARRAY == arg->typeId);
+    MsgArg* elements = const_cast<MsgArg*>(arg->v_array.GetElements());
+    for (size_t i = 0; i < arg->v_array.GetNumElements(); ++i) {
+        if (!SetDictEntry(&elements[i])) {
+            return 0;
+        }
+    }
     return (jlong)arg;
 }
 
@@ -13288,21 +14906,16 @@ JNIEXPORT void JNICALL Java_org_alljoyn_bus_Translator_create(JNIEnv* env, jobje
     }
 }
 
-JNIEXPORT void JNICALL Java_org_alljoyn_bus_Translator_destroy(JNIEnv* env, jobject thiz)
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_Translator_destroy(JNIEnv* env, jclass clazz, jlong jhandle)
 {
-    QCC_DbgPrintf(("Translator_destroy()"));
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
 
-    JTranslator* jdt = GetHandle<JTranslator*>(thiz);
-    if (env->ExceptionCheck()) {
-        QCC_LogError(ER_FAIL, ("Translator_destroy(): Exception"));
-        return;
-    }
+    QCC_DbgPrintf(("Translator_destroy()"));
 
+    JTranslator* jdt = (JTranslator*)jhandle;
     QCC_ASSERT(jdt);
     delete jdt;
-
-    SetHandle(thiz, NULL);
-    return;
 }
 
 JNIEXPORT void JNICALL Java_org_alljoyn_bus_AboutObj_create(JNIEnv* env, jobject thiz, jobject jbus, jboolean isAboutAnnounced)
@@ -13981,3 +15594,139 @@ JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_AutoPinger_removeDestination(JNIE
     }
     return JStatus(ER_FAIL);
 }
+
+/**
+ * Look up the int descriptor field of java.io.FileDescriptor on first use, so
+ * that a runtime without it only fails RawSessionChannel and not the whole
+ * library.  The field is "fd" in the JDK and "descriptor" on Android.
+ *
+ * @return the field ID, or NULL with no exception pending if there is none
+ */
+static jfieldID GetFileDescriptorField(JNIEnv* env)
+{
+    if (!FID_FileDescriptor_fd) {
+        jfieldID fid = env->GetFieldID(CLS_FileDescriptor, "fd", "I");
+        if (!fid) {
+            env->ExceptionClear();
+            fid = env->GetFieldID(CLS_FileDescriptor, "descriptor", "I");
+        }
+        if (!fid) {
+            env->ExceptionClear();
+            return NULL;
+        }
+        FID_FileDescriptor_fd = fid;
+    }
+    return FID_FileDescriptor_fd;
+}
+
+JNIEXPORT jobject JNICALL Java_org_alljoyn_bus_RawSessionChannel_newFileDescriptor(JNIEnv* env, jclass clazz, jint jsockFd)
+{
+    QCC_UNUSED(clazz);
+    QCC_DbgPrintf(("RawSessionChannel_newFileDescriptor(%d)", jsockFd));
+
+#if defined(QCC_OS_GROUP_WINDOWS)
+    /*
+     * A Windows socket is not a C runtime file descriptor, so it cannot back
+     * a java.io.FileDescriptor.
+     */
+    QCC_UNUSED(jsockFd);
+    env->ThrowNew(CLS_BusException, QCC_StatusText(ER_NOT_IMPLEMENTED));
+    return NULL;
+#else
+    jfieldID fid = GetFileDescriptorField(env);
+    if (!fid) {
+        QCC_LogError(ER_NOT_IMPLEMENTED, ("RawSessionChannel_newFileDescriptor(): FileDescriptor has no descriptor field"));
+        env->ThrowNew(CLS_BusException, QCC_StatusText(ER_NOT_IMPLEMENTED));
+        return NULL;
+    }
+    jobject jfd = env->NewObject(CLS_FileDescriptor, MID_FileDescriptor_init);
+    if (!jfd) {
+        return NULL;
+    }
+    env->SetIntField(jfd, fid, jsockFd);
+    return jfd;
+#endif
+}
+
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_RawSessionChannel_closeFileDescriptor(JNIEnv* env, jclass clazz, jobject jfd)
+{
+    QCC_UNUSED(clazz);
+    QCC_DbgPrintf(("RawSessionChannel_closeFileDescriptor()"));
+
+    /*
+     * Streams created on a FileDescriptor do not close it on every platform,
+     * so close it here unless a stream has already closed and invalidated it.
+     */
+    jfieldID fid = GetFileDescriptorField(env);
+    if (!fid) {
+        return;
+    }
+    jint sockFd = env->GetIntField(jfd, fid);
+    if (sockFd != -1) {
+        env->SetIntField(jfd, fid, -1);
+        qcc::Close((qcc::SocketFd)sockFd);
+    }
+}
+
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_RawSessionChannel_closeSocket(JNIEnv* env, jclass clazz, jint jsockFd)
+{
+    QCC_UNUSED(env);
+    QCC_UNUSED(clazz);
+    QCC_DbgPrintf(("RawSessionChannel_closeSocket(%d)", jsockFd));
+
+    qcc::Close((qcc::SocketFd)jsockFd);
+}
+
+JNIEXPORT void JNICALL Java_org_alljoyn_bus_RawSessionChannel_setBlocking(JNIEnv* env, jclass clazz, jint jsockFd, jboolean jblocking)
+{
+    QCC_UNUSED(clazz);
+    QCC_DbgPrintf(("RawSessionChannel_setBlocking(%d, %d)", jsockFd, jblocking));
+
+    QStatus status = qcc::SetBlocking((qcc::SocketFd)jsockFd, jblocking);
+    if (status != ER_OK) {
+        QCC_LogError(status, ("RawSessionChannel_setBlocking(): SetBlocking() fails"));
+        env->ThrowNew(CLS_BusException, QCC_StatusText(status));
+    }
+}
+
+JNIEXPORT jint JNICALL Java_org_alljoyn_bus_RawSessionChannel_await(JNIEnv* env, jclass clazz, jint jsockFd, jint jops,
+                                                                   jint jtimeout)
+{
+    QCC_UNUSED(clazz);
+    // QCC_DbgPrintf(("RawSessionChannel_await(%d, %d, %d)", jsockFd, jops, jtimeout));
+
+    /* The same values as java.nio.channels.SelectionKey.OP_READ and OP_WRITE */
+    const jint OP_READ = 1 << 0;
+    const jint OP_WRITE = 1 << 2;
+
+    qcc::Event readEvent((qcc::SocketFd)jsockFd, qcc::Event::IO_READ);
+    qcc::Event writeEvent((qcc::SocketFd)jsockFd, qcc::Event::IO_WRITE);
+    std::vector<qcc::Event*> checkEvents;
+    std::vector<qcc::Event*> signaledEvents;
+    if (jops & OP_READ) {
+        checkEvents.push_back(&readEvent);
+    }
+    if (jops & OP_WRITE) {
+        checkEvents.push_back(&writeEvent);
+    }
+    if (checkEvents.empty()) {
+        return 0;
+    }
+
+    uint32_t timeout = (jtimeout < 0) ? qcc::Event::WAIT_FOREVER : (uint32_t)jtimeout;
+    QStatus status = qcc::Event::Wait(checkEvents, signaledEvents, timeout);
+    if (status == ER_TIMEOUT) {
+        return 0;
+    }
+    if (status != ER_OK) {
+        QCC_LogError(status, ("RawSessionChannel_await(): Wait() fails"));
+        env->ThrowNew(CLS_BusException, QCC_StatusText(status));
+        return 0;
+    }
+
+    jint ready = 0;
+    for (std::vector<qcc::Event*>::iterator it = signaledEvents.begin(); it != signaledEvents.end(); ++it) {
+        ready |= (*it == &readEvent) ? OP_READ : OP_WRITE;
+    }
+    return ready;
+}
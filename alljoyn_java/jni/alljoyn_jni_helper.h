@@ -32,6 +32,7 @@
 
 #include <jni.h>
 #include <stdlib.h>
+#include <vector>
 #include <alljoyn/MsgArg.h>
 
 extern jclass CLS_String;
@@ -245,5 +246,63 @@ class JScopedEnv {
     jint detached;
 };
 
+/**
+ * A Java method (bus method, property accessor or signal handler) resolved
+ * once, when it is registered, so that it can be called directly through JNI.
+ *
+ * Calling java.lang.reflect.Method.invoke() costs a lookup of the invoke
+ * method and a trip through the reflection machinery on every message.
+ * Instead the Method is pinned with a global reference (it is still needed to
+ * unmarshal the arguments) and its jmethodID and the types of its parameters
+ * and return value are worked out up front.  Invoking then only has to unbox
+ * the unmarshalled arguments and make the call.
+ *
+ * Unlike Method.invoke(), an exception thrown by the called method is left
+ * pending as is, and not wrapped in an InvocationTargetException.
+ *
+ * Copies share the same references, so Release() must be called exactly once.
+ */
+class JMethodInvoker {
+  public:
+    JMethodInvoker() : jmethod(NULL), mid(NULL), returnType('V') { }
+
+    /**
+     * Resolve a java.lang.reflect.Method.
+     *
+     * @param env the JNIEnv of the calling thread
+     * @param jmeth the Method to resolve
+     * @return ER_OK if the method was resolved
+     */
+    QStatus Init(JNIEnv* env, jobject jmeth);
+
+    /**
+     * Release the references taken by Init().
+     */
+    void Release(JNIEnv* env);
+
+    /**
+     * Invoke the method.
+     *
+     * @param env the JNIEnv of the calling thread
+     * @param jobj the object to invoke the method on
+     * @param jargs the arguments, boxed as Method.invoke() expects them (may be NULL if there are none)
+     * @return the return value, boxed as Method.invoke() returns it, or NULL
+     *         if the method returns void or an exception is pending
+     */
+    jobject Invoke(JNIEnv* env, jobject jobj, jobjectArray jargs) const;
+
+    /**
+     * @return the resolved java.lang.reflect.Method, or NULL if not resolved
+     */
+    jobject GetMethod() const { return jmethod; }
+
+  private:
+    jobject jmethod;
+    jmethodID mid;
+    char returnType;
+    std::vector<char> paramTypes;
+    std::vector<jclass> paramClasses;
+};
+
 jobject GetObjectArrayElement(JNIEnv* env, jobjectArray array, jsize index);
 #endif
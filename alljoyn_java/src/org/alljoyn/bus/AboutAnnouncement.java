@@ -0,0 +1,205 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A received About announcement whose fields are unmarshalled on demand.
+ *
+ * The object descriptions and AboutData of the announcement are kept as a
+ * copy of the native message arguments.  They are unmarshalled, once, when
+ * {@link #getObjectDescriptions()} or {@link #getAboutData()} is first called;
+ * {@link #getAppId()}, {@link #getAboutField(String)} and
+ * {@link #getContentHash()} read the native arguments without unmarshalling
+ * the rest of the announcement.
+ *
+ * The values returned are shared between all listeners receiving the
+ * announcement, so they must not be modified.
+ */
+public final class AboutAnnouncement {
+
+    private static final VariantTypeReference<Map<String, Variant>> ABOUT_DATA_TYPE =
+        new VariantTypeReference<Map<String, Variant>>() {};
+
+    private final String busName;
+    private final int version;
+    private final short port;
+    private final Variant objectDescriptionsArg;
+    private final Variant aboutDataArg;
+
+    private AboutObjectDescription[] objectDescriptions;
+    private Map<String, Variant> aboutData;
+    private byte[] appId;
+    private boolean hashed;
+    private long contentHash;
+
+    AboutAnnouncement(String busName, int version, short port, Variant objectDescriptionsArg,
+            Variant aboutDataArg) {
+        this.busName = busName;
+        this.version = version;
+        this.port = port;
+        this.objectDescriptionsArg = objectDescriptionsArg;
+        this.aboutDataArg = aboutDataArg;
+    }
+
+    /**
+     * Gets the unique bus name of the announcer.
+     *
+     * @return the unique bus name
+     */
+    public String getBusName() {
+        return busName;
+    }
+
+    /**
+     * Gets the version of the Announce signal.
+     *
+     * @return the version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the session port used by the announcer.
+     *
+     * @return the session port
+     */
+    public short getPort() {
+        return port;
+    }
+
+    /**
+     * Gets the announced object paths and interfaces, unmarshalling them on
+     * the first call.
+     *
+     * @return the object descriptions
+     * @throws BusException if the object descriptions cannot be unmarshalled
+     */
+    public synchronized AboutObjectDescription[] getObjectDescriptions() throws BusException {
+        if (objectDescriptions == null) {
+            objectDescriptions = objectDescriptionsArg.getObject(AboutObjectDescription[].class);
+        }
+        return objectDescriptions;
+    }
+
+    /**
+     * Gets the announced AboutData fields, unmarshalling them on the first
+     * call.
+     *
+     * @return the AboutData fields
+     * @throws BusException if the AboutData cannot be unmarshalled
+     */
+    public synchronized Map<String, Variant> getAboutData() throws BusException {
+        if (aboutData == null) {
+            aboutData = aboutDataArg.getObject(ABOUT_DATA_TYPE);
+        }
+        return aboutData;
+    }
+
+    /**
+     * Gets one announced AboutData field without unmarshalling the others.
+     *
+     * @param key the AboutData field name, e.g. {@link AboutKeys#ABOUT_DEVICE_NAME}
+     * @return the field value, or null if the field is not announced
+     * @throws BusException if the field cannot be unmarshalled
+     */
+    public synchronized Variant getAboutField(String key) throws BusException {
+        if (aboutData != null) {
+            return aboutData.get(key);
+        }
+        long val = MsgArg.getDictVal(aboutDataArg.getMsgArg(), key);
+        return (val == 0) ? null : (Variant) MsgArg.unmarshal(val, Variant.class);
+    }
+
+    /**
+     * Gets the AppId of the announced application without unmarshalling the
+     * rest of the AboutData.
+     *
+     * @return the AppId, or an empty array if the announcement has no AppId
+     *         or it is not an array of bytes
+     * @throws BusException if the AppId cannot be unmarshalled
+     */
+    public synchronized byte[] getAppId() throws BusException {
+        if (appId == null) {
+            Variant v = getAboutField(AboutKeys.ABOUT_APP_ID);
+            appId = (v != null && "ay".equals(v.getSignature())) ? v.getObject(byte[].class) : new byte[0];
+        }
+        return appId;
+    }
+
+    /**
+     * Gets a 64-bit hash of the version, port, object descriptions and
+     * AboutData of the announcement, computed without unmarshalling them.
+     * Announcements with the same contents have the same hash.
+     *
+     * @return the content hash
+     */
+    public synchronized long getContentHash() {
+        if (!hashed) {
+            long hash = MsgArg.hash(objectDescriptionsArg.getMsgArg()) * 31 + MsgArg.hash(aboutDataArg.getMsgArg());
+            contentHash = (hash * 31 + version) * 31 + port;
+            hashed = true;
+        }
+        return contentHash;
+    }
+
+    /**
+     * Tells whether another announcement announces the same application
+     * with the same contents, by comparing the AppIds and content hashes.
+     *
+     * @param other the other announcement, e.g. the previous announcement of
+     *            the application
+     * @return true if the announcements have the same AppId and contents
+     * @throws BusException if an AppId cannot be unmarshalled
+     */
+    public boolean sameContentAs(AboutAnnouncement other) throws BusException {
+        return other != null && getContentHash() == other.getContentHash()
+            && Arrays.equals(getAppId(), other.getAppId());
+    }
+
+    /**
+     * Tells whether an interface is announced at any object path.
+     *
+     * @param interfaceName the AllJoyn interface name
+     * @return true if the interface is announced
+     * @throws BusException if the object descriptions cannot be unmarshalled
+     */
+    public boolean implementsInterface(String interfaceName) throws BusException {
+        for (AboutObjectDescription d : getObjectDescriptions()) {
+            if (d.interfaces != null && Arrays.asList(d.interfaces).contains(interfaceName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+/**
+ * Interface implemented by AllJoyn users to receive About announcements
+ * without unmarshalling them up front.
+ *
+ * Unlike an {@link AboutListener}, an AboutAnnouncementListener receives a
+ * view of the announcement that unmarshals its fields only when they are
+ * retrieved, so listeners that look at the AppId, a single AboutData field
+ * or the content hash do not pay for unmarshalling the whole announcement.
+ *
+ * @see BusAttachment#registerAboutAnnouncementListener(AboutAnnouncementListener)
+ */
+public interface AboutAnnouncementListener {
+    /**
+     * Called by the bus when an announcement containing information about the
+     * application and interfaces is found
+     *
+     * @param announcement the announcement
+     */
+    void announced(AboutAnnouncement announcement);
+}
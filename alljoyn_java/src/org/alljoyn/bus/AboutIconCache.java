@@ -0,0 +1,466 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of the content of About icons, shared by {@link AboutIconProxy}s.
+ *
+ * Icons are looked up with {@link AboutIconProxy#getAboutIcon(AboutIconCache, byte[])}.
+ * For every AppId the cache remembers the Version, MimeType, Size and URL of
+ * the icon last obtained and the SHA-1 hash of its content.  As long as the
+ * remote icon keeps the same Version, MimeType, Size and URL, its content is
+ * served from the cache instead of being downloaded again.  Content is stored
+ * once per hash, so applications that share an icon also share its storage.
+ *
+ * The content kept in memory is bounded in bytes and evicted least recently
+ * used first.  If a spill directory is given, evicted content is written to
+ * it, one file per hash, and read back when needed again; the spill directory
+ * is not bounded, but never holds more than one file per distinct icon.
+ * Content larger than the memory bound bypasses memory and is written to the
+ * spill directory directly.  The spill directory is read and written without
+ * holding the lock of the cache, so slow storage only delays the lookups
+ * that need it.
+ */
+public final class AboutIconCache {
+
+    /** The maximum number of AppIds remembered. */
+    private static final int MAX_APPLICATIONS = 4096;
+
+    /** The suffix of the files in the spill directory. */
+    private static final String SPILL_SUFFIX = ".icon";
+
+    /** The key of an application. */
+    private static final class AppIdKey {
+        final byte[] appId;
+
+        AppIdKey(byte[] appId) {
+            this.appId = appId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return (o instanceof AppIdKey) && Arrays.equals(appId, ((AppIdKey) o).appId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(appId);
+        }
+    }
+
+    /** What is known about the icon of an application. */
+    private static final class Validator {
+        final AboutIconProxy.Info info;
+        final String contentHash;
+
+        Validator(AboutIconProxy.Info info, String contentHash) {
+            this.info = info;
+            this.contentHash = contentHash;
+        }
+
+        boolean matches(AboutIconProxy.Info other) {
+            return info.version == other.version && info.size == other.size
+                && equal(info.mimeType, other.mimeType) && equal(info.url, other.url);
+        }
+
+        private static boolean equal(String a, String b) {
+            return (a == null) ? b == null : a.equals(b);
+        }
+    }
+
+    private final int maxBytes;
+    private final File spillDirectory;
+
+    private final LinkedHashMap<AppIdKey, Validator> validators;
+    private final LinkedHashMap<String, byte[]> contents;
+    private int contentBytes;
+
+    /** Content evicted from memory that is being written to the spill directory. */
+    private final Map<String, byte[]> spilling;
+
+    /** Incremented by {@link #clear()}, to discard spills started before it. */
+    private int generation;
+
+    private long hits;
+    private long misses;
+    private long spills;
+    private long spillReads;
+
+    /**
+     * Constructs an AboutIconCache that keeps content in memory only.
+     *
+     * @param maxBytes the maximum number of bytes of content kept in memory
+     */
+    public AboutIconCache(int maxBytes) {
+        this(maxBytes, null);
+    }
+
+    /**
+     * Constructs an AboutIconCache that spills content evicted from memory
+     * to a directory.
+     *
+     * @param maxBytes the maximum number of bytes of content kept in memory
+     * @param spillDirectory the directory for evicted content, created if it
+     *            does not exist, or null to discard evicted content
+     */
+    public AboutIconCache(int maxBytes, File spillDirectory) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative");
+        }
+        if (spillDirectory != null && !spillDirectory.isDirectory() && !spillDirectory.mkdirs()) {
+            throw new IllegalArgumentException("Cannot create spill directory " + spillDirectory);
+        }
+        this.maxBytes = maxBytes;
+        this.spillDirectory = spillDirectory;
+        this.validators = new LinkedHashMap<AppIdKey, Validator>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<AppIdKey, Validator> eldest) {
+                return size() > MAX_APPLICATIONS;
+            }
+        };
+        this.contents = new LinkedHashMap<String, byte[]>(16, 0.75f, true);
+        this.spilling = new HashMap<String, byte[]>();
+    }
+
+    /**
+     * Gets the icon of a remote application, downloading its content only if
+     * it is not in the cache.
+     *
+     * @param proxy the proxy of the remote AboutIcon BusObject
+     * @param appId the AppId announced by the application owning the icon
+     * @return the icon
+     * @throws BusException indicating there was a failure trying to obtain the
+     * data needed to create an AboutIcon
+     */
+    public AboutIcon getAboutIcon(AboutIconProxy proxy, byte[] appId) throws BusException {
+        if (appId == null) {
+            throw new IllegalArgumentException("appId must not be null");
+        }
+        AboutIconProxy.Info info = proxy.getInfo();
+        AppIdKey key = new AppIdKey(appId.clone());
+        byte[] content = null;
+        String spilledHash = null;
+        int gen;
+        synchronized (this) {
+            Validator v = validators.get(key);
+            if (v != null && v.matches(info)) {
+                content = contents.get(v.contentHash);
+                if (content == null) {
+                    content = spilling.get(v.contentHash);
+                }
+                if (content == null) {
+                    spilledHash = v.contentHash;
+                }
+            }
+            gen = generation;
+        }
+        Map<String, byte[]> evicted = null;
+        if (spilledHash != null) {
+            content = readSpilled(spilledHash);
+            if (content != null) {
+                synchronized (this) {
+                    ++spillReads;
+                    if (gen == generation) {
+                        evicted = store(spilledHash, content);
+                    }
+                }
+            }
+        }
+        synchronized (this) {
+            if (content != null) {
+                ++hits;
+            } else {
+                ++misses;
+            }
+        }
+        if (content == null) {
+            content = (info.size == 0) ? new byte[0] : proxy.getContent();
+            String contentHash = hash(content);
+            synchronized (this) {
+                validators.put(key, new Validator(info, contentHash));
+                evicted = store(contentHash, content);
+                gen = generation;
+            }
+        }
+        if (evicted != null) {
+            spill(evicted, gen);
+        }
+        return new AboutIcon(info.mimeType, info.url, content.clone());
+    }
+
+    /**
+     * Forgets the icon of an application, so that its content is downloaded
+     * again the next time.  Content shared with other applications is kept.
+     *
+     * @param appId the AppId of the application
+     */
+    public synchronized void invalidate(byte[] appId) {
+        validators.remove(new AppIdKey(appId));
+    }
+
+    /**
+     * Removes all icons from the cache, including the content spilled to the
+     * spill directory.
+     */
+    public void clear() {
+        synchronized (this) {
+            validators.clear();
+            contents.clear();
+            contentBytes = 0;
+            spilling.clear();
+            ++generation;
+        }
+        if (spillDirectory != null) {
+            File[] files = spillDirectory.listFiles();
+            if (files != null) {
+                for (File f : files) {
+                    if (f.getName().endsWith(SPILL_SUFFIX)) {
+                        f.delete();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the maximum number of bytes of content kept in memory.
+     *
+     * @return the maximum number of bytes
+     */
+    public int getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Gets the number of bytes of content kept in memory.
+     *
+     * @return the number of bytes
+     */
+    public synchronized int getContentBytes() {
+        return contentBytes;
+    }
+
+    /**
+     * Gets the number of icons served without downloading their content.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of icons whose content had to be downloaded.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of contents written to the spill directory.
+     *
+     * @return the number of spills
+     */
+    public synchronized long getSpillCount() {
+        return spills;
+    }
+
+    /**
+     * Gets the number of contents read back from the spill directory.
+     *
+     * @return the number of spill reads
+     */
+    public synchronized long getSpillReadCount() {
+        return spillReads;
+    }
+
+    /**
+     * Reads content by hash from the spill directory, deleting the file if
+     * it does not match the hash.  Called without holding the lock.
+     *
+     * @return the content, or null if not found
+     */
+    private byte[] readSpilled(String contentHash) {
+        if (spillDirectory == null) {
+            return null;
+        }
+        File f = new File(spillDirectory, contentHash + SPILL_SUFFIX);
+        if (!f.isFile()) {
+            return null;
+        }
+        byte[] content;
+        try {
+            content = read(f);
+        } catch (IOException ex) {
+            BusException.log(new BusException("Cannot read " + f, ex));
+            return null;
+        }
+        if (!contentHash.equals(hash(content))) {
+            f.delete();
+            return null;
+        }
+        return content;
+    }
+
+    /**
+     * Puts content in memory, evicting the least recently used content if
+     * needed.  Content larger than the memory bound is not put in memory.
+     * Called with the lock held.
+     *
+     * @return the content to write to the spill directory, or null if none
+     */
+    private Map<String, byte[]> store(String contentHash, byte[] content) {
+        if (contents.get(contentHash) != null) {
+            return null;
+        }
+        Map<String, byte[]> evicted = null;
+        if (content.length > maxBytes) {
+            evicted = new LinkedHashMap<String, byte[]>();
+            evicted.put(contentHash, content);
+        } else {
+            contents.put(contentHash, content);
+            contentBytes += content.length;
+            Iterator<Map.Entry<String, byte[]>> it = contents.entrySet().iterator();
+            while (contentBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, byte[]> eldest = it.next();
+                it.remove();
+                contentBytes -= eldest.getValue().length;
+                if (evicted == null) {
+                    evicted = new LinkedHashMap<String, byte[]>();
+                }
+                evicted.put(eldest.getKey(), eldest.getValue());
+            }
+        }
+        if (evicted == null || spillDirectory == null) {
+            return null;
+        }
+        spilling.putAll(evicted);
+        return evicted;
+    }
+
+    /**
+     * Writes evicted content to the spill directory.  Called without holding
+     * the lock; until written, the content is still found in {@link #spilling}.
+     */
+    private void spill(Map<String, byte[]> evicted, int gen) {
+        for (Map.Entry<String, byte[]> e : evicted.entrySet()) {
+            String contentHash = e.getKey();
+            File f = new File(spillDirectory, contentHash + SPILL_SUFFIX);
+            boolean written = false;
+            if (!f.isFile()) {
+                File tmp = new File(spillDirectory, contentHash + SPILL_SUFFIX + ".tmp");
+                try {
+                    FileOutputStream out = new FileOutputStream(tmp);
+                    try {
+                        out.write(e.getValue());
+                    } finally {
+                        out.close();
+                    }
+                    if (!tmp.renameTo(f)) {
+                        throw new IOException("Cannot rename " + tmp + " to " + f);
+                    }
+                    written = true;
+                } catch (IOException ex) {
+                    tmp.delete();
+                    BusException.log(new BusException("Cannot write " + f, ex));
+                }
+            }
+            synchronized (this) {
+                if (gen != generation) {
+                    /* The cache was cleared while writing. */
+                    if (written) {
+                        f.delete();
+                    }
+                    continue;
+                }
+                if (spilling.get(contentHash) == e.getValue()) {
+                    spilling.remove(contentHash);
+                }
+                if (written) {
+                    ++spills;
+                }
+            }
+        }
+    }
+
+    private static byte[] read(File f) throws IOException {
+        long length = f.length();
+        if (length > AboutIcon.MAX_CONTENT_LENGTH) {
+            throw new IOException("Icon content too large");
+        }
+        byte[] content = new byte[(int) length];
+        FileInputStream in = new FileInputStream(f);
+        try {
+            int n = 0;
+            while (n < content.length) {
+                int r = in.read(content, n, content.length - n);
+                if (r < 0) {
+                    throw new IOException("Unexpected end of file");
+                }
+                n += r;
+            }
+        } finally {
+            in.close();
+        }
+        return content;
+    }
+
+    /** Gets the hex SHA-1 hash of content. */
+    private static String hash(byte[] content) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        byte[] digest = md.digest(content);
+        StringBuilder sb = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
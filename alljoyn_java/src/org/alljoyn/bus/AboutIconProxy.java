@@ -28,6 +28,9 @@
 */
 package org.alljoyn.bus;
 
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
 import org.alljoyn.bus.AboutIcon;
 import org.alljoyn.bus.ifaces.Icon;
 
@@ -41,21 +44,67 @@ public class AboutIconProxy implements Icon{
      * @param sessionId the session ID this ProxyBusObject will use
      */
     public AboutIconProxy(BusAttachment bus, String busName, int sessionId) {
-        ProxyBusObject aboutIconProxy = bus.getProxyBusObject(busName, Icon.OBJ_PATH, sessionId, new Class<?>[] {Icon.class});
-        proxy = aboutIconProxy.getInterface(Icon.class);
+        proxyBusObj = bus.getProxyBusObject(busName, Icon.OBJ_PATH, sessionId, new Class<?>[] {Icon.class});
+        proxy = proxyBusObj.getInterface(Icon.class);
+        try {
+            asyncProxy = proxyBusObj.getAsyncInterface(Icon.class, IconAsync.class);
+        } catch (BusException ex) {
+            throw new IllegalStateException(ex);
+        }
     }
 
     /**
      * fill in an AboutIcon by making remote method calls to obtain the
      * Information from a remote AboutIcon BusObject
      *
+     * The properties of the icon are read with a single GetAll call, sent
+     * together with the GetUrl and GetContent calls, so the AboutIcon is
+     * obtained in one round trip.
+     *
      * @return An AboutIcon
      *
      * @throws BusException indicating there was a failure trying to obtain the
      * data needed to create an AboutIcon
      */
     public AboutIcon getAboutIcon() throws BusException {
-        return new AboutIcon(getMimeType(), getUrl(), getContent());
+        MethodCallFuture<Map<String, Variant>> properties = proxyBusObj.getAllPropertiesAsync(Icon.INTERFACE_NAME);
+        MethodCallFuture<String> url = asyncProxy.getUrl();
+        MethodCallFuture<byte[]> content = asyncProxy.getContent();
+        String mimeType = getProperty(await(properties), "MimeType", String.class);
+        return new AboutIcon(mimeType, await(url), await(content));
+    }
+
+    /**
+     * fill in an AboutIcon, using a cache shared with the proxies of other
+     * remote AboutIcon BusObjects.
+     *
+     * The properties and URL of the icon are always obtained from the remote
+     * AboutIcon BusObject, in one round trip.  The content is only
+     * downloaded if they differ from those last obtained for the same AppId,
+     * or if the content has since been evicted from the cache.
+     *
+     * @param cache the icon cache
+     * @param appId the AppId announced by the application owning the icon
+     * @return An AboutIcon
+     *
+     * @throws BusException indicating there was a failure trying to obtain the
+     * data needed to create an AboutIcon
+     * @see AboutIconCache
+     */
+    public AboutIcon getAboutIcon(AboutIconCache cache, byte[] appId) throws BusException {
+        return cache.getAboutIcon(this, appId);
+    }
+
+    /**
+     * Gets the properties and URL of the icon with a single GetAll call and a
+     * GetUrl call sent together.
+     */
+    Info getInfo() throws BusException {
+        MethodCallFuture<Map<String, Variant>> properties = proxyBusObj.getAllPropertiesAsync(Icon.INTERFACE_NAME);
+        MethodCallFuture<String> url = asyncProxy.getUrl();
+        Map<String, Variant> map = await(properties);
+        return new Info(getProperty(map, "Version", Short.class), getProperty(map, "MimeType", String.class),
+                        getProperty(map, "Size", Integer.class), await(url));
     }
 
     /**
@@ -108,9 +157,69 @@ public class AboutIconProxy implements Icon{
         return proxy.getContent();
     }
 
+    private static <T> T getProperty(Map<String, Variant> properties, String name, Class<T> type)
+        throws BusException {
+        Variant v = properties.get(name);
+        if (v == null) {
+            throw new BusException("Missing " + Icon.INTERFACE_NAME + " property " + name);
+        }
+        return v.getObject(type);
+    }
+
+    /** Waits for the reply to an asynchronous call and returns it as the synchronous call would. */
+    private static <T> T await(MethodCallFuture<T> future) throws BusException {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof BusException) {
+                throw (BusException) ex.getCause();
+            }
+            throw new BusException("Icon call failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BusException("Interrupted waiting for icon reply", ex);
+        }
+    }
+
+    /**
+     * The properties and URL of a remote icon.
+     */
+    static final class Info {
+        final short version;
+        final String mimeType;
+        final int size;
+        final String url;
+
+        Info(short version, String mimeType, int size, String url) {
+            this.version = version;
+            this.mimeType = mimeType;
+            this.size = size;
+            this.url = url;
+        }
+    }
+
+    /**
+     * The asynchronous companion of the methods of the Icon interface.
+     */
+    interface IconAsync {
+        MethodCallFuture<String> getUrl() throws BusException;
+
+        MethodCallFuture<byte[]> getContent() throws BusException;
+    }
+
+    /**
+     * The org.alljoyn.Icon ProxyBusObject
+     */
+    private ProxyBusObject proxyBusObj;
+
     /**
      * An org.alljoyn.Icon ProxyBusObject
      */
     private Icon proxy;
 
+    /**
+     * The asynchronous proxy for the GetUrl and GetContent methods
+     */
+    private IconAsync asyncProxy;
+
 }
@@ -0,0 +1,814 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A table of the About announcements received by a bus attachment.
+ *
+ * An AnnouncementCache registers itself as an
+ * {@link AboutAnnouncementListener} and a {@link BusListener} of the bus
+ * attachment it is created for, and keeps the latest announcement of every
+ * application, keyed by the unique bus name of the announcer and the AppId of
+ * the application.  The announcements are indexed by object path and by
+ * announced interface, and can be queried from any thread without taking a
+ * lock.
+ *
+ * Re-announcements that do not change anything are recognized by their
+ * {@link AboutAnnouncement#getContentHash() content hash} without being
+ * unmarshalled, and only refresh the time to live of the cached announcement;
+ * registered {@link Listener}s are called only when an application is first
+ * seen, when its announcement changes and when it is gone.  An application
+ * is gone when the unique name of its announcer leaves the bus, or when it
+ * has not re-announced within the time to live.
+ *
+ * The cache does not call {@link BusAttachment#whoImplements(String[])}; the
+ * application still decides which announcements it is interested in.
+ *
+ * The announcements returned from the cache are shared between readers, so
+ * they must not be modified.
+ */
+public final class AnnouncementCache implements AboutAnnouncementListener, AboutListener, Closeable {
+
+    /**
+     * Receives the changes of the announcements in an AnnouncementCache.
+     *
+     * The callbacks are made on the AllJoyn thread that received the
+     * announcement or name change, or on the thread calling
+     * {@link AnnouncementCache#expire()}, and without holding any lock of the
+     * cache.
+     */
+    public interface Listener {
+        /**
+         * Called when an application is announced for the first time.
+         *
+         * @param announcement the announcement
+         */
+        void announcementAdded(Announcement announcement);
+
+        /**
+         * Called when an application announces something different from its
+         * previous announcement.
+         *
+         * @param previous the previous announcement
+         * @param announcement the new announcement
+         */
+        void announcementChanged(Announcement previous, Announcement announcement);
+
+        /**
+         * Called when an application is gone.
+         *
+         * @param announcement the last announcement of the application
+         */
+        void announcementRemoved(Announcement announcement);
+    }
+
+    /**
+     * An announcement of an application.
+     */
+    public static final class Announcement {
+        private final String busName;
+        private final byte[] appId;
+        private final int version;
+        private final short port;
+        private final AboutObjectDescription[] objectDescriptions;
+        private final Map<String, Variant> aboutData;
+
+        /** Whether contentHash is the AboutAnnouncement content hash of the announcement */
+        private final boolean hashed;
+        private final long contentHash;
+
+        /** The System.nanoTime() at which the announcement expires, or NEVER */
+        private volatile long expiresAt;
+
+        Announcement(String busName, byte[] appId, int version, short port,
+                AboutObjectDescription[] objectDescriptions, Map<String, Variant> aboutData, long expiresAt,
+                boolean hashed, long contentHash) {
+            this.busName = busName;
+            this.appId = appId;
+            this.version = version;
+            this.port = port;
+            this.objectDescriptions = (objectDescriptions == null) ? new AboutObjectDescription[0] : objectDescriptions;
+            this.aboutData = (aboutData == null)
+                ? Collections.<String, Variant>emptyMap()
+                : Collections.unmodifiableMap(aboutData);
+            this.expiresAt = expiresAt;
+            this.hashed = hashed;
+            this.contentHash = contentHash;
+        }
+
+        /**
+         * Gets the unique bus name of the announcer.
+         *
+         * @return the unique bus name
+         */
+        public String getBusName() {
+            return busName;
+        }
+
+        /**
+         * Gets the AppId of the announced application.
+         *
+         * @return a copy of the AppId; empty if the announcement has no valid
+         *         AppId
+         */
+        public byte[] getAppId() {
+            return appId.clone();
+        }
+
+        /**
+         * Gets the version of the Announce signal.
+         *
+         * @return the version
+         */
+        public int getVersion() {
+            return version;
+        }
+
+        /**
+         * Gets the session port used by the announcer.
+         *
+         * @return the session port
+         */
+        public short getPort() {
+            return port;
+        }
+
+        /**
+         * Gets the announced object paths and interfaces.
+         *
+         * @return the object descriptions
+         */
+        public AboutObjectDescription[] getObjectDescriptions() {
+            return objectDescriptions;
+        }
+
+        /**
+         * Gets the announced AboutData fields.
+         *
+         * @return an unmodifiable map of the AboutData fields
+         */
+        public Map<String, Variant> getAboutData() {
+            return aboutData;
+        }
+
+        /**
+         * Gets the interfaces announced for an object path.
+         *
+         * @param path the object path
+         * @return the interfaces, or null if the path is not announced
+         */
+        public String[] getInterfaces(String path) {
+            for (AboutObjectDescription d : objectDescriptions) {
+                if (d.path != null && d.path.equals(path)) {
+                    return d.interfaces;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Tells whether an interface is announced at any object path.
+         *
+         * @param interfaceName the AllJoyn interface name
+         * @return true if the interface is announced
+         */
+        public boolean implementsInterface(String interfaceName) {
+            for (AboutObjectDescription d : objectDescriptions) {
+                if (d.interfaces != null && Arrays.asList(d.interfaces).contains(interfaceName)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt != NEVER && expiresAt - now <= 0;
+        }
+
+        /**
+         * Tells whether another announcement of the same application
+         * announces the same objects and AboutData, by their content hashes if
+         * both have one.
+         */
+        boolean sameAs(Announcement other) {
+            if (hashed && other.hashed) {
+                return contentHash == other.contentHash;
+            }
+            return sameAs(other.version, other.port, other.objectDescriptions, other.aboutData);
+        }
+
+        /**
+         * Tells whether another announcement of the same application
+         * announces the same objects and AboutData.
+         */
+        boolean sameAs(int version, short port, AboutObjectDescription[] objectDescriptions,
+                Map<String, Variant> aboutData) {
+            if (this.version != version || this.port != port) {
+                return false;
+            }
+            AboutObjectDescription[] descriptions = (objectDescriptions == null)
+                ? new AboutObjectDescription[0] : objectDescriptions;
+            if (this.objectDescriptions.length != descriptions.length) {
+                return false;
+            }
+            for (int i = 0; i < descriptions.length; ++i) {
+                AboutObjectDescription a = this.objectDescriptions[i];
+                AboutObjectDescription b = descriptions[i];
+                if (!(a.path == null ? b.path == null : a.path.equals(b.path))
+                        || !Arrays.equals(a.interfaces, b.interfaces)) {
+                    return false;
+                }
+            }
+            int size = (aboutData == null) ? 0 : aboutData.size();
+            if (this.aboutData.size() != size) {
+                return false;
+            }
+            for (Map.Entry<String, Variant> e : this.aboutData.entrySet()) {
+                if (!sameValue(e.getValue(), aboutData.get(e.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /** The key of a cached announcement. */
+    private static final class Key {
+        final String busName;
+        final byte[] appId;
+
+        Key(String busName, byte[] appId) {
+            this.busName = busName;
+            this.appId = appId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return busName.equals(k.busName) && Arrays.equals(appId, k.appId);
+        }
+
+        @Override
+        public int hashCode() {
+            return busName.hashCode() * 31 + Arrays.hashCode(appId);
+        }
+    }
+
+    /** Follows the announcers on the bus. */
+    private final class NameListener extends BusListener {
+        @Override
+        public void nameOwnerChanged(String busName, String previousOwner, String newOwner) {
+            if (newOwner == null && busName != null && busName.startsWith(":")) {
+                removeAll(busName);
+            }
+        }
+
+        @Override
+        public void busDisconnected() {
+            removeAll(null);
+        }
+    }
+
+    /** Used for the expiry time of announcements that do not expire. */
+    static final long NEVER = Long.MAX_VALUE;
+
+    private BusAttachment bus;
+    private final NameListener nameListener;
+    private final long timeToLiveNanos;
+
+    /**
+     * Guards updates of the announcements and their indexes, so that the
+     * indexes agree with each other.  Queries never take it.
+     */
+    private final Object updateLock = new Object();
+    /** The System.nanoTime() of the next sweep for expired announcements */
+    private long nextSweep;
+
+    private final ConcurrentMap<Key, Announcement> announcements = new ConcurrentHashMap<Key, Announcement>();
+    /** Announcements by unique bus name of the announcer */
+    private final ConcurrentMap<String, ConcurrentMap<Key, Announcement>> byBusName =
+        new ConcurrentHashMap<String, ConcurrentMap<Key, Announcement>>();
+    /** Announcements by announced object path */
+    private final ConcurrentMap<String, ConcurrentMap<Key, Announcement>> byPath =
+        new ConcurrentHashMap<String, ConcurrentMap<Key, Announcement>>();
+    /** Announcements by announced interface name */
+    private final ConcurrentMap<String, ConcurrentMap<Key, Announcement>> byInterface =
+        new ConcurrentHashMap<String, ConcurrentMap<Key, Announcement>>();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+
+    /**
+     * Creates an AnnouncementCache and registers it with a bus attachment.
+     *
+     * @param bus the bus attachment receiving the announcements
+     * @param timeToLive the time in milliseconds after which an application
+     *            that has not re-announced is considered gone, or 0 if
+     *            announcements do not expire
+     */
+    public AnnouncementCache(BusAttachment bus, long timeToLive) {
+        if (bus == null) {
+            throw new IllegalArgumentException("bus must not be null");
+        }
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("timeToLive must not be negative");
+        }
+        this.bus = bus;
+        this.timeToLiveNanos = timeToLive * 1000000L;
+        this.nextSweep = System.nanoTime() + timeToLiveNanos;
+        nameListener = new NameListener();
+        bus.registerBusListener(nameListener);
+        bus.registerAboutAnnouncementListener(this);
+    }
+
+    /**
+     * Unregisters this cache from its bus attachment and forgets all
+     * announcements.  No listener is called.
+     *
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public synchronized void close() {
+        if (bus == null) {
+            return;
+        }
+        bus.unregisterAboutAnnouncementListener(this);
+        bus.unregisterBusListener(nameListener);
+        bus = null;
+        listeners.clear();
+        synchronized (updateLock) {
+            announcements.clear();
+            byBusName.clear();
+            byPath.clear();
+            byInterface.clear();
+        }
+    }
+
+    /**
+     * Register a {@link Listener}.
+     *
+     * @param listener the listener to register
+     * @param triggerOnExisting indicates whether the listener's
+     *            announcementAdded callback should be invoked, on the calling
+     *            thread, for all announcements in the cache
+     */
+    public void registerListener(Listener listener, boolean triggerOnExisting) {
+        listeners.add(listener);
+        if (triggerOnExisting) {
+            for (Announcement a : getAll()) {
+                try {
+                    listener.announcementAdded(a);
+                } catch (Throwable t) {
+                    BusException.log(new InvocationTargetException(t,
+                            "Exception in AnnouncementCache.Listener"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Unregister a previously registered {@link Listener}.
+     *
+     * @param listener the listener to unregister
+     */
+    public void unregisterListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Called by the bus attachment for every announcement it receives.  An
+     * unchanged re-announcement is recognized by its AppId and content hash,
+     * without unmarshalling the rest of the announcement.
+     *
+     * @see AboutAnnouncementListener#announced(AboutAnnouncement)
+     */
+    @Override
+    public void announced(AboutAnnouncement announcement) {
+        if (announcement.getBusName() == null) {
+            return;
+        }
+        received.incrementAndGet();
+        long now = System.nanoTime();
+        Key key;
+        Announcement current;
+        try {
+            key = new Key(announcement.getBusName(), announcement.getAppId().clone());
+            long contentHash = announcement.getContentHash();
+            if (refresh(key, contentHash, now)) {
+                duplicates.incrementAndGet();
+                sweepIfDue(now);
+                return;
+            }
+            current = new Announcement(announcement.getBusName(), key.appId, announcement.getVersion(),
+                    announcement.getPort(), announcement.getObjectDescriptions(), announcement.getAboutData(),
+                    expiresAt(now), true, contentHash);
+        } catch (BusException ex) {
+            BusException.log(ex);
+            return;
+        }
+        update(key, current, now);
+    }
+
+    /**
+     * Adds an announcement to the cache as if it had been received by the
+     * bus attachment.  An unchanged re-announcement is recognized by
+     * comparing it with the cached announcement of the application.
+     *
+     * @see AboutListener#announced(String, int, short, AboutObjectDescription[], Map)
+     */
+    @Override
+    public void announced(String busName, int version, short port,
+            AboutObjectDescription[] objectDescriptions, Map<String, Variant> aboutData) {
+        if (busName == null) {
+            return;
+        }
+        received.incrementAndGet();
+        long now = System.nanoTime();
+        Key key = new Key(busName, getAppId(aboutData));
+        update(key, new Announcement(busName, key.appId, version, port, objectDescriptions, aboutData,
+                expiresAt(now), false, 0), now);
+    }
+
+    /**
+     * Refreshes the time to live of the cached announcement of an
+     * application if it has the given content hash.
+     *
+     * @return true if the announcement was refreshed
+     */
+    private boolean refresh(Key key, long contentHash, long now) {
+        synchronized (updateLock) {
+            Announcement previous = announcements.get(key);
+            if (previous != null && !previous.isExpired(now)
+                    && previous.hashed && previous.contentHash == contentHash) {
+                previous.expiresAt = expiresAt(now);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Puts an announcement in the cache unless it is the same as the cached
+     * announcement of the application, and notifies the listeners.
+     */
+    private void update(Key key, Announcement current, long now) {
+        Announcement previous;
+        boolean same;
+        synchronized (updateLock) {
+            previous = announcements.get(key);
+            same = previous != null && !previous.isExpired(now) && previous.sameAs(current);
+            if (same) {
+                previous.expiresAt = current.expiresAt;
+            } else {
+                if (previous != null) {
+                    remove(key, previous);
+                }
+                add(key, current);
+            }
+        }
+
+        if (same) {
+            duplicates.incrementAndGet();
+        } else {
+            for (Listener l : listeners) {
+                try {
+                    if (previous == null) {
+                        l.announcementAdded(current);
+                    } else {
+                        l.announcementChanged(previous, current);
+                    }
+                } catch (Throwable t) {
+                    BusException.log(new InvocationTargetException(t,
+                            "Exception in AnnouncementCache.Listener"));
+                }
+            }
+        }
+        sweepIfDue(now);
+    }
+
+    /**
+     * Removes the expired announcements if the time to live has passed
+     * since the last sweep.
+     */
+    private void sweepIfDue(long now) {
+        boolean sweep;
+        synchronized (updateLock) {
+            sweep = timeToLiveNanos != 0 && nextSweep - now <= 0;
+            if (sweep) {
+                nextSweep = now + timeToLiveNanos / 4;
+            }
+        }
+        if (sweep) {
+            expire();
+        }
+    }
+
+    /**
+     * Removes the announcements that have not been refreshed within the time
+     * to live, and notifies the listeners.
+     *
+     * Expired announcements are never returned by the queries of the cache,
+     * but they are only removed, and the listeners told, by this method.  The
+     * cache calls it itself from time to time while announcements are
+     * received.
+     *
+     * @return the number of announcements removed
+     */
+    public int expire() {
+        long now = System.nanoTime();
+        List<Announcement> expired = new ArrayList<Announcement>();
+        synchronized (updateLock) {
+            Iterator<Map.Entry<Key, Announcement>> it = announcements.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, Announcement> e = it.next();
+                if (e.getValue().isExpired(now)) {
+                    remove(e.getKey(), e.getValue());
+                    expired.add(e.getValue());
+                }
+            }
+        }
+        notifyRemoved(expired);
+        return expired.size();
+    }
+
+    /**
+     * Gets the announcement of an application.
+     *
+     * @param busName the unique bus name of the announcer
+     * @param appId the AppId of the application
+     * @return the announcement, or null if not found or expired
+     */
+    public Announcement get(String busName, byte[] appId) {
+        if (busName == null || appId == null) {
+            return null;
+        }
+        return live(announcements.get(new Key(busName, appId)), System.nanoTime());
+    }
+
+    /**
+     * Gets the number of announcements in the cache, including those expired
+     * but not yet removed.
+     *
+     * @return the number of announcements
+     */
+    public int size() {
+        return announcements.size();
+    }
+
+    /**
+     * Gets all announcements.
+     *
+     * @return a snapshot of the announcements
+     */
+    public List<Announcement> getAll() {
+        return live(announcements);
+    }
+
+    /**
+     * Gets the announcements of one announcer.
+     *
+     * @param busName the unique bus name of the announcer
+     * @return a snapshot of the announcements; empty if none
+     */
+    public List<Announcement> getAll(String busName) {
+        return live(lookup(byBusName, busName));
+    }
+
+    /**
+     * Gets the announcements that announce an object path.
+     *
+     * @param path the object path
+     * @return a snapshot of the announcements; empty if none
+     */
+    public List<Announcement> getAllAt(String path) {
+        return live(lookup(byPath, path));
+    }
+
+    /**
+     * Gets the announcements that announce an interface at any object path.
+     *
+     * @param interfaceName the AllJoyn interface name
+     * @return a snapshot of the announcements; empty if none
+     */
+    public List<Announcement> getAllImplementing(String interfaceName) {
+        return live(lookup(byInterface, interfaceName));
+    }
+
+    /**
+     * Gets the number of announcements received.
+     *
+     * @return the number of announcements received
+     */
+    public long getReceivedCount() {
+        return received.get();
+    }
+
+    /**
+     * Gets the number of received announcements that did not change the
+     * cached announcement of the application.
+     *
+     * @return the number of unchanged re-announcements
+     */
+    public long getDuplicateCount() {
+        return duplicates.get();
+    }
+
+    /**
+     * Removes the announcements of an announcer, or all announcements if
+     * busName is null, and notifies the listeners.
+     */
+    private void removeAll(String busName) {
+        List<Announcement> removed = new ArrayList<Announcement>();
+        synchronized (updateLock) {
+            Map<Key, Announcement> map = (busName == null) ? announcements : byBusName.get(busName);
+            if (map == null) {
+                return;
+            }
+            for (Map.Entry<Key, Announcement> e : new ArrayList<Map.Entry<Key, Announcement>>(map.entrySet())) {
+                remove(e.getKey(), e.getValue());
+                removed.add(e.getValue());
+            }
+        }
+        notifyRemoved(removed);
+    }
+
+    private void notifyRemoved(List<Announcement> removed) {
+        for (Announcement a : removed) {
+            for (Listener l : listeners) {
+                try {
+                    l.announcementRemoved(a);
+                } catch (Throwable t) {
+                    BusException.log(new InvocationTargetException(t,
+                            "Exception in AnnouncementCache.Listener"));
+                }
+            }
+        }
+    }
+
+    private void add(Key key, Announcement a) {
+        announcements.put(key, a);
+        index(byBusName, a.busName, key, a);
+        for (AboutObjectDescription d : a.objectDescriptions) {
+            if (d.path != null) {
+                index(byPath, d.path, key, a);
+            }
+            if (d.interfaces != null) {
+                for (String intf : d.interfaces) {
+                    index(byInterface, intf, key, a);
+                }
+            }
+        }
+    }
+
+    private void remove(Key key, Announcement a) {
+        announcements.remove(key);
+        unindex(byBusName, a.busName, key);
+        for (AboutObjectDescription d : a.objectDescriptions) {
+            if (d.path != null) {
+                unindex(byPath, d.path, key);
+            }
+            if (d.interfaces != null) {
+                for (String intf : d.interfaces) {
+                    unindex(byInterface, intf, key);
+                }
+            }
+        }
+    }
+
+    private static void index(ConcurrentMap<String, ConcurrentMap<Key, Announcement>> index,
+            String name, Key key, Announcement a) {
+        ConcurrentMap<Key, Announcement> map = index.get(name);
+        if (map == null) {
+            map = new ConcurrentHashMap<Key, Announcement>(4);
+            index.put(name, map);
+        }
+        map.put(key, a);
+    }
+
+    private static void unindex(ConcurrentMap<String, ConcurrentMap<Key, Announcement>> index,
+            String name, Key key) {
+        Map<Key, Announcement> map = index.get(name);
+        if (map != null) {
+            map.remove(key);
+            if (map.isEmpty()) {
+                index.remove(name);
+            }
+        }
+    }
+
+    private static Map<Key, Announcement> lookup(Map<String, ConcurrentMap<Key, Announcement>> index, String name) {
+        return (name == null) ? null : index.get(name);
+    }
+
+    private static Announcement live(Announcement a, long now) {
+        return (a == null || a.isExpired(now)) ? null : a;
+    }
+
+    private static List<Announcement> live(Map<Key, Announcement> map) {
+        if (map == null) {
+            return Collections.<Announcement>emptyList();
+        }
+        long now = System.nanoTime();
+        List<Announcement> list = new ArrayList<Announcement>(map.size());
+        for (Announcement a : map.values()) {
+            if (!a.isExpired(now)) {
+                list.add(a);
+            }
+        }
+        return list;
+    }
+
+    private long expiresAt(long now) {
+        return (timeToLiveNanos == 0) ? NEVER : now + timeToLiveNanos;
+    }
+
+    /**
+     * Gets the AppId field of the AboutData, or an empty array if it is
+     * missing or not an array of bytes.
+     */
+    private static byte[] getAppId(Map<String, Variant> aboutData) {
+        Variant v = (aboutData == null) ? null : aboutData.get(AboutKeys.ABOUT_APP_ID);
+        if (v != null) {
+            try {
+                if ("ay".equals(v.getSignature())) {
+                    byte[] appId = v.getObject(byte[].class);
+                    if (appId != null) {
+                        return appId.clone();
+                    }
+                }
+            } catch (BusException ex) {
+                BusException.log(ex);
+            }
+        }
+        return new byte[0];
+    }
+
+    /**
+     * Tells whether two AboutData values are the same.  Variant.equals() is
+     * not used since it compares arrays by identity.
+     */
+    static boolean sameValue(Variant a, Variant b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return false;
+        }
+        try {
+            String signature = a.getSignature();
+            if (signature == null || !signature.equals(b.getSignature())) {
+                return false;
+            }
+            return Arrays.deepEquals(new Object[] { a.getObject() }, new Object[] { b.getObject() });
+        } catch (BusException ex) {
+            return false;
+        } catch (ClassCastException ex) {
+            return false;
+        }
+    }
+}
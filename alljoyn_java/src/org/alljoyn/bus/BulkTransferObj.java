@@ -0,0 +1,370 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.alljoyn.bus.ifaces.BulkTransfer;
+
+/**
+ * BulkTransferObj is an AllJoyn BusObject that implements the
+ * org.alljoyn.BulkTransfer interface.  It serves named blobs to
+ * {@link BulkTransferProxy} clients and receives blobs uploaded by them.
+ *
+ * Blobs are backed by a FileChannel or by a ByteBuffer, which may be a
+ * memory-mapped buffer.  Reads and writes use absolute positions, so the
+ * position of a channel or buffer handed to this object is never changed.
+ *
+ * Chunks of an upload must arrive in order: a Write that would leave a gap
+ * after the acknowledged bytes is refused with
+ * {@link BulkTransfer#ERROR_OUT_OF_ORDER}.  Method calls from one proxy are
+ * dispatched in order unless the application enables concurrent callbacks.
+ */
+public class BulkTransferObj implements BulkTransfer, BusObject {
+
+    /**
+     * The largest chunk served or accepted.  AllJoyn limits a message body
+     * to 128 KiB, which has to hold the chunk and the other arguments.
+     */
+    public static final int MAX_CHUNK_SIZE = 120 * 1024;
+
+    /**
+     * Create a BulkTransfer BusObject.  The object still has to be
+     * registered with {@link BusAttachment#registerBusObject(BusObject, String)},
+     * normally at {@link BulkTransfer#OBJ_PATH}.
+     */
+    public BulkTransferObj() {
+        blobs = new ConcurrentHashMap<String, Blob>();
+    }
+
+    /**
+     * Offer the contents of a file for download.
+     *
+     * @param name the name of the blob
+     * @param channel the file holding the blob
+     */
+    public void offer(String name, FileChannel channel) {
+        put(name, new Blob(new FileContent(channel), false));
+    }
+
+    /**
+     * Offer the bytes of a buffer, from index 0 to its limit, for download.
+     *
+     * @param name the name of the blob
+     * @param buffer the buffer holding the blob, possibly memory-mapped
+     */
+    public void offer(String name, ByteBuffer buffer) {
+        put(name, new Blob(new BufferContent(buffer), false));
+    }
+
+    /**
+     * Accept an upload into a file.  An upload into a non-empty file resumes
+     * after its current contents.
+     *
+     * @param name the name of the blob
+     * @param channel the file receiving the blob
+     * @throws IOException if the size of the file cannot be read
+     */
+    public void accept(String name, FileChannel channel) throws IOException {
+        Blob blob = new Blob(new FileContent(channel), true);
+        blob.committed = channel.size();
+        put(name, blob);
+    }
+
+    /**
+     * Accept an upload into a buffer.  The upload may be at most as long as
+     * the limit of the buffer.
+     *
+     * @param name the name of the blob
+     * @param buffer the buffer receiving the blob, possibly memory-mapped
+     */
+    public void accept(String name, ByteBuffer buffer) {
+        put(name, new Blob(new BufferContent(buffer), true));
+    }
+
+    /**
+     * Stop offering or accepting a blob.
+     *
+     * @param name the name of the blob
+     * @return true if the blob was offered or accepted
+     */
+    public boolean withdraw(String name) {
+        return blobs.remove(name) != null;
+    }
+
+    @Override
+    public long getSize(String name) throws BusException {
+        return get(name).size();
+    }
+
+    @Override
+    public byte[] read(String name, long offset, int length) throws BusException {
+        Blob blob = get(name);
+        long size = blob.size();
+        if (offset < 0 || offset > size || length < 0 || length > MAX_CHUNK_SIZE) {
+            throw new ErrorReplyBusException(ERROR_OUT_OF_RANGE, "Read " + length + " at " + offset + " of " + size);
+        }
+        byte[] data = new byte[(int) Math.min(length, size - offset)];
+        try {
+            blob.content.read(ByteBuffer.wrap(data), offset);
+        } catch (IOException ex) {
+            throw new ErrorReplyBusException(ERROR_IO, ex.toString());
+        }
+        return data;
+    }
+
+    @Override
+    public long write(String name, long offset, byte[] data) throws BusException {
+        Blob blob = get(name);
+        if (!blob.writable) {
+            throw new ErrorReplyBusException(ERROR_NOT_FOUND, "Not accepting " + name);
+        }
+        synchronized (blob) {
+            if (offset < 0 || offset > blob.committed) {
+                throw new ErrorReplyBusException(ERROR_OUT_OF_ORDER, "Write at " + offset + " after " + blob.committed);
+            }
+            if (data.length > MAX_CHUNK_SIZE || offset + data.length > blob.content.capacity()) {
+                throw new ErrorReplyBusException(ERROR_OUT_OF_RANGE, "Write " + data.length + " at " + offset);
+            }
+            try {
+                blob.content.write(ByteBuffer.wrap(data), offset);
+            } catch (IOException ex) {
+                throw new ErrorReplyBusException(ERROR_IO, ex.toString());
+            }
+            blob.committed = Math.max(blob.committed, offset + data.length);
+            return blob.committed;
+        }
+    }
+
+    @Override
+    public byte[] getDigest(String name, long offset, long length) throws BusException {
+        Blob blob = get(name);
+        if (offset < 0 || length < 0 || offset + length > blob.size()) {
+            throw new ErrorReplyBusException(ERROR_OUT_OF_RANGE, "Digest " + length + " at " + offset);
+        }
+        try {
+            return digest(blob.content, offset, length);
+        } catch (IOException ex) {
+            throw new ErrorReplyBusException(ERROR_IO, ex.toString());
+        }
+    }
+
+    private void put(String name, Blob blob) {
+        if (name == null) {
+            throw new NullPointerException("name must not be null");
+        }
+        blobs.put(name, blob);
+    }
+
+    private Blob get(String name) throws BusException {
+        Blob blob = blobs.get(name);
+        if (blob == null) {
+            throw new ErrorReplyBusException(ERROR_NOT_FOUND, "No blob " + name);
+        }
+        return blob;
+    }
+
+    /**
+     * Computes the SHA-1 digest of a range of content.
+     */
+    static byte[] digest(Content content, long offset, long length) throws IOException {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, 64 * 1024));
+        long end = offset + length;
+        for (long position = offset; position < end; position += buffer.limit()) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - position));
+            content.read(buffer, position);
+            buffer.flip();
+            md.update(buffer);
+        }
+        return md.digest();
+    }
+
+    /**
+     * The bytes of a blob, read and written at absolute positions.
+     */
+    abstract static class Content {
+        /** The number of bytes available to read. */
+        abstract long size() throws IOException;
+
+        /** The number of bytes that may be written. */
+        abstract long capacity();
+
+        /** Fills dst from position; fails if the content ends first. */
+        abstract void read(ByteBuffer dst, long position) throws IOException;
+
+        /** Writes all of src at position. */
+        abstract void write(ByteBuffer src, long position) throws IOException;
+
+        /** Discards the bytes after size, where the content can shrink. */
+        abstract void truncate(long size) throws IOException;
+    }
+
+    /**
+     * Content held in a file.
+     */
+    static final class FileContent extends Content {
+        private final FileChannel channel;
+
+        FileContent(FileChannel channel) {
+            if (channel == null) {
+                throw new NullPointerException("channel must not be null");
+            }
+            this.channel = channel;
+        }
+
+        @Override
+        long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        long capacity() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        void read(ByteBuffer dst, long position) throws IOException {
+            while (dst.hasRemaining()) {
+                int n = channel.read(dst, position);
+                if (n < 0) {
+                    throw new IOException("Unexpected end of file at " + position);
+                }
+                position += n;
+            }
+        }
+
+        @Override
+        void write(ByteBuffer src, long position) throws IOException {
+            while (src.hasRemaining()) {
+                position += channel.write(src, position);
+            }
+        }
+
+        @Override
+        void truncate(long size) throws IOException {
+            channel.truncate(size);
+        }
+    }
+
+    /**
+     * Content held in a buffer, from index 0 to its limit.
+     */
+    static final class BufferContent extends Content {
+        private final ByteBuffer buffer;
+
+        BufferContent(ByteBuffer buffer) {
+            if (buffer == null) {
+                throw new NullPointerException("buffer must not be null");
+            }
+            this.buffer = buffer;
+        }
+
+        @Override
+        long size() {
+            return buffer.limit();
+        }
+
+        @Override
+        long capacity() {
+            return buffer.limit();
+        }
+
+        @Override
+        void read(ByteBuffer dst, long position) throws IOException {
+            if (position + dst.remaining() > buffer.limit()) {
+                throw new IOException("Unexpected end of buffer at " + position);
+            }
+            ByteBuffer view = buffer.duplicate();
+            view.limit((int) position + dst.remaining());
+            view.position((int) position);
+            dst.put(view);
+        }
+
+        @Override
+        void write(ByteBuffer src, long position) throws IOException {
+            if (position + src.remaining() > buffer.limit()) {
+                throw new IOException("Buffer overflow at " + position);
+            }
+            ByteBuffer view = buffer.duplicate();
+            view.position((int) position);
+            view.put(src);
+        }
+
+        @Override
+        void truncate(long size) {
+            /* A buffer keeps its limit; the bytes past size belong to the caller. */
+        }
+    }
+
+    /**
+     * An offered or accepted blob.
+     */
+    private static final class Blob {
+        final Content content;
+        final boolean writable;
+        /** The bytes acknowledged so far, guarded by this. */
+        long committed;
+
+        Blob(Content content, boolean writable) {
+            this.content = content;
+            this.writable = writable;
+        }
+
+        long size() throws BusException {
+            if (writable) {
+                synchronized (this) {
+                    return committed;
+                }
+            }
+            try {
+                return content.size();
+            } catch (IOException ex) {
+                throw new ErrorReplyBusException(ERROR_IO, ex.toString());
+            }
+        }
+    }
+
+    /**
+     * The offered and accepted blobs by name.
+     */
+    private final ConcurrentHashMap<String, Blob> blobs;
+}
@@ -0,0 +1,376 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+
+import org.alljoyn.bus.ifaces.BulkTransfer;
+
+/**
+ * BulkTransferProxy moves blobs to and from a remote {@link BulkTransferObj}.
+ *
+ * A blob is sent as a sequence of Read or Write calls of at most
+ * {@link #getChunkSize()} bytes.  Instead of waiting for each reply before
+ * sending the next call, up to {@link #getWindow()} calls are kept in flight
+ * and each reply acknowledges its chunk, so the round-trip latency is paid
+ * once per window rather than once per chunk.
+ *
+ * Transfers resume from any acknowledged offset: a download resumes at the
+ * number of bytes already stored locally and an upload at the size reported
+ * by {@link #getSize(String)}.  When verification is enabled the SHA-1 digest
+ * of the whole blob is compared with the remote side after each transfer.
+ *
+ * The transfer methods block until the transfer completes and must not be
+ * called from an AllJoyn callback.
+ */
+public class BulkTransferProxy {
+
+    /** The default number of bytes in one chunk. */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /** The default number of chunks in flight. */
+    public static final int DEFAULT_WINDOW = 8;
+
+    /**
+     * BulkTransferProxy constructor
+     *
+     * @param bus the BusAttachment that owns this ProxyBusObject
+     * @param busName the unique or well-known name of the remote AllJoyn BusAttachment
+     * @param sessionId the session ID this ProxyBusObject will use
+     */
+    public BulkTransferProxy(BusAttachment bus, String busName, int sessionId) {
+        this(bus, busName, BulkTransfer.OBJ_PATH, sessionId);
+    }
+
+    /**
+     * BulkTransferProxy constructor
+     *
+     * @param bus the BusAttachment that owns this ProxyBusObject
+     * @param busName the unique or well-known name of the remote AllJoyn BusAttachment
+     * @param path the object path of the remote BulkTransferObj
+     * @param sessionId the session ID this ProxyBusObject will use
+     */
+    public BulkTransferProxy(BusAttachment bus, String busName, String path, int sessionId) {
+        proxyBusObj = bus.getProxyBusObject(busName, path, sessionId, new Class<?>[] {BulkTransfer.class});
+        proxy = proxyBusObj.getInterface(BulkTransfer.class);
+        try {
+            asyncProxy = proxyBusObj.getAsyncInterface(BulkTransfer.class, BulkTransferAsync.class);
+        } catch (BusException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * @return the ProxyBusObject used for the transfers
+     */
+    public ProxyBusObject getProxyBusObject() {
+        return proxyBusObj;
+    }
+
+    /**
+     * Sets the number of bytes in one chunk.
+     *
+     * @param chunkSize the chunk size, at most {@link BulkTransferObj#MAX_CHUNK_SIZE}
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0 || chunkSize > BulkTransferObj.MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize out of range: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return the number of bytes in one chunk
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets the number of chunks kept in flight.  A window of 1 waits for
+     * each reply before sending the next chunk.
+     *
+     * @param window the number of outstanding calls, at least 1
+     */
+    public void setWindow(int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("window out of range: " + window);
+        }
+        this.window = window;
+    }
+
+    /**
+     * @return the number of chunks kept in flight
+     */
+    public int getWindow() {
+        return window;
+    }
+
+    /**
+     * Sets whether the digest of each transferred blob is compared with the
+     * remote side.  Verification is enabled by default.
+     *
+     * @param verify true to verify transfers
+     */
+    public void setVerify(boolean verify) {
+        this.verify = verify;
+    }
+
+    /**
+     * @return true if transfers are verified
+     */
+    public boolean isVerify() {
+        return verify;
+    }
+
+    /**
+     * Gets the size of a remote blob, or the number of bytes of an upload
+     * that the remote side has acknowledged.
+     *
+     * @param name the name of the blob
+     * @return the size of the blob in bytes
+     * @throws BusException indicating failure to make GetSize method call
+     */
+    public long getSize(String name) throws BusException {
+        return proxy.getSize(name);
+    }
+
+    /**
+     * Downloads a blob into a file.  The bytes from offset onwards are
+     * written at the same positions in dst; pass dst.size() to resume an
+     * interrupted download.  The file is truncated to the size of the blob.
+     *
+     * @param name the name of the remote blob
+     * @param dst the file receiving the blob
+     * @param offset the first byte to download
+     * @return the size of the blob
+     * @throws BusException if the transfer or its verification fails
+     */
+    public long download(String name, FileChannel dst, long offset) throws BusException {
+        return download(name, new BulkTransferObj.FileContent(dst), offset);
+    }
+
+    /**
+     * Downloads a blob into a buffer.  The bytes from offset onwards are
+     * stored at the same indexes in dst, which may be memory-mapped; the
+     * position and limit of dst are not changed.
+     *
+     * @param name the name of the remote blob
+     * @param dst the buffer receiving the blob, with a limit of at least its size
+     * @param offset the first byte to download
+     * @return the size of the blob
+     * @throws BusException if the transfer or its verification fails
+     */
+    public long download(String name, ByteBuffer dst, long offset) throws BusException {
+        return download(name, new BulkTransferObj.BufferContent(dst), offset);
+    }
+
+    /**
+     * Uploads the contents of a file.  The bytes from offset onwards are
+     * sent; pass {@link #getSize(String)} to resume an interrupted upload.
+     *
+     * @param src the file holding the blob
+     * @param name the name the remote side accepts the blob under
+     * @param offset the first byte to upload
+     * @return the size of the blob
+     * @throws BusException if the transfer or its verification fails
+     */
+    public long upload(FileChannel src, String name, long offset) throws BusException {
+        return upload(new BulkTransferObj.FileContent(src), name, offset);
+    }
+
+    /**
+     * Uploads the bytes of a buffer from index 0 to its limit.  The buffer
+     * may be memory-mapped and its position is not changed.
+     *
+     * @param src the buffer holding the blob
+     * @param name the name the remote side accepts the blob under
+     * @param offset the first byte to upload
+     * @return the size of the blob
+     * @throws BusException if the transfer or its verification fails
+     */
+    public long upload(ByteBuffer src, String name, long offset) throws BusException {
+        return upload(new BulkTransferObj.BufferContent(src), name, offset);
+    }
+
+    /**
+     * Release the ProxyBusObject.
+     */
+    public void release() {
+        proxyBusObj.release();
+    }
+
+    private long download(String name, BulkTransferObj.Content dst, long offset) throws BusException {
+        long size = proxy.getSize(name);
+        if (offset < 0 || offset > size || size > dst.capacity()) {
+            throw new BusException("Cannot download " + size + " bytes of " + name + " from " + offset);
+        }
+        ArrayDeque<Chunk<byte[]>> inFlight = new ArrayDeque<Chunk<byte[]>>();
+        try {
+            long next = offset;
+            while (next < size || !inFlight.isEmpty()) {
+                while (inFlight.size() < window && next < size) {
+                    int length = (int) Math.min(chunkSize, size - next);
+                    inFlight.add(new Chunk<byte[]>(next, length, asyncProxy.read(name, next, length)));
+                    next += length;
+                }
+                Chunk<byte[]> chunk = inFlight.remove();
+                byte[] data = await(chunk.reply);
+                if (data.length != chunk.length) {
+                    throw new BusException("Short chunk of " + name + " at " + chunk.offset);
+                }
+                dst.write(ByteBuffer.wrap(data), chunk.offset);
+            }
+            dst.truncate(size);
+            if (verify) {
+                verify(name, dst, size);
+            }
+        } catch (IOException ex) {
+            throw new BusException("Cannot store " + name, ex);
+        } finally {
+            cancel(inFlight);
+        }
+        return size;
+    }
+
+    private long upload(BulkTransferObj.Content src, String name, long offset) throws BusException {
+        ArrayDeque<Chunk<Long>> inFlight = new ArrayDeque<Chunk<Long>>();
+        try {
+            long size = src.size();
+            if (offset < 0 || offset > size) {
+                throw new BusException("Cannot upload " + name + " from " + offset);
+            }
+            long next = offset;
+            while (next < size || !inFlight.isEmpty()) {
+                while (inFlight.size() < window && next < size) {
+                    int length = (int) Math.min(chunkSize, size - next);
+                    byte[] data = new byte[length];
+                    src.read(ByteBuffer.wrap(data), next);
+                    inFlight.add(new Chunk<Long>(next, length, asyncProxy.write(name, next, data)));
+                    next += length;
+                }
+                Chunk<Long> chunk = inFlight.remove();
+                long committed = await(chunk.reply);
+                if (committed < chunk.offset + chunk.length) {
+                    throw new BusException("Chunk of " + name + " at " + chunk.offset + " not acknowledged");
+                }
+            }
+            if (verify) {
+                verify(name, src, size);
+            }
+            return size;
+        } catch (IOException ex) {
+            throw new BusException("Cannot load " + name, ex);
+        } finally {
+            cancel(inFlight);
+        }
+    }
+
+    private void verify(String name, BulkTransferObj.Content local, long size) throws BusException, IOException {
+        MethodCallFuture<byte[]> remote = asyncProxy.getDigest(name, 0, size);
+        byte[] digest = BulkTransferObj.digest(local, 0, size);
+        if (!Arrays.equals(digest, await(remote))) {
+            throw new BusException("Digest mismatch for " + name);
+        }
+    }
+
+    /**
+     * Discards the replies still outstanding after a failed transfer.
+     */
+    private static void cancel(ArrayDeque<? extends Chunk<?>> inFlight) {
+        for (Chunk<?> chunk : inFlight) {
+            chunk.reply.cancel(false);
+        }
+    }
+
+    private static <T> T await(MethodCallFuture<T> future) throws BusException {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof BusException) {
+                throw (BusException) ex.getCause();
+            }
+            throw new BusException("Transfer call failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BusException("Interrupted waiting for transfer reply", ex);
+        }
+    }
+
+    /**
+     * A chunk in flight.
+     */
+    private static final class Chunk<T> {
+        final long offset;
+        final int length;
+        final MethodCallFuture<T> reply;
+
+        Chunk(long offset, int length, MethodCallFuture<T> reply) {
+            this.offset = offset;
+            this.length = length;
+            this.reply = reply;
+        }
+    }
+
+    /**
+     * The asynchronous companion of the methods of the BulkTransfer interface.
+     */
+    interface BulkTransferAsync {
+        MethodCallFuture<byte[]> read(String name, long offset, int length) throws BusException;
+
+        MethodCallFuture<Long> write(String name, long offset, byte[] data) throws BusException;
+
+        MethodCallFuture<byte[]> getDigest(String name, long offset, long length) throws BusException;
+    }
+
+    /**
+     * The org.alljoyn.BulkTransfer ProxyBusObject
+     */
+    private ProxyBusObject proxyBusObj;
+
+    /**
+     * An org.alljoyn.BulkTransfer ProxyBusObject
+     */
+    private BulkTransfer proxy;
+
+    /**
+     * The asynchronous proxy for the Read, Write and GetDigest methods
+     */
+    private BulkTransferAsync asyncProxy;
+
+    private volatile int chunkSize = DEFAULT_CHUNK_SIZE;
+    private volatile int window = DEFAULT_WINDOW;
+    private volatile boolean verify = true;
+}
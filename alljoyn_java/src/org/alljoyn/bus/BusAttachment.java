@@ -37,12 +37,15 @@ import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetEncoder;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -555,6 +558,35 @@ public class BusAttachment {
      */
     public native Status getSessionFd(int sessionId, Mutable.IntegerValue sockFd);
 
+    /**
+     * Get a NIO channel over the socket of a raw (non-message based) session.
+     *
+     * The returned channel owns the socket; close the channel rather than the
+     * descriptor when the session is done.
+     *
+     * @param sessionId  Id of an existing streamming session.
+     *
+     * @return a channel reading from and writing to the session socket
+     *
+     * @throws BusException if the socket cannot be obtained or wrapped
+     */
+    public RawSessionChannel getSessionChannel(int sessionId) throws BusException {
+        Mutable.IntegerValue sockFd = new Mutable.IntegerValue();
+        Status status = getSessionFd(sessionId, sockFd);
+        if (status != Status.OK) {
+            throw new BusException("getSessionFd failed: " + status);
+        }
+        try {
+            return new RawSessionChannel(sockFd.value);
+        } catch (BusException ex) {
+            RawSessionChannel.closeSocket(sockFd.value);
+            throw ex;
+        } catch (RuntimeException ex) {
+            RawSessionChannel.closeSocket(sockFd.value);
+            throw ex;
+        }
+    }
+
     /**
      * Set the link timeout for a session.
      *
@@ -728,7 +760,44 @@ public class BusAttachment {
      */
     public native void useOSLogging(boolean useOSLog);
 
+    /**
+     * Indicate whether native AllJoyn threads stay attached to the Java VM.
+     *
+     * By default a native thread delivering a callback (a listener, method
+     * handler, signal handler or property access) is attached to the Java VM
+     * for the duration of the callback and detached again when it returns.
+     * When persistent attachment is enabled, such threads are attached the
+     * first time they call into Java and are detached only when they exit,
+     * which avoids the attach and detach cost on every callback.
+     *
+     * Persistent attachment is not available on Windows, where this setting
+     * has no effect.  The setting applies to all bus attachments in the
+     * process.
+     *
+     * @param persistent true to keep native threads attached until they exit
+     */
+    public static native void setPersistentThreadAttach(boolean persistent);
+
+    /**
+     * Get the number of times a native thread has been attached to the Java
+     * VM in order to call into Java.
+     *
+     * @return the number of thread attachments made since the library was loaded
+     * @see #setPersistentThreadAttach(boolean)
+     */
+    public static native int getThreadAttachCount();
+
+    /**
+     * Get the number of times a native thread has been detached from the Java
+     * VM after calling into Java.
+     *
+     * @return the number of thread detachments made since the library was loaded
+     * @see #setPersistentThreadAttach(boolean)
+     */
+    public static native int getThreadDetachCount();
+
     private Set<AboutListener> registeredAboutListeners;
+    private Set<AboutAnnouncementListener> registeredAboutAnnouncementListeners;
 
     /**
      * Register an object that will receive About Interface event notifications.
@@ -737,7 +806,7 @@ public class BusAttachment {
      */
     public void registerAboutListener(AboutListener listener)
     {
-        if (registeredAboutListeners.isEmpty()) {
+        if (registeredAboutListeners.isEmpty() && registeredAboutAnnouncementListeners.isEmpty()) {
             registerSignalHandlers(this);
         }
         registeredAboutListeners.add(listener);
@@ -751,14 +820,79 @@ public class BusAttachment {
     public void unregisterAboutListener(AboutListener listener)
     {
         registeredAboutListeners.remove(listener);
-        if (registeredAboutListeners.isEmpty()) {
+        if (registeredAboutListeners.isEmpty() && registeredAboutAnnouncementListeners.isEmpty()) {
             unregisterSignalHandlers(this);
         }
     }
 
     /**
-     * Signal handler used to process announce signals from the bus. It will
-     * forward the signal to the registered AboutListener
+     * Register an object that will receive About announcements that are
+     * unmarshalled on demand.
+     *
+     * @param listener  Object instance that will receive the announcements.
+     * @see AboutAnnouncement
+     */
+    public void registerAboutAnnouncementListener(AboutAnnouncementListener listener)
+    {
+        if (registeredAboutListeners.isEmpty() && registeredAboutAnnouncementListeners.isEmpty()) {
+            registerSignalHandlers(this);
+        }
+        registeredAboutAnnouncementListeners.add(listener);
+    }
+
+    /**
+     * unregister an object that was previously registered with
+     * registerAboutAnnouncementListener.
+     *
+     * @param listener  Object instance to un-register as a listener.
+     */
+    public void unregisterAboutAnnouncementListener(AboutAnnouncementListener listener)
+    {
+        registeredAboutAnnouncementListeners.remove(listener);
+        if (registeredAboutListeners.isEmpty() && registeredAboutAnnouncementListeners.isEmpty()) {
+            unregisterSignalHandlers(this);
+        }
+    }
+
+    /**
+     * Signal handler used to process announce signals from the bus.
+     *
+     * The object descriptions and AboutData are not unmarshalled here.  The
+     * registered AboutAnnouncementListeners receive a view of the
+     * announcement that unmarshals them on demand; they are unmarshalled once
+     * for all the registered AboutListeners, only if there are any.
+     *
+     * @param version - version of the announce signal received
+     * @param port - Session Port used by the remote device
+     * @param objectDescriptions - the native list of object paths and the
+     *                             interfaces found at each object path
+     * @param aboutData - the native dictionary containing information about
+     *                    the remote device.
+     */
+    @BusSignalHandler(iface = "org.alljoyn.About", signal = "Announce")
+    @MsgArg.WrapInVariant
+    public void announce(short version, short port, Variant objectDescriptions, Variant aboutData)
+    {
+        AboutAnnouncement announcement = new AboutAnnouncement(getMessageContext().sender, version, port,
+                                                               objectDescriptions, aboutData);
+        for (AboutAnnouncementListener al : registeredAboutAnnouncementListeners) {
+            al.announced(announcement);
+        }
+        if (!registeredAboutListeners.isEmpty()) {
+            try {
+                announce(version, port, announcement.getObjectDescriptions(), announcement.getAboutData());
+            } catch (BusException ex) {
+                BusException.log(ex);
+            }
+        }
+    }
+
+    /**
+     * Forwards an announcement to the registered AboutListeners.
+     *
+     * Applications that share the received announcements between several
+     * components can register a single {@link AnnouncementCache} instead of
+     * one AboutListener per component.
      *
      * @param version - version of the announce signal received
      * @param port - Session Port used by the remote device
@@ -767,11 +901,11 @@ public class BusAttachment {
      * @param aboutData - A dictionary containing information about the remote
      *                    device.
      */
-    @BusSignalHandler(iface = "org.alljoyn.About", signal = "Announce")
     public void announce(short version, short port, AboutObjectDescription[] objectDescriptions, Map<String, Variant> aboutData)
     {
-        for (AboutListener al : BusAttachment.this.registeredAboutListeners) {
-            al.announced(BusAttachment.this.getMessageContext().sender, version, port, objectDescriptions, aboutData);
+        String sender = getMessageContext().sender;
+        for (AboutListener al : registeredAboutListeners) {
+            al.announced(sender, version, port, objectDescriptions, aboutData);
         }
     }
 
@@ -1062,7 +1196,8 @@ public class BusAttachment {
                                     new Class<?>[] { DBusProxyObj.class });
         dbus = dbusbo.getInterface(DBusProxyObj.class);
         executor = Executors.newSingleThreadExecutor();
-        registeredAboutListeners = new HashSet<AboutListener>();
+        registeredAboutListeners = new CopyOnWriteArraySet<AboutListener>();
+        registeredAboutAnnouncementListeners = new CopyOnWriteArraySet<AboutAnnouncementListener>();
     }
 
     /**
@@ -1126,6 +1261,9 @@ public class BusAttachment {
             InterfaceDescription[] busInterfaces, boolean secure,
             String languageTag, String description, Translator dt);
 
+    private native Status registerBusObjects(String[] objPaths, BusObject[] busObjs,
+            InterfaceDescription[][] busInterfaces, boolean secure);
+
     private native boolean isSecureBusObject(BusObject busObj);
 
     private native Status registerNativeSignalHandlerWithSrcPath(String ifaceName, String signalName,
@@ -1391,6 +1529,82 @@ public class BusAttachment {
         }
     }
 
+    /**
+     * Registers a tree of bus objects.
+     * This is equivalent to calling {@link #registerBusObject(BusObject, String)}
+     * for every entry, but the objects are registered in a single call into
+     * the native library, parents before children.  Either all of the objects
+     * are registered or, if one of them cannot be, none of them is.
+     *
+     * @param busObjs the BusObjects to register, keyed by object path
+     * @return <ul>
+     *         <li>OK if successful
+     *         <li>BAD_ARG_1 if an object path or BusObject is null
+     *         <li>BUS_BAD_OBJ_PATH for a bad object path
+     *         <li>BUS_OBJ_ALREADY_EXISTS if an object is already registered at one of the paths
+     *         </ul>
+     * @see #registerBusObject(BusObject, String)
+     */
+    public Status registerBusObjects(Map<String, ? extends BusObject> busObjs) {
+        return registerBusObjects(busObjs, false);
+    }
+
+    /**
+     * Registers a tree of bus objects.
+     * This is equivalent to calling {@link #registerBusObject(BusObject, String, boolean)}
+     * for every entry, but the objects are registered in a single call into
+     * the native library, parents before children.  Either all of the objects
+     * are registered or, if one of them cannot be, none of them is.
+     *
+     * @param busObjs the BusObjects to register, keyed by object path
+     * @param secure true if authentication is required to access these objects
+     * @return <ul>
+     *         <li>OK if successful
+     *         <li>BAD_ARG_1 if an object path or BusObject is null
+     *         <li>BUS_BAD_OBJ_PATH for a bad object path
+     *         <li>BUS_OBJ_ALREADY_EXISTS if an object is already registered at one of the paths
+     *         </ul>
+     * @see #registerBusObject(BusObject, String, boolean)
+     */
+    public Status registerBusObjects(Map<String, ? extends BusObject> busObjs, boolean secure) {
+        /* Sorting the paths puts every parent in front of its children. */
+        TreeMap<String, BusObject> sorted = new TreeMap<String, BusObject>();
+        for (Map.Entry<String, ? extends BusObject> entry : busObjs.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                return Status.BAD_ARG_1;
+            }
+            sorted.put(entry.getKey(), entry.getValue());
+        }
+
+        String[] objPaths = new String[sorted.size()];
+        BusObject[] objs = new BusObject[sorted.size()];
+        InterfaceDescription[][] busInterfaces = new InterfaceDescription[sorted.size()][];
+        try {
+            int i = 0;
+            for (Map.Entry<String, BusObject> entry : sorted.entrySet()) {
+                BusObject busObj = entry.getValue();
+                List<InterfaceDescription> descs = new ArrayList<InterfaceDescription>();
+
+                // Create interface description based on dynamic or static interface definitions
+                Status status = (busObj instanceof DynamicBusObject)
+                    ? InterfaceDescription.create(this, (DynamicBusObject)busObj, descs)
+                    : InterfaceDescription.create(this, busObj.getClass().getInterfaces(), descs);
+                if (status != Status.OK) {
+                    return status;
+                }
+
+                objPaths[i] = entry.getKey();
+                objs[i] = busObj;
+                busInterfaces[i] = descs.toArray(new InterfaceDescription[0]);
+                ++i;
+            }
+        } catch (AnnotationBusException ex) {
+            BusException.log(ex);
+            return Status.BAD_ANNOTATION;
+        }
+        return registerBusObjects(objPaths, objs, busInterfaces, secure);
+    }
+
     /**
      * Indicates if the BusObject is secure.
      *
@@ -1408,6 +1622,18 @@ public class BusAttachment {
      */
     public native void unregisterBusObject(BusObject obj);
 
+    /**
+     * Unregisters a set of bus objects in a single call into the native
+     * library.  Children are unregistered before their parents.
+     *
+     * @param busObjs the BusObjects to unregister
+     */
+    public void unregisterBusObjects(Collection<? extends BusObject> busObjs) {
+        unregisterBusObjects(busObjs.toArray(new BusObject[0]));
+    }
+
+    private native void unregisterBusObjects(BusObject[] busObjs);
+
     /**
      * Creates a proxy bus object for a remote bus object.
      * Methods on the remote object can be invoked through the proxy object.
@@ -2073,7 +2299,13 @@ public class BusAttachment {
      *         handler, security violation, or null if no message can be found
      *         for the calling thread
      */
-    public native MessageContext getMessageContext();
+    public MessageContext getMessageContext() {
+        MessageContext ctx = MessageContext.getLocal();
+        return (ctx != null) ? ctx : getNativeMessageContext();
+    }
+
+    /** Gets the message context of the message being handled by the calling thread. */
+    private native MessageContext getNativeMessageContext();
 
     /**
      * Enable callbacks within the context of the currently executing method
@@ -29,14 +29,20 @@
 
 package org.alljoyn.bus;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.alljoyn.bus.annotation.AccessPermission;
 import org.alljoyn.bus.annotation.BusAnnotation;
@@ -84,8 +90,31 @@ public class InterfaceDescription {
     private static final int PROP_ANNOTATE_EMIT_CHANGED_SIGNAL_CONST       = 4; /**< EmitsChangedSignal annotate flag for const property. */
 
 
-    private static Map<String, Translator> translatorCache = new HashMap<String, Translator>();
-    private class Property {
+    private static final ConcurrentMap<String, Translator> translatorCache = new ConcurrentHashMap<String, Translator>();
+
+    /**
+     * Resolved metadata of static bus interfaces, keyed by interface class.
+     *
+     * Walking the annotations of an interface is by far the most expensive
+     * part of registering a bus object, and the result only depends on the
+     * interface class.  The metadata is therefore resolved once per process and
+     * shared by every bus object (on every bus attachment) implementing the
+     * interface.
+     */
+    private static final ConcurrentMap<Class<?>, Metadata> classMetadata =
+        new ConcurrentHashMap<Class<?>, Metadata>();
+
+    /**
+     * Resolved metadata of dynamic interface definitions, keyed by the identity
+     * of the definition.  The definitions are only weakly referenced.
+     */
+    private static final ConcurrentMap<DefKey, Metadata> defMetadata =
+        new ConcurrentHashMap<DefKey, Metadata>();
+
+    /** Collected interface definitions whose metadata can be dropped. */
+    private static final ReferenceQueue<InterfaceDef> staleDefs = new ReferenceQueue<InterfaceDef>();
+
+    private static class Property {
 
         public String name;
 
@@ -97,6 +126,12 @@ public class InterfaceDescription {
 
         public Method set;
 
+        /** The access type (static interfaces only). */
+        public int access;
+
+        /** The annotation flags (static interfaces only). */
+        public int annotation;
+
         public Property(String name, String signature, TreeMap<String, String> annotations) {
             this.name = name;
             this.signature = signature;
@@ -104,6 +139,120 @@ public class InterfaceDescription {
         }
     }
 
+    /** A method or signal of a bus interface, resolved to the arguments of addMember(). */
+    private static class Member {
+
+        public int type;
+
+        public String name;
+
+        public String inputSig;
+
+        public String outSig;
+
+        public int annotation;
+
+        public String accessPerm;
+
+        public Map<String, String> annotations;
+
+        /** The interface method (static interfaces only). */
+        public Method method;
+    }
+
+    /** A description set through the BusMethod, BusSignal or BusProperty annotations. */
+    private static class Description {
+
+        public String name;
+
+        public String text;
+
+        public boolean isProperty;
+
+        public boolean isSessionlessSignal;
+    }
+
+    /**
+     * The bus independent metadata of an interface, everything create() needs
+     * to build the native interface description without looking at the
+     * annotations again.  Instances are immutable once published.
+     */
+    private static class Metadata {
+
+        /** The result of resolving the interface annotations. */
+        public Status status = Status.OK;
+
+        public String name;
+
+        public int securePolicy;
+
+        public boolean announced;
+
+        public Map<String, Property> properties = new LinkedHashMap<String, Property>();
+
+        public List<Member> members = new ArrayList<Member>();
+
+        /** The interface methods by member name (static interfaces only). */
+        public Map<String, Method> methods = new HashMap<String, Method>();
+
+        public Map<String, String> annotations = new LinkedHashMap<String, String>();
+
+        /** Whether the interface is annotated with descriptions (static interfaces only). */
+        public boolean describe;
+
+        public String description;
+
+        public String descriptionLanguage;
+
+        public String descriptionTranslator;
+
+        public List<Description> descriptions = new ArrayList<Description>();
+
+        /** The shape of the interface definition this was resolved from (dynamic interfaces only). */
+        public int numMethods;
+
+        public int numSignals;
+
+        public int numProperties;
+
+        /** Whether a cached entry still describes the given interface definition. */
+        public boolean matches(InterfaceDef interfaceDef) {
+            return name.equals(interfaceDef.getName())
+                && announced == interfaceDef.isAnnounced()
+                && numMethods == interfaceDef.getMethods().size()
+                && numSignals == interfaceDef.getSignals().size()
+                && numProperties == interfaceDef.getProperties().size();
+        }
+    }
+
+    /** A weak, identity based key for interface definitions. */
+    private static class DefKey extends WeakReference<InterfaceDef> {
+
+        private final int hash;
+
+        public DefKey(InterfaceDef interfaceDef, ReferenceQueue<InterfaceDef> queue) {
+            super(interfaceDef, queue);
+            hash = System.identityHashCode(interfaceDef);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DefKey)) {
+                return false;
+            }
+            InterfaceDef interfaceDef = get();
+            return interfaceDef != null && interfaceDef == ((DefKey) o).get();
+        }
+    }
+
     /**
      * The native interface description handle.
      *
@@ -129,14 +278,13 @@ public class InterfaceDescription {
      */
     private Map<String, Method> dynamicMembers = null;
 
-    /** The members of this interface (for use with static interface definitions). */
-    private List<Method> members;
+    /** The shared metadata of this interface (for use with static interface definitions). */
+    private Metadata metadata;
 
     /** The properties of this interface. */
     private Map<String, Property> properties;
 
     protected InterfaceDescription() {
-        members = new ArrayList<Method>();
         properties = new HashMap<String, Property>();
     }
 
@@ -157,7 +305,6 @@ public class InterfaceDescription {
         this.dynamicBusObject = dynamicBusObject;
         this.dynamicMembers = new HashMap<String,Method>();
 
-        members = new ArrayList<Method>();
         properties = new HashMap<String, Property>();
     }
 
@@ -209,17 +356,10 @@ public class InterfaceDescription {
     private Method getMember(String name) {
         // Check if using dynamic member definitions
         if (dynamicMembers != null) {
-            Method member = dynamicMembers.get(name);
-            if (member != null ) {
-                return member;
-            }
-        } else {
+            return dynamicMembers.get(name);
+        } else if (metadata != null) {
             // Otherwise, interface is using definitions based on static class Annotations
-            for (Method m : members) {
-                if (InterfaceDescription.getName(m).equals(name)) {
-                    return m;
-                }
-            }
+            return metadata.methods.get(name);
         }
         return null;
     }
@@ -229,10 +369,9 @@ public class InterfaceDescription {
      * implementations.
      */
     private Method[] getProperty(String name) {
-        for (Property p : properties.values()) {
-            if (p.name.equals(name)) {
-                return new Method[] { p.get, p.set };
-            }
+        Property p = properties.get(name);
+        if (p != null) {
+            return new Method[] { p.get, p.set };
         }
         return null;
     }
@@ -240,126 +379,209 @@ public class InterfaceDescription {
     /**
      * Create the native interface description for the busInterface.
      *
+     * The annotations of busInterface are only walked the first time an
+     * interface is created in this process, later calls replay the cached
+     * metadata.
+     *
      * @param busAttachment the connection the interface is on
      * @param busInterface the interface
      */
     public Status create(BusAttachment busAttachment, Class<?> busInterface)
             throws AnnotationBusException {
-        Status status = getProperties(busInterface);
+        Metadata m = getMetadata(busInterface);
+        if (m.status != Status.OK) {
+            return m.status;
+        }
+        metadata = m;
+        properties = m.properties;
+
+        Status status = create(busAttachment, m.name, m.securePolicy, m.properties.size(),
+                               m.members.size());
         if (status != Status.OK) {
             return status;
         }
-        status = getMembers(busInterface);
+        status = addProperties(m);
         if (status != Status.OK) {
             return status;
         }
+        status = addMembers(m);
+        if (status != Status.OK) {
+            return status;
+        }
+
+        // now we need to add the DBus annotations for the interface;
+        // this must be done *before* calling activate
+        for (Entry<String, String> annotation : m.annotations.entrySet()) {
+            addAnnotation(annotation.getKey(), annotation.getValue());
+        }
+
+        configureDescriptions(busAttachment, m);
+
+        announced = m.announced;
+
+        activate();
+        return Status.OK;
+    }
+
+    /**
+     * Get the resolved metadata of a static bus interface, resolving it on
+     * first use.
+     */
+    private static Metadata getMetadata(Class<?> busInterface) throws AnnotationBusException {
+        Metadata m = classMetadata.get(busInterface);
+        if (m == null) {
+            m = resolve(busInterface);
+            Metadata existing = classMetadata.putIfAbsent(busInterface, m);
+            if (existing != null) {
+                m = existing;
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Get the number of interfaces whose resolved metadata is currently cached.
+     *
+     * @return the number of cached static interfaces and interface definitions
+     */
+    public static int getMetadataCacheSize() {
+        return classMetadata.size() + defMetadata.size();
+    }
+
+    /**
+     * Drop all cached interface metadata.  The metadata is resolved again the
+     * next time an interface is created.  This is only needed when interface
+     * definitions are modified after having been used, or to release
+     * interface classes that are no longer used.
+     */
+    public static void clearMetadataCache() {
+        classMetadata.clear();
+        defMetadata.clear();
+    }
+
+    /** Walk the annotations of a static bus interface. */
+    private static Metadata resolve(Class<?> busInterface) throws AnnotationBusException {
+        Metadata m = new Metadata();
+        m.name = getName(busInterface);
+
+        Method[] methods = busInterface.getMethods();
+        m.status = resolveProperties(methods, m);
+        if (m.status != Status.OK) {
+            return m;
+        }
+        resolveMembers(methods, m);
 
-        int securePolicy = AJ_IFC_SECURITY_INHERIT;
         Secure secureAnnotation = busInterface.getAnnotation(Secure.class);
         if (secureAnnotation != null) {
             if (secureAnnotation.value().equals("required")) {
-                securePolicy = AJ_IFC_SECURITY_REQUIRED;
+                m.securePolicy = AJ_IFC_SECURITY_REQUIRED;
             } else if (secureAnnotation.value().equals("off")) {
-                securePolicy = AJ_IFC_SECURITY_OFF;
+                m.securePolicy = AJ_IFC_SECURITY_OFF;
             } else {
                 /*
                  * In C++ if an interface provides an unknown security annotation
                  * it automatically defaults to the inherit for security. For
                  * that reason the Java code will do the same.
                  */
-                securePolicy = AJ_IFC_SECURITY_INHERIT;
+                m.securePolicy = AJ_IFC_SECURITY_INHERIT;
             }
         } else {
-            securePolicy = AJ_IFC_SECURITY_INHERIT;
-        }
-        status = create(busAttachment, getName(busInterface), securePolicy, properties.size(),
-                        members.size());
-        if (status != Status.OK) {
-            return status;
-        }
-        status = addProperties(busInterface);
-        if (status != Status.OK) {
-            return status;
-        }
-        status = addMembers(busInterface);
-        if (status != Status.OK) {
-            return status;
+            m.securePolicy = AJ_IFC_SECURITY_INHERIT;
         }
 
-        // now we need to add the DBus annotations for the interface;
-        // this must be done *before* calling activate
         BusAnnotations busAnnotations = busInterface.getAnnotation(BusAnnotations.class);
         if (busAnnotations != null)
         {
             for (BusAnnotation annotation : busAnnotations.value()) {
-                addAnnotation(annotation.name(), annotation.value());
+                m.annotations.put(annotation.name(), annotation.value());
             }
         }
 
-        configureDescriptions(busAttachment, busInterface);
-
         BusInterface intf = busInterface.getAnnotation(BusInterface.class);
         if (intf != null) {
-            if(intf.announced().equals("true")) {
-                announced = true;
-            } else {
-                announced = false;
-            }
+            m.announced = intf.announced().equals("true");
+            resolveDescriptions(intf, methods, m);
         } else {
-            announced = false;
+            m.announced = false;
         }
-
-        activate();
-        return Status.OK;
+        return m;
     }
 
-    private void configureDescriptions(BusAttachment busAttachment, Class<?> busInterface) throws AnnotationBusException {
-        BusInterface ifcNote = busInterface.getAnnotation(BusInterface.class);
-        if(null == ifcNote) return;
-
-        boolean hasDescriptions = false;
-
-        if(!ifcNote.description().equals("")){
-            setDescription(ifcNote.description());
-            hasDescriptions = true;
+    private static void resolveDescriptions(BusInterface ifcNote, Method[] methods, Metadata m) {
+        m.describe = true;
+        if (!ifcNote.description().equals("")) {
+            m.description = ifcNote.description();
         }
 
-        for(Method method : busInterface.getMethods()) {
+        for (Method method : methods) {
             String name = getName(method);
 
             BusMethod methodNote = method.getAnnotation(BusMethod.class);
-            if(null != methodNote && (methodNote.description().length() > 0)){
-                setMemberDescription(name, methodNote.description(), false);
-                hasDescriptions = true;
+            if (null != methodNote && (methodNote.description().length() > 0)) {
+                addDescription(m, name, methodNote.description(), false, false);
             }
 
             BusSignal signalNote = method.getAnnotation(BusSignal.class);
-            if(null != signalNote && (signalNote.description().length() > 0)){
-                setMemberDescription(name, signalNote.description(), signalNote.sessionless());
-                hasDescriptions = true;
+            if (null != signalNote && (signalNote.description().length() > 0)) {
+                addDescription(m, name, signalNote.description(), false, signalNote.sessionless());
             }
 
             BusProperty propNote = method.getAnnotation(BusProperty.class);
-            if(null != propNote && (propNote.description().length() > 0)){
-                setPropertyDescription(name, propNote.description());
-                hasDescriptions = true;
+            if (null != propNote && (propNote.description().length() > 0)) {
+                addDescription(m, name, propNote.description(), true, false);
             }
         }
 
-        if(hasDescriptions) {
-            setDescriptionLanguage(ifcNote.descriptionLanguage());
+        if (m.description != null || !m.descriptions.isEmpty()) {
+            m.descriptionLanguage = ifcNote.descriptionLanguage();
+        }
+        if (ifcNote.descriptionTranslator().length() > 0) {
+            m.descriptionTranslator = ifcNote.descriptionTranslator();
+        }
+    }
+
+    private static void addDescription(Metadata m, String name, String text, boolean isProperty,
+            boolean isSessionlessSignal) {
+        Description d = new Description();
+        d.name = name;
+        d.text = text;
+        d.isProperty = isProperty;
+        d.isSessionlessSignal = isSessionlessSignal;
+        m.descriptions.add(d);
+    }
+
+    private void configureDescriptions(BusAttachment busAttachment, Metadata m) {
+        if (!m.describe) return;
+
+        if (m.description != null) {
+            setDescription(m.description);
+        }
+
+        for (Description d : m.descriptions) {
+            if (d.isProperty) {
+                setPropertyDescription(d.name, d.text);
+            } else {
+                setMemberDescription(d.name, d.text, d.isSessionlessSignal);
+            }
+        }
+
+        if (m.descriptionLanguage != null) {
+            setDescriptionLanguage(m.descriptionLanguage);
         }
 
         try{
-            if(ifcNote.descriptionTranslator().length() > 0){
+            if (m.descriptionTranslator != null) {
                 //We store these so as not to create a separate instance each time it is used.
                 //Although this means we'll be holding on to each instance forever this is probably
                 //not a problem since most Translators will need to live forever anyway
-                Translator dt = translatorCache.get(ifcNote.descriptionTranslator());
+                Translator dt = translatorCache.get(m.descriptionTranslator);
                 if(null == dt) {
-                    Class<?> c = Class.forName(ifcNote.descriptionTranslator());
+                    Class<?> c = Class.forName(m.descriptionTranslator);
                     dt = (Translator)c.newInstance();
-                    translatorCache.put(ifcNote.descriptionTranslator(), dt);
+                    Translator existing = translatorCache.putIfAbsent(m.descriptionTranslator, dt);
+                    if (existing != null) {
+                        dt = existing;
+                    }
                 }
                 setDescriptionTranslator(busAttachment, dt);
             }
@@ -368,8 +590,9 @@ public class InterfaceDescription {
         }
     }
 
-    private Status getProperties(Class<?> busInterface) throws AnnotationBusException {
-        for (Method method : busInterface.getMethods()) {
+    private static Status resolveProperties(Method[] methods, Metadata m) throws AnnotationBusException {
+        Map<String, Property> properties = new HashMap<String, Property>();
+        for (Method method : methods) {
 
             if (method.getAnnotation(BusProperty.class) != null) {
                 String name = getName(method);
@@ -400,33 +623,35 @@ public class InterfaceDescription {
                 properties.put(name, property);
             }
         }
-        return Status.OK;
-    }
 
-    private Status addProperties(Class<?> busInterface) throws AnnotationBusException {
         for (Property property : properties.values()) {
+            property.access = ((property.get != null) ? READ : 0) | ((property.set != null) ? WRITE : 0);
 
-            int access = ((property.get != null) ? READ : 0) | ((property.set != null) ? WRITE : 0);
-            int annotation = 0;
-
-            for (Method method : busInterface.getMethods()) {
+            for (Method method : methods) {
                 BusProperty p = method.getAnnotation(BusProperty.class);
                 if (p != null) {
                     if (getName(method).equals(property.name)) {
-                        annotation = p.annotation();
+                        property.annotation = p.annotation();
                     }
                 }
             }
-            Status status = addProperty(property.name, property.signature, access, annotation);
-            if (status != Status.OK) {
-                return status;
-            }
 
-            if (annotation == BusProperty.ANNOTATE_EMIT_CHANGED_SIGNAL) {
+            if (property.annotation == BusProperty.ANNOTATE_EMIT_CHANGED_SIGNAL) {
                 property.annotations.put("org.freedesktop.DBus.Property.EmitsChangedSignal", "true");
-            } else if (annotation == BusProperty.ANNOTATE_EMIT_CHANGED_SIGNAL_INVALIDATES) {
+            } else if (property.annotation == BusProperty.ANNOTATE_EMIT_CHANGED_SIGNAL_INVALIDATES) {
                 property.annotations.put("org.freedesktop.DBus.Property.EmitsChangedSignal", "invalidates");
             }
+            m.properties.put(property.name, property);
+        }
+        return Status.OK;
+    }
+
+    private Status addProperties(Metadata m) {
+        for (Property property : m.properties.values()) {
+            Status status = addProperty(property.name, property.signature, property.access, property.annotation);
+            if (status != Status.OK) {
+                return status;
+            }
 
             // loop through the map of properties and add them via native code
             for(Entry<String, String> entry : property.annotations.entrySet()) {
@@ -436,53 +661,59 @@ public class InterfaceDescription {
         return Status.OK;
     }
 
-    private Status getMembers(Class<?> busInterface) throws AnnotationBusException {
-        for (Method method : busInterface.getMethods()) {
-            if (method.getAnnotation(BusMethod.class) != null) {
-                members.add(method);
-            } else if (method.getAnnotation(BusSignal.class) != null) {
-                members.add(method);
+    private static void resolveMembers(Method[] methods, Metadata m) throws AnnotationBusException {
+        for (Method method : methods) {
+            BusMethod bm = method.getAnnotation(BusMethod.class);
+            BusSignal bs = method.getAnnotation(BusSignal.class);
+            if (bm == null && bs == null) {
+                continue;
             }
-        }
-        return Status.OK;
-    }
 
-    private Status addMembers(Class<?> busInterface) throws AnnotationBusException {
-        for (Method member : members) {
-            int type = INVALID;
-            int annotation = 0;
-            String accessPerm = null;
-            BusMethod m = member.getAnnotation(BusMethod.class);
-            BusSignal s = member.getAnnotation(BusSignal.class);
-            AccessPermission ap = member.getAnnotation(AccessPermission.class);
+            Member member = new Member();
+            member.method = method;
+            member.name = getName(method);
+            if (bm != null) {
+                member.type = METHOD_CALL;
+                member.annotation = bm.annotation();
+            } else {
+                member.type = SIGNAL;
+                member.annotation = bs.annotation();
+            }
+            member.inputSig = getInputSig(method);
+            member.outSig = getOutSig(method);
 
-            if (m != null) {
-                type = METHOD_CALL;
-                annotation = m.annotation();
-            } else if (s != null) {
-                type = SIGNAL;
-                annotation = s.annotation();
-            }
-            if (type != INVALID) {
-                if(ap != null) {
-                    accessPerm = ap.value();
-                }
+            AccessPermission ap = method.getAnnotation(AccessPermission.class);
+            if (ap != null) {
+                member.accessPerm = ap.value();
+            }
 
-                String memberName = getName(member);
-                Status status = addMember(type, memberName, getInputSig(member),
-                                          getOutSig(member), annotation, accessPerm);
-                if (status != Status.OK) {
-                    return status;
+            // pull out the DBus annotations
+            member.annotations = new LinkedHashMap<String, String>();
+            BusAnnotations dbusAnnotations = method.getAnnotation(BusAnnotations.class);
+            if (dbusAnnotations != null)
+            {
+                for (BusAnnotation busAnnotation : dbusAnnotations.value()) {
+                    member.annotations.put(busAnnotation.name(), busAnnotation.value());
                 }
+            }
 
-                // pull out the DBus annotations
-                BusAnnotations dbusAnnotations = member.getAnnotation(BusAnnotations.class);
-                if (dbusAnnotations != null)
-                {
-                    for (BusAnnotation busAnnotation : dbusAnnotations.value()) {
-                        addMemberAnnotation(memberName, busAnnotation.name(), busAnnotation.value());
-                    }
-                }
+            m.members.add(member);
+            if (!m.methods.containsKey(member.name)) {
+                m.methods.put(member.name, method);
+            }
+        }
+    }
+
+    private Status addMembers(Metadata m) {
+        for (Member member : m.members) {
+            Status status = addMember(member.type, member.name, member.inputSig, member.outSig,
+                                      member.annotation, member.accessPerm);
+            if (status != Status.OK) {
+                return status;
+            }
+
+            for (Entry<String, String> busAnnotation : member.annotations.entrySet()) {
+                addMemberAnnotation(member.name, busAnnotation.getKey(), busAnnotation.getValue());
             }
         }
         return Status.OK;
@@ -666,36 +897,120 @@ public class InterfaceDescription {
             return status;
         }
 
-        int securePolicy = interfaceDef.isSecureInherit() ? AJ_IFC_SECURITY_INHERIT :
-                (interfaceDef.isSecureRequired() ? AJ_IFC_SECURITY_REQUIRED : AJ_IFC_SECURITY_OFF);
+        Metadata m = getMetadata(interfaceDef);
 
-        status = create(busAttachment, interfaceDef.getName(), securePolicy, properties.size(),
+        status = create(busAttachment, m.name, m.securePolicy, properties.size(),
                         dynamicMembers.size());
         if (status != Status.OK) {
             return status;
         }
 
-        status = addProperties(interfaceDef);
+        status = addProperties(m);
         if (status != Status.OK) {
             return status;
         }
-        status = addMembers(interfaceDef);
+        status = addMembers(m);
         if (status != Status.OK) {
             return status;
         }
 
         // now we need to add the DBus annotations for the interface;
         // this must be done *before* calling activate
-        Map<String,String> busAnnotations = interfaceDef.getAnnotationList();
-        for (Map.Entry<String,String> busAnnotation : busAnnotations.entrySet()) {
+        for (Map.Entry<String,String> busAnnotation : m.annotations.entrySet()) {
             addAnnotation(busAnnotation.getKey(), busAnnotation.getValue());
         }
 
-        announced = interfaceDef.isAnnounced();
+        announced = m.announced;
         activate();
         return Status.OK;
     }
 
+    /**
+     * Get the resolved metadata of a dynamic interface definition, resolving it
+     * on first use.  A cached entry is resolved again if the definition has
+     * obviously changed since; definitions are expected not to be modified once
+     * they have been used to register a bus object.
+     */
+    private static Metadata getMetadata(InterfaceDef interfaceDef) {
+        Reference<? extends InterfaceDef> ref;
+        while ((ref = staleDefs.poll()) != null) {
+            defMetadata.remove(ref);
+        }
+
+        DefKey key = new DefKey(interfaceDef, staleDefs);
+        Metadata m = defMetadata.get(key);
+        if (m == null || !m.matches(interfaceDef)) {
+            m = resolve(interfaceDef);
+            defMetadata.put(key, m);
+        }
+        return m;
+    }
+
+    /** Translate a dynamic interface definition into the arguments of the native calls. */
+    private static Metadata resolve(InterfaceDef interfaceDef) {
+        Metadata m = new Metadata();
+        m.name = interfaceDef.getName();
+        m.securePolicy = interfaceDef.isSecureInherit() ? AJ_IFC_SECURITY_INHERIT :
+                (interfaceDef.isSecureRequired() ? AJ_IFC_SECURITY_REQUIRED : AJ_IFC_SECURITY_OFF);
+        m.announced = interfaceDef.isAnnounced();
+        m.numMethods = interfaceDef.getMethods().size();
+        m.numSignals = interfaceDef.getSignals().size();
+        m.numProperties = interfaceDef.getProperties().size();
+
+        for (PropertyDef propertyDef : interfaceDef.getProperties()) {
+            Property property = new Property(propertyDef.getName(), propertyDef.getType(),
+                                             new TreeMap<String, String>(propertyDef.getAnnotationList()));
+            property.access = ((propertyDef.isReadAccess() || propertyDef.isReadWriteAccess()) ? READ : 0)
+                    | ((propertyDef.isWriteAccess() || propertyDef.isReadWriteAccess()) ? WRITE : 0);
+
+            if (propertyDef.isEmitsChangedSignal()) {
+                property.annotation |= PROP_ANNOTATE_EMIT_CHANGED_SIGNAL;
+            } else if (propertyDef.isEmitsChangedSignalInvalidates()) {
+                property.annotation |= PROP_ANNOTATE_EMIT_CHANGED_SIGNAL_INVALIDATES;
+            }
+            m.properties.put(property.name, property);
+        }
+
+        ArrayList<BaseDef> memberDefs = new ArrayList<BaseDef>();
+        memberDefs.addAll(interfaceDef.getMethods());
+        memberDefs.addAll(interfaceDef.getSignals());
+
+        for (BaseDef def : memberDefs) {
+            Member member = new Member();
+            member.name = def.getName();
+            member.type = INVALID;
+            member.inputSig = "";
+            member.outSig = "";
+            member.accessPerm = null; //Android access permission string currently not supported (retrieve from dbusAnnotations?)
+
+            if (def instanceof MethodDef) {
+                MethodDef md = (MethodDef)def;
+                member.type = METHOD_CALL;
+                member.inputSig = md.getSignature();
+                member.outSig = md.getReplySignature();
+                if (md.isNoReply()) member.annotation |= MEMBER_ANNOTATE_NO_REPLY;
+                if (md.isDeprecated()) member.annotation |= MEMBER_ANNOTATE_DEPRECATED;
+                member.annotations = new LinkedHashMap<String, String>(md.getAnnotationList());
+            } else if (def instanceof SignalDef) {
+                SignalDef sd = (SignalDef)def;
+                member.type = SIGNAL;
+                member.inputSig = sd.getSignature();
+                if (sd.isDeprecated()) member.annotation |= MEMBER_ANNOTATE_DEPRECATED;
+                if (sd.isSessionless()) member.annotation |= MEMBER_ANNOTATE_SESSIONLESS;
+                if (sd.isSessioncast()) member.annotation |= MEMBER_ANNOTATE_SESSIONCAST;
+                if (sd.isUnicast()) member.annotation |= MEMBER_ANNOTATE_UNICAST;
+                if (sd.isGlobalBroadcast()) member.annotation |= MEMBER_ANNOTATE_GLOBAL_BROADCAST;
+                member.annotations = new LinkedHashMap<String, String>(sd.getAnnotationList());
+            }
+            if (member.type != INVALID) {
+                m.members.add(member);
+            }
+        }
+
+        m.annotations.putAll(interfaceDef.getAnnotationList());
+        return m;
+    }
+
     /** Caching property implementation handler Methods for the bus interface's property definitions. */
     private Status getProperties(InterfaceDef interfaceDef) {
         if (dynamicBusObject == null) {
@@ -743,31 +1058,6 @@ public class InterfaceDescription {
         return Status.OK;
     }
 
-    private Status addProperties(InterfaceDef interfaceDef) {
-        for (PropertyDef property : interfaceDef.getProperties()) {
-            int access = ((property.isReadAccess() || property.isReadWriteAccess()) ? READ : 0)
-                    | ((property.isWriteAccess() || property.isReadWriteAccess()) ? WRITE : 0);
-            int annotation = 0;
-
-            if (property.isEmitsChangedSignal()) {
-                annotation |= PROP_ANNOTATE_EMIT_CHANGED_SIGNAL;
-            } else if (property.isEmitsChangedSignalInvalidates()) {
-                annotation |= PROP_ANNOTATE_EMIT_CHANGED_SIGNAL_INVALIDATES;
-            }
-
-            Status status = addProperty(property.getName(), property.getType(), access, annotation);
-            if (status != Status.OK) {
-                return status;
-            }
-
-            // loop through the map of property annotations and add them via native code
-            for (Entry<String, String> entry : property.getAnnotationList().entrySet()) {
-                addPropertyAnnotation(property.getName(), entry.getKey(), entry.getValue());
-            }
-        }
-        return Status.OK;
-    }
-
     /** Caching method/signal implementation handler Methods for the bus interface's method and signal definitions. */
     private Status getMembers(InterfaceDef interfaceDef) {
         if (dynamicBusObject == null) {
@@ -798,55 +1088,6 @@ public class InterfaceDescription {
         return Status.OK;
     }
 
-    private Status addMembers(InterfaceDef interfaceDef) {
-        ArrayList<BaseDef> memberDefs = new ArrayList<BaseDef>();
-        memberDefs.addAll(interfaceDef.getMethods());
-        memberDefs.addAll(interfaceDef.getSignals());
-
-        for (BaseDef def : memberDefs) {
-            int type = INVALID;
-            int annotation = 0;
-            String accessPerm = null; //Android access permission string currently not supported (retrieve from dbusAnnotations?)
-            String inSignature = "";
-            String outSignature = "";
-            Map<String,String> dbusAnnotations = null;
-
-            if (def instanceof MethodDef) {
-                MethodDef m = (MethodDef)def;
-                type = METHOD_CALL;
-                inSignature = m.getSignature();
-                outSignature = m.getReplySignature();
-                if (m.isNoReply()) annotation |= MEMBER_ANNOTATE_NO_REPLY;
-                if (m.isDeprecated()) annotation |= MEMBER_ANNOTATE_DEPRECATED;
-                dbusAnnotations = m.getAnnotationList();
-            } else if (def instanceof SignalDef) {
-                SignalDef s = (SignalDef)def;
-                type = SIGNAL;
-                inSignature = s.getSignature();
-                if (s.isDeprecated()) annotation |= MEMBER_ANNOTATE_DEPRECATED;
-                if (s.isSessionless()) annotation |= MEMBER_ANNOTATE_SESSIONLESS;
-                if (s.isSessioncast()) annotation |= MEMBER_ANNOTATE_SESSIONCAST;
-                if (s.isUnicast()) annotation |= MEMBER_ANNOTATE_UNICAST;
-                if (s.isGlobalBroadcast()) annotation |= MEMBER_ANNOTATE_GLOBAL_BROADCAST;
-                dbusAnnotations = s.getAnnotationList();
-            }
-            if (type != INVALID) {
-                Status status = addMember(type, def.getName(), inSignature, outSignature, annotation, accessPerm);
-                if (status != Status.OK) {
-                    return status;
-                }
-
-                // pull out the DBus annotations
-                if (dbusAnnotations != null) {
-                    for (Map.Entry<String,String> busAnnotation : dbusAnnotations.entrySet()) {
-                        addMemberAnnotation(def.getName(), busAnnotation.getKey(), busAnnotation.getValue());
-                    }
-                }
-            }
-        }
-        return Status.OK;
-    }
-
     /**
      * Create the native interface descriptions needed for the given DynamicBusObject's interface definitions.
      * The interface descriptions will also be initialized to reference the appropriate member implementation
@@ -110,4 +110,34 @@ public final class MessageContext {
 
     public MessageContext() {
     }
+
+    /**
+     * The context of a message delivered within this process without going
+     * through the bus, by thread.
+     */
+    private static final ThreadLocal<MessageContext> local = new ThreadLocal<MessageContext>();
+
+    /**
+     * Gets the context set by {@link #setLocal(MessageContext)} for the
+     * calling thread.
+     *
+     * @return the context, or null if none is set
+     */
+    static MessageContext getLocal() {
+        return local.get();
+    }
+
+    /**
+     * Sets the context returned by BusAttachment.getMessageContext() in the
+     * calling thread while a handler is invoked directly instead of by AllJoyn.
+     *
+     * @param ctx the context, or null to clear it
+     */
+    static void setLocal(MessageContext ctx) {
+        if (ctx == null) {
+            local.remove();
+        } else {
+            local.set(ctx);
+        }
+    }
 }
@@ -0,0 +1,230 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The pending result of an asynchronous method call made through a proxy
+ * returned by {@link ProxyBusObject#getAsyncInterface(Class, Class)}, or of
+ * an asynchronous {@link ProxyBusObject#getAllPropertiesAsync(String)}.
+ *
+ * The future is completed from the AllJoyn thread that receives the reply.
+ * A method reply completes the future normally with the unmarshalled return
+ * value.  An error reply, including the error reply generated locally when
+ * the call times out, completes the future exceptionally: {@link #get()}
+ * then throws an ExecutionException whose cause is the BusException (or
+ * ErrorReplyBusException) the synchronous call would have thrown.
+ *
+ * Listeners added with {@link #addListener(Runnable)} are run in the context
+ * of the AllJoyn thread that completed the future, with the same restrictions
+ * as any other listener object: if a blocking AllJoyn call is made from a
+ * listener the receiver thread is likely to deadlock with itself.
+ *
+ * @param <V> the return type of the bus method
+ */
+public final class MethodCallFuture<V> implements Future<V> {
+
+    /** The resolved bus method, used to check the reply, or null if there is nothing to check. */
+    private final ProxyBusObject.Invocation invocation;
+
+    /** Called with the reply before it completes the future, or null. */
+    private final ReplyHook hook;
+
+    private boolean done;
+
+    private boolean cancelled;
+
+    private V value;
+
+    private Throwable error;
+
+    /** Listeners waiting for completion, null once the future is done. */
+    private List<Runnable> listeners;
+
+    /**
+     * Called with a checked reply before it completes the future, in the
+     * thread that received the reply.
+     */
+    interface ReplyHook {
+        void onReply(Object reply);
+    }
+
+    MethodCallFuture(ProxyBusObject.Invocation invocation) {
+        this(invocation, null);
+    }
+
+    MethodCallFuture(ProxyBusObject.Invocation invocation, ReplyHook hook) {
+        this.invocation = invocation;
+        this.hook = hook;
+        this.listeners = new ArrayList<Runnable>();
+    }
+
+    /**
+     * Add a listener to be run when the future completes.  If the future is
+     * already complete the listener is run immediately in the calling thread.
+     *
+     * @param listener the listener to run
+     */
+    public void addListener(Runnable listener) {
+        synchronized (this) {
+            if (!done) {
+                listeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    /**
+     * Cancel the future.  The method call itself cannot be recalled; when its
+     * reply arrives it is discarded.
+     *
+     * @param mayInterruptIfRunning ignored
+     * @return true if the future was cancelled, false if it was already complete
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return complete(null, null, true);
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Wait for the reply.
+     *
+     * @return the return value of the bus method
+     * @throws InterruptedException if the calling thread is interrupted
+     * @throws ExecutionException if the method call failed
+     */
+    @Override
+    public synchronized V get() throws InterruptedException, ExecutionException {
+        while (!done) {
+            wait();
+        }
+        return result();
+    }
+
+    /**
+     * Wait at most the given time for the reply.
+     *
+     * @param timeout the time to wait
+     * @param unit the unit of timeout
+     * @return the return value of the bus method
+     * @throws InterruptedException if the calling thread is interrupted
+     * @throws ExecutionException if the method call failed
+     * @throws TimeoutException if the reply did not arrive in time
+     */
+    @Override
+    public synchronized V get(long timeout, TimeUnit unit)
+        throws InterruptedException, ExecutionException, TimeoutException {
+        long remaining = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + remaining;
+        while (!done) {
+            if (remaining <= 0) {
+                throw new TimeoutException();
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            remaining = deadline - System.nanoTime();
+        }
+        return result();
+    }
+
+    private V result() throws ExecutionException {
+        if (cancelled) {
+            throw new CancellationException();
+        }
+        if (error != null) {
+            throw new ExecutionException(error);
+        }
+        return value;
+    }
+
+    /** Called by native code with the unmarshalled reply. */
+    void onReply(Object reply) {
+        try {
+            if (invocation != null) {
+                invocation.checkReturnValue(reply);
+            }
+        } catch (MarshalBusException ex) {
+            onError(ex);
+            return;
+        }
+        if (hook != null) {
+            hook.onReply(reply);
+        }
+        @SuppressWarnings(value = "unchecked")
+        V v = (V) reply;
+        complete(v, null, false);
+    }
+
+    /** Called by native code when the method call failed. */
+    void onError(Throwable ex) {
+        complete(null, ex, false);
+    }
+
+    private boolean complete(V v, Throwable ex, boolean cancel) {
+        List<Runnable> pending;
+        synchronized (this) {
+            if (done) {
+                return false;
+            }
+            done = true;
+            cancelled = cancel;
+            value = v;
+            error = ex;
+            pending = listeners;
+            listeners = null;
+            notifyAll();
+        }
+        for (Runnable listener : pending) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                BusException.log(e);
+            }
+        }
+        return true;
+    }
+}
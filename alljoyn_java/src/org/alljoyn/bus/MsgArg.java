@@ -29,6 +29,10 @@
 
 package org.alljoyn.bus;
 
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.GenericArrayType;
@@ -37,9 +41,13 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.AbstractMap;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.alljoyn.bus.annotation.BusProperty;
+import org.alljoyn.bus.annotation.LendByteBuffers;
+
 /**
  * MsgArg provides methods for marshalling from Java types to native types and
  * unmarshalling from native types to Java types.  The methods use a {@code
@@ -83,7 +91,7 @@ public final class MsgArg {
     private static final int ALLJOYN_UINT64_ARRAY     = ('t' << 8) | 'a';
     private static final int ALLJOYN_UINT32_ARRAY     = ('u' << 8) | 'a';
     private static final int ALLJOYN_INT64_ARRAY      = ('x' << 8) | 'a';
-    private static final int ALLJOYN_BYTE_ARRAY       = ('y' << 8) | 'a';
+    static final int ALLJOYN_BYTE_ARRAY               = ('y' << 8) | 'a';
 
     private MsgArg() {}
 
@@ -185,6 +193,44 @@ public final class MsgArg {
     public static native int getNumMembers(long msgArg);
     public static native long getMember(long msgArg, int index);
 
+    /*
+     * Batched accessor functions returning the handles of all the elements of
+     * an array, all the members of a struct, or all the keys or values of an
+     * array of dictionary entries in one call.
+     */
+    public static native long[] getElements(long msgArg);
+    public static native long[] getMembers(long msgArg);
+    public static native long[] getDictKeys(long msgArg);
+    public static native long[] getDictVals(long msgArg);
+
+    /**
+     * Looks up a value in an array of dictionary entries with string keys
+     * without unmarshalling the other entries.
+     *
+     * @param msgArg the native MsgArg pointer of the array
+     * @param key the key
+     * @return the native MsgArg pointer of the value, or 0 if not found
+     */
+    static native long getDictVal(long msgArg, String key);
+
+    /**
+     * Computes a 64-bit hash of the type and contents of a native MsgArg
+     * without unmarshalling it.  Equal contents give equal hashes.
+     *
+     * @param msgArg the native MsgArg pointer
+     * @return the hash
+     */
+    static native long hash(long msgArg);
+
+    /**
+     * Unmarshals native MsgArgs of basic type (other than enums) in one call.
+     *
+     * @param msgArgs the native MsgArg pointers
+     * @return the boxed values, as returned by {@link #unmarshal(long, Type)}
+     * @throws BusException if a MsgArg is not of basic type
+     */
+    private static native Object[] getBasicValues(long[] msgArgs) throws BusException;
+
     /*
      * Accessor functions for setting native MsgArgs.  The msgArg
      * parameter is a native (MsgArg *).
@@ -205,6 +251,43 @@ public final class MsgArg {
     public static native long setArray(long msgArg, String elemSig, int numElements) throws BusException;
     public static native long setStruct(long msgArg, int numMembers) throws BusException;
     public static native long setDictEntry(long msgArg) throws BusException;
+    public static native long setDictEntries(long msgArg) throws BusException;
+
+    /**
+     * Sets a native MsgArg to refer to the contents of a direct buffer without
+     * copying them.
+     */
+    private static native long setByteBuffer(long msgArg, String signature, ByteBuffer arg,
+                                             int position, int length) throws BusException;
+
+    /**
+     * Gets a direct buffer referring to the contents of a native byte array
+     * MsgArg, or null if the contents cannot be lent out and must be copied.
+     */
+    static native ByteBuffer getByteBuffer(long msgArg);
+
+    /**
+     * Marks whether byte arrays of the message being delivered on this thread
+     * may be lent out by {@link #getByteBuffer(long)}.  Has no effect outside
+     * a handler.
+     *
+     * @param lending true to lend, false to copy
+     */
+    private static native void setLendingArgs(boolean lending);
+
+    /**
+     * Sets a native MsgArg to the remaining contents of a buffer.  The contents
+     * of a direct buffer are not copied, and must not be modified until the
+     * MsgArg has been marshalled into a message.
+     */
+    public static long set(long msgArg, String signature, ByteBuffer arg) throws BusException {
+        if (arg.isDirect()) {
+            return setByteBuffer(msgArg, signature, arg, arg.position(), arg.remaining());
+        }
+        byte[] ay = new byte[arg.remaining()];
+        arg.duplicate().get(ay);
+        return set(msgArg, signature, ay);
+    }
     public static native long setVariant(long msgArg, String signature, long val) throws BusException;
     public static native long setVariant(long msgArg) throws BusException;
 
@@ -251,16 +334,18 @@ public final class MsgArg {
                 if (type == Object.class) {
                     type = toType(getSignature(new long[]{msgArg}));
                 }
-                if (getElemSig(msgArg).charAt(0) == ALLJOYN_DICT_ENTRY_OPEN) {
+                String elemSig = getElemSig(msgArg);
+                if (elemSig.charAt(0) == ALLJOYN_DICT_ENTRY_OPEN) {
                     Type rawType = ((ParameterizedType) type).getRawType();
                     rawType = (rawType == Map.class) ? HashMap.class : rawType;
                     object = ((Class<?>) rawType).newInstance();
-                    for (int i = 0; i < getNumElements(msgArg); ++i) {
-                        long element  = getElement(msgArg, i);
-                        Type[] typeArgs = ((ParameterizedType) type).getActualTypeArguments();
+                    Type[] typeArgs = ((ParameterizedType) type).getActualTypeArguments();
+                    String[] sigs = Signature.splitShared(elemSig.substring(1, elemSig.length() - 1));
+                    Object[] keys = unmarshal(getDictKeys(msgArg), sigs[0], typeArgs[0]);
+                    Object[] vals = unmarshal(getDictVals(msgArg), sigs[1], typeArgs[1]);
+                    for (int i = 0; i < keys.length; ++i) {
                         // TODO Can't seem to get it to suppress the warning here...
-                        ((Map<Object, Object>) object).put(unmarshal(getKey(element), typeArgs[0]),
-                                                           unmarshal(getVal(element), typeArgs[1]));
+                        ((Map<Object, Object>) object).put(keys[i], vals[i]);
                     }
                     return object;
                 } else {
@@ -275,13 +360,14 @@ public final class MsgArg {
                     } else {
                         componentClass = (Class<?>) componentType;
                     }
-                    object = Array.newInstance(componentClass, getNumElements(msgArg));
-                    for (int i = 0; i < getNumElements(msgArg); ++i) {
+                    Object[] components = unmarshal(getElements(msgArg), elemSig, componentType);
+                    object = Array.newInstance(componentClass, components.length);
+                    for (int i = 0; i < components.length; ++i) {
                         /*
                          * Under Sun the Array.set() is sufficient to check the
                          * type.  Under Android that is not the case.
                          */
-                        Object component = unmarshal(getElement(msgArg, i), componentType);
+                        Object component = components[i];
                         if (!componentClass.isInstance(component)) {
                             throw new IllegalArgumentException("argument type mismatch");
                         }
@@ -309,6 +395,18 @@ public final class MsgArg {
                 }
                 return object;
             case ALLJOYN_BYTE_ARRAY:
+                if (type == ByteBuffer.class) {
+                    /*
+                     * The arguments of a handler annotated with
+                     * LendByteBuffers are lent out and are only valid for
+                     * the length of the handler.  Anything else is copied.
+                     */
+                    ByteBuffer buffer = getByteBuffer(msgArg);
+                    if (buffer == null) {
+                        buffer = ByteBuffer.wrap(getByteArray(msgArg));
+                    }
+                    return buffer.asReadOnlyBuffer();
+                }
                 return getByteArray(msgArg);
             case ALLJOYN_DOUBLE:
                 return getDouble(msgArg);
@@ -352,30 +450,33 @@ public final class MsgArg {
                  */
                 if (type == Object.class || type == Object[].class) {
                     String signature = getSignature(new long[] {msgArg});
-                    String[] sigs = Signature.split(signature.substring(1,signature.length()-1));
-                    if (sigs.length != getNumMembers(msgArg)) {
+                    String[] sigs = Signature.splitShared(signature.substring(1,signature.length()-1));
+                    long[] members = getMembers(msgArg);
+                    if (sigs.length != members.length) {
                         throw new MarshalBusException(
                             "cannot marshal '" + signature + "' with "
-                            + getNumMembers(msgArg) + " members into " + type + " with "
+                            + members.length + " members into " + type + " with "
                             + sigs.length + " fields");
                     }
                     Object[] array = (Object[]) Array.newInstance(Object.class, sigs.length);
-                    for (int i = 0; i < getNumMembers(msgArg); ++i) {
-                        array[i] = unmarshal(getMember(msgArg, i), toType(sigs[i]));
+                    for (int i = 0; i < members.length; ++i) {
+                        array[i] = unmarshal(members[i], toType(sigs[i]));
                     }
                     return array; // returned structure represented as a generic Object[]
                 } else {
-                    Type[] types = Signature.structTypes((Class<?>) type);
-                    if (types.length != getNumMembers(msgArg)) {
+                    Signature.StructCodec codec = Signature.structCodec((Class<?>) type);
+                    Type[] types = codec.types;
+                    long[] members = getMembers(msgArg);
+                    if (types.length != members.length) {
                         throw new MarshalBusException(
                             "cannot marshal '" + getSignature(new long[] { msgArg }) + "' with "
-                            + getNumMembers(msgArg) + " members into " + type + " with "
+                            + members.length + " members into " + type + " with "
                             + types.length + " fields");
                     }
-                    object = ((Class<?>) type).newInstance();
-                    Field[] fields = Signature.structFields((Class<?>) type);
-                    for (int i = 0; i < getNumMembers(msgArg); ++i) {
-                        Object value = unmarshal(getMember(msgArg, i), types[i]);
+                    object = codec.newInstance();
+                    Field[] fields = codec.fields;
+                    for (int i = 0; i < types.length; ++i) {
+                        Object value = unmarshal(members[i], types[i]);
                         fields[i].set(object, value);
                     }
                     return object;
@@ -418,6 +519,69 @@ public final class MsgArg {
         }
     }
 
+    /**
+     * Tests whether MsgArgs of the signature unmarshal into the Java type
+     * without regard to the type, so {@link #getBasicValues(long[])} can be used.
+     */
+    private static boolean isBasic(String sig, Type type) {
+        if (sig.length() != 1 || (type instanceof Class && ((Class<?>) type).isEnum())) {
+            return false;
+        }
+        switch (sig.charAt(0)) {
+        case ALLJOYN_BOOLEAN:
+        case ALLJOYN_BYTE:
+        case ALLJOYN_INT16:
+        case ALLJOYN_UINT16:
+        case ALLJOYN_INT32:
+        case ALLJOYN_UINT32:
+        case ALLJOYN_INT64:
+        case ALLJOYN_UINT64:
+        case ALLJOYN_DOUBLE:
+        case ALLJOYN_STRING:
+        case ALLJOYN_OBJECT_PATH:
+        case ALLJOYN_SIGNATURE:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Unmarshals the elements of a container, which all have the same
+     * signature, into Java objects of the same type.  Elements of basic type
+     * are unmarshalled in one native call.
+     *
+     * @param msgArgs the native MsgArg pointers
+     * @param sig the signature of each of the MsgArgs
+     * @param type the Java type to unmarshal into
+     * @return the unmarshalled Java objects
+     * @throws MarshalBusException if the unmarshalling fails
+     */
+    private static Object[] unmarshal(long[] msgArgs, String sig, Type type) throws MarshalBusException {
+        if (isBasic(sig, type)) {
+            try {
+                return getBasicValues(msgArgs);
+            } catch (BusException ex) {
+                throw new MarshalBusException("cannot marshal '" + sig + "' into " + type, ex);
+            }
+        }
+        Object[] objects = new Object[msgArgs.length];
+        for (int i = 0; i < msgArgs.length; ++i) {
+            objects[i] = unmarshal(msgArgs[i], type);
+        }
+        return objects;
+    }
+
+    /**
+     * Marks a handler whose Variant parameters accept an argument of any
+     * type.  An argument that is not itself a variant is wrapped in a
+     * Variant as is, so that it is only unmarshalled if the handler asks for
+     * its value.  Every other method keeps the strict type check.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    @interface WrapInVariant {}
+
     /**
      * Unmarshals an array of native MsgArgs into an array of Java objects.  The
      * MsgArgs are unmarshalled into the parameter types of the specified Java
@@ -451,9 +615,32 @@ public final class MsgArg {
                 "cannot marshal " + numArgs + " args into " + types.length + " parameters");
         }
 
+        boolean wrap = method.isAnnotationPresent(WrapInVariant.class);
+        boolean lend = method.isAnnotationPresent(LendByteBuffers.class)
+            && !method.isAnnotationPresent(BusProperty.class);
+        if (lend) {
+            setLendingArgs(true);
+        }
         Object[] objects = new Object[numArgs];
-        for (int i = 0; i < numArgs; ++i) {
-            objects[i] = unmarshal(getMember(msgArgs, i), types[i]);
+        try {
+            for (int i = 0; i < numArgs; ++i) {
+                long msgArg = getMember(msgArgs, i);
+                if (wrap && types[i] == Variant.class && getTypeId(msgArg) != ALLJOYN_VARIANT) {
+                    /*
+                     * An argument of any other type is wrapped as is, to be
+                     * unmarshalled on demand by the receiver.
+                     */
+                    Variant variant = new Variant();
+                    variant.wrapMsgArg(msgArg);
+                    objects[i] = variant;
+                } else {
+                    objects[i] = unmarshal(msgArg, types[i]);
+                }
+            }
+        } finally {
+            if (lend) {
+                setLendingArgs(false);
+            }
         }
 
         return isVariable ? new Object[]{objects}: objects;
@@ -526,7 +713,11 @@ public final class MsgArg {
                 }
                 switch (elementTypeId) {
                 case ALLJOYN_BYTE:
-                    set(msgArg, sig, (byte[]) arg);
+                    if (arg instanceof ByteBuffer) {
+                        set(msgArg, sig, (ByteBuffer) arg);
+                    } else {
+                        set(msgArg, sig, (byte[]) arg);
+                    }
                     break;
                 case ALLJOYN_BOOLEAN:
                     if (arg instanceof boolean[]) {
@@ -550,26 +741,46 @@ public final class MsgArg {
                 case ALLJOYN_DOUBLE:
                     set(msgArg, sig, (double[]) arg);
                     break;
+                case ALLJOYN_DICT_ENTRY_OPEN: {
+                    String[] sigs = Signature.splitShared(sig.substring(2, sig.length() - 1));
+                    if (sigs == null) {
+                        throw new MarshalBusException("cannot marshal " + arg.getClass() + " into '"
+                                                      + sig + "'");
+                    }
+                    Object[] entries = (Object[]) arg;
+                    setArray(msgArg, sig.substring(1), entries.length);
+                    setDictEntries(msgArg);
+                    long[] keys = getDictKeys(msgArg);
+                    long[] vals = getDictVals(msgArg);
+                    for (int i = 0; i < entries.length; ++i) {
+                        Map.Entry<?, ?> entry = (Map.Entry<?, ?>) entries[i];
+                        marshal(keys[i], sigs[0], entry.getKey());
+                        marshal(vals[i], sigs[1], entry.getValue());
+                    }
+                    break;
+                }
                 default:
                     String elemSig = sig.substring(1);
                     Object[] args = (Object[]) arg;
                     setArray(msgArg, elemSig, args.length);
-                    for (int i = 0; i < getNumElements(msgArg); ++i) {
-                        marshal(getElement(msgArg, i), elemSig, args[i]);
+                    long[] elements = getElements(msgArg);
+                    for (int i = 0; i < elements.length; ++i) {
+                        marshal(elements[i], elemSig, args[i]);
                     }
                     break;
                 }
                 break;
             case ALLJOYN_STRUCT_OPEN:
                 Object[] args = Signature.structArgs(arg);
-                String[] memberSigs = Signature.split(sig.substring(1, sig.length() - 1));
+                String[] memberSigs = Signature.splitShared(sig.substring(1, sig.length() - 1));
                 if (memberSigs == null) {
                     throw new MarshalBusException("cannot marshal " + arg.getClass() + " into '"
                                                   + sig + "'");
                 }
                 setStruct(msgArg, memberSigs.length);
-                for (int i = 0; i < getNumMembers(msgArg); ++i) {
-                    marshal(getMember(msgArg, i), memberSigs[i], args[i]);
+                long[] members = getMembers(msgArg);
+                for (int i = 0; i < members.length; ++i) {
+                    marshal(members[i], memberSigs[i], args[i]);
                 }
                 break;
             case ALLJOYN_VARIANT:
@@ -578,12 +789,14 @@ public final class MsgArg {
                     setVariant(msgArg, sig, variant.getMsgArg());
                 } else {
                     setVariant(msgArg);
-                    marshal(getVal(msgArg), variant.getSignature(), variant.getValue());
+                    if (!variant.setPrimitive(getVal(msgArg))) {
+                        marshal(getVal(msgArg), variant.getSignature(), variant.getValue());
+                    }
                 }
                 break;
             case ALLJOYN_DICT_ENTRY_OPEN:
                 Map.Entry<?, ?> entry = (Map.Entry<?, ?>) arg;
-                String[] sigs = Signature.split(sig.substring(1, sig.length() - 1));
+                String[] sigs = Signature.splitShared(sig.substring(1, sig.length() - 1));
                 if (sigs == null) {
                     throw new MarshalBusException("cannot marshal " + arg.getClass() + " into '"
                                                   + sig + "'");
@@ -612,13 +825,14 @@ public final class MsgArg {
      * @throws MarshalBusException if the marshalling fails
      */
     public static void marshal(long msgArg, String sig, Object[] args) throws BusException {
-        String[] sigs = Signature.split(sig);
+        String[] sigs = Signature.splitShared(sig);
         if (sigs == null) {
             throw new MarshalBusException("cannot marshal args into '" + sig + "', bad signature");
         }
         setStruct(msgArg, (args == null) ? 0 : args.length);
-        for (int i = 0; i < getNumMembers(msgArg); ++i) {
-            marshal(getMember(msgArg, i), sigs[i], args[i]);
+        long[] members = getMembers(msgArg);
+        for (int i = 0; i < members.length; ++i) {
+            marshal(members[i], sigs[i], args[i]);
         }
     }
 
@@ -636,7 +850,7 @@ public final class MsgArg {
         }
 
         // Check if sig describes loose fields not in a container (then need to treat it as a struct)
-        String[] sigArray = Signature.split(sig);
+        String[] sigArray = Signature.splitShared(sig);
         if (sigArray != null && sigArray.length > 1) {
             sig = "(" + sig + ")";
         }
@@ -669,7 +883,7 @@ public final class MsgArg {
                     break;
                 }
                 case ALLJOYN_DICT_ENTRY_OPEN: {
-                    String[] sigs = Signature.split(sig.substring(1, sig.length()-1));
+                    String[] sigs = Signature.splitShared(sig.substring(1, sig.length()-1));
                     final Type keyType = toType(sigs[0]);
                     final Type valueType = toType(sigs[1]);
                     result = new ParameterizedType() {
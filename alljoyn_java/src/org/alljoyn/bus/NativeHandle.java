@@ -0,0 +1,226 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The native counterpart of a Java object, released either explicitly or
+ * once the Java object has been garbage collected.
+ *
+ * This replaces finalize() for the classes that wrap a native object.  A
+ * finalizable object survives at least one extra garbage collection and is
+ * released by the single finalizer thread, so under a high allocation rate
+ * native memory grows until the finalizer thread catches up.  A
+ * NativeHandle is a phantom reference: the Java object is collected
+ * normally and its native object is released by a dedicated daemon thread
+ * as soon as the collector reports it.  Releasing the native object only
+ * needs the handle value, never the Java object.
+ *
+ * Objects that are released explicitly (for example through close() or
+ * release()) never reach the reclaimer thread.  The counts reported by
+ * {@link #getLiveCount()} and {@link #getReclaimedCount()} can be used to
+ * monitor for leaks in long-running applications: a growing live count, or
+ * a high reclaimed count for a class that is meant to be closed, points to
+ * objects that are dropped without being released.
+ */
+public final class NativeHandle extends PhantomReference<Object> {
+
+    /**
+     * Releases a native object given its handle.
+     */
+    public interface Releaser {
+        /**
+         * Release the native object.  Called at most once per handle.
+         *
+         * @param handle the handle of the native object
+         */
+        void release(long handle);
+    }
+
+    /** The queue the collector reports unreachable owners to. */
+    private static final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+    /** Keeps the handles strongly reachable until they are released. */
+    private static final Map<NativeHandle, Boolean> live = new ConcurrentHashMap<NativeHandle, Boolean>();
+
+    private static final AtomicLong releasedCount = new AtomicLong();
+
+    private static final AtomicLong reclaimedCount = new AtomicLong();
+
+    /** The number of handles reclaimed by the collector, by class of owner. */
+    private static final Map<Class<?>, AtomicLong> reclaimedCounts = new ConcurrentHashMap<Class<?>, AtomicLong>();
+
+    static {
+        Thread reclaimer = new Thread("NativeHandle reclaimer") {
+            @Override
+            public void run() {
+                while (true) {
+                    try {
+                        ((NativeHandle) queue.remove()).reclaim();
+                    } catch (InterruptedException ex) {
+                        /* Keep reclaiming. */
+                    } catch (Throwable th) {
+                        BusException.log(th);
+                    }
+                }
+            }
+        };
+        reclaimer.setDaemon(true);
+        reclaimer.start();
+    }
+
+    private final Class<?> ownerClass;
+
+    private final Releaser releaser;
+
+    private long handle;
+
+    private NativeHandle(Object owner, long handle, Releaser releaser) {
+        super(owner, queue);
+        this.ownerClass = owner.getClass();
+        this.handle = handle;
+        this.releaser = releaser;
+    }
+
+    /**
+     * Track the native object of a Java object.  The native object is
+     * released by releaser when {@link #release()} is called or, failing
+     * that, once owner has been garbage collected.
+     *
+     * @param owner the Java object
+     * @param handle the handle of the native object, 0 if there is none
+     * @param releaser releases the native object
+     * @return the native handle, or null if handle is 0
+     */
+    public static NativeHandle register(Object owner, long handle, Releaser releaser) {
+        if (handle == 0) {
+            return null;
+        }
+        NativeHandle nativeHandle = new NativeHandle(owner, handle, releaser);
+        live.put(nativeHandle, Boolean.TRUE);
+        return nativeHandle;
+    }
+
+    /**
+     * Release the native object now.  Calling release more than once has no
+     * further effect.
+     *
+     * @return true if the native object was released by this call
+     */
+    public boolean release() {
+        if (!releaseHandle()) {
+            return false;
+        }
+        releasedCount.incrementAndGet();
+        return true;
+    }
+
+    /** Called by the reclaimer thread once the owner has been collected. */
+    private void reclaim() {
+        if (!releaseHandle()) {
+            return;
+        }
+        reclaimedCount.incrementAndGet();
+        AtomicLong count = reclaimedCounts.get(ownerClass);
+        if (count == null) {
+            synchronized (reclaimedCounts) {
+                count = reclaimedCounts.get(ownerClass);
+                if (count == null) {
+                    count = new AtomicLong();
+                    reclaimedCounts.put(ownerClass, count);
+                }
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    private boolean releaseHandle() {
+        long h;
+        synchronized (this) {
+            h = handle;
+            handle = 0;
+        }
+        if (h == 0) {
+            return false;
+        }
+        clear();
+        live.remove(this);
+        releaser.release(h);
+        return true;
+    }
+
+    /**
+     * Get the number of native objects that have not been released yet.
+     *
+     * @return the number of live native objects
+     */
+    public static int getLiveCount() {
+        return live.size();
+    }
+
+    /**
+     * Get the number of native objects released explicitly.
+     *
+     * @return the number of native objects released by {@link #release()}
+     */
+    public static long getReleasedCount() {
+        return releasedCount.get();
+    }
+
+    /**
+     * Get the number of native objects released because their Java object
+     * was garbage collected without being released explicitly.
+     *
+     * @return the number of native objects reclaimed by the collector
+     */
+    public static long getReclaimedCount() {
+        return reclaimedCount.get();
+    }
+
+    /**
+     * Get the number of native objects reclaimed by the collector for each
+     * class of Java object.
+     *
+     * @return a snapshot of the reclaimed counts, keyed by class
+     */
+    public static Map<Class<?>, Long> getReclaimedCounts() {
+        Map<Class<?>, Long> counts = new HashMap<Class<?>, Long>();
+        for (Map.Entry<Class<?>, AtomicLong> entry : reclaimedCounts.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().get());
+        }
+        return counts;
+    }
+}
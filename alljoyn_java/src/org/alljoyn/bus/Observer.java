@@ -32,11 +32,15 @@ package org.alljoyn.bus;
 import java.io.Closeable;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.NavigableMap;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.alljoyn.bus.annotation.BusInterface;
 import org.alljoyn.bus.defs.InterfaceDef;
@@ -60,6 +64,10 @@ import org.alljoyn.bus.defs.InterfaceDef;
  * <li> the hosting peer has closed the session
  * <li> the hosting peer stopped responding to Ping requests
  * </ul>
+ * <p>
+ * The discovered objects can be looked up and iterated from any thread
+ * without blocking discovery: lookups do not take a lock, and iteration works
+ * on the objects discovered at the time it starts.
  */
 public class Observer implements Closeable {
     /**
@@ -107,8 +115,6 @@ public class Observer implements Closeable {
         }
 
         this.bus = bus;
-        proxies = new TreeMap<ObjectId, ProxyBusObject>();
-        listeners = new ArrayList<WrappedListener>();
         interfaceMap = new HashMap<String, Class<?>>();
 
         /* build the list of mandatory AllJoyn interface names */
@@ -160,8 +166,6 @@ public class Observer implements Closeable {
         }
 
         this.bus = bus;
-        proxies = new TreeMap<ObjectId, ProxyBusObject>();
-        listeners = new ArrayList<WrappedListener>();
         interfaceDefMap = new HashMap<String, InterfaceDef>();
 
         /* build the list of mandatory AllJoyn interface names */
@@ -203,7 +207,12 @@ public class Observer implements Closeable {
         // finalizer to clean-up.
         destroy();
         listeners.clear();
-        proxies.clear();
+        synchronized (indexLock) {
+            objects.clear();
+            proxies.clear();
+            byBusName.clear();
+            byInterface.clear();
+        }
         if (interfaceMap != null) interfaceMap.clear();
         if (interfaceDefMap != null) interfaceDefMap.clear();
         bus = null;
@@ -242,10 +251,10 @@ public class Observer implements Closeable {
      *
      * @param listener the listener to unregister
      */
-    public synchronized void unregisterListener(Listener listener) {
-        for (int i = 0; i < listeners.size(); ++i) {
-            if (listeners.get(i).listener.equals(listener)) {
-                listeners.remove(i);
+    public void unregisterListener(Listener listener) {
+        for (WrappedListener wl : listeners) {
+            if (wl.listener.equals(listener)) {
+                listeners.remove(wl);
                 break;
             }
         }
@@ -254,7 +263,7 @@ public class Observer implements Closeable {
     /**
      * Unregister all listeners.
      */
-    public synchronized void unregisterAllListeners() {
+    public void unregisterAllListeners() {
         listeners.clear();
     }
 
@@ -270,11 +279,12 @@ public class Observer implements Closeable {
      * @param path the non-null object's path
      * @return the ProxyBusObject or null if not found
      */
-    public synchronized ProxyBusObject get(String busname, String path) {
-        // both busname and path could be null arguments.
-        // No extra checks added as passing null is harmless
-        ObjectId oid = new ObjectId(busname, path);
-        return proxies.get(oid);
+    public ProxyBusObject get(String busname, String path) {
+        if (busname == null || path == null) {
+            return null;
+        }
+        Discovered d = objects.get(new ObjectId(busname, path));
+        return (d == null) ? null : d.proxy;
     }
 
     /**
@@ -285,11 +295,12 @@ public class Observer implements Closeable {
      *
      * @return the first ProxyBusObject or null if no objects discovered
      */
-    public synchronized ProxyBusObject getFirst() {
-        if (proxies.size() == 0) {
+    public ProxyBusObject getFirst() {
+        Map.Entry<ObjectId, ProxyBusObject> entry = proxies.firstEntry();
+        if (entry == null) {
             return null;
         }
-        return proxies.firstEntry().getValue();
+        return entry.getValue();
     }
 
     /**
@@ -301,7 +312,7 @@ public class Observer implements Closeable {
      * @param object the previous ProxyBusObject
      * @return the next ProxyBusObject or null if iteration is finished
      */
-    public synchronized ProxyBusObject getNext(ProxyBusObject object) {
+    public ProxyBusObject getNext(ProxyBusObject object) {
         if (object == null) {
             return null;
         }
@@ -314,6 +325,68 @@ public class Observer implements Closeable {
         return entry.getValue();
     }
 
+    /**
+     * Get the number of currently discovered objects.
+     *
+     * @return the number of discovered objects
+     */
+    public int size() {
+        return objects.size();
+    }
+
+    /**
+     * Retrieve all discovered {@link ProxyBusObject}s.
+     *
+     * @return a snapshot of the discovered objects, ordered by bus name and
+     *         object path
+     */
+    public List<ProxyBusObject> getAll() {
+        return new ArrayList<ProxyBusObject>(proxies.values());
+    }
+
+    /**
+     * Retrieve all discovered {@link ProxyBusObject}s hosted by one peer.
+     *
+     * @param busname the unique bus name of the peer
+     * @return a snapshot of the objects hosted by the peer, ordered by object
+     *         path; empty if none
+     */
+    public List<ProxyBusObject> getAll(String busname) {
+        Map<String, ProxyBusObject> paths = (busname == null) ? null : byBusName.get(busname);
+        if (paths == null) {
+            return Collections.<ProxyBusObject>emptyList();
+        }
+        return new ArrayList<ProxyBusObject>(paths.values());
+    }
+
+    /**
+     * Retrieve all discovered {@link ProxyBusObject}s that implement an
+     * interface.
+     *
+     * @param interfaceName the AllJoyn interface name
+     * @return a snapshot of the objects implementing the interface, ordered by
+     *         bus name and object path; empty if none
+     */
+    public List<ProxyBusObject> getAllImplementing(String interfaceName) {
+        Map<ObjectId, ProxyBusObject> implementing = (interfaceName == null) ? null : byInterface.get(interfaceName);
+        if (implementing == null) {
+            return Collections.<ProxyBusObject>emptyList();
+        }
+        return new ArrayList<ProxyBusObject>(implementing.values());
+    }
+
+    /**
+     * Retrieve all discovered {@link ProxyBusObject}s that implement an
+     * interface.
+     *
+     * @param intf the Java interface
+     * @return a snapshot of the objects implementing the interface, ordered by
+     *         bus name and object path; empty if none
+     */
+    public List<ProxyBusObject> getAllImplementing(Class<?> intf) {
+        return getAllImplementing(getBusInterfaceName(intf));
+    }
+
     /**
      * Let the Java garbage collector release resources.
      */
@@ -415,7 +488,7 @@ public class Observer implements Closeable {
          * when native calls us back on the dispatcher thread via
          * enablePendingListeners.
          */
-        public boolean enabled;
+        public volatile boolean enabled;
 
         /**
          * the listener
@@ -431,6 +504,20 @@ public class Observer implements Closeable {
         }
     };
 
+    /**
+     * A discovered object and the interfaces it implements.
+     */
+    private static class Discovered {
+        public final ProxyBusObject proxy;
+
+        public final String[] interfaces;
+
+        Discovered(ProxyBusObject proxy, String[] interfaces) {
+            this.proxy = proxy;
+            this.interfaces = interfaces;
+        }
+    };
+
     /**
      * Enable pending listeners.
      *
@@ -442,18 +529,14 @@ public class Observer implements Closeable {
      */
     private void enablePendingListeners() {
         ArrayList<Listener> pendingListeners = new ArrayList<Listener>();
-        synchronized(this) {
-            for (WrappedListener wl : listeners) {
-                if (!wl.enabled) {
-                    pendingListeners.add(wl.listener);
-                    wl.enabled = true;
-                }
+        for (WrappedListener wl : listeners) {
+            if (!wl.enabled) {
+                pendingListeners.add(wl.listener);
+                wl.enabled = true;
             }
         }
 
-        /* we have threading guarantees from the Core that the proxies set will not change
-         * during this call. Therefore, we don't need to do anything special to safeguard
-         * proxies during iteration. */
+        /* the proxies map is safe to iterate while discovery updates it */
         for (Listener l : pendingListeners) {
             for (ProxyBusObject proxy : proxies.values()) {
                 try {
@@ -480,15 +563,11 @@ public class Observer implements Closeable {
             ? getProxyWithInterfaceClasses(busname, path, sessionId, interfaces)
             : getProxyWithInterfaceDefs(busname, path, sessionId, interfaces);
 
-        WrappedListener[] copiedListeners;
-        synchronized(this) {
-            proxies.put(new ObjectId(busname, path), proxy);
-            copiedListeners = listeners.toArray(new WrappedListener[]{});
-        }
+        add(new ObjectId(busname, path), proxy, interfaces);
 
-        /* we do the listener invocation outside of the critical region to avoid
-         * lock ordering issues */
-        for (WrappedListener wl : copiedListeners) {
+        /* the listeners are invoked outside of the index lock to avoid lock
+         * ordering issues */
+        for (WrappedListener wl : listeners) {
             if (wl.enabled) {
                 try {
                     // protect against exceptions in listener code.
@@ -546,23 +625,14 @@ public class Observer implements Closeable {
      * @param path object path
      */
     private void objectLost(String busname, String path) {
-        WrappedListener[] copiedListeners = null;
-        ProxyBusObject obj = null;
-        synchronized(this) {
-            ObjectId oid = new ObjectId(busname, path);
-            obj = proxies.remove(oid);
-            if (obj != null) {
-                copiedListeners = listeners.toArray(new WrappedListener[]{});
-            }
-        }
-
+        ProxyBusObject obj = remove(new ObjectId(busname, path));
         if (obj == null) {
             return;
         }
 
-        /* we do the listener invocation outside of the critical region to avoid
-         * lock ordering issues */
-        for (WrappedListener wl : copiedListeners) {
+        /* the listeners are invoked outside of the index lock to avoid lock
+         * ordering issues */
+        for (WrappedListener wl : listeners) {
             if (wl.enabled) {
                 try {
                     wl.listener.objectLost(obj);
@@ -574,6 +644,68 @@ public class Observer implements Closeable {
         }
     }
 
+    /**
+     * Add a discovered object to the registry and its indexes, replacing an
+     * earlier proxy for the same object.
+     */
+    private void add(ObjectId oid, ProxyBusObject proxy, String[] interfaces) {
+        synchronized (indexLock) {
+            remove(oid);
+            objects.put(oid, new Discovered(proxy, interfaces));
+            proxies.put(oid, proxy);
+
+            ConcurrentNavigableMap<String, ProxyBusObject> paths = byBusName.get(oid.busname);
+            if (paths == null) {
+                paths = new ConcurrentSkipListMap<String, ProxyBusObject>();
+                byBusName.put(oid.busname, paths);
+            }
+            paths.put(oid.path, proxy);
+
+            for (String intf : interfaces) {
+                ConcurrentNavigableMap<ObjectId, ProxyBusObject> implementing = byInterface.get(intf);
+                if (implementing == null) {
+                    implementing = new ConcurrentSkipListMap<ObjectId, ProxyBusObject>();
+                    byInterface.put(intf, implementing);
+                }
+                implementing.put(oid, proxy);
+            }
+        }
+    }
+
+    /**
+     * Remove an object from the registry and its indexes.
+     *
+     * @return the proxy of the removed object or null if it was not known
+     */
+    private ProxyBusObject remove(ObjectId oid) {
+        synchronized (indexLock) {
+            Discovered d = objects.remove(oid);
+            if (d == null) {
+                return null;
+            }
+            proxies.remove(oid);
+
+            Map<String, ProxyBusObject> paths = byBusName.get(oid.busname);
+            if (paths != null) {
+                paths.remove(oid.path);
+                if (paths.isEmpty()) {
+                    byBusName.remove(oid.busname);
+                }
+            }
+
+            for (String intf : d.interfaces) {
+                Map<ObjectId, ProxyBusObject> implementing = byInterface.get(intf);
+                if (implementing != null) {
+                    implementing.remove(oid);
+                    if (implementing.isEmpty()) {
+                        byInterface.remove(intf);
+                    }
+                }
+            }
+            return d.proxy;
+        }
+    }
+
     /**
      * Extract AllJoyn interface name from a Java interface.
      */
@@ -590,10 +722,24 @@ public class Observer implements Closeable {
 
     /** Bus attachment used by this Observer */
     private BusAttachment bus;
-    /** Proxies for the discovered objects */
-    private NavigableMap<ObjectId, ProxyBusObject> proxies;
+    /**
+     * Guards updates of the discovered objects and their indexes, so that the
+     * indexes agree with each other.  Lookups and iteration never take it.
+     */
+    private final Object indexLock = new Object();
+    /** The discovered objects */
+    private final ConcurrentMap<ObjectId, Discovered> objects = new ConcurrentHashMap<ObjectId, Discovered>();
+    /** Proxies for the discovered objects, in iteration order */
+    private final ConcurrentNavigableMap<ObjectId, ProxyBusObject> proxies =
+        new ConcurrentSkipListMap<ObjectId, ProxyBusObject>();
+    /** Proxies for the discovered objects by unique bus name and object path */
+    private final ConcurrentMap<String, ConcurrentNavigableMap<String, ProxyBusObject>> byBusName =
+        new ConcurrentHashMap<String, ConcurrentNavigableMap<String, ProxyBusObject>>();
+    /** Proxies for the discovered objects by implemented AllJoyn interface name */
+    private final ConcurrentMap<String, ConcurrentNavigableMap<ObjectId, ProxyBusObject>> byInterface =
+        new ConcurrentHashMap<String, ConcurrentNavigableMap<ObjectId, ProxyBusObject>>();
     /** Registered listeners */
-    private List<WrappedListener> listeners;
+    private final List<WrappedListener> listeners = new CopyOnWriteArrayList<WrappedListener>();
     /** Maps AllJoyn interface names to Java interfaces (needed for ProxyBusObject creation) */
     private HashMap<String, Class<?>> interfaceMap;
     /** Maps AllJoyn interface names to interface definitions (needed for ProxyBusObject creation).
@@ -79,6 +79,7 @@ public abstract class PropertiesChangedListener {
             Type changedType = p[2];
             Type invalidatedType = p[3];
             create(changedType, invalidatedType);
+            NativeHandle.register(this, handle, releaser);
         } catch (NoSuchMethodException ex) {
             System.err.println("failed to get propertiesChanged method");  // Should never happen.
         }
@@ -88,18 +89,14 @@ public abstract class PropertiesChangedListener {
     private native void create(Type changed, Type invalidated);
 
     /** Release native resources. */
-    private synchronized native void destroy();
+    private static native void destroy(long handle);
 
-    /**
-     * Destroy native resources held by objects of this class.
-     */
-    protected void finalize() throws Throwable {
-        try {
-            destroy();
-        } finally {
-            super.finalize();
+    /** Releases the native resources once this listener has been garbage collected. */
+    private static final NativeHandle.Releaser releaser = new NativeHandle.Releaser() {
+        public void release(long handle) {
+            destroy(handle);
         }
-    }
+    };
 
     /**
      * Called by the bus when the value of a property changes if that property has annotation
@@ -0,0 +1,395 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A client-side cache of the properties of remote bus objects.
+ *
+ * A PropertyCache is enabled per interface on one or more ProxyBusObjects
+ * with {@link ProxyBusObject#enablePropertyCache(PropertyCache, String, long)}.
+ * The property reads of a cached interface -- through the proxy returned by
+ * getInterface(), ProxyBusObject.getProperty() or GenericInterface.getProperty()
+ * -- are then served from the cache when possible.  Entries are kept up to date
+ * by the PropertiesChanged signals of the remote object, expire after the
+ * stale-after time given when the interface was enabled if the property does
+ * not emit change signals, and are evicted least recently used first when the
+ * cache is full.
+ *
+ * A single cache may be shared by the proxies of many remote objects, so that
+ * its size bounds the memory used for the whole fleet.
+ *
+ * Every read gets its own copy of a cached value, so a reader may modify the
+ * value or close the Variant it was given without affecting the cache.  Only
+ * immutable values, such as strings and boxed primitives, are shared.
+ */
+public final class PropertyCache {
+
+    /** The key of a cached property. */
+    private static final class Key {
+        final ProxyBusObject owner;
+        final String ifaceName;
+        final String propName;
+
+        Key(ProxyBusObject owner, String ifaceName, String propName) {
+            this.owner = owner;
+            this.ifaceName = ifaceName;
+            this.propName = propName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return owner == k.owner && ifaceName.equals(k.ifaceName) && propName.equals(k.propName);
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(owner) * 31 + ifaceName.hashCode()) * 31 + propName.hashCode();
+        }
+    }
+
+    /** A cached property value. */
+    static final class Entry {
+        private final Variant value;
+        private final long expiresAt;
+
+        /** The value last decoded from the variant, and its type. */
+        private Type decodedType;
+        private Object decoded;
+
+        Entry(Variant value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        /** Gets a copy of the cached variant for the caller to own. */
+        Variant getVariant() {
+            return value.detach();
+        }
+
+        /**
+         * Gets the value as the given type.  An immutable value is decoded
+         * only if it was last decoded as a different type; any other value is
+         * decoded for every call, so that each caller gets its own instance.
+         */
+        synchronized Object getObject(Type type) throws BusException {
+            if (decodedType != null && decodedType.equals(type)) {
+                return decoded;
+            }
+            Object o = value.decode(type);
+            if (isImmutable(o)) {
+                decoded = o;
+                decodedType = type;
+            }
+            return o;
+        }
+
+        private static boolean isImmutable(Object o) {
+            return o instanceof String || o instanceof Number || o instanceof Boolean
+                || o instanceof Character || o instanceof Enum;
+        }
+    }
+
+    /** Used for the expiry time of entries that do not expire. */
+    static final long NEVER = Long.MAX_VALUE;
+
+    private final int maxEntries;
+
+    private final LinkedHashMap<Key, Entry> entries;
+
+    /**
+     * Ticked by every update, invalidation and removal, so that a value read
+     * before a change of its property is not cached.
+     */
+    private long clock;
+
+    /**
+     * The clock at which each recently changed property last changed, oldest
+     * change first.  Bounded like the entries.
+     */
+    private final LinkedHashMap<Key, Long> changes;
+
+    /**
+     * Values read before this clock are not cached at all.  Raised when the
+     * record of a change is dropped from {@link #changes} and by removals of
+     * many properties at once.
+     */
+    private long floor;
+
+    private long hits;
+    private long misses;
+    private long expirations;
+    private long evictions;
+    private long updates;
+    private long invalidations;
+
+    /**
+     * Constructs a PropertyCache.
+     *
+     * @param maxEntries the maximum number of properties kept in the cache
+     */
+    public PropertyCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PropertyCache.Entry> eldest) {
+                if (size() > PropertyCache.this.maxEntries) {
+                    ++evictions;
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.changes = new LinkedHashMap<Key, Long>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Long> eldest) {
+                if (size() > PropertyCache.this.maxEntries) {
+                    floor = Math.max(floor, eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the maximum number of properties kept in the cache.
+     *
+     * @return the maximum number of properties
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Gets the number of properties in the cache.
+     *
+     * @return the number of properties
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of property reads served from the cache.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of property reads of cached interfaces that had to be
+     * sent to the remote object, including those of expired entries.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of entries found expired when read.
+     *
+     * @return the number of expirations
+     */
+    public synchronized long getExpirationCount() {
+        return expirations;
+    }
+
+    /**
+     * Gets the number of entries evicted because the cache was full.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Gets the number of entries updated by PropertiesChanged signals.
+     *
+     * @return the number of updates
+     */
+    public synchronized long getUpdateCount() {
+        return updates;
+    }
+
+    /**
+     * Gets the number of entries invalidated by PropertiesChanged signals or
+     * by setting the property.
+     *
+     * @return the number of invalidations
+     */
+    public synchronized long getInvalidationCount() {
+        return invalidations;
+    }
+
+    /**
+     * Resets the statistics of the cache to zero.
+     */
+    public synchronized void resetStats() {
+        hits = 0;
+        misses = 0;
+        expirations = 0;
+        evictions = 0;
+        updates = 0;
+        invalidations = 0;
+    }
+
+    /**
+     * Removes all the properties from the cache.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        changedAll();
+    }
+
+    /**
+     * Gets a cached property.
+     *
+     * @return the entry, or null if the property is not cached or has expired
+     */
+    synchronized Entry get(ProxyBusObject owner, String ifaceName, String propName) {
+        Key key = new Key(owner, ifaceName, propName);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt != NEVER && entry.expiresAt - System.nanoTime() <= 0) {
+            entries.remove(key);
+            ++expirations;
+            entry = null;
+        }
+        if (entry == null) {
+            ++misses;
+        } else {
+            ++hits;
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the stamp to pass to {@link #put(ProxyBusObject, String, String, Variant, long, long)}
+     * for a value about to be read from the remote object.
+     */
+    synchronized long stamp() {
+        return clock;
+    }
+
+    /**
+     * Caches a property value read from the remote object, unless the
+     * property was changed or invalidated since the read was started.  The cache keeps its
+     * own copy of the value, so the variant may belong to a {@link VariantArena}
+     * or be closed by the caller.
+     *
+     * @param stamp the value of {@link #stamp()} before the read
+     * @param expiresAt the System.nanoTime() at which the entry expires, or NEVER
+     * @return the entry, which is returned even if it was not cached
+     */
+    synchronized Entry put(ProxyBusObject owner, String ifaceName, String propName, Variant value,
+                           long expiresAt, long stamp) {
+        Entry entry = new Entry(value.detach(), expiresAt);
+        Key key = new Key(owner, ifaceName, propName);
+        if (stamp >= floor) {
+            Long changed = changes.get(key);
+            if (changed == null || changed <= stamp) {
+                entries.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    /** Updates a property value from a change signal. */
+    synchronized void update(ProxyBusObject owner, String ifaceName, String propName, Variant value, long expiresAt) {
+        Key key = new Key(owner, ifaceName, propName);
+        entries.put(key, new Entry(value.detach(), expiresAt));
+        changed(key);
+        ++updates;
+    }
+
+    /** Invalidates a cached property. */
+    synchronized void invalidate(ProxyBusObject owner, String ifaceName, String propName) {
+        Key key = new Key(owner, ifaceName, propName);
+        if (entries.remove(key) != null) {
+            ++invalidations;
+        }
+        changed(key);
+    }
+
+    /** Removes all the cached properties of a remote object. */
+    synchronized void remove(ProxyBusObject owner) {
+        Iterator<Key> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().owner == owner) {
+                it.remove();
+            }
+        }
+        changedAll();
+    }
+
+    /** Removes the cached properties of an interface of a remote object. */
+    synchronized void remove(ProxyBusObject owner, String ifaceName) {
+        Iterator<Key> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            Key key = it.next();
+            if (key.owner == owner && key.ifaceName.equals(ifaceName)) {
+                it.remove();
+            }
+        }
+        changedAll();
+    }
+
+    /** Records a change of one property. */
+    private void changed(Key key) {
+        ++clock;
+        changes.remove(key);
+        changes.put(key, clock);
+    }
+
+    /** Records a change of every property; these are rare. */
+    private void changedAll() {
+        floor = ++clock;
+        changes.clear();
+    }
+}
@@ -29,8 +29,8 @@
 
 package org.alljoyn.bus;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -42,7 +42,6 @@ import org.alljoyn.bus.annotation.BusAnnotations;
 import org.alljoyn.bus.annotation.BusProperty;
 import org.alljoyn.bus.ifaces.Properties;
 
-import org.alljoyn.bus.defs.BusObjectInfo;
 import org.alljoyn.bus.defs.InterfaceDef;
 import org.alljoyn.bus.defs.PropertyDef;
 
@@ -117,6 +116,12 @@ public class PropertyChangedEmitter extends SignalEmitter {
      * Sends the PropertiesChanged signal. This operation may only be used when the
      * PropertyChangedEmitter is constructed with a DynamicBusObject source.
      *
+     * The values of the changed properties are read by calling the get property
+     * handlers of the DynamicBusObject directly, without a bus round trip.  While
+     * a handler is called, BusAttachment.getMessageContext() returns a context
+     * describing a Get of that property sent by the bus attachment of the object
+     * to itself.
+     *
      * @param iface the dynamic definition of the BusInterface the property belongs to
      * @param properties list of properties that were changed
      * @throws BusException indicating failure to send the PropertiesChanged signal
@@ -128,44 +133,80 @@ public class PropertyChangedEmitter extends SignalEmitter {
         }
 
         DynamicBusObject dynamicObj = (DynamicBusObject)source;
-        BusAttachment bus = dynamicObj.getBus();
         String ifaceName = iface.getName();
-        List<InterfaceDef> ifaceDefs = new ArrayList<InterfaceDef>(Arrays.asList(iface));
 
-        ProxyBusObject proxyObj = bus.getProxyBusObject(bus.getUniqueName(), dynamicObj.getPath(),
-                BusAttachment.SESSION_ID_ANY, ifaceDefs, false);
-        GenericInterface proxy = proxyObj.getInterface(GenericInterface.class);
+        Map<String, PropertyDef> propertyDefs = new HashMap<String, PropertyDef>();
+        for (PropertyDef propertyDef : iface.getProperties()) {
+            propertyDefs.put(propertyDef.getName(), propertyDef);
+        }
 
         Map<String, Variant> changedProps = new HashMap<String, Variant>();
         List<String> invalidatedProps = new ArrayList<String>();
+        MessageContext ctx = null;
 
         for (String propName : properties) {
-            PropertyDef propertyDef = BusObjectInfo.getProperty(ifaceDefs, ifaceName, propName);
+            PropertyDef propertyDef = propertyDefs.get(propName);
             if (propertyDef == null || propertyDef.isWriteAccess()) {
                 throw new IllegalArgumentException("No property with name " + propName + " found");
             }
 
-            for (Map.Entry<String, String> annotation : propertyDef.getAnnotationList().entrySet()) {
-                if (annotation.getKey().equals(PropertyDef.ANNOTATION_PROPERTY_EMITS_CHANGED_SIGNAL)) {
-                    if (annotation.getValue().equals("true")) {
-                        Object o;
-                        try {
-                            o = proxy.getProperty(ifaceName, propName);
-                        } catch (Exception ex) {
-                            throw new BusException("Can't get value of property " + propName, ex);
-                        }
-                        Variant v = new Variant(o, propertyDef.getType());
-                        changedProps.put(propName, v);
-                    } else if (annotation.getValue().equals("invalidates")) {
-                        invalidatedProps.add(propName);
-                    }
+            String emitsChangedSignal = propertyDef.getAnnotation(PropertyDef.ANNOTATION_PROPERTY_EMITS_CHANGED_SIGNAL);
+            if ("true".equals(emitsChangedSignal)) {
+                if (ctx == null) {
+                    ctx = localGetContext(dynamicObj);
                 }
+                ctx.interfaceName = ifaceName;
+                ctx.memberName = propName;
+                ctx.signature = propertyDef.getType();
+                Object o = getLocalProperty(dynamicObj, ctx);
+                changedProps.put(propName, new Variant(o, propertyDef.getType()));
+            } else if ("invalidates".equals(emitsChangedSignal)) {
+                invalidatedProps.add(propName);
             }
         }
 
         sendPropertiesChanged(ifaceName, changedProps, invalidatedProps.toArray(new String[invalidatedProps.size()]));
     }
 
+    /** Creates the context seen by property handlers called by getLocalProperty(). */
+    private static MessageContext localGetContext(DynamicBusObject dynamicObj) {
+        BusAttachment bus = dynamicObj.getBus();
+        MessageContext ctx = new MessageContext();
+        ctx.objectPath = dynamicObj.getPath();
+        ctx.sender = bus.getUniqueName();
+        ctx.destination = bus.getUniqueName();
+        ctx.sessionId = BusAttachment.SESSION_ID_ANY;
+        ctx.authMechanism = "";
+        return ctx;
+    }
+
+    /**
+     * Reads a property of a dynamic bus object by calling its get property
+     * handler directly.
+     *
+     * @param dynamicObj the bus object
+     * @param ctx the context describing the property to get
+     * @return the value of the property
+     * @throws BusException if the property has no get handler or the handler failed
+     */
+    private static Object getLocalProperty(DynamicBusObject dynamicObj, MessageContext ctx) throws BusException {
+        Method[] handlers = dynamicObj.getPropertyHandler(ctx.interfaceName, ctx.memberName);
+        if (handlers == null || handlers.length == 0 || handlers[0] == null) {
+            throw new BusException("Can't get value of property " + ctx.memberName);
+        }
+        MessageContext outer = MessageContext.getLocal();
+        MessageContext.setLocal(ctx);
+        try {
+            return handlers[0].invoke(dynamicObj);
+        } catch (InvocationTargetException ex) {
+            throw new BusException("Can't get value of property " + ctx.memberName, ex.getCause());
+        } catch (Exception ex) {
+            throw new BusException("Can't get value of property " + ctx.memberName, ex);
+        } finally {
+            MessageContext.setLocal(outer);
+        }
+    }
+
     /**
      * Sends the PropertiesChanged signal
      *
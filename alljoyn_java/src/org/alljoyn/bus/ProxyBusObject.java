@@ -34,27 +34,47 @@ import org.alljoyn.bus.defs.InterfaceDef;
 import org.alljoyn.bus.defs.MethodDef;
 import org.alljoyn.bus.defs.PropertyDef;
 
+import java.io.Closeable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+import org.alljoyn.bus.annotation.BusAnnotation;
+import org.alljoyn.bus.annotation.BusAnnotations;
 import org.alljoyn.bus.annotation.BusProperty;
 
 /**
  * A bus object that exists and is managed by some other connection to
  * the bus. Use ProxyBusObject to call methods on remote objects.
  */
-public class ProxyBusObject {
+public class ProxyBusObject implements Closeable {
 
     private static final int AUTO_START = 0x02;
     private static final int ENCRYPTED = 0x80;
 
+    /** The return type of Properties.GetAll, looked up once. */
+    private static final Type GET_ALL_TYPE;
+
+    static {
+        try {
+            GET_ALL_TYPE = org.alljoyn.bus.ifaces.Properties.class.getMethod("GetAll", String.class).getGenericReturnType();
+        } catch (NoSuchMethodException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
     /** The bus the remote object is connected to. */
     private BusAttachment bus;
 
@@ -67,9 +87,15 @@ public class ProxyBusObject {
     /** Native proxy bus object handle. */
     private long handle;
 
+    /** Releases the native proxy bus object. */
+    private NativeHandle nativeHandle;
+
     /** Remote interfaces proxy. */
     private Object proxy;
 
+    /** Invocation handler of the proxy, null when created from interface definitions. */
+    private Handler handler;
+
     private int replyTimeoutMsecs;
 
     private int flags;
@@ -78,6 +104,12 @@ public class ProxyBusObject {
 
     private List<InterfaceDef> interfaceDefs;
 
+    /** The cache of the properties of the cached interfaces. */
+    private volatile PropertyCache propertyCache;
+
+    /** The interfaces whose properties are cached, by name. */
+    private final Map<String, CachedInterface> cachedInterfaces = new ConcurrentHashMap<String, CachedInterface>();
+
     /**
      * Construct a ProxyBusObject.
      *
@@ -109,8 +141,10 @@ public class ProxyBusObject {
         this.objPath = objPath;
         this.flags = 0;
         create(busAttachment, busName, objPath, sessionId, secure);
+        nativeHandle = NativeHandle.register(this, handle, releaser);
         replyTimeoutMsecs = 25000;
-        proxy = Proxy.newProxyInstance(busInterfaces[0].getClassLoader(), busInterfaces, new Handler());
+        handler = new Handler(busInterfaces);
+        proxy = Proxy.newProxyInstance(busInterfaces[0].getClassLoader(), busInterfaces, handler);
         try {
             busConnectionLost =
                 getClass().getDeclaredMethod("busConnectionLost", String.class);
@@ -138,6 +172,7 @@ public class ProxyBusObject {
         this.objPath = objPath;
         this.flags = 0;
         create(busAttachment, busName, objPath, sessionId, secure);
+        nativeHandle = NativeHandle.register(this, handle, releaser);
         replyTimeoutMsecs = 25000;
 
         this.interfaceDefs = interfaceDefs;
@@ -156,7 +191,14 @@ public class ProxyBusObject {
     private native void create(BusAttachment busAttachment, String busName, String objPath, int sessionId, boolean secure);
 
     /** Release native resources. */
-    private synchronized native void destroy();
+    private static native void destroy(long handle);
+
+    /** Releases the native resources once a proxy bus object has been garbage collected. */
+    private static final NativeHandle.Releaser releaser = new NativeHandle.Releaser() {
+        public void release(long handle) {
+            destroy(handle);
+        }
+    };
 
     /** Called by native code to lazily add an interface when a proxy method is invoked. */
     protected int addInterface(String name) throws AnnotationBusException {
@@ -185,12 +227,27 @@ public class ProxyBusObject {
             String methodName, String inputSig, Type outType, Object[] args, int replyTimeoutMsecs,
             int flags) throws BusException;
 
+    /**
+     * Start a method call on the remote object.  The future is completed by
+     * native code when the reply arrives.
+     */
+    private native void methodCallAsync(BusAttachment busAttachment, String interfaceName,
+            String methodName, String inputSig, Type outType, Object[] args, int replyTimeoutMsecs,
+            int flags, MethodCallFuture<?> future) throws BusException;
+
     /** Get a property of the remote object. */
     private native Variant getProperty(BusAttachment busAttachment, String interfaceName,
             String propertyName) throws BusException;
 
     private native Map<String, Variant> getAllProperties(BusAttachment busAttachment, Type outType, String interfaceName) throws BusException;
 
+    /**
+     * Start a GetAll call on the remote object.  The future is completed by
+     * native code when the reply arrives.
+     */
+    private native void getAllPropertiesAsync(BusAttachment busAttachment, Type outType, String interfaceName,
+            int replyTimeoutMsecs, MethodCallFuture<?> future) throws BusException;
+
     /** Set a property of the remote object. */
     private native void setProperty(BusAttachment busAttachment, String interfaceName,
             String propertyName, String signature, Object value) throws BusException;
@@ -201,48 +258,250 @@ public class ProxyBusObject {
     /** Enable property caching for this proxy bus object. */
     public native void enablePropertyCaching();
 
-    /** The invocation handler for the bus interfaces. */
-    private class Handler implements InvocationHandler {
+    /**
+     * Cached information about a bus interface method, resolved once so that
+     * subsequent proxy calls do not need to repeat the reflection.
+     */
+    static final class Invocation {
+        public final Method method;
 
-        private class Invocation {
-            public Method method;
+        public final boolean isMethod;
+        public final boolean isGet;
 
-            public boolean isMethod;
-            public boolean isGet;
+        public final String inputSig;
+        public final String outSig;
 
-            public String inputSig;
-            public String outSig;
+        public final String interfaceName;
+        public final String methodName;
 
-            public String interfaceName;
-            public String methodName;
+        public final Type genericReturnType;
+        public final Class<?> returnType;
 
-            public Type genericReturnType;
-            public Class<?> returnType;
+        /**
+         * The class a non-null return value must be an instance of, with
+         * primitive types replaced by their wrapper classes.  Null when the
+         * method returns void.
+         */
+        public final Class<?> returnClass;
+
+        public final int timeout;
+
+        /** The method of java.lang.Object this is, or NONE for a bus interface method. */
+        public final int objectMethod;
+
+        public static final int NONE = 0;
+        public static final int TO_STRING = 1;
+        public static final int EQUALS = 2;
+        public static final int HASH_CODE = 3;
+
+        /** The Invocations of the methods of java.lang.Object a proxy implements. */
+        static final Invocation[] OBJECT_METHODS;
+
+        static {
+            try {
+                OBJECT_METHODS = new Invocation[] {
+                    new Invocation(Object.class.getMethod("toString"), TO_STRING),
+                    new Invocation(Object.class.getMethod("equals", Object.class), EQUALS),
+                    new Invocation(Object.class.getMethod("hashCode"), HASH_CODE)
+                };
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
 
-            public int timeout;
+        private Invocation(Method method, int objectMethod) {
+            this.method = method;
+            this.isMethod = false;
+            this.isGet = false;
+            this.inputSig = null;
+            this.outSig = null;
+            this.interfaceName = null;
+            this.methodName = method.getName();
+            this.genericReturnType = method.getGenericReturnType();
+            this.returnType = method.getReturnType();
+            this.returnClass = null;
+            this.timeout = -1;
+            this.objectMethod = objectMethod;
+        }
 
-            public Invocation(Method method) throws BusException {
-                this.method = method;
-                if (method.getAnnotation(BusProperty.class) != null) {
-                    this.isGet = method.getName().startsWith("get");
-                    this.outSig = InterfaceDescription.getPropertySig(method);
-                } else {
-                    this.isMethod = true;
-                    this.outSig = InterfaceDescription.getOutSig(method);
-                    this.inputSig = InterfaceDescription.getInputSig(method);
+        public Invocation(Method method) throws BusException {
+            this.objectMethod = NONE;
+            this.method = method;
+            if (method.getAnnotation(BusProperty.class) != null) {
+                this.isMethod = false;
+                this.isGet = method.getName().startsWith("get");
+                this.inputSig = null;
+                this.outSig = InterfaceDescription.getPropertySig(method);
+            } else {
+                this.isMethod = true;
+                this.isGet = false;
+                this.outSig = InterfaceDescription.getOutSig(method);
+                this.inputSig = InterfaceDescription.getInputSig(method);
+            }
+            this.interfaceName = InterfaceDescription.getName(method.getDeclaringClass());
+            this.methodName = InterfaceDescription.getName(method);
+            this.genericReturnType = method.getGenericReturnType();
+            this.returnType = method.getReturnType();
+            this.returnClass = boxedClass(returnType);
+            this.timeout = InterfaceDescription.getTimeout(method);
+        }
+
+        /**
+         * The JNI layer can't perform complete type checking (at least not easily),
+         * so this extra check is here.  The conditions are taken from the
+         * InvocationHandler documentation.
+         */
+        public void checkReturnValue(Object value) throws MarshalBusException {
+            if (returnClass == null) {
+                return;
+            }
+            if (value == null ? returnType.isPrimitive() : !returnClass.isInstance(value)) {
+                throw new MarshalBusException("cannot marshal '" + outSig + "' into " + returnType);
+            }
+        }
+
+        private static Class<?> boxedClass(Class<?> type) {
+            if (type == Void.TYPE) {
+                return null;
+            } else if (!type.isPrimitive()) {
+                return type;
+            } else if (type == Byte.TYPE) {
+                return Byte.class;
+            } else if (type == Short.TYPE) {
+                return Short.class;
+            } else if (type == Integer.TYPE) {
+                return Integer.class;
+            } else if (type == Long.TYPE) {
+                return Long.class;
+            } else if (type == Double.TYPE) {
+                return Double.class;
+            } else if (type == Boolean.TYPE) {
+                return Boolean.class;
+            } else if (type == Float.TYPE) {
+                return Float.class;
+            } else {
+                return Character.class;
+            }
+        }
+    }
+
+    /**
+     * The dispatch table mapping the Methods of a set of bus interfaces to
+     * their resolved Invocations, shared by all the proxies of that set.
+     *
+     * The table is keyed on Method identity.  The Method instances handed to an
+     * InvocationHandler are the ones held by the generated proxy class, which is
+     * itself shared by all the proxies of the same interfaces, so after the
+     * first call of each method every lookup is an identity hash probe.  The
+     * Invocations are resolved once, when the table is built; the identity
+     * table is copy-on-write: readers never lock, and the (rare) writers
+     * publish a new table through a volatile field.
+     */
+    static final class DispatchTable {
+
+        /** The tables, by the bus interfaces of the proxies sharing them. */
+        private static final ConcurrentHashMap<List<Class<?>>, DispatchTable> tables =
+            new ConcurrentHashMap<List<Class<?>>, DispatchTable>();
+
+        /** Identity keyed table read by the proxy calls. */
+        private volatile Map<Method, Invocation> table;
+
+        /**
+         * The Invocations resolved when the table was built, keyed on Method
+         * equality, including those of the methods of java.lang.Object.
+         */
+        private final Map<Method, Invocation> resolved;
+
+        /**
+         * Get the dispatch table of a set of bus interfaces, building it the
+         * first time.
+         *
+         * @param busInterfaces the bus interfaces of the proxy
+         * @return the shared dispatch table
+         */
+        static DispatchTable forInterfaces(Class<?>[] busInterfaces) {
+            List<Class<?>> key = Arrays.asList(busInterfaces.clone());
+            DispatchTable dispatchTable = tables.get(key);
+            if (dispatchTable == null) {
+                dispatchTable = new DispatchTable(busInterfaces);
+                DispatchTable raced = tables.putIfAbsent(key, dispatchTable);
+                if (raced != null) {
+                    dispatchTable = raced;
+                }
+            }
+            return dispatchTable;
+        }
+
+        /**
+         * Resolve the Invocations of all the methods of the bus interfaces.
+         *
+         * Methods whose annotations are invalid are skipped here; the error is
+         * reported when the method is actually invoked.
+         */
+        private DispatchTable(Class<?>[] busInterfaces) {
+            Map<Method, Invocation> map = new HashMap<Method, Invocation>();
+            for (Class<?> intf : busInterfaces) {
+                for (Method m : intf.getMethods()) {
+                    if (!map.containsKey(m)) {
+                        try {
+                            map.put(m, new Invocation(m));
+                        } catch (BusException ex) {
+                            /* Reported on invocation. */
+                        }
+                    }
+                }
+            }
+            for (Invocation invocation : Invocation.OBJECT_METHODS) {
+                map.put(invocation.method, invocation);
+            }
+            this.resolved = map;
+            this.table = new IdentityHashMap<Method, Invocation>();
+        }
+
+        /**
+         * Get the Invocation for a method.
+         *
+         * @param method the invoked method
+         * @return the Invocation
+         * @throws BusException if the method is not a bus interface method or
+         *                      its annotations are invalid
+         */
+        public Invocation get(Method method) throws BusException {
+            Invocation invocation = table.get(method);
+            if (invocation == null) {
+                invocation = resolve(method);
+            }
+            return invocation;
+        }
+
+        /** The slow path, taken the first time a given Method instance is invoked. */
+        private synchronized Invocation resolve(Method method) throws BusException {
+            Invocation invocation = table.get(method);
+            if (invocation != null) {
+                return invocation;
+            }
+            invocation = resolved.get(method);
+            if (invocation == null) {
+                if (method.getDeclaringClass() == Object.class) {
+                    throw new BusException("No such method: " + method);
                 }
-                this.interfaceName = InterfaceDescription.getName(method.getDeclaringClass());
-                this.methodName = InterfaceDescription.getName(method);
-                this.genericReturnType = method.getGenericReturnType();
-                this.returnType = method.getReturnType();
-                this.timeout = InterfaceDescription.getTimeout(method);
+                /* Not built ahead, because its annotations are invalid: this throws. */
+                invocation = new Invocation(method);
             }
-        };
+            Map<Method, Invocation> newTable = new IdentityHashMap<Method, Invocation>(table);
+            newTable.put(method, invocation);
+            table = newTable;
+            return invocation;
+        }
+    }
 
-        private Map<String, List<Invocation>> invocationCache;
+    /** The invocation handler for the bus interfaces. */
+    private class Handler implements InvocationHandler {
 
-        public Handler() {
-            this.invocationCache = new HashMap<String, List<Invocation>>();
+        private final DispatchTable dispatchTable;
+
+        public Handler(Class<?>[] busInterfaces) {
+            this.dispatchTable = DispatchTable.forInterfaces(busInterfaces);
         }
 
         @Override
@@ -250,76 +509,20 @@ public class ProxyBusObject {
             /*
              * Some notes on performance.
              *
-             * Reflection is very expensive.  So first pass at optimization is to cache the
-             * reflection calls that lookup names and annotations the first time the method is
-             * invoked.
-             *
-             * Using a Method as a HashMap key is expensive.  Using method.getName() as the key
-             * is less expensive.  But method names may not be unique (they can be overloaded), so
-             * need to fall back to Method.equals if more than one method with the same name exists.
+             * Reflection is very expensive.  So all the names, signatures and annotations
+             * of a method are looked up once, when the first proxy of the same interfaces
+             * is created, and kept in the shared dispatch table.
              */
-            Invocation invocation = null;
-            String methodName = method.getName();
-            List<Invocation> invocationList = invocationCache.get(methodName);
-            if (invocationList != null) {
-                if (invocationList.size() == 1) {
-                    /* The fast path. */
-                    invocation = invocationList.get(0);
-                } else {
-                    /* The slow path.  Two Java methods exist with the same name for this proxy. */
-                    for (Invocation i : invocationList) {
-                        if (method.equals(i.method)) {
-                            invocation = i;
-                            break;
-                        }
-                    }
-                    if (invocation == null) {
-                        invocation = new Invocation(method);
-                        invocationList.add(invocation);
-                    }
-                }
-            } else {
-                /*
-                 * The very slow path.  The first time a proxy method is invoked.
-                 *
-                 * Walk through all the methods looking for ones that match the invoked method name.
-                 * This creates a list of all the cached invocation information that we'll use later
-                 * on the next method call.
-                 */
-                invocationList = new ArrayList<Invocation>();
-                for (Class<?> i : proxy.getClass().getInterfaces()) {
-                    for (Method m : i.getMethods()) {
-                        if (methodName.equals(m.getName())) {
-                            Invocation in = new Invocation(m);
-                            invocationList.add(in);
-                            if (method.equals(in.method)) {
-                                invocation = in;
-                            }
-                        }
-                    }
-                }
-                if (invocation == null) {
-                    try {
-                        Class<Object> objectClass = Object.class;
-                        if (method.equals(objectClass.getMethod("toString"))) {
-                            return proxyToString(proxy);
-                        }
-                        if (method.equals(objectClass.getMethod("equals",
-                                objectClass))) {
-                            return proxy == args[0];
-                        }
-                        if (method.equals(objectClass.getMethod("hashCode"))) {
-                            return System.identityHashCode(proxy);
-                        }
-                    } catch (NoSuchMethodException e) {
-                        /*
-                         * If NoSuchMethodException is encountered the code will
-                         * drop through and throw a BusException.
-                         */
-                    }
-                    throw new BusException("No such method: " + method);
-                }
-                invocationCache.put(methodName, invocationList);
+            Invocation invocation = dispatchTable.get(method);
+            switch (invocation.objectMethod) {
+            case Invocation.TO_STRING:
+                return proxyToString(proxy);
+            case Invocation.EQUALS:
+                return proxy == args[0];
+            case Invocation.HASH_CODE:
+                return System.identityHashCode(proxy);
+            default:
+                break;
             }
 
             Object value = null;
@@ -334,44 +537,61 @@ public class ProxyBusObject {
                                    flags);
             } else {
                 if (invocation.isGet) {
-                    Variant v = getProperty(bus,
-                                            invocation.interfaceName,
-                                            invocation.methodName);
-                    value = v.getObject(invocation.genericReturnType);
+                    value = getPropertyValue(invocation.interfaceName,
+                                             invocation.methodName,
+                                             invocation.genericReturnType);
                 } else {
                     setProperty(bus,
                                 invocation.interfaceName,
                                 invocation.methodName,
                                 invocation.outSig,
                                 args[0]);
+                    propertySet(invocation.interfaceName, invocation.methodName);
                 }
             }
 
-            /*
-             * The JNI layer can't perform complete type checking (at least not easily),
-             * so this extra code is here.  The conditions below are taken from the
-             * InvocationHandler documentation.
-             */
-            boolean doThrow = false;
-            Class<?> returnType = invocation.returnType;
-            if (value == null) {
-                doThrow = returnType.isPrimitive() && !returnType.isAssignableFrom(Void.TYPE);
-            } else if (returnType.isPrimitive()) {
-                if ((returnType.isAssignableFrom(Byte.TYPE) && !(value instanceof Byte))
-                    || (returnType.isAssignableFrom(Short.TYPE) && !(value instanceof Short))
-                    || (returnType.isAssignableFrom(Integer.TYPE) &&  !(value instanceof Integer))
-                    || (returnType.isAssignableFrom(Long.TYPE) && !(value instanceof Long))
-                    || (returnType.isAssignableFrom(Double.TYPE) && !(value instanceof Double))
-                    || (returnType.isAssignableFrom(Boolean.TYPE) && !(value instanceof Boolean))) {
-                    doThrow = true;
+            invocation.checkReturnValue(value);
+            return value;
+        }
+    }
+
+    /** The invocation handler for the asynchronous companions of the bus interfaces. */
+    private class AsyncHandler implements InvocationHandler {
+
+        /** Maps the methods of the asynchronous interface to the bus methods. */
+        private final Map<Method, Invocation> invocations;
+
+        public AsyncHandler(Map<Method, Invocation> invocations) {
+            this.invocations = invocations;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws BusException {
+            Invocation invocation = invocations.get(method);
+            if (invocation == null) {
+                if (method.getName().equals("toString") && method.getParameterTypes().length == 0) {
+                    return proxyToString(proxy);
                 }
-            } else if (!returnType.isAssignableFrom(value.getClass())) {
-                doThrow = true;
-            }
-            if (doThrow) {
-                throw new MarshalBusException("cannot marshal '" + invocation.outSig + "' into " + returnType);
+                if (method.getName().equals("hashCode") && method.getParameterTypes().length == 0) {
+                    return System.identityHashCode(proxy);
+                }
+                if (method.getName().equals("equals") && method.getParameterTypes().length == 1) {
+                    return proxy == args[0];
+                }
+                throw new BusException("No such method: " + method);
             }
-            return value;
+
+            MethodCallFuture<Object> future = new MethodCallFuture<Object>(invocation);
+            methodCallAsync(bus,
+                            invocation.interfaceName,
+                            invocation.methodName,
+                            invocation.inputSig,
+                            invocation.genericReturnType,
+                            args,
+                            invocation.timeout == -1 ? replyTimeoutMsecs : invocation.timeout,
+                            flags,
+                            future);
+            return future;
         }
     }
 
@@ -390,27 +610,42 @@ public class ProxyBusObject {
      * descriptors.
      *
      * We provide an explicity release() method to allow test programs to release
-     * the underlying resources immediately.  The garbage collector will still
-     * call finalize, but the resrouces held by the underlying C++ objects will
-     * go away immediately.
+     * the underlying resources immediately.  Otherwise the resources held by the
+     * underlying C++ objects are released by the {@link NativeHandle} reclaimer
+     * once the ProxyBusObject has been garbage collected.
+     *
+     * Asynchronous calls still in flight are completed with a BusException,
+     * as they are when the BusAttachment is released.
      *
      * It is a programming error to call another method on the ProxyBusObject
      * after the release() method has been called.
      */
     public void release() {
-        destroy();
+        /*
+         * A cache may be shared by many proxies and outlive this one, so drop
+         * its entries now rather than leaving them to be evicted.  Clearing
+         * the cached interfaces first keeps replies still in flight from
+         * adding new ones.
+         */
+        PropertyCache cache = propertyCache;
+        cachedInterfaces.clear();
+        if (cache != null) {
+            cache.remove(this);
+        }
+        synchronized (this) {
+            handle = 0;
+        }
+        if (nativeHandle != null) {
+            nativeHandle.release();
+        }
     }
 
     /**
-     * Release native resources.
+     * Release resources immediately.  Equivalent to {@link #release()}.
      */
     @Override
-    protected void finalize() throws Throwable {
-        try {
-            destroy();
-        } finally {
-            super.finalize();
-        }
+    public void close() {
+        release();
     }
 
     /**
@@ -448,6 +683,68 @@ public class ProxyBusObject {
         return p;
     }
 
+    /**
+     * Gets an asynchronous proxy to an interface of this remote bus object.
+     *
+     * The asynchronous interface is a plain Java interface declared by the
+     * caller alongside the bus interface.  Each of its methods must have the
+     * same name and parameter types as a method of the bus interface, and
+     * return a {@link MethodCallFuture} (or a {@link java.util.concurrent.Future})
+     * of the bus method's return type:
+     *
+     * <pre>
+     * &#64;BusInterface(name = "org.example.Sensor")
+     * public interface Sensor {
+     *     &#64;BusMethod
+     *     double read(int channel) throws BusException;
+     * }
+     *
+     * public interface SensorAsync {
+     *     MethodCallFuture&lt;Double&gt; read(int channel) throws BusException;
+     * }
+     * </pre>
+     *
+     * Invoking a method of the asynchronous proxy sends the method call and
+     * returns immediately, so a single thread may keep many calls in flight.
+     * Errors detected before the call is sent (marshaling errors, a
+     * disconnected bus) are thrown directly; the outcome of the call itself,
+     * including a reply timeout, is delivered through the future.  Bus
+     * properties cannot be accessed asynchronously.
+     *
+     * @param <A> the asynchronous interface
+     * @param busIntf one of the interfaces supplied when the proxy bus object was created
+     * @param asyncIntf the asynchronous companion of busIntf
+     * @return the proxy implementing the asynchronous interface
+     * @throws BusException if busIntf is not an interface of this proxy bus
+     *                      object, or asyncIntf does not match it
+     */
+    public <A> A getAsyncInterface(Class<?> busIntf, Class<A> asyncIntf) throws BusException {
+        if (handler == null || busIntf == null || !busIntf.isInstance(proxy)) {
+            throw new BusException("Not an interface of this proxy bus object: " + busIntf);
+        }
+        Map<Method, Invocation> invocations = new HashMap<Method, Invocation>();
+        for (Method m : asyncIntf.getMethods()) {
+            if (!m.getReturnType().isAssignableFrom(MethodCallFuture.class)) {
+                throw new BusException("Asynchronous method must return a MethodCallFuture: " + m);
+            }
+            Method busMethod;
+            try {
+                busMethod = busIntf.getMethod(m.getName(), m.getParameterTypes());
+            } catch (NoSuchMethodException ex) {
+                throw new BusException("No bus method matching " + m);
+            }
+            Invocation invocation = handler.dispatchTable.get(busMethod);
+            if (!invocation.isMethod) {
+                throw new BusException("Bus properties cannot be accessed asynchronously: " + busMethod);
+            }
+            invocations.put(m, invocation);
+        }
+        @SuppressWarnings(value = "unchecked")
+        A p = (A) Proxy.newProxyInstance(asyncIntf.getClassLoader(), new Class<?>[] { asyncIntf },
+                                         new AsyncHandler(invocations));
+        return p;
+    }
+
     /**
      * Sets the reply timeout for method invocations on this remote bus object.
      * This affects all future method invocations of this bus object.  The
@@ -491,7 +788,12 @@ public class ProxyBusObject {
      * @throws BusException if the named property doesn't exist
      */
     public <T> Variant getProperty(Class<T> iface, String propertyName) throws BusException {
-        return getProperty(bus, InterfaceDescription.getName(iface), propertyName);
+        String ifaceName = InterfaceDescription.getName(iface);
+        CachedInterface cached = cachedInterfaces.get(ifaceName);
+        if (cached == null) {
+            return getProperty(bus, ifaceName, propertyName);
+        }
+        return getCachedProperty(cached, ifaceName, propertyName).getVariant();
     }
 
     /**
@@ -504,7 +806,9 @@ public class ProxyBusObject {
      * @throws BusException if the named property doesn't exist or cannot be set
      */
     public <T> void setProperty(Class<T> iface, String propertyName, Variant value) throws BusException {
-        setProperty(bus, InterfaceDescription.getName(iface), propertyName, value.getSignature(), value.getValue());;
+        String ifaceName = InterfaceDescription.getName(iface);
+        setProperty(bus, ifaceName, propertyName, value.getSignature(), value.getValue());
+        propertySet(ifaceName, propertyName);
     }
 
     /**
@@ -527,16 +831,343 @@ public class ProxyBusObject {
      * @throws BusException if request cannot be honored
      */
     public Map<String, Variant> getAllProperties(String interfaceName) throws BusException {
-        Map<String, Variant> map = null;
+        CachedInterface cached = cachedInterfaces.get(interfaceName);
+        PropertyCache cache = propertyCache;
+        long stamp = (cached != null && cache != null) ? cache.stamp() : 0;
+        Map<String, Variant> map = getAllProperties(bus, GET_ALL_TYPE, interfaceName);
+        cacheAllProperties(cached, cache, interfaceName, map, stamp);
+        return map;
+    }
+
+    /**
+     * Get all properties from an interface on the remote object without
+     * waiting for the reply.
+     *
+     * The returned future completes when the reply arrives, with the same
+     * map {@link #getAllProperties(String)} would have returned.  If the
+     * property cache is enabled for the interface, it is filled before the
+     * future completes.  The reply timeout set with
+     * {@link #setReplyTimeout(int)} applies.  If this proxy bus object or its
+     * bus attachment is released before the reply arrives, the future
+     * completes with a BusException.
+     *
+     * @param interfaceName the name of the interface
+     * @return the pending map of name/value associations
+     * @throws BusException if the request cannot be sent
+     */
+    public MethodCallFuture<Map<String, Variant>> getAllPropertiesAsync(final String interfaceName) throws BusException {
+        final CachedInterface cached = cachedInterfaces.get(interfaceName);
+        final PropertyCache cache = propertyCache;
+        final long stamp = (cached != null && cache != null) ? cache.stamp() : 0;
+        MethodCallFuture<Map<String, Variant>> future = new MethodCallFuture<Map<String, Variant>>(null,
+            new MethodCallFuture.ReplyHook() {
+                public void onReply(Object reply) {
+                    @SuppressWarnings(value = "unchecked")
+                    Map<String, Variant> map = (Map<String, Variant>) reply;
+                    cacheAllProperties(cached, cache, interfaceName, map, stamp);
+                }
+            });
+        getAllPropertiesAsync(bus, GET_ALL_TYPE, interfaceName, replyTimeoutMsecs, future);
+        return future;
+    }
+
+    /**
+     * Get all properties from an interface on many remote objects at once.
+     *
+     * A GetAll call is sent to each of the proxy bus objects without waiting
+     * for the replies, so the calls are outstanding concurrently and the
+     * total time taken is close to that of the slowest object rather than
+     * the sum of all of them.  Results can be consumed as they arrive by
+     * adding a listener to each future with
+     * {@link MethodCallFuture#addListener(Runnable)}.
+     *
+     * A proxy bus object to which the call cannot be sent does not stop the
+     * others; its future is completed with the BusException instead.
+     *
+     * @param proxies the proxy bus objects
+     * @param interfaceName the name of the interface
+     * @return the pending map of name/value associations of each proxy bus
+     *         object, in iteration order of proxies
+     */
+    public static Map<ProxyBusObject, MethodCallFuture<Map<String, Variant>>> getAllPropertiesOfAll(
+            Collection<? extends ProxyBusObject> proxies, String interfaceName) {
+        Map<ProxyBusObject, MethodCallFuture<Map<String, Variant>>> futures =
+            new LinkedHashMap<ProxyBusObject, MethodCallFuture<Map<String, Variant>>>();
+        for (ProxyBusObject proxyBusObj : proxies) {
+            MethodCallFuture<Map<String, Variant>> future;
+            try {
+                future = proxyBusObj.getAllPropertiesAsync(interfaceName);
+            } catch (BusException ex) {
+                future = new MethodCallFuture<Map<String, Variant>>(null);
+                future.onError(ex);
+            }
+            futures.put(proxyBusObj, future);
+        }
+        return futures;
+    }
+
+    /**
+     * Get all properties from an interface on many remote objects at once.
+     *
+     * @param <T> any class implementation of a interface annotated with AllJoyn interface annotations
+     * @param proxies the proxy bus objects
+     * @param iface the interface
+     * @return the pending map of name/value associations of each proxy bus object
+     * @see #getAllPropertiesOfAll(Collection, String)
+     */
+    public static <T> Map<ProxyBusObject, MethodCallFuture<Map<String, Variant>>> getAllPropertiesOfAll(
+            Collection<? extends ProxyBusObject> proxies, Class<T> iface) {
+        return getAllPropertiesOfAll(proxies, InterfaceDescription.getName(iface));
+    }
+
+    /** Fills the property cache, if enabled, with the reply to a GetAll call. */
+    private void cacheAllProperties(CachedInterface cached, PropertyCache cache, String interfaceName,
+                                    Map<String, Variant> map, long stamp) {
+        if (cached != null && cache != null && map != null && cachedInterfaces.get(interfaceName) == cached) {
+            for (Map.Entry<String, Variant> entry : map.entrySet()) {
+                cache.put(this, interfaceName, entry.getKey(), entry.getValue(),
+                          cached.expiresAt(entry.getKey()), stamp);
+            }
+        }
+    }
+
+    /**
+     * A cached interface of the remote object.
+     */
+    private final class CachedInterface extends PropertiesChangedListener {
+        private final String ifaceName;
+
+        /** The time after which the properties that do not emit changes are stale. */
+        private final long staleAfterNanos;
+
+        /** The properties that emit change signals, or never change. */
+        private final Set<String> signaled;
+
+        CachedInterface(String ifaceName, long staleAfterMsecs, Set<String> signaled) {
+            this.ifaceName = ifaceName;
+            this.staleAfterNanos = TimeUnit.MILLISECONDS.toNanos(staleAfterMsecs);
+            this.signaled = signaled;
+        }
+
+        /** Gets the expiry time of a property value read now. */
+        long expiresAt(String propName) {
+            if (staleAfterNanos == 0 || signaled.contains(propName)) {
+                return PropertyCache.NEVER;
+            }
+            return System.nanoTime() + staleAfterNanos;
+        }
+
+        @Override
+        public void propertiesChanged(ProxyBusObject pObj, String iface, Map<String, Variant> changed, String[] invalidated) {
+            PropertyCache cache = propertyCache;
+            if (cache == null || cachedInterfaces.get(ifaceName) != this) {
+                return;
+            }
+            if (changed != null) {
+                for (Map.Entry<String, Variant> entry : changed.entrySet()) {
+                    cache.update(ProxyBusObject.this, ifaceName, entry.getKey(), entry.getValue(),
+                                 expiresAt(entry.getKey()));
+                }
+            }
+            if (invalidated != null) {
+                for (String propName : invalidated) {
+                    cache.invalidate(ProxyBusObject.this, ifaceName, propName);
+                }
+            }
+        }
+    }
+
+    /**
+     * Enables client-side caching of the properties of an interface of the
+     * remote object.
+     *
+     * Once enabled, reads of the properties of the interface are served from
+     * the cache when possible, and the values read, including those read with
+     * {@link #getAllProperties(String)}, are cached.  The cache is kept up to
+     * date by the PropertiesChanged signals of the remote object.  Properties
+     * that are not annotated as emitting changes (EmitsChangedSignal true,
+     * invalidates or const) are read again from the remote object once
+     * staleAfterMsecs have passed.
+     *
+     * All the cached interfaces of a proxy bus object use the same cache; a
+     * different cache replaces the previous one for all of them.
+     *
+     * @param cache the cache to use
+     * @param ifaceName the name of the interface
+     * @param staleAfterMsecs the time after which properties that do not emit
+     *                        changes are read again, or 0 to cache them until
+     *                        the interface is disabled
+     * @return
+     * <ul>
+     * <li>OK if the cache was enabled.</li>
+     * <li>BUS_NO_SUCH_INTERFACE if the interface is not an interface of this proxy bus object.</li>
+     * <li>BAD_ANNOTATION if the annotations of the interface are invalid.</li>
+     * </ul>
+     */
+    public Status enablePropertyCache(PropertyCache cache, String ifaceName, long staleAfterMsecs) {
+        if (cache == null || ifaceName == null || staleAfterMsecs < 0) {
+            throw new IllegalArgumentException("Invalid property cache parameters");
+        }
         try {
-            Type returnType;
-            returnType = org.alljoyn.bus.ifaces.Properties.class.getMethod("GetAll", String.class).getGenericReturnType();
-            map = getAllProperties(bus, returnType, interfaceName);
-        } catch (NoSuchMethodException e) {
-            /* This will not happen */
-            System.err.println("Unexpected NoSuchMethodException for the GetAll method");
+            int code = addInterface(ifaceName);
+            if (code != Status.OK.getErrorCode() && code != Status.BUS_IFACE_ALREADY_EXISTS.getErrorCode()) {
+                return Status.BUS_NO_SUCH_INTERFACE;
+            }
+        } catch (AnnotationBusException ex) {
+            BusException.log(ex);
+            return Status.BAD_ANNOTATION;
         }
-        return map;
+
+        PropertyCache previous = propertyCache;
+        if (previous != null && previous != cache) {
+            for (String name : cachedInterfaces.keySet()) {
+                previous.remove(this, name);
+            }
+        }
+        propertyCache = cache;
+
+        CachedInterface cached = new CachedInterface(ifaceName, staleAfterMsecs, getSignaledProperties(ifaceName));
+        CachedInterface old = cachedInterfaces.put(ifaceName, cached);
+        if (old != null) {
+            unregisterPropertiesChangedListener(ifaceName, old);
+        }
+        cache.remove(this, ifaceName);
+        Status status = registerPropertiesChangedListener(ifaceName, new String[0], cached);
+        if (status != Status.OK) {
+            cachedInterfaces.remove(ifaceName);
+        }
+        return status;
+    }
+
+    /**
+     * Enables client-side caching of the properties of an interface of the
+     * remote object.
+     *
+     * @param cache the cache to use
+     * @param iface the interface
+     * @param staleAfterMsecs the time after which properties that do not emit
+     *                        changes are read again, or 0 to cache them until
+     *                        the interface is disabled
+     * @return OK if the cache was enabled
+     * @see #enablePropertyCache(PropertyCache, String, long)
+     */
+    public Status enablePropertyCache(PropertyCache cache, Class<?> iface, long staleAfterMsecs) {
+        return enablePropertyCache(cache, InterfaceDescription.getName(iface), staleAfterMsecs);
+    }
+
+    /**
+     * Disables client-side caching of the properties of an interface of the
+     * remote object, removing its properties from the cache.
+     *
+     * @param ifaceName the name of the interface
+     */
+    public void disablePropertyCache(String ifaceName) {
+        CachedInterface cached = cachedInterfaces.remove(ifaceName);
+        if (cached != null) {
+            unregisterPropertiesChangedListener(ifaceName, cached);
+            PropertyCache cache = propertyCache;
+            if (cache != null) {
+                cache.remove(this, ifaceName);
+            }
+        }
+    }
+
+    /**
+     * Fills the cache with all the properties of a cached interface, with a
+     * single GetAll call.
+     *
+     * @param ifaceName the name of the interface
+     * @return a Map of name/value associations
+     * @throws BusException if request cannot be honored or the interface is not cached
+     */
+    public Map<String, Variant> warmPropertyCache(String ifaceName) throws BusException {
+        if (!cachedInterfaces.containsKey(ifaceName)) {
+            throw new BusException("Property cache not enabled for " + ifaceName);
+        }
+        return getAllProperties(ifaceName);
+    }
+
+    /** Gets the value of a property as the given type, from the cache if it is enabled. */
+    private Object getPropertyValue(String ifaceName, String propName, Type type) throws BusException {
+        CachedInterface cached = cachedInterfaces.get(ifaceName);
+        if (cached == null) {
+            return getProperty(bus, ifaceName, propName).getObject(type);
+        }
+        return getCachedProperty(cached, ifaceName, propName).getObject(type);
+    }
+
+    /** Gets a property of a cached interface, reading it from the remote object on a miss. */
+    private PropertyCache.Entry getCachedProperty(CachedInterface cached, String ifaceName, String propName)
+        throws BusException {
+        PropertyCache cache = propertyCache;
+        PropertyCache.Entry entry = cache.get(this, ifaceName, propName);
+        if (entry == null) {
+            long stamp = cache.stamp();
+            Variant v = getProperty(bus, ifaceName, propName);
+            entry = cache.put(this, ifaceName, propName, v, cached.expiresAt(propName), stamp);
+        }
+        return entry;
+    }
+
+    /** Invalidates the cached value of a property that was set. */
+    private void propertySet(String ifaceName, String propName) {
+        PropertyCache cache = propertyCache;
+        if (cache != null && cachedInterfaces.containsKey(ifaceName)) {
+            cache.invalidate(this, ifaceName, propName);
+        }
+    }
+
+    /**
+     * Gets the names of the properties of an interface that emit change
+     * signals or never change.
+     */
+    private Set<String> getSignaledProperties(String ifaceName) {
+        Set<String> signaled = new HashSet<String>();
+        if (interfaceDefs != null) {
+            InterfaceDef intfDef = BusObjectInfo.getInterface(interfaceDefs, ifaceName);
+            if (intfDef != null) {
+                for (PropertyDef propertyDef : intfDef.getProperties()) {
+                    if (isSignaled(propertyDef.getAnnotation(PropertyDef.ANNOTATION_PROPERTY_EMITS_CHANGED_SIGNAL))) {
+                        signaled.add(propertyDef.getName());
+                    }
+                }
+            }
+            return signaled;
+        }
+        for (Class<?> intf : proxy.getClass().getInterfaces()) {
+            if (!ifaceName.equals(InterfaceDescription.getName(intf))) {
+                continue;
+            }
+            for (Method m : intf.getMethods()) {
+                BusProperty busProperty = m.getAnnotation(BusProperty.class);
+                if (busProperty == null) {
+                    continue;
+                }
+                String emits = null;
+                if (busProperty.annotation() == BusProperty.ANNOTATE_EMIT_CHANGED_SIGNAL) {
+                    emits = "true";
+                } else if (busProperty.annotation() == BusProperty.ANNOTATE_EMIT_CHANGED_SIGNAL_INVALIDATES) {
+                    emits = "invalidates";
+                }
+                BusAnnotations annotations = m.getAnnotation(BusAnnotations.class);
+                if (annotations != null) {
+                    for (BusAnnotation annotation : annotations.value()) {
+                        if (annotation.name().equals(PropertyDef.ANNOTATION_PROPERTY_EMITS_CHANGED_SIGNAL)) {
+                            emits = annotation.value();
+                        }
+                    }
+                }
+                if (isSignaled(emits)) {
+                    signaled.add(InterfaceDescription.getName(m));
+                }
+            }
+        }
+        return signaled;
+    }
+
+    private static boolean isSignaled(String emitsChangedSignal) {
+        return "true".equals(emitsChangedSignal) || "invalidates".equals(emitsChangedSignal)
+            || "const".equals(emitsChangedSignal);
     }
 
     /**
@@ -710,10 +1341,9 @@ public class ProxyBusObject {
                 if (isGet) {
                     outSig = propertyDef.getType();
                     outType = MsgArg.toType(outSig);
-                    Variant v = getProperty(bus,
-                            propertyDef.getInterfaceName(),
-                            propertyDef.getName());
-                    value = v.getObject(outType);
+                    value = getPropertyValue(propertyDef.getInterfaceName(),
+                            propertyDef.getName(),
+                            outType);
                 } else {
                     Object propertyArg = getArg(args, 2, null);
                     setProperty(bus,
@@ -721,6 +1351,7 @@ public class ProxyBusObject {
                             propertyDef.getName(),
                             propertyDef.getType(),
                             propertyArg);
+                    propertySet(propertyDef.getInterfaceName(), propertyDef.getName());
                 }
             } else {
                 try {
@@ -0,0 +1,275 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ScatteringByteChannel;
+import java.nio.channels.SelectionKey;
+
+/**
+ * A NIO channel over the socket of a raw (non-message based) session.
+ *
+ * The socket returned by {@link BusAttachment#getSessionFd(int, Mutable.IntegerValue)}
+ * is an int descriptor that Java code otherwise has to wrap by reflecting on
+ * java.io.FileDescriptor.  A RawSessionChannel wraps it once and exposes it as
+ * a {@link ByteChannel} that supports direct buffers, scattering reads and
+ * gathering writes, so session data is moved without per-call byte array
+ * copies.
+ *
+ * The JDK offers no way to register a foreign descriptor with a
+ * {@link java.nio.channels.Selector}.  Non-blocking users instead call
+ * {@link #configureBlocking(boolean)} and wait for readiness with
+ * {@link #await(int, long)}.
+ *
+ * A RawSessionChannel owns the socket: closing the channel closes the socket
+ * and the application must not close the descriptor itself.
+ */
+public final class RawSessionChannel implements ByteChannel, GatheringByteChannel, ScatteringByteChannel {
+
+    private final int sockFd;
+    private final FileDescriptor fd;
+    private final FileChannel in;
+    private final FileChannel out;
+    private volatile boolean blocking = true;
+    private volatile boolean open = true;
+
+    /**
+     * Creates a channel over the socket of a raw session.
+     *
+     * @param sockFd the socket descriptor returned by
+     *               {@link BusAttachment#getSessionFd(int, Mutable.IntegerValue)}
+     *
+     * @throws BusException if the platform cannot wrap the socket
+     */
+    public RawSessionChannel(int sockFd) throws BusException {
+        if (sockFd < 0) {
+            throw new IllegalArgumentException("invalid socket descriptor " + sockFd);
+        }
+        this.sockFd = sockFd;
+        fd = newFileDescriptor(sockFd);
+        in = new FileInputStream(fd).getChannel();
+        out = new FileOutputStream(fd).getChannel();
+    }
+
+    private static native FileDescriptor newFileDescriptor(int sockFd) throws BusException;
+
+    private static native void closeFileDescriptor(FileDescriptor fd);
+
+    /**
+     * Closes a socket that could not be wrapped in a channel.
+     *
+     * @param sockFd the socket descriptor
+     */
+    static native void closeSocket(int sockFd);
+
+    private static native void setBlocking(int sockFd, boolean blocking) throws BusException;
+
+    private static native int await(int sockFd, int ops, int timeout) throws BusException;
+
+    /**
+     * Gets the descriptor wrapped by this channel, for use with stream based
+     * APIs.  The descriptor is invalid once the channel is closed.
+     *
+     * @return the FileDescriptor of the session socket
+     */
+    public FileDescriptor getFileDescriptor() {
+        return fd;
+    }
+
+    /**
+     * Gets the socket descriptor wrapped by this channel.
+     *
+     * @return the socket descriptor of the session
+     */
+    public int getSocket() {
+        return sockFd;
+    }
+
+    /**
+     * Adjusts the blocking mode of the session socket.  In non-blocking mode
+     * reads and writes transfer as many bytes as the socket accepts without
+     * waiting, possibly none.
+     *
+     * @param block true to block, false to not block
+     *
+     * @throws BusException if the socket mode cannot be changed
+     * @throws ClosedChannelException if the channel is closed
+     */
+    public synchronized void configureBlocking(boolean block) throws BusException, ClosedChannelException {
+        ensureOpen();
+        setBlocking(sockFd, block);
+        blocking = block;
+    }
+
+    /**
+     * Tells whether the session socket is in blocking mode.
+     *
+     * @return true if reads and writes block
+     */
+    public boolean isBlocking() {
+        return blocking;
+    }
+
+    /**
+     * Waits until the session socket is ready for some of the given
+     * operations.
+     *
+     * @param ops the operations of interest, a combination of
+     *            {@link SelectionKey#OP_READ} and {@link SelectionKey#OP_WRITE}
+     * @param timeoutMillis the maximum time to wait in milliseconds, or a
+     *                      negative value to wait indefinitely
+     *
+     * While waiting the channel cannot be closed: {@link #close()} waits for
+     * await() to return, so that the socket descriptor cannot be closed and
+     * reused underneath it.  Use a bounded timeout when another thread may
+     * close the channel.
+     *
+     * @return the subset of ops that are ready, or 0 on timeout
+     *
+     * @throws BusException if waiting on the socket fails
+     * @throws ClosedChannelException if the channel is closed
+     */
+    public int await(int ops, long timeoutMillis) throws BusException, ClosedChannelException {
+        if ((ops & ~(SelectionKey.OP_READ | SelectionKey.OP_WRITE)) != 0) {
+            throw new IllegalArgumentException("unsupported operations " + ops);
+        }
+        int timeout = (timeoutMillis < 0) ? -1 : (int) Math.min(timeoutMillis, Integer.MAX_VALUE);
+        synchronized (this) {
+            ensureOpen();
+            return await(sockFd, ops, timeout);
+        }
+    }
+
+    public int read(ByteBuffer dst) throws IOException {
+        return in.read(dst);
+    }
+
+    public long read(ByteBuffer[] dsts) throws IOException {
+        return in.read(dsts);
+    }
+
+    public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+        return in.read(dsts, offset, length);
+    }
+
+    public int write(ByteBuffer src) throws IOException {
+        return out.write(src);
+    }
+
+    public long write(ByteBuffer[] srcs) throws IOException {
+        return out.write(srcs);
+    }
+
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+        return out.write(srcs, offset, length);
+    }
+
+    /**
+     * Sends part of a file over the session.  Where the platform supports it
+     * the bytes go from the file to the socket without passing through the
+     * Java heap.
+     *
+     * @param src the file to send from
+     * @param position the position in the file of the first byte to send
+     * @param count the maximum number of bytes to send
+     *
+     * @return the number of bytes sent, possibly fewer than count
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public long transferFrom(FileChannel src, long position, long count) throws IOException {
+        ensureOpen();
+        return src.transferTo(position, count, out);
+    }
+
+    /**
+     * Receives bytes from the session into part of a file.  In non-blocking
+     * mode this stops as soon as no more bytes are available.
+     *
+     * @param dst the file to receive into
+     * @param position the position in the file of the first byte to receive
+     * @param count the maximum number of bytes to receive
+     *
+     * @return the number of bytes received, possibly fewer than count
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public long transferTo(FileChannel dst, long position, long count) throws IOException {
+        ensureOpen();
+        /*
+         * Hand the file channel this wrapper rather than the socket's own
+         * FileChannel, which it would treat as a file of size zero.
+         */
+        return dst.transferFrom(this, position, count);
+    }
+
+    /**
+     * Tells whether the channel is open.  The channel is also closed if a
+     * thread was interrupted during a read or write, which closes the
+     * session socket.
+     *
+     * @return true if the channel is open
+     */
+    public boolean isOpen() {
+        return open && in.isOpen() && out.isOpen();
+    }
+
+    /**
+     * Closes the channel and the session socket.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void close() throws IOException {
+        if (!open) {
+            return;
+        }
+        open = false;
+        try {
+            in.close();
+            out.close();
+        } finally {
+            closeFileDescriptor(fd);
+        }
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (!isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+}
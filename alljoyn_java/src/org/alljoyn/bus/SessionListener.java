@@ -74,17 +74,7 @@ public class SessionListener {
      */
     public SessionListener() {
         create();
-    }
-
-    /**
-     * Destroy native resources held by objects of this class.
-     */
-    protected void finalize() throws Throwable {
-        try {
-            destroy();
-        } finally {
-            super.finalize();
-        }
+        NativeHandle.register(this, handle, releaser);
     }
 
     /**
@@ -97,7 +87,14 @@ public class SessionListener {
      * Release any native resources held by objects of this class.
      * Specifically, we may delete a C++ counterpart of this listener object.
      */
-    private native void destroy();
+    private static native void destroy(long handle);
+
+    /** Releases the C++ counterpart once this listener has been garbage collected. */
+    private static final NativeHandle.Releaser releaser = new NativeHandle.Releaser() {
+        public void release(long handle) {
+            destroy(handle);
+        }
+    };
 
     /**
      * Invalid SessionLost code.
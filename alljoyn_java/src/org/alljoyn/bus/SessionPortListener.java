@@ -75,17 +75,7 @@ public class SessionPortListener {
      */
     public SessionPortListener() {
         create();
-    }
-
-    /**
-     * Destroy native resources held by objects of this class.
-     */
-    protected void finalize() throws Throwable {
-        try {
-            destroy();
-        } finally {
-            super.finalize();
-        }
+        NativeHandle.register(this, handle, releaser);
     }
 
     /**
@@ -98,7 +88,14 @@ public class SessionPortListener {
      * Release any native resources held by objects of this class.
      * Specifically, we may delete a C++ counterpart of this listener object.
      */
-    private native void destroy();
+    private static native void destroy(long handle);
+
+    /** Releases the C++ counterpart once this listener has been garbage collected. */
+    private static final NativeHandle.Releaser releaser = new NativeHandle.Releaser() {
+        public void release(long handle) {
+            destroy(handle);
+        }
+    };
 
     /**
      * Accept or reject an incoming JoinSession request. The session does not
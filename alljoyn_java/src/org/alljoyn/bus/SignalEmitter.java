@@ -34,7 +34,12 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.alljoyn.bus.ifaces.Properties;
 import org.alljoyn.bus.defs.BusObjectInfo;
@@ -60,6 +65,12 @@ public class SignalEmitter {
     private final Object proxy;
     private final MessageContext msgContext;
 
+    /** The queue of signals waiting to be sent, null unless batching is enabled. */
+    private Batch batch;
+
+    /** The timer flushing batches that are not filled before their delay expires. */
+    private static Timer flushTimer;
+
     /** Controls behavior of broadcast signals ({@code null} desintation). */
     public enum GlobalBroadcast {
 
@@ -177,27 +188,292 @@ public class SignalEmitter {
                                String signalName, String inputSig, Object[] args, int timeToLive,
                                int flags, MessageContext ctx) throws BusException;
 
+    /** Sends a batch of signals. */
+    private native void signals(BusObject busObj, String destination, int sessionId, String[] ifaceNames,
+                                String[] signalNames, String[] inputSigs, Object[][] args, int count,
+                                int timeToLive, int flags, MessageContext ctx) throws BusException;
+
+    /** A resolved bus signal. */
+    private static final class Signal {
+        final String ifaceName;
+        final String signalName;
+        final String inputSig;
+
+        Signal(String ifaceName, String signalName, String inputSig) {
+            this.ifaceName = ifaceName;
+            this.signalName = signalName;
+            this.inputSig = inputSig;
+        }
+    }
+
     private class Emitter implements InvocationHandler {
 
+        /** The signals sent by each method of the proxy, resolved on first use. */
+        private final Map<Method, Signal[]> signals = new ConcurrentHashMap<Method, Signal[]>();
+
         @Override
         public Object invoke(Object proxy, Method method, Object[] args) throws BusException {
+            Signal[] resolved = signals.get(method);
+            if (resolved == null) {
+                resolved = resolve(proxy, method);
+                signals.put(method, resolved);
+            }
+            for (Signal signal : resolved) {
+                emit(signal, args);
+            }
+            return null;
+        }
+
+        private Signal[] resolve(Object proxy, Method method) throws BusException {
+            List<Signal> resolved = new ArrayList<Signal>();
             for (Class<?> i : proxy.getClass().getInterfaces()) {
                 for (Method m : i.getMethods()) {
                     if (method.getName().equals(m.getName())) {
-                        signal(source,
-                               destination,
-                               sessionId,
-                               InterfaceDescription.getName(i),
-                               InterfaceDescription.getName(m),
-                               InterfaceDescription.getInputSig(m),
-                               args,
-                               timeToLive,
-                               flags,
-                               msgContext);
+                        resolved.add(new Signal(InterfaceDescription.getName(i),
+                                                InterfaceDescription.getName(m),
+                                                InterfaceDescription.getInputSig(m)));
                     }
                 }
             }
-            return null;
+            return resolved.toArray(new Signal[resolved.size()]);
+        }
+    }
+
+    /** Sends a signal, or queues it if batching is enabled. */
+    private void emit(Signal signal, Object[] args) throws BusException {
+        Batch b;
+        boolean full = false;
+        synchronized (this) {
+            /*
+             * Queue the signal while holding the emitter lock, so that it
+             * cannot be added to a batch that enableBatching() or
+             * disableBatching() has already swapped out and flushed.
+             */
+            b = batch;
+            if (b != null) {
+                full = b.add(signal, args);
+            }
+        }
+        if (b == null) {
+            signal(source,
+                   destination,
+                   sessionId,
+                   signal.ifaceName,
+                   signal.signalName,
+                   signal.inputSig,
+                   args,
+                   timeToLive,
+                   flags,
+                   msgContext);
+        } else if (full) {
+            b.flush();
+        }
+    }
+
+    /**
+     * The signals queued while batching is enabled.
+     */
+    private final class Batch {
+        private final int maxSignals;
+        private final int maxDelayMsecs;
+        private final boolean coalesce;
+
+        /** The queued signals and their arguments, in order of emission. */
+        private List<Signal> queued;
+        private List<Object[]> queuedArgs;
+
+        /** The position of each queued signal in the queue when coalescing. */
+        private final Map<Signal, Integer> positions;
+
+        /** The pending flush of the queue, if any. */
+        private TimerTask flushTask;
+
+        /** Serializes flushes so that the signals are sent in order. */
+        private final Object flushLock = new Object();
+
+        Batch(int maxSignals, int maxDelayMsecs, boolean coalesce) {
+            this.maxSignals = maxSignals;
+            this.maxDelayMsecs = maxDelayMsecs;
+            this.coalesce = coalesce;
+            this.queued = new ArrayList<Signal>();
+            this.queuedArgs = new ArrayList<Object[]>();
+            this.positions = coalesce ? new HashMap<Signal, Integer>() : null;
+        }
+
+        /**
+         * Queue a signal.
+         *
+         * @return true if the queue is full and must be flushed
+         */
+        synchronized boolean add(Signal signal, Object[] args) {
+            if (coalesce) {
+                Integer position = positions.get(signal);
+                if (position != null) {
+                    queuedArgs.set(position, args);
+                    return false;
+                }
+                positions.put(signal, queued.size());
+            }
+            queued.add(signal);
+            queuedArgs.add(args);
+            if (queued.size() >= maxSignals) {
+                return true;
+            }
+            if (flushTask == null && maxDelayMsecs > 0) {
+                flushTask = new TimerTask() {
+                    @Override
+                    public void run() {
+                        /*
+                         * Anything escaping would kill the timer shared by
+                         * all emitters, and with it every delayed flush.
+                         */
+                        try {
+                            flush();
+                        } catch (Throwable th) {
+                            BusException.log(th);
+                        }
+                    }
+                };
+                timer().schedule(flushTask, maxDelayMsecs);
+            }
+            return false;
+        }
+
+        /** Send the queued signals. */
+        void flush() throws BusException {
+            synchronized (flushLock) {
+                List<Signal> signals;
+                List<Object[]> args;
+                synchronized (this) {
+                    if (flushTask != null) {
+                        flushTask.cancel();
+                        flushTask = null;
+                    }
+                    if (queued.isEmpty()) {
+                        return;
+                    }
+                    signals = queued;
+                    args = queuedArgs;
+                    queued = new ArrayList<Signal>();
+                    queuedArgs = new ArrayList<Object[]>();
+                    if (coalesce) {
+                        positions.clear();
+                    }
+                }
+
+                int count = signals.size();
+                String[] ifaceNames = new String[count];
+                String[] signalNames = new String[count];
+                String[] inputSigs = new String[count];
+                for (int i = 0; i < count; ++i) {
+                    Signal signal = signals.get(i);
+                    ifaceNames[i] = signal.ifaceName;
+                    signalNames[i] = signal.signalName;
+                    inputSigs[i] = signal.inputSig;
+                }
+                SignalEmitter.this.signals(source,
+                                           destination,
+                                           sessionId,
+                                           ifaceNames,
+                                           signalNames,
+                                           inputSigs,
+                                           args.toArray(new Object[count][]),
+                                           count,
+                                           timeToLive,
+                                           flags,
+                                           msgContext);
+            }
+        }
+    }
+
+    private static synchronized Timer timer() {
+        if (flushTimer == null) {
+            flushTimer = new Timer("SignalEmitter", true);
+        }
+        return flushTimer;
+    }
+
+    /**
+     * Enables batching of the signals sent from this emitter.
+     *
+     * While batching is enabled, signals are queued instead of being sent
+     * immediately.  The queue is flushed, sending its signals in the order
+     * they were emitted, when it holds maxSignals signals, when maxDelayMsecs
+     * have passed since the first signal was queued, or when {@link #flush()}
+     * is called.  The arguments of a queued signal are marshaled when it is
+     * sent, so they must not be modified after emitting it, and it is sent
+     * with the time-to-live and flags of the emitter at that time.
+     *
+     * If coalesce is true, emitting a signal that is already queued replaces
+     * the arguments of the queued signal, so only the latest value of each
+     * signal is sent.  This suits signals that report the current value of a
+     * measurement, not signals that report discrete events.
+     *
+     * Errors sending a batch are thrown from the emission or flush() call that
+     * filled the queue, or logged if the batch was flushed by its delay.  The
+     * signals following a failed one in the batch are discarded.  The
+     * MessageContext of the emitter describes the last signal sent.
+     *
+     * Enabling batching again replaces the previous settings, after flushing
+     * the signals queued so far.
+     *
+     * @param maxSignals the number of queued signals that causes a flush
+     * @param maxDelayMsecs the maximum time a signal stays queued, or 0 to
+     *                      flush only when full or on request
+     * @param coalesce whether to only keep the latest emission of each signal
+     * @throws BusException if flushing the signals queued so far failed
+     */
+    public void enableBatching(int maxSignals, int maxDelayMsecs, boolean coalesce) throws BusException {
+        if (maxSignals < 1 || maxDelayMsecs < 0) {
+            throw new IllegalArgumentException("Invalid batching parameters");
+        }
+        synchronized (this) {
+            try {
+                flushLocked();
+            } finally {
+                batch = new Batch(maxSignals, maxDelayMsecs, coalesce);
+            }
+        }
+    }
+
+    /**
+     * Disables batching, sending any queued signals.
+     *
+     * @throws BusException if sending the queued signals failed
+     */
+    public void disableBatching() throws BusException {
+        synchronized (this) {
+            try {
+                flushLocked();
+            } finally {
+                batch = null;
+            }
+        }
+    }
+
+    /**
+     * Sends the queued signals before the batch is replaced.  Called with the
+     * emitter lock held, so that no signal emitted meanwhile is queued behind
+     * them in a new batch or sent directly ahead of them.
+     */
+    private void flushLocked() throws BusException {
+        if (batch != null) {
+            batch.flush();
+        }
+    }
+
+    /**
+     * Sends the signals queued while batching is enabled.
+     *
+     * @throws BusException if sending the queued signals failed
+     */
+    public void flush() throws BusException {
+        Batch b;
+        synchronized (this) {
+            b = batch;
+        }
+        if (b != null) {
+            b.flush();
         }
     }
 
@@ -294,6 +570,9 @@ public class SignalEmitter {
 
         final private List<InterfaceDef> interfaceDefs;
 
+        /** The resolved signal of each SignalDef emitted so far. */
+        final private Map<SignalDef, Signal> signals = new ConcurrentHashMap<SignalDef, Signal>();
+
         /**
          * Constructor.
          *
@@ -333,20 +612,24 @@ public class SignalEmitter {
                     interfaceName, signalName, null);
             if (signalDef != null) {
                 Object[] signalArgs = (Object[])getArg(args, 2, new Object[]{});
-                signal(source,
-                       destination,
-                       sessionId,
-                       signalDef.getInterfaceName(),
-                       signalDef.getName(),
-                       signalDef.getSignature(),
-                       signalArgs,
-                       timeToLive,
-                       flags,
-                       msgContext);
+                emit(signalDef, signalArgs);
             }
             return null;
         }
 
+        /**
+         * Send a signal, reusing the resolved Signal of its SignalDef so that
+         * repeated emissions can be coalesced.
+         */
+        private void emit(SignalDef signalDef, Object[] signalArgs) throws BusException {
+            Signal signal = signals.get(signalDef);
+            if (signal == null) {
+                signal = new Signal(signalDef.getInterfaceName(), signalDef.getName(), signalDef.getSignature());
+                signals.put(signalDef, signal);
+            }
+            SignalEmitter.this.emit(signal, signalArgs);
+        }
+
         /** Return the indexed arg. If invalid index, return the given default value. */
         private Object getArg(Object[] args, int index, Object defaultValue) {
             if (index < 0) return defaultValue;
@@ -31,15 +31,19 @@ package org.alljoyn.bus;
 
 import org.alljoyn.bus.annotation.Position;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Signature provides static methods for converting between Java and DBus type signatures.
@@ -49,10 +53,123 @@ public final class Signature {
 
     private Signature() {}
 
+    /**
+     * The layout of a struct class: its fields in position order and their
+     * types.  A StructCodec is computed once per class from the Position
+     * annotations and is shared by marshalling and unmarshalling.
+     */
+    static final class StructCodec {
+        /** The struct class. */
+        final Class<?> cls;
+
+        /** The instance fields of the struct class, in position order. */
+        final Field[] fields;
+
+        /** The generic types of the fields, in position order. */
+        final Type[] types;
+
+        /** The no-argument constructor, looked up on first use. */
+        private volatile Constructor<?> constructor;
+
+        /** The DBus signature of the members, computed on first use. */
+        private volatile String signature;
+
+        StructCodec(Class<?> cls) throws AnnotationBusException {
+            this.cls = cls;
+            Field[] instanceFields = getInstanceFields(cls);
+            fields = new Field[instanceFields.length];
+            types = new Type[instanceFields.length];
+            for (Field field : instanceFields) {
+                Position position = field.getAnnotation(Position.class);
+                if (position == null) {
+                    throw new AnnotationBusException("field " + field + " of " + cls
+                                                     + " does not annotate position");
+                }
+                makeAccessible(field);
+                fields[position.value()] = field;
+                types[position.value()] = field.getGenericType();
+            }
+        }
+
+        /** Gets the values of the fields of the struct, in position order. */
+        Object[] args(Object struct) throws IllegalAccessException {
+            Object[] args = new Object[fields.length];
+            for (int i = 0; i < fields.length; ++i) {
+                if (fields[i] != null) {
+                    args[i] = fields[i].get(struct);
+                }
+            }
+            return args;
+        }
+
+        /** Creates an instance of the struct class with its no-argument constructor. */
+        Object newInstance() throws NoSuchMethodException, InstantiationException,
+                                    IllegalAccessException, InvocationTargetException {
+            Constructor<?> c = constructor;
+            if (c == null) {
+                c = cls.getDeclaredConstructor();
+                makeAccessible(c);
+                constructor = c;
+            }
+            return c.newInstance();
+        }
+
+        /** Gets the DBus signature of the members of the struct, without the parentheses. */
+        String signature() throws AnnotationBusException {
+            String sig = signature;
+            if (sig == null) {
+                StringBuilder sb = new StringBuilder();
+                for (Field field : fields) {
+                    org.alljoyn.bus.annotation.Signature annotation =
+                        field.getAnnotation(org.alljoyn.bus.annotation.Signature.class);
+                    if (annotation == null || "r".equals(annotation.value())) {
+                        sb.append(typeSig(field.getGenericType(), null));
+                    } else {
+                        sb.append(annotation.value());
+                    }
+                }
+                sig = sb.toString();
+                signature = sig;
+            }
+            return sig;
+        }
+
+        /*
+         * Suppressing the access checks is only an optimization, so carry on
+         * with the checked accessor if a security manager refuses.
+         */
+        private static void makeAccessible(java.lang.reflect.AccessibleObject object) {
+            try {
+                object.setAccessible(true);
+            } catch (SecurityException ex) {
+            }
+        }
+    }
+
+    /** The struct codecs computed so far, keyed by struct class. */
+    private static final Map<Class<?>, StructCodec> structCodecs =
+        new ConcurrentHashMap<Class<?>, StructCodec>();
+
+    /**
+     * Gets the codec of a struct class, computing it the first time the class
+     * is seen.
+     *
+     * @param cls the struct class
+     * @return the codec of the class
+     * @throws AnnotationBusException if a field of the class does not annotate its position
+     */
+    static StructCodec structCodec(Class<?> cls) throws AnnotationBusException {
+        StructCodec codec = structCodecs.get(cls);
+        if (codec == null) {
+            codec = new StructCodec(cls);
+            structCodecs.put(cls, codec);
+        }
+        return codec;
+    }
+
     public static Object[] structArgs(Object struct) throws IllegalAccessException,
                                                             BusException {
         Class<?> type = struct.getClass();
-        Field[] fields = getInstanceFields(type);
 
         /*
          * If the given struct is an instance of Object[], there is no implementation class from
@@ -64,71 +181,70 @@ public final class Signature {
             return Arrays.copyOf(objArray, objArray.length);
         }
 
-        Object[] args = new Object[fields.length];
-        for (Field field : fields) {
-            Position position = field.getAnnotation(Position.class);
-            if (position == null) {
-                throw new BusException("field " + field + " of " + type
-                                       + " does not annotate position");
-            }
-            args[position.value()] = field.get(struct);
-        }
-        return args;
+        return structCodec(type).args(struct);
     }
 
     public static Field[] structFields(Class<?> cls) throws BusException {
-        Field[] fields = getInstanceFields(cls);
-        Field[] orderedFields = new Field[fields.length];
-        for (Field field : fields) {
-            Position position = field.getAnnotation(Position.class);
-            if (position == null) {
-                throw new BusException("field " + field + " of " + cls
-                                       + " does not annotate position");
-            }
-            orderedFields[position.value()] = field;
-        }
-        return orderedFields;
+        return structCodec(cls).fields.clone();
     }
 
     public static Type[] structTypes(Class<?> cls) throws AnnotationBusException {
-        Field[] fields = getInstanceFields(cls);
-        Type[] types = new Type[fields.length];
-        for (Field field : fields) {
-            Position position = field.getAnnotation(Position.class);
-            if (position == null) {
-                throw new AnnotationBusException("field " + field + " of " + cls
-                                                 + " does not annotate position");
-            }
-            types[position.value()] = field.getGenericType();
-        }
-        return types;
+        return structCodec(cls).types.clone();
     }
 
     public static String structSig(Class<?> cls) throws AnnotationBusException {
-        Field[] fields = getInstanceFields(cls);
-        String[] sig = new String[fields.length];
-        for (Field field : fields) {
-            Position position = field.getAnnotation(Position.class);
-            if (position == null) {
-                throw new AnnotationBusException("field " + field + " of " + cls
-                                                + " does not annotate position");
-            }
-            org.alljoyn.bus.annotation.Signature signature =
-                field.getAnnotation(org.alljoyn.bus.annotation.Signature.class);
-            if (signature == null || "r".equals(signature.value())) {
-                sig[position.value()] = typeSig(field.getGenericType(), null);
-            } else {
-                sig[position.value()] = signature.value();
-            }
+        return structCodec(cls).signature();
+    }
+
+    /** The maximum number of signatures kept by the split cache. */
+    private static final int SPLIT_CACHE_SIZE = 512;
+
+    /** The complete types of the signatures split so far, keyed by signature. */
+    private static final Map<String, String[]> splitCache =
+        new ConcurrentHashMap<String, String[]>();
+
+    /**
+     * Splits a signature into its complete types.
+     *
+     * @param signature the signature
+     * @return the complete types, or null if the signature is null or invalid
+     */
+    public static String[] split(String signature) {
+        String[] types = splitShared(signature);
+        return (types == null) ? null : types.clone();
+    }
+
+    /**
+     * Splits a signature into its complete types, parsing each signature only
+     * once.  The returned array is shared between callers and must not be
+     * modified.
+     *
+     * @param signature the signature
+     * @return the complete types, or null if the signature is null or invalid
+     */
+    static String[] splitShared(String signature) {
+        if (signature == null) {
+            return null;
         }
-        StringBuilder sb = new StringBuilder();
-        for (String s : sig) {
-            sb.append(s);
+        String[] types = splitCache.get(signature);
+        if (types == null) {
+            types = nativeSplit(signature);
+            if (types != null) {
+                /*
+                 * Applications use a small set of signatures, so when the
+                 * bound is reached simply start over rather than tracking use.
+                 */
+                if (splitCache.size() >= SPLIT_CACHE_SIZE) {
+                    splitCache.clear();
+                }
+                splitCache.put(signature, types);
+            }
         }
-        return sb.toString();
+        return types;
     }
 
-    public static native String[] split(String signature);
+    /** Splits a signature into its complete types in native code. */
+    static native String[] nativeSplit(String signature);
 
     /**
      * Compute the DBus type signature of the type.
@@ -158,7 +274,7 @@ public final class Signature {
             Type[] actuals = type.getActualTypeArguments();
             String[] signatures  = null;
             if (signature != null) {
-                signatures = split(signature.substring(2, signature.length() - 1));
+                signatures = splitShared(signature.substring(2, signature.length() - 1));
             }
             for (int i = 0; i < actuals.length; ++i) {
                 sig += typeSig(actuals[i], (signatures == null) ? null : signatures[i]);
@@ -188,6 +304,8 @@ public final class Signature {
             return (signature == null) ? "s" : signature;
         } else if (Variant.class.isAssignableFrom(cls)) {
             return (signature == null) ? "v" : signature;
+        } else if (ByteBuffer.class.isAssignableFrom(cls)) {
+            return (signature == null) ? "ay" : signature;
         } else if (cls.isArray()) {
             String sig = (signature == null) ? "a" : signature.substring(0, 1);
             return sig + typeSig(cls.getComponentType(),
@@ -219,7 +337,7 @@ public final class Signature {
      */
     public static String typeSig(Type[] types, String signature) throws AnnotationBusException {
         String sig = "";
-        String[] signatures = split(signature);
+        String[] signatures = splitShared(signature);
         for (int i = 0; i < types.length; ++i) {
             sig += typeSig(types[i], (signatures == null) ? null : signatures[i]);
         }
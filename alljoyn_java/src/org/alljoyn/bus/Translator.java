@@ -38,17 +38,7 @@ public abstract class Translator {
      */
     public Translator() {
         create();
-    }
-
-    /**
-     * Destroy native resources held by objects of this class.
-     */
-    protected void finalize() throws Throwable {
-        try {
-            destroy();
-        } finally {
-            super.finalize();
-        }
+        NativeHandle.register(this, handle, releaser);
     }
 
     /**
@@ -61,7 +51,14 @@ public abstract class Translator {
      * Release any native resources held by objects of this class.
      * Specifically, we may delete a C++ counterpart of this Translator object.
      */
-    private native void destroy();
+    private static native void destroy(long handle);
+
+    /** Releases the C++ counterpart once this Translator has been garbage collected. */
+    private static final NativeHandle.Releaser releaser = new NativeHandle.Releaser() {
+        public void release(long handle) {
+            destroy(handle);
+        }
+    };
 
     /**
      * Get the number of target languages this Translator supports
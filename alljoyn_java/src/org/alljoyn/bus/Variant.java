@@ -29,6 +29,8 @@
 
 package org.alljoyn.bus;
 
+import java.io.Closeable;
+import java.nio.ByteBuffer;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 
@@ -36,7 +38,7 @@ import java.lang.reflect.Type;
  * A DBus/AllJoyn datatype whose type information is encoded into the
  * value field.
  */
-public class Variant {
+public class Variant implements Closeable {
 
     /** Wrapped object */
     private Object value;
@@ -47,6 +49,21 @@ public class Variant {
     /** Wrapped native object */
     private long handle;
 
+    /** Releases the wrapped native object. */
+    private NativeHandle nativeHandle;
+
+    /**
+     * The signature character of the wrapped primitive ('y', 'b', 'n', 'i',
+     * 'x' or 'd'), or 0 if the variant does not wrap a primitive.
+     */
+    private char primitive;
+
+    /** The wrapped primitive, as raw bits. */
+    private long bits;
+
+    /** The type id of the wrapped native object, or 0 if not looked up yet. */
+    private int typeId;
+
     /**
      * Creates a variant that can represent any AllJoyn data type.
      * This constructor is typically used by message receivers (method and
@@ -84,26 +101,493 @@ public class Variant {
         this.signature = signature;
     }
 
+    /**
+     * Creates a Variant that represents a byte without boxing it.
+     *
+     * @param value the byte wrapped inside the Variant
+     */
+    public Variant(byte value) {
+        this(value, null);
+    }
+
+    /**
+     * Creates a Variant that represents a byte ("y") without boxing it.
+     *
+     * Without this overload a byte would widen to {@link #Variant(short, String)}.
+     *
+     * @param value the byte wrapped inside the Variant
+     * @param signature the DBus signature of value
+     */
+    public Variant(byte value, String signature) {
+        this.primitive = 'y';
+        this.bits = value;
+        this.signature = signature;
+    }
+
+    /**
+     * Creates a Variant that represents a boolean without boxing it.
+     *
+     * @param value the boolean wrapped inside the Variant
+     */
+    public Variant(boolean value) {
+        this(value, null);
+    }
+
+    /**
+     * Creates a Variant that represents a boolean ("b") without boxing it.
+     *
+     * @param value the boolean wrapped inside the Variant
+     * @param signature the DBus signature of value
+     */
+    public Variant(boolean value, String signature) {
+        this.primitive = 'b';
+        this.bits = value ? 1 : 0;
+        this.signature = signature;
+    }
+
+    /**
+     * Creates a Variant that represents a 16-bit integer without boxing it.
+     *
+     * @param value the integer wrapped inside the Variant
+     */
+    public Variant(short value) {
+        this(value, null);
+    }
+
+    /**
+     * Creates a Variant that represents a signed ("n") or unsigned ("q")
+     * 16-bit integer without boxing it.
+     *
+     * @param value the integer wrapped inside the Variant
+     * @param signature the DBus signature of value
+     */
+    public Variant(short value, String signature) {
+        this.primitive = 'n';
+        this.bits = value;
+        this.signature = signature;
+    }
+
+    /**
+     * Creates a Variant that represents a 32-bit integer without boxing it.
+     *
+     * @param value the integer wrapped inside the Variant
+     */
+    public Variant(int value) {
+        this(value, null);
+    }
+
+    /**
+     * Creates a Variant that represents a signed ("i") or unsigned ("u")
+     * 32-bit integer without boxing it.
+     *
+     * @param value the integer wrapped inside the Variant
+     * @param signature the DBus signature of value
+     */
+    public Variant(int value, String signature) {
+        this.primitive = 'i';
+        this.bits = value;
+        this.signature = signature;
+    }
+
+    /**
+     * Creates a Variant that represents a 64-bit integer without boxing it.
+     *
+     * @param value the integer wrapped inside the Variant
+     */
+    public Variant(long value) {
+        this(value, null);
+    }
+
+    /**
+     * Creates a Variant that represents a signed ("x") or unsigned ("t")
+     * 64-bit integer without boxing it.
+     *
+     * @param value the integer wrapped inside the Variant
+     * @param signature the DBus signature of value
+     */
+    public Variant(long value, String signature) {
+        this.primitive = 'x';
+        this.bits = value;
+        this.signature = signature;
+    }
+
+    /**
+     * Creates a Variant that represents a double without boxing it.
+     *
+     * @param value the double wrapped inside the Variant
+     */
+    public Variant(double value) {
+        this(value, null);
+    }
+
+    /**
+     * Creates a Variant that represents a double ("d") without boxing it.
+     *
+     * @param value the double wrapped inside the Variant
+     * @param signature the DBus signature of value
+     */
+    public Variant(double value, String signature) {
+        this.primitive = 'd';
+        this.bits = Double.doubleToRawLongBits(value);
+        this.signature = signature;
+    }
+
     /** Releases native resources */
-    private synchronized native void destroy();
+    private static native void destroy(long msgArg);
 
-    /** Releases resources. */
-    protected void finalize() throws Throwable {
-        try {
-            destroy();
-        } finally {
-            super.finalize();
+    /** Releases the wrapped native object once a variant has been garbage collected. */
+    private static final NativeHandle.Releaser releaser = new NativeHandle.Releaser() {
+        public void release(long handle) {
+            destroy(handle);
+        }
+    };
+
+    /**
+     * Releases the wrapped native object now rather than when this variant is
+     * garbage collected.  A value that has already been retrieved from the
+     * variant remains available; a value that has not cannot be retrieved
+     * after the variant has been closed.
+     */
+    @Override
+    public void close() {
+        NativeHandle h;
+        synchronized (this) {
+            h = nativeHandle;
+            nativeHandle = null;
+            handle = 0;
+            typeId = 0;
+        }
+        if (h != null) {
+            h.release();
         }
     }
 
     /** Gets the wrapped native object. */
     long getMsgArg() { return handle; }
 
-    /** Sets the wrapped native object to the MsgArg. */
-    native void setMsgArg(long msgArg);
+    /**
+     * Sets the wrapped native object to a copy of the MsgArg, allocated from
+     * the current {@link VariantArena} if there is one.
+     */
+    void setMsgArg(long msgArg) {
+        close();
+        VariantArena arena = VariantArena.current();
+        if (arena != null) {
+            arena.adopt(this, msgArg);
+            return;
+        }
+        create(msgArg);
+        synchronized (this) {
+            nativeHandle = NativeHandle.register(this, handle, releaser);
+        }
+    }
 
-    /** Gets the wrapped object. */
-    Object getValue() { return value; }
+    /** Wraps a copy of the MsgArg. */
+    private native void create(long msgArg);
+
+    /**
+     * Sets the wrapped native object to a copy of a MsgArg that is not itself
+     * a variant, so that its value is only unmarshalled when retrieved.
+     */
+    void wrapMsgArg(long msgArg) {
+        close();
+        wrap(msgArg);
+        synchronized (this) {
+            nativeHandle = NativeHandle.register(this, handle, releaser);
+        }
+    }
+
+    /** Wraps a copy of the MsgArg itself rather than of its variant value. */
+    private native void wrap(long msgArg);
+
+    /**
+     * Gets a copy of this variant that wraps its own copy of the native
+     * object, so that closing either variant does not affect the other.
+     */
+    synchronized Variant detach() {
+        Variant copy = new Variant();
+        if (handle != 0) {
+            copy.wrapMsgArg(handle);
+        } else {
+            copy.value = value;
+            copy.primitive = primitive;
+            copy.bits = bits;
+        }
+        copy.signature = signature;
+        return copy;
+    }
+
+    /**
+     * Unmarshals the value of the wrapped native object without keeping it,
+     * so that each caller gets its own instance of a mutable value.
+     */
+    synchronized Object decode(Type type) throws BusException {
+        if (primitive != 0) {
+            return box();
+        }
+        if (handle == 0) {
+            return value;
+        }
+        return MsgArg.unmarshal(handle, type);
+    }
+
+    /** Sets the wrapped native object owned by a {@link VariantArena}. */
+    synchronized void setArenaMsgArg(long msgArg) {
+        handle = msgArg;
+        typeId = 0;
+    }
+
+    /** Gets the wrapped object, boxing a wrapped primitive. */
+    Object getValue() {
+        if (value == null && primitive != 0) {
+            return box();
+        }
+        return value;
+    }
+
+    private Object box() {
+        switch (primitive) {
+        case 'y':
+            return Byte.valueOf((byte) bits);
+        case 'b':
+            return Boolean.valueOf(bits != 0);
+        case 'n':
+            return Short.valueOf((short) bits);
+        case 'i':
+            return Integer.valueOf((int) bits);
+        case 'x':
+            return Long.valueOf(bits);
+        default:
+            return Double.valueOf(Double.longBitsToDouble(bits));
+        }
+    }
+
+    /**
+     * Sets a native MsgArg to the wrapped primitive without boxing it.
+     *
+     * @return false if the variant does not wrap a primitive
+     */
+    boolean setPrimitive(long msgArg) throws BusException {
+        String sig = (signature == null) ? String.valueOf(primitive) : signature;
+        switch (primitive) {
+        case 0:
+            return false;
+        case 'y':
+            MsgArg.set(msgArg, sig, (byte) bits);
+            return true;
+        case 'b':
+            MsgArg.set(msgArg, sig, bits != 0);
+            return true;
+        case 'n':
+            MsgArg.set(msgArg, sig, (short) bits);
+            return true;
+        case 'i':
+            MsgArg.set(msgArg, sig, (int) bits);
+            return true;
+        case 'x':
+            MsgArg.set(msgArg, sig, bits);
+            return true;
+        default:
+            MsgArg.set(msgArg, sig, Double.longBitsToDouble(bits));
+            return true;
+        }
+    }
+
+    /**
+     * Gets the type of the wrapped primitive, or of the wrapped native object
+     * if it holds a basic value, looking up the native type once.
+     */
+    private int typeId() throws BusException {
+        if (value != null) {
+            return 0;
+        }
+        if (primitive != 0) {
+            return primitive;
+        }
+        int id = typeId;
+        if (id == 0) {
+            long h = handle;
+            if (h == 0) {
+                throw new MarshalBusException("Variant has no value");
+            }
+            id = MsgArg.getTypeId(h);
+            typeId = id;
+        }
+        return id;
+    }
+
+    private ClassCastException cannotRead(String type) throws BusException {
+        return new ClassCastException("cannot read Variant with signature '" + getSignature()
+                                      + "' as " + type);
+    }
+
+    /**
+     * Gets the byte wrapped by this Variant ("y") without boxing it.
+     *
+     * @return the value of the Variant
+     * @throws BusException if the Variant has no value
+     * @throws ClassCastException if the Variant does not hold a byte
+     */
+    public byte getByte() throws BusException {
+        switch (typeId()) {
+        case 'y':
+            return (primitive != 0) ? (byte) bits : MsgArg.getByte(handle);
+        case 0:
+            if (value instanceof Byte) {
+                return (Byte) value;
+            }
+            break;
+        }
+        throw cannotRead("byte");
+    }
+
+    /**
+     * Gets the boolean wrapped by this Variant ("b") without boxing it.
+     *
+     * @return the value of the Variant
+     * @throws BusException if the Variant has no value
+     * @throws ClassCastException if the Variant does not hold a boolean
+     */
+    public boolean getBoolean() throws BusException {
+        switch (typeId()) {
+        case 'b':
+            return (primitive != 0) ? bits != 0 : MsgArg.getBool(handle);
+        case 0:
+            if (value instanceof Boolean) {
+                return (Boolean) value;
+            }
+            break;
+        }
+        throw cannotRead("boolean");
+    }
+
+    /**
+     * Gets the 16-bit integer wrapped by this Variant ("n" or "q") without
+     * boxing it.
+     *
+     * @return the value of the Variant
+     * @throws BusException if the Variant has no value
+     * @throws ClassCastException if the Variant does not hold a 16-bit integer
+     */
+    public short getShort() throws BusException {
+        switch (typeId()) {
+        case 'n':
+            return (primitive != 0) ? (short) bits : MsgArg.getInt16(handle);
+        case 'q':
+            return MsgArg.getUint16(handle);
+        case 0:
+            if (value instanceof Short) {
+                return (Short) value;
+            }
+            break;
+        }
+        throw cannotRead("short");
+    }
+
+    /**
+     * Gets the 32-bit integer wrapped by this Variant ("i" or "u") without
+     * boxing it.
+     *
+     * @return the value of the Variant
+     * @throws BusException if the Variant has no value
+     * @throws ClassCastException if the Variant does not hold a 32-bit integer
+     */
+    public int getInt() throws BusException {
+        switch (typeId()) {
+        case 'i':
+            return (primitive != 0) ? (int) bits : MsgArg.getInt32(handle);
+        case 'u':
+            return MsgArg.getUint32(handle);
+        case 0:
+            if (value instanceof Integer) {
+                return (Integer) value;
+            }
+            break;
+        }
+        throw cannotRead("int");
+    }
+
+    /**
+     * Gets the 64-bit integer wrapped by this Variant ("x" or "t") without
+     * boxing it.
+     *
+     * @return the value of the Variant
+     * @throws BusException if the Variant has no value
+     * @throws ClassCastException if the Variant does not hold a 64-bit integer
+     */
+    public long getLong() throws BusException {
+        switch (typeId()) {
+        case 'x':
+            return (primitive != 0) ? bits : MsgArg.getInt64(handle);
+        case 't':
+            return MsgArg.getUint64(handle);
+        case 0:
+            if (value instanceof Long) {
+                return (Long) value;
+            }
+            break;
+        }
+        throw cannotRead("long");
+    }
+
+    /**
+     * Gets the double wrapped by this Variant ("d") without boxing it.
+     *
+     * @return the value of the Variant
+     * @throws BusException if the Variant has no value
+     * @throws ClassCastException if the Variant does not hold a double
+     */
+    public double getDouble() throws BusException {
+        switch (typeId()) {
+        case 'd':
+            return (primitive != 0) ? Double.longBitsToDouble(bits) : MsgArg.getDouble(handle);
+        case 0:
+            if (value instanceof Double) {
+                return (Double) value;
+            }
+            break;
+        }
+        throw cannotRead("double");
+    }
+
+    /**
+     * Copies the byte array wrapped by this Variant ("ay") into a buffer,
+     * without allocating an intermediate array when the Variant was received
+     * from the bus.
+     *
+     * @param dst the buffer to copy into, starting at its position
+     * @return the number of bytes copied
+     * @throws BusException if the Variant has no value
+     * @throws ClassCastException if the Variant does not hold a byte array
+     * @throws java.nio.BufferOverflowException if dst does not have enough
+     *         remaining space; dst is then left unchanged
+     */
+    public int getBytes(ByteBuffer dst) throws BusException {
+        switch (typeId()) {
+        case MsgArg.ALLJOYN_BYTE_ARRAY:
+            ByteBuffer src = MsgArg.getByteBuffer(handle);
+            if (src == null) {
+                src = ByteBuffer.wrap(MsgArg.getByteArray(handle));
+            }
+            int n = src.remaining();
+            dst.put(src);
+            return n;
+        case 0:
+            if (value instanceof byte[]) {
+                byte[] bytes = (byte[]) value;
+                dst.put(bytes);
+                return bytes.length;
+            }
+            if (value instanceof ByteBuffer) {
+                ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+                int remaining = buffer.remaining();
+                dst.put(buffer);
+                return remaining;
+            }
+            break;
+        }
+        throw cannotRead("byte[]");
+    }
 
     /**
      * Gets the DBus type signature of the wrapped object.
@@ -119,6 +603,8 @@ public class Variant {
     public String getSignature() throws AnnotationBusException {
         if (value != null) {
             return Signature.typeSig(value.getClass(), signature);
+        } else if (primitive != 0) {
+            return (signature == null) ? String.valueOf(primitive) : signature;
         } else if( handle != 0) {
             return MsgArg.getSignature(new long[] { handle });
         } else {
@@ -156,7 +642,7 @@ public class Variant {
      */
     public <T> T getObject(Type type) throws BusException {
         if (value == null) {
-            value = MsgArg.unmarshal(handle, type);
+            value = (primitive != 0) ? box() : MsgArg.unmarshal(handle, type);
         }
         @SuppressWarnings(value = "unchecked")
         T o = (T) value;
@@ -174,7 +660,7 @@ public class Variant {
      */
     public <T> T getObject(Class<T> type) throws BusException {
         if (value == null) {
-            value = MsgArg.unmarshal(handle, type);
+            value = (primitive != 0) ? box() : MsgArg.unmarshal(handle, type);
         }
         @SuppressWarnings(value = "unchecked")
         T o = (T) value;
@@ -193,7 +679,9 @@ public class Variant {
      * @see VariantTypeReference
      */
     public <T> T getObject(VariantTypeReference<T> type) throws BusException {
-        if (value == null) {
+        if (value == null && primitive != 0) {
+            value = box();
+        } else if (value == null) {
             Type sc = type.getClass().getGenericSuperclass();
             value = MsgArg.unmarshal(handle, ((ParameterizedType) sc).getActualTypeArguments()[0]);
         }
@@ -210,8 +698,9 @@ public class Variant {
      */
     public boolean equals(Object obj) {
         try {
-            Object obj1 = getObject(value.getClass());
-            Object obj2 = ((Variant) obj).getObject(value.getClass());
+            Class<?> cls = getValue().getClass();
+            Object obj1 = getObject(cls);
+            Object obj2 = ((Variant) obj).getObject(cls);
             return obj1.equals(obj2);
         } catch (BusException ex) {
             return false;
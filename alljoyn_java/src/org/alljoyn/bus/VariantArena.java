@@ -0,0 +1,238 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import java.io.Closeable;
+import java.util.Arrays;
+
+/**
+ * A scope in which the native objects wrapped by received Variants are
+ * allocated from a reusable per-thread pool and released together when the
+ * scope ends.
+ *
+ * Normally each Variant unmarshalled from a message allocates its own native
+ * MsgArg, which is released when the Variant is closed or garbage collected.
+ * Code that handles many Variants per callback or per request can instead
+ * open an arena for the duration of that unit of work:
+ *
+ * <pre>
+ * VariantArena arena = VariantArena.open();
+ * try {
+ *     Map&lt;String, Variant&gt; props = proxy.getAllProperties(iface);
+ *     ...
+ * } finally {
+ *     arena.close();
+ * }
+ * </pre>
+ *
+ * While the arena is open, every Variant unmarshalled on the opening thread
+ * belongs to it.  Closing the arena releases the contents of all of its
+ * Variants in one native call and keeps the emptied MsgArgs for reuse by the
+ * next arena opened on the same thread, so a steady stream of requests
+ * performs no native allocation for its Variants and creates no work for the
+ * {@link NativeHandle} reclaimer.
+ *
+ * A Variant must not outlive the arena it belongs to: once the arena is
+ * closed, the value of a Variant that has not already been retrieved with
+ * getObject() is no longer available.  Arenas nest; an arena must be closed
+ * by the thread that opened it, innermost first.  Values that outlive the
+ * arena on purpose, such as those a {@link PropertyCache} keeps, are copied
+ * out of it when they are stored.
+ */
+public final class VariantArena implements Closeable {
+
+    /** The innermost open arena of each thread. */
+    private static final ThreadLocal<VariantArena> current = new ThreadLocal<VariantArena>();
+
+    /** The emptied MsgArgs kept for reuse by the arenas of each thread. */
+    private static final ThreadLocal<Pool> pools = new ThreadLocal<Pool>() {
+        @Override
+        protected Pool initialValue() {
+            return new Pool();
+        }
+    };
+
+    /** The maximum number of emptied MsgArgs each thread keeps for reuse. */
+    private static volatile int maxPooled = 256;
+
+    /** The emptied MsgArgs of a thread. */
+    private static final class Pool {
+        long[] msgArgs = new long[16];
+        int count;
+    }
+
+    private final Thread thread;
+
+    private final VariantArena previous;
+
+    private final Pool pool;
+
+    private Variant[] variants = new Variant[16];
+
+    private long[] msgArgs = new long[16];
+
+    private int count;
+
+    private boolean closed;
+
+    private VariantArena() {
+        thread = Thread.currentThread();
+        previous = current.get();
+        pool = pools.get();
+    }
+
+    /**
+     * Open an arena on the calling thread.
+     *
+     * @return the arena, which must be closed by the calling thread
+     */
+    public static VariantArena open() {
+        VariantArena arena = new VariantArena();
+        current.set(arena);
+        return arena;
+    }
+
+    /**
+     * Set the maximum number of emptied native objects each thread keeps for
+     * reuse between arenas.  The default is 256.
+     *
+     * @param max the maximum number of pooled native objects per thread
+     */
+    public static void setMaxPooled(int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("max must not be negative");
+        }
+        maxPooled = max;
+    }
+
+    /**
+     * Release the native objects the calling thread keeps for reuse.  The
+     * pool of a thread is not released when the thread ends, so threads that
+     * use arenas and then terminate should call this before they do.
+     */
+    public static void releasePool() {
+        Pool pool = pools.get();
+        if (pool.count > 0) {
+            destroy(pool.msgArgs, 0, pool.count);
+            pool.count = 0;
+        }
+    }
+
+    /**
+     * Get the number of native objects the calling thread keeps for reuse.
+     *
+     * @return the number of pooled native objects
+     */
+    public static int getPooledCount() {
+        return pools.get().count;
+    }
+
+    /**
+     * Get the number of Variants that belong to this arena.
+     *
+     * @return the number of Variants
+     */
+    public int size() {
+        return count;
+    }
+
+    /** Gets the innermost open arena of the calling thread, or null. */
+    static VariantArena current() {
+        return current.get();
+    }
+
+    /** Makes variant wrap a copy of the variant MsgArg msgArg, allocated from the arena. */
+    void adopt(Variant variant, long msgArg) {
+        long target = 0;
+        if (pool.count > 0) {
+            target = pool.msgArgs[--pool.count];
+        }
+        long handle = copy(target, msgArg);
+        if (count == msgArgs.length) {
+            variants = Arrays.copyOf(variants, count * 2);
+            msgArgs = Arrays.copyOf(msgArgs, count * 2);
+        }
+        variants[count] = variant;
+        msgArgs[count] = handle;
+        ++count;
+        variant.setArenaMsgArg(handle);
+    }
+
+    /**
+     * Close the arena, releasing the native objects of all of its Variants.
+     * Closing an arena more than once has no further effect.
+     *
+     * @throws IllegalStateException if called by a thread other than the one
+     *                               that opened the arena, or while an arena
+     *                               opened after this one is still open
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        if (Thread.currentThread() != thread || current.get() != this) {
+            throw new IllegalStateException("arenas must be closed by their thread, innermost first");
+        }
+        closed = true;
+        current.set(previous);
+
+        for (int i = 0; i < count; ++i) {
+            variants[i].setArenaMsgArg(0);
+            variants[i] = null;
+        }
+        clear(msgArgs, count);
+
+        int keep = Math.min(count, Math.max(0, maxPooled - pool.count));
+        if (pool.count + keep > pool.msgArgs.length) {
+            pool.msgArgs = Arrays.copyOf(pool.msgArgs, Math.max(pool.count + keep, pool.msgArgs.length * 2));
+        }
+        System.arraycopy(msgArgs, 0, pool.msgArgs, pool.count, keep);
+        pool.count += keep;
+        if (keep < count) {
+            destroy(msgArgs, keep, count);
+        }
+        count = 0;
+    }
+
+    /**
+     * Copies the value of the variant MsgArg msgArg into target, allocating
+     * a new MsgArg if target is 0.
+     *
+     * @return the MsgArg holding the copy
+     */
+    private static native long copy(long target, long msgArg);
+
+    /** Releases the contents of the first count MsgArgs, keeping the MsgArgs themselves. */
+    private static native void clear(long[] msgArgs, int count);
+
+    /** Deletes the MsgArgs from index from (inclusive) to index to (exclusive). */
+    private static native void destroy(long[] msgArgs, int from, int to);
+}
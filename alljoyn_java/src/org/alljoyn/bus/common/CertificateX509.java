@@ -28,10 +28,13 @@
 */
 package org.alljoyn.bus.common;
 
+import java.io.Closeable;
 import java.util.Arrays;
+
 import org.alljoyn.bus.BusException;
+import org.alljoyn.bus.NativeHandle;
 
-public class CertificateX509 {
+public class CertificateX509 implements Closeable {
 
     /**
      * The Authority key identifier size in bytes
@@ -76,6 +79,7 @@ public class CertificateX509 {
     public CertificateX509()
     {
         create(null);
+        nativeHandle = NativeHandle.register(this, handle, releaser);
         m_type = CertificateType.UNRESTRICTED_CERTIFICATE;
     }
 
@@ -86,6 +90,7 @@ public class CertificateX509 {
     public CertificateX509(CertificateType type)
     {
         create(type);
+        nativeHandle = NativeHandle.register(this, handle, releaser);
         m_type = type;
     }
 
@@ -102,15 +107,28 @@ public class CertificateX509 {
     /**
      * Release native resources.
      */
-    private synchronized native void destroy();
+    private static native void destroy(long handle);
+
+    /** Releases the native resources once a certificate has been garbage collected. */
+    private static final NativeHandle.Releaser releaser = new NativeHandle.Releaser() {
+        public void release(long handle) {
+            destroy(handle);
+        }
+    };
 
     /**
-     * Let the Java garbage collector release resources.
+     * Release the native resources now rather than when this object is
+     * garbage collected.  It is a programming error to use the object after
+     * it has been closed.
      */
     @Override
-    protected void finalize() throws Throwable {
-        destroy();
-        super.finalize();
+    public void close() {
+        synchronized (this) {
+            handle = 0;
+        }
+        if (nativeHandle != null) {
+            nativeHandle.release();
+        }
     }
 
     /**
@@ -789,4 +807,7 @@ public class CertificateX509 {
 
     /** The native connection handle. */
     private long handle;
+
+    /** Releases the native resources. */
+    private NativeHandle nativeHandle;
 }
@@ -28,10 +28,13 @@
 */
 package org.alljoyn.bus.common;
 
-import org.alljoyn.bus.BusException;
+import java.io.Closeable;
 import java.util.UUID;
 
-public class CryptoECC {
+import org.alljoyn.bus.BusException;
+import org.alljoyn.bus.NativeHandle;
+
+public class CryptoECC implements Closeable {
 
     /**
      * The NIST recommended elliptic curve P-256
@@ -44,22 +47,36 @@ public class CryptoECC {
     public native void create() throws BusException;
 
     /** Release native resources. */
-    private synchronized native void destroy();
+    private static native void destroy(long handle);
+
+    /** Releases the native resources once a CryptoECC has been garbage collected. */
+    private static final NativeHandle.Releaser releaser = new NativeHandle.Releaser() {
+        public void release(long handle) {
+            destroy(handle);
+        }
+    };
 
     /**
      * Default Constructor
      */
     public CryptoECC() throws BusException {
         create();
+        nativeHandle = NativeHandle.register(this, handle, releaser);
     }
 
     /**
-     * Let the Java garbage collector release resources.
+     * Release the native resources now rather than when this object is
+     * garbage collected.  It is a programming error to use the object after
+     * it has been closed.
      */
     @Override
-    protected void finalize() throws Throwable {
-        destroy();
-        super.finalize();
+    public void close() {
+        synchronized (this) {
+            handle = 0;
+        }
+        if (nativeHandle != null) {
+            nativeHandle.release();
+        }
     }
 
     /**
@@ -276,4 +293,7 @@ public class CryptoECC {
 
     /** The native connection handle. */
     private long handle;
+
+    /** Releases the native resources. */
+    private NativeHandle nativeHandle;
 }
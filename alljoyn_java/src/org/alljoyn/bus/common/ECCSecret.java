@@ -28,32 +28,46 @@
 */
 package org.alljoyn.bus.common;
 
+import java.io.Closeable;
+
 import org.alljoyn.bus.BusException;
+import org.alljoyn.bus.NativeHandle;
 
-public class ECCSecret {
+public class ECCSecret implements Closeable {
 
     /** Allocate native resources. */
     private native void create();
 
     /** Release native resources. */
-    private synchronized native void destroy();
+    private static native void destroy(long handle);
+
+    /** Releases the native resources once a secret has been garbage collected. */
+    private static final NativeHandle.Releaser releaser = new NativeHandle.Releaser() {
+        public void release(long handle) {
+            destroy(handle);
+        }
+    };
 
     /**
      * Default Constructor;
      */
     public ECCSecret() {
         create();
+        nativeHandle = NativeHandle.register(this, handle, releaser);
     }
 
     /**
-     * Let the Java garbage collector release resources.
+     * Release the native resources now rather than when this object is
+     * garbage collected.  It is a programming error to use the object after
+     * it has been closed.
      */
     @Override
-    protected void finalize() throws Throwable {
-        try {
-            destroy();
-        } finally {
-            super.finalize();
+    public void close() {
+        synchronized (this) {
+            handle = 0;
+        }
+        if (nativeHandle != null) {
+            nativeHandle.release();
         }
     }
     /**
@@ -69,4 +83,7 @@ public class ECCSecret {
 
     /** The native connection handle. */
     private long handle;
+
+    /** Releases the native resources. */
+    private NativeHandle nativeHandle;
 }
@@ -0,0 +1,109 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus.ifaces;
+
+import org.alljoyn.bus.BusException;
+import org.alljoyn.bus.annotation.BusInterface;
+import org.alljoyn.bus.annotation.BusMethod;
+
+/**
+ * Definition of the BulkTransfer BusInterface.
+ *
+ * Moves named blobs over a message based session in chunks.  Each chunk is
+ * one method call and its reply acknowledges the chunk, so a client can keep
+ * several chunks in flight and resume a transfer at any acknowledged offset.
+ */
+@BusInterface (name = BulkTransfer.INTERFACE_NAME)
+public interface BulkTransfer
+{
+    public static final String INTERFACE_NAME = "org.alljoyn.BulkTransfer";
+    public final static String OBJ_PATH = "/BulkTransfer";
+
+    /** The error returned for a name that is not offered or accepted. */
+    public static final String ERROR_NOT_FOUND = INTERFACE_NAME + ".Error.NotFound";
+
+    /** The error returned for a chunk or range outside the blob. */
+    public static final String ERROR_OUT_OF_RANGE = INTERFACE_NAME + ".Error.OutOfRange";
+
+    /** The error returned for a written chunk that would leave a gap. */
+    public static final String ERROR_OUT_OF_ORDER = INTERFACE_NAME + ".Error.OutOfOrder";
+
+    /** The error returned when the blob cannot be read or written. */
+    public static final String ERROR_IO = INTERFACE_NAME + ".Error.IO";
+
+    /**
+     * Returns the size of a blob.  For a blob being written this is the
+     * number of bytes acknowledged so far, which is where an interrupted
+     * upload resumes.
+     *
+     * @param name the name of the blob
+     * @return the size of the blob in bytes
+     * @throws BusException indicating failure to make GetSize method call
+     */
+    @BusMethod(name="GetSize", signature="s", replySignature="t")
+    long getSize(String name) throws BusException;
+
+    /**
+     * Reads a chunk of a blob.
+     *
+     * @param name the name of the blob
+     * @param offset the offset of the chunk
+     * @param length the maximum length of the chunk
+     * @return the chunk, shorter than length only at the end of the blob
+     * @throws BusException indicating failure to make Read method call
+     */
+    @BusMethod(name="Read", signature="stu", replySignature="ay")
+    byte[] read(String name, long offset, int length) throws BusException;
+
+    /**
+     * Writes a chunk of a blob.  The chunk must start at or before the end
+     * of the bytes acknowledged so far.
+     *
+     * @param name the name of the blob
+     * @param offset the offset of the chunk
+     * @param data the chunk
+     * @return the number of bytes acknowledged after the write
+     * @throws BusException indicating failure to make Write method call
+     */
+    @BusMethod(name="Write", signature="stay", replySignature="t")
+    long write(String name, long offset, byte[] data) throws BusException;
+
+    /**
+     * Returns the SHA-1 digest of a range of a blob.
+     *
+     * @param name the name of the blob
+     * @param offset the offset of the range
+     * @param length the length of the range
+     * @return the 20 byte SHA-1 digest of the range
+     * @throws BusException indicating failure to make GetDigest method call
+     */
+    @BusMethod(name="GetDigest", signature="stt", replySignature="ay")
+    byte[] getDigest(String name, long offset, long length) throws BusException;
+}
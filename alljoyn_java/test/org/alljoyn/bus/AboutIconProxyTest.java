@@ -28,6 +28,8 @@
 */
 package org.alljoyn.bus;
 
+import java.io.File;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -470,6 +472,91 @@ public class AboutIconProxyTest extends TestCase{
         clientBus.release();
     }
 
+    public void testAboutIconCache() throws Exception {
+        byte[] iconContent = new byte[1000];
+        for (int i = 0; i < iconContent.length; ++i) {
+            iconContent[i] = (byte) i;
+        }
+        AboutIcon icon = new AboutIcon("image/png", "http://www.example.com/icon.png", iconContent);
+        AboutIconObj aio = new AboutIconObj(serviceBus, icon);
+
+        BusAttachment clientBus = new BusAttachment("AboutListenerTestClient", RemoteMessage.Receive);
+        assertEquals(Status.OK, clientBus.connect());
+
+        AboutListenerTestAboutListener aListener = new AboutListenerTestAboutListener();
+        aListener.announcedFlag = false;
+        clientBus.registerAboutListener(aListener);
+        assertEquals(Status.OK, clientBus.whoImplements(new String[] {org.alljoyn.bus.ifaces.Icon.INTERFACE_NAME}));
+
+        AboutObj aboutObj = new AboutObj(serviceBus);
+        AboutListenerTestAboutData aboutData = new AboutListenerTestAboutData();
+        assertEquals(Status.OK, aboutObj.announce(PORT_NUMBER, aboutData));
+
+        for (int msec = 0; msec < 10000 && !aListener.announcedFlag; msec += 5) {
+            Thread.sleep(5);
+        }
+        assertTrue(aListener.announcedFlag);
+
+        Mutable.IntegerValue sessionId = new Mutable.IntegerValue();
+        assertEquals(Status.OK, clientBus.joinSession(aListener.remoteBusName, aListener.port, sessionId,
+                                                      new SessionOpts(), new SessionListener()));
+        AboutIconProxy aipo = new AboutIconProxy(clientBus, aListener.remoteBusName, sessionId.value);
+
+        AboutIcon ai = aipo.getAboutIcon();
+        assertEquals("image/png", ai.getMimeType());
+        assertEquals("http://www.example.com/icon.png", ai.getUrl());
+        assertTrue(Arrays.equals(iconContent, ai.getContent()));
+
+        File spillDirectory = new File(System.getProperty("java.io.tmpdir"), "AboutIconProxyTest" + System.nanoTime());
+        AboutIconCache cache = new AboutIconCache(iconContent.length, spillDirectory);
+        byte[] appId = new byte[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15 };
+        byte[] otherAppId = new byte[] { 1, 1, 1, 1 };
+        try {
+            ai = aipo.getAboutIcon(cache, appId);
+            assertTrue(Arrays.equals(iconContent, ai.getContent()));
+            assertEquals("http://www.example.com/icon.png", ai.getUrl());
+            assertEquals(0, cache.getHitCount());
+            assertEquals(1, cache.getMissCount());
+            assertEquals(iconContent.length, cache.getContentBytes());
+
+            ai = aipo.getAboutIcon(cache, appId);
+            assertTrue(Arrays.equals(iconContent, ai.getContent()));
+            assertEquals(1, cache.getHitCount());
+
+            /* the same content for another application is stored once */
+            ai = aipo.getAboutIcon(cache, otherAppId);
+            assertTrue(Arrays.equals(iconContent, ai.getContent()));
+            assertEquals(2, cache.getMissCount());
+            assertEquals(iconContent.length, cache.getContentBytes());
+
+            /* content larger than a smaller cache goes straight to the spill directory */
+            AboutIconCache smallCache = new AboutIconCache(iconContent.length - 1, spillDirectory);
+            ai = aipo.getAboutIcon(smallCache, appId);
+            assertEquals(1, smallCache.getSpillCount());
+            assertEquals(0, smallCache.getContentBytes());
+            ai = aipo.getAboutIcon(smallCache, appId);
+            assertTrue(Arrays.equals(iconContent, ai.getContent()));
+            assertEquals(1, smallCache.getHitCount());
+            assertEquals(1, smallCache.getSpillReadCount());
+            /* and is not put in memory when read back */
+            assertEquals(0, smallCache.getContentBytes());
+            assertEquals(1, smallCache.getSpillCount());
+
+            cache.invalidate(appId);
+            aipo.getAboutIcon(cache, appId);
+            assertEquals(3, cache.getMissCount());
+            smallCache.clear();
+        } finally {
+            cache.clear();
+            spillDirectory.delete();
+        }
+
+        assertEquals(Status.OK, aboutObj.unannounce());
+        assertEquals(Status.OK, clientBus.cancelWhoImplements(new String[] {org.alljoyn.bus.ifaces.Icon.INTERFACE_NAME}));
+        clientBus.disconnect();
+        clientBus.release();
+    }
+
     public void testAboutIconMethodCalls_contentset_large_icon() {
         byte[] badContent = new byte[AboutIcon.MAX_CONTENT_LENGTH+1];
 
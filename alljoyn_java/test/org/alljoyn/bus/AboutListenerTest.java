@@ -28,7 +28,10 @@
 */
 package org.alljoyn.bus;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import junit.framework.TestCase;
@@ -1552,4 +1555,79 @@ public class AboutListenerTest  extends TestCase {
         clientBus.disconnect();
         clientBus.release();
     }
+
+    class AboutListenerTestAnnouncementListener implements AboutAnnouncementListener {
+        public List<AboutAnnouncement> announcements = new ArrayList<AboutAnnouncement>();
+
+        public synchronized void announced(AboutAnnouncement announcement) {
+            announcements.add(announcement);
+        }
+
+        public synchronized int size() {
+            return announcements.size();
+        }
+
+        public synchronized AboutAnnouncement get(int i) {
+            return announcements.get(i);
+        }
+    }
+
+    public void testAboutAnnouncementListener() throws Exception {
+        BusAttachment clientBus = new BusAttachment("AboutListenerTestClient", RemoteMessage.Receive);
+
+        assertEquals(Status.OK, clientBus.connect());
+        AboutListenerTestAnnouncementListener al = new AboutListenerTestAnnouncementListener();
+        clientBus.registerAboutAnnouncementListener(al);
+
+        assertEquals(Status.OK, clientBus.whoImplements(new String[] {"org.alljoyn.About"}));
+
+        AboutObj aboutObj = new AboutObj(serviceBus, true);
+        AboutListenerTestAboutData aboutData = new AboutListenerTestAboutData();
+        assertEquals(Status.OK, aboutObj.announce(PORT_NUMBER, aboutData));
+        assertEquals(Status.OK, aboutObj.announce(PORT_NUMBER, aboutData));
+
+        for (int msec = 0; msec < 10000; msec += 5) {
+            if (al.size() >= 2) {
+                break;
+            }
+            Thread.sleep(5);
+        }
+        assertEquals(2, al.size());
+
+        AboutAnnouncement first = al.get(0);
+        AboutAnnouncement second = al.get(1);
+        assertEquals(serviceBus.getUniqueName(), first.getBusName());
+        assertEquals(PORT_NUMBER, first.getPort());
+        assertTrue(Arrays.equals(new byte[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15 },
+                                 first.getAppId()));
+        assertEquals("A device name", first.getAboutField("DeviceName").getObject(String.class));
+        assertNull(first.getAboutField("NoSuchField"));
+        assertEquals(first.getContentHash(), second.getContentHash());
+        assertTrue(second.sameContentAs(first));
+
+        assertTrue(first.implementsInterface("org.alljoyn.About"));
+        assertFalse(first.implementsInterface("com.example.test.AboutListenerTest.a"));
+        assertEquals("A1B2C3", first.getAboutData().get("ModelNumber").getObject(String.class));
+        assertSame(first.getAboutData(), first.getAboutData());
+
+        /* a changed announcement has a different hash */
+        Intfa intfa = new Intfa();
+        assertEquals(Status.OK, serviceBus.registerBusObject(intfa, "/about/test"));
+        assertEquals(Status.OK, aboutObj.announce(PORT_NUMBER, aboutData));
+        for (int msec = 0; msec < 10000; msec += 5) {
+            if (al.size() >= 3) {
+                break;
+            }
+            Thread.sleep(5);
+        }
+        assertEquals(3, al.size());
+        assertFalse(al.get(2).sameContentAs(first));
+        assertTrue(al.get(2).implementsInterface("com.example.test.AboutListenerTest.a"));
+
+        clientBus.unregisterAboutAnnouncementListener(al);
+        serviceBus.unregisterBusObject(intfa);
+        assertEquals(Status.OK, clientBus.cancelWhoImplements(new String[] {"org.alljoyn.About"}));
+        clientBus.disconnect();
+        clientBus.release();
+    }
 }
@@ -0,0 +1,281 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.alljoyn.bus.BusAttachment.RemoteMessage;
+
+public class AnnouncementCacheTest extends TestCase {
+    static {
+        System.loadLibrary("alljoyn_java");
+    }
+
+    private static final short PORT_NUMBER = 543;
+    private static final byte[] APP_ID = new byte[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15 };
+
+    private BusAttachment serviceBus;
+    private BusAttachment clientBus;
+
+    public AnnouncementCacheTest(String name) {
+        super(name);
+    }
+
+    public void setUp() throws Exception {
+        serviceBus = new BusAttachment("AnnouncementCacheTestService");
+        assertEquals(Status.OK, serviceBus.connect());
+        Mutable.ShortValue sessionPort = new Mutable.ShortValue(PORT_NUMBER);
+        assertEquals(Status.OK, serviceBus.bindSessionPort(sessionPort, new SessionOpts(), new SessionPortListener() {
+            public boolean acceptSessionJoiner(short sessionPort, String joiner, SessionOpts sessionOpts) {
+                return true;
+            }
+        }));
+
+        clientBus = new BusAttachment("AnnouncementCacheTestClient", RemoteMessage.Receive);
+        assertEquals(Status.OK, clientBus.connect());
+    }
+
+    public void tearDown() throws Exception {
+        if (serviceBus != null) {
+            serviceBus.disconnect();
+            serviceBus.release();
+            serviceBus = null;
+        }
+        clientBus.disconnect();
+        clientBus.release();
+        clientBus = null;
+        System.gc();
+    }
+
+    public class AboutData implements AboutDataListener {
+        public String deviceName = "A device name";
+
+        @Override
+        public Map<String, Variant> getAboutData(String language) throws ErrorReplyBusException {
+            Map<String, Variant> arg = getAnnouncedAboutData();
+            arg.put("SupportedLanguages", new Variant(new String[] {"en"}));
+            arg.put("SoftwareVersion", new Variant("1.0"));
+            arg.put("AJSoftwareVersion", new Variant(Version.get()));
+            return arg;
+        }
+
+        @Override
+        public Map<String, Variant> getAnnouncedAboutData() throws ErrorReplyBusException {
+            Map<String, Variant> arg = new HashMap<String, Variant>();
+            arg.put("AppId", new Variant(APP_ID));
+            arg.put("DefaultLanguage", new Variant("en"));
+            arg.put("DeviceName", new Variant(deviceName));
+            arg.put("DeviceId", new Variant("93c06771-c725-48c2-b1ff-6a2a59d445b8"));
+            arg.put("AppName", new Variant("An application name"));
+            arg.put("Manufacturer", new Variant("A mighty manufacturing company"));
+            arg.put("ModelNumber", new Variant("A1B2C3"));
+            return arg;
+        }
+    }
+
+    public class Listener implements AnnouncementCache.Listener {
+        public List<String> events = new ArrayList<String>();
+
+        public synchronized void announcementAdded(AnnouncementCache.Announcement announcement) {
+            events.add("added " + announcement.getBusName());
+        }
+
+        public synchronized void announcementChanged(AnnouncementCache.Announcement previous,
+                AnnouncementCache.Announcement announcement) {
+            assertEquals(previous.getBusName(), announcement.getBusName());
+            events.add("changed " + announcement.getBusName());
+        }
+
+        public synchronized void announcementRemoved(AnnouncementCache.Announcement announcement) {
+            events.add("removed " + announcement.getBusName());
+        }
+
+        public synchronized int size() {
+            return events.size();
+        }
+
+        public synchronized String get(int i) {
+            return events.get(i);
+        }
+    }
+
+    private boolean waitFor(Listener listener, int count) {
+        for (int msec = 0; msec < 10000; msec += 5) {
+            if (listener.size() >= count) {
+                return true;
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                fail("unexpected InterruptedException");
+            }
+        }
+        return false;
+    }
+
+    private static AboutObjectDescription description(String path, String... interfaces) {
+        AboutObjectDescription d = new AboutObjectDescription();
+        d.path = path;
+        d.interfaces = interfaces;
+        return d;
+    }
+
+    private static Map<String, Variant> aboutData(byte[] appId, String deviceName) {
+        Map<String, Variant> arg = new HashMap<String, Variant>();
+        arg.put("AppId", new Variant(appId));
+        arg.put("DeviceName", new Variant(deviceName));
+        arg.put("SupportedLanguages", new Variant(new String[] {"en", "es"}));
+        return arg;
+    }
+
+    public void testAnnounced() throws Exception {
+        AnnouncementCache cache = new AnnouncementCache(clientBus, 0);
+        Listener listener = new Listener();
+        cache.registerListener(listener, true);
+        assertEquals(Status.OK, clientBus.whoImplements(new String[] {"org.alljoyn.About"}));
+
+        AboutObj aboutObj = new AboutObj(serviceBus, true);
+        AboutData aboutData = new AboutData();
+        assertEquals(Status.OK, aboutObj.announce(PORT_NUMBER, aboutData));
+        assertTrue(waitFor(listener, 1));
+
+        String busName = serviceBus.getUniqueName();
+        assertEquals("added " + busName, listener.get(0));
+        AnnouncementCache.Announcement a = cache.get(busName, APP_ID);
+        assertNotNull(a);
+        assertEquals(PORT_NUMBER, a.getPort());
+        assertEquals("A device name", a.getAboutData().get("DeviceName").getObject(String.class));
+        assertTrue(a.implementsInterface("org.alljoyn.About"));
+        assertNotNull(a.getInterfaces("/About"));
+        assertEquals(1, cache.getAll(busName).size());
+        assertEquals(1, cache.getAllAt("/About").size());
+        assertSame(a, cache.getAllImplementing("org.alljoyn.About").get(0));
+
+        aboutData.deviceName = "Another device name";
+        assertEquals(Status.OK, aboutObj.announce(PORT_NUMBER, aboutData));
+        assertTrue(waitFor(listener, 2));
+        assertEquals("changed " + busName, listener.get(1));
+        assertEquals("Another device name",
+                cache.get(busName, APP_ID).getAboutData().get("DeviceName").getObject(String.class));
+
+        serviceBus.disconnect();
+        serviceBus.release();
+        serviceBus = null;
+        assertTrue(waitFor(listener, 3));
+        assertEquals("removed " + busName, listener.get(2));
+        assertNull(cache.get(busName, APP_ID));
+        assertEquals(0, cache.size());
+
+        assertEquals(Status.OK, clientBus.cancelWhoImplements(new String[] {"org.alljoyn.About"}));
+        cache.close();
+    }
+
+    public void testAnnouncerLeaves() throws Exception {
+        AnnouncementCache cache = new AnnouncementCache(clientBus, 0);
+        Listener listener = new Listener();
+        cache.registerListener(listener, false);
+
+        String busName = serviceBus.getUniqueName();
+        cache.announced(busName, 1, PORT_NUMBER,
+                new AboutObjectDescription[] { description("/a", "org.example.A") }, aboutData(APP_ID, "leaving"));
+        cache.announced(":staying.1", 1, (short) 1,
+                new AboutObjectDescription[] { description("/a", "org.example.A") }, aboutData(APP_ID, "staying"));
+        assertEquals(2, cache.size());
+
+        /* only the announcements of the announcer that left are purged */
+        serviceBus.disconnect();
+        serviceBus.release();
+        serviceBus = null;
+        assertTrue(waitFor(listener, 3));
+        assertEquals("removed " + busName, listener.get(2));
+        assertNull(cache.get(busName, APP_ID));
+        assertNotNull(cache.get(":staying.1", APP_ID));
+        assertEquals(1, cache.size());
+
+        cache.close();
+    }
+
+    public void testDuplicatesAndExpiry() throws Exception {
+        AnnouncementCache cache = new AnnouncementCache(clientBus, 200);
+        Listener listener = new Listener();
+        cache.registerListener(listener, false);
+
+        byte[] otherAppId = new byte[] { 1, 1, 1, 1 };
+        AboutObjectDescription[] objects = new AboutObjectDescription[] {
+            description("/a", "org.example.A", "org.example.B"),
+            description("/b", "org.example.B")
+        };
+        cache.announced(":one.1", 1, (short) 1, objects, aboutData(APP_ID, "one"));
+        cache.announced(":one.1", 1, (short) 1, objects, aboutData(otherAppId, "other"));
+        cache.announced(":two.1", 1, (short) 2,
+                new AboutObjectDescription[] { description("/a", "org.example.A") }, aboutData(APP_ID, "two"));
+        assertEquals(3, listener.size());
+        assertEquals(3, cache.size());
+        assertEquals(2, cache.getAll(":one.1").size());
+        assertEquals(3, cache.getAllAt("/a").size());
+        assertEquals(2, cache.getAllAt("/b").size());
+        assertEquals(2, cache.getAllImplementing("org.example.B").size());
+        assertTrue(cache.getAllImplementing("org.example.C").isEmpty());
+
+        /* an unchanged re-announcement is not reported */
+        cache.announced(":one.1", 1, (short) 1, new AboutObjectDescription[] {
+            description("/a", "org.example.A", "org.example.B"),
+            description("/b", "org.example.B")
+        }, aboutData(APP_ID, "one"));
+        assertEquals(3, listener.size());
+        assertEquals(1, cache.getDuplicateCount());
+        assertEquals(4, cache.getReceivedCount());
+
+        /* a changed one is, and the indexes follow it */
+        cache.announced(":one.1", 1, (short) 1,
+                new AboutObjectDescription[] { description("/c", "org.example.C") }, aboutData(APP_ID, "one"));
+        assertEquals(4, listener.size());
+        assertEquals("changed :one.1", listener.get(3));
+        assertEquals(1, cache.getAllAt("/b").size());
+        assertEquals(1, cache.getAllImplementing("org.example.C").size());
+        assertEquals(2, cache.getAllAt("/a").size());
+
+        Thread.sleep(300);
+        assertNull(cache.get(":one.1", APP_ID));
+        assertTrue(cache.getAll().isEmpty());
+        assertEquals(3, cache.size());
+        assertEquals(3, cache.expire());
+        assertEquals(7, listener.size());
+        assertEquals(0, cache.size());
+        assertTrue(cache.getAllImplementing("org.example.A").isEmpty());
+
+        cache.close();
+    }
+}
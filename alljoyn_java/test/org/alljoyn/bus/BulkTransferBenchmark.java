@@ -0,0 +1,149 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.alljoyn.bus.ifaces.BulkTransfer;
+
+/**
+ * Compares downloading and uploading a blob over a loopback connection with
+ * one blocking method call per chunk against the windowed pipelining of
+ * BulkTransferProxy.
+ *
+ * Not part of the default test run; run with -Dtestcase=BulkTransferBenchmark.
+ */
+public class BulkTransferBenchmark extends TestCase {
+    public BulkTransferBenchmark(String name) {
+        super(name);
+    }
+
+    static {
+        System.loadLibrary("alljoyn_java");
+    }
+
+    private static final int SIZE = 16 * 1024 * 1024;
+    private static final int CHUNK_SIZE = BulkTransferProxy.DEFAULT_CHUNK_SIZE;
+    private static final int[] WINDOWS = { 1, 2, 4, 8, 16 };
+
+    private BusAttachment serviceBus;
+    private BusAttachment bus;
+    private BulkTransferObj service;
+    private BulkTransferProxy proxy;
+    private byte[] blob;
+
+    public void setUp() throws Exception {
+        serviceBus = new BusAttachment(getClass().getName() + "Service", BusAttachment.RemoteMessage.Receive);
+        service = new BulkTransferObj();
+        assertEquals(Status.OK, serviceBus.registerBusObject(service, BulkTransfer.OBJ_PATH));
+        assertEquals(Status.OK, serviceBus.connect());
+
+        bus = new BusAttachment(getClass().getName());
+        assertEquals(Status.OK, bus.connect());
+        proxy = new BulkTransferProxy(bus, serviceBus.getUniqueName(), BusAttachment.SESSION_ID_ANY);
+        proxy.setChunkSize(CHUNK_SIZE);
+        proxy.setVerify(false);
+
+        blob = new byte[SIZE];
+        new Random(42).nextBytes(blob);
+        service.offer("blob", ByteBuffer.wrap(blob));
+        service.accept("upload", ByteBuffer.allocate(SIZE));
+    }
+
+    public void tearDown() throws Exception {
+        proxy.release();
+        bus.disconnect();
+        bus.release();
+
+        serviceBus.unregisterBusObject(service);
+        serviceBus.disconnect();
+        serviceBus.release();
+    }
+
+    /**
+     * The hand-written approach: a blocking Read call per chunk, each
+     * waiting for its reply before the next is sent.
+     */
+    private long oneCallPerChunk(BulkTransfer transfer, ByteBuffer dst) throws BusException {
+        long start = System.nanoTime();
+        for (long offset = 0; offset < SIZE; offset += CHUNK_SIZE) {
+            byte[] data = transfer.read("blob", offset, CHUNK_SIZE);
+            dst.position((int) offset);
+            dst.put(data);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static String megabytesPerSecond(long nanos) {
+        return String.format("%.1f MB/s", SIZE * 1000.0 / nanos);
+    }
+
+    public void testDownload() throws Exception {
+        BulkTransfer transfer = proxy.getProxyBusObject().getInterface(BulkTransfer.class);
+        ByteBuffer dst = ByteBuffer.allocate(SIZE);
+        oneCallPerChunk(transfer, dst);
+        System.out.println("BulkTransferBenchmark: one call per chunk download "
+                           + megabytesPerSecond(oneCallPerChunk(transfer, dst)));
+
+        for (int window : WINDOWS) {
+            proxy.setWindow(window);
+            long start = System.nanoTime();
+            assertEquals(SIZE, proxy.download("blob", dst, 0));
+            long nanos = System.nanoTime() - start;
+            System.out.println("BulkTransferBenchmark: window " + window + " download " + megabytesPerSecond(nanos));
+        }
+        assertTrue(Arrays.equals(blob, dst.array()));
+    }
+
+    public void testUpload() throws Exception {
+        BulkTransfer transfer = proxy.getProxyBusObject().getInterface(BulkTransfer.class);
+        long start = System.nanoTime();
+        for (int offset = 0; offset < SIZE; offset += CHUNK_SIZE) {
+            byte[] data = new byte[Math.min(CHUNK_SIZE, SIZE - offset)];
+            System.arraycopy(blob, offset, data, 0, data.length);
+            transfer.write("upload", offset, data);
+        }
+        System.out.println("BulkTransferBenchmark: one call per chunk upload "
+                           + megabytesPerSecond(System.nanoTime() - start));
+
+        ByteBuffer src = ByteBuffer.wrap(blob);
+        for (int window : WINDOWS) {
+            proxy.setWindow(window);
+            start = System.nanoTime();
+            assertEquals(SIZE, proxy.upload(src, "upload", 0));
+            long nanos = System.nanoTime() - start;
+            System.out.println("BulkTransferBenchmark: window " + window + " upload " + megabytesPerSecond(nanos));
+        }
+    }
+}
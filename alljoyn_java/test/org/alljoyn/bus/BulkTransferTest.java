@@ -0,0 +1,207 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.alljoyn.bus.ifaces.BulkTransfer;
+
+public class BulkTransferTest extends TestCase {
+    public BulkTransferTest(String name) {
+        super(name);
+    }
+
+    static {
+        System.loadLibrary("alljoyn_java");
+    }
+
+    private static final int SIZE = 300 * 1024 + 17;
+
+    private BusAttachment serviceBus;
+    private BusAttachment clientBus;
+    private BulkTransferObj service;
+    private BulkTransferProxy proxy;
+    private byte[] blob;
+
+    public void setUp() throws Exception {
+        serviceBus = new BusAttachment(getClass().getName(), BusAttachment.RemoteMessage.Receive);
+        service = new BulkTransferObj();
+        assertEquals(Status.OK, serviceBus.registerBusObject(service, BulkTransfer.OBJ_PATH));
+        assertEquals(Status.OK, serviceBus.connect());
+
+        clientBus = new BusAttachment(getClass().getName(), BusAttachment.RemoteMessage.Receive);
+        assertEquals(Status.OK, clientBus.connect());
+        proxy = new BulkTransferProxy(clientBus, serviceBus.getUniqueName(), BusAttachment.SESSION_ID_ANY);
+        proxy.setChunkSize(16 * 1024);
+        proxy.setWindow(4);
+
+        blob = new byte[SIZE];
+        new Random(42).nextBytes(blob);
+    }
+
+    public void tearDown() throws Exception {
+        proxy.release();
+        clientBus.disconnect();
+        clientBus.release();
+
+        serviceBus.unregisterBusObject(service);
+        serviceBus.disconnect();
+        serviceBus.release();
+    }
+
+    private FileChannel tempFile(byte[] contents) throws Exception {
+        File file = File.createTempFile("alljoyn", "bulk");
+        file.deleteOnExit();
+        FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+        if (contents != null) {
+            channel.write(ByteBuffer.wrap(contents), 0);
+        }
+        return channel;
+    }
+
+    private byte[] contents(FileChannel channel) throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        channel.read(buffer, 0);
+        return buffer.array();
+    }
+
+    public void testDownloadFile() throws Exception {
+        FileChannel src = tempFile(blob);
+        FileChannel dst = tempFile(null);
+        service.offer("blob", src);
+
+        assertEquals(SIZE, proxy.getSize("blob"));
+        assertEquals(SIZE, proxy.download("blob", dst, 0));
+        assertTrue(Arrays.equals(blob, contents(dst)));
+
+        src.close();
+        dst.close();
+    }
+
+    public void testDownloadOverLongerFile() throws Exception {
+        byte[] stale = new byte[SIZE + 4096];
+        Arrays.fill(stale, (byte) 0x5a);
+        FileChannel dst = tempFile(stale);
+        service.offer("blob", ByteBuffer.wrap(blob));
+
+        assertEquals(SIZE, proxy.download("blob", dst, 0));
+        assertEquals(SIZE, dst.size());
+        assertTrue(Arrays.equals(blob, contents(dst)));
+
+        dst.close();
+    }
+
+    public void testDownloadResume() throws Exception {
+        FileChannel dst = tempFile(Arrays.copyOf(blob, 100000));
+        service.offer("blob", ByteBuffer.wrap(blob));
+
+        assertEquals(SIZE, proxy.download("blob", dst, dst.size()));
+        assertTrue(Arrays.equals(blob, contents(dst)));
+
+        dst.close();
+    }
+
+    public void testDownloadDigestMismatch() throws Exception {
+        byte[] corrupt = Arrays.copyOf(blob, 100000);
+        corrupt[0] ^= 1;
+        ByteBuffer dst = ByteBuffer.allocate(SIZE);
+        dst.put(corrupt);
+        service.offer("blob", ByteBuffer.wrap(blob));
+
+        boolean thrown = false;
+        try {
+            proxy.download("blob", dst, corrupt.length);
+        } catch (BusException ex) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+
+        proxy.setVerify(false);
+        assertEquals(SIZE, proxy.download("blob", dst, corrupt.length));
+    }
+
+    public void testUploadBuffer() throws Exception {
+        ByteBuffer dst = ByteBuffer.allocate(SIZE);
+        service.accept("blob", dst);
+
+        assertEquals(0, proxy.getSize("blob"));
+        assertEquals(SIZE, proxy.upload(ByteBuffer.wrap(blob), "blob", 0));
+        assertEquals(SIZE, proxy.getSize("blob"));
+        assertTrue(Arrays.equals(blob, dst.array()));
+    }
+
+    public void testUploadResume() throws Exception {
+        FileChannel dst = tempFile(Arrays.copyOf(blob, 50000));
+        service.accept("blob", dst);
+
+        long offset = proxy.getSize("blob");
+        assertEquals(50000, offset);
+        assertEquals(SIZE, proxy.upload(ByteBuffer.wrap(blob), "blob", offset));
+        assertTrue(Arrays.equals(blob, contents(dst)));
+
+        dst.close();
+    }
+
+    public void testErrors() throws Exception {
+        boolean thrown = false;
+        try {
+            proxy.getSize("missing");
+        } catch (ErrorReplyBusException ex) {
+            assertEquals(BulkTransfer.ERROR_NOT_FOUND, ex.getErrorName());
+            thrown = true;
+        }
+        assertTrue(thrown);
+
+        service.accept("blob", ByteBuffer.allocate(SIZE));
+        thrown = false;
+        try {
+            proxy.upload(ByteBuffer.wrap(blob), "blob", 1000);
+        } catch (ErrorReplyBusException ex) {
+            assertEquals(BulkTransfer.ERROR_OUT_OF_ORDER, ex.getErrorName());
+            thrown = true;
+        }
+        assertTrue(thrown);
+
+        thrown = false;
+        try {
+            proxy.setChunkSize(BulkTransferObj.MAX_CHUNK_SIZE + 1);
+        } catch (IllegalArgumentException ex) {
+            thrown = true;
+        }
+        assertTrue(thrown);
+    }
+}
@@ -506,6 +506,66 @@ public class BusAttachmentTest extends TestCase {
         assertEquals(Status.BUS_OBJ_ALREADY_EXISTS, status);
     }
 
+    public void testRegisterBusObjects() throws Exception {
+        bus = new BusAttachment(getClass().getName());
+        Status status = bus.connect();
+        assertEquals(Status.OK, status);
+
+        Map<String, BusObject> tree = new HashMap<String, BusObject>();
+        for (int i = 0; i < 50; ++i) {
+            tree.put("/bulk/obj" + i, new Service());
+        }
+        tree.put("/bulk", new Service());
+        status = bus.registerBusObjects(tree);
+        assertEquals(Status.OK, status);
+
+        Introspectable introspectable = bus.getProxyBusObject(bus.getUniqueName(), "/bulk",
+            BusAttachment.SESSION_ID_ANY,
+            new Class<?>[] { Introspectable.class }).getInterface(Introspectable.class);
+        assertTrue(introspectable.Introspect().contains("<node name=\"obj7\""));
+
+        // Every object of the tree is registered
+        status = bus.registerBusObject(tree.get("/bulk/obj7"), "/bulk/obj7");
+        assertEquals(Status.BUS_OBJ_ALREADY_EXISTS, status);
+
+        bus.unregisterBusObjects(tree.values());
+
+        // And every object is unregistered again
+        Service service = new Service();
+        status = bus.registerBusObject(service, "/bulk/obj7");
+        assertEquals(Status.OK, status);
+        bus.unregisterBusObject(service);
+    }
+
+    public void testRegisterBusObjectsAllOrNothing() throws Exception {
+        bus = new BusAttachment(getClass().getName());
+        Status status = bus.connect();
+        assertEquals(Status.OK, status);
+
+        Service taken = new Service();
+        status = bus.registerBusObject(taken, "/taken");
+        assertEquals(Status.OK, status);
+
+        // "/other" is registered first, then taken back when "/taken" fails
+        Map<String, BusObject> tree = new HashMap<String, BusObject>();
+        Service other = new Service();
+        tree.put("/other", other);
+        tree.put("/taken", new Service());
+        status = bus.registerBusObjects(tree);
+        assertEquals(Status.BUS_OBJ_ALREADY_EXISTS, status);
+
+        status = bus.registerBusObject(other, "/other");
+        assertEquals(Status.OK, status);
+
+        tree.clear();
+        tree.put("/null", null);
+        status = bus.registerBusObjects(tree);
+        assertEquals(Status.BAD_ARG_1, status);
+
+        bus.unregisterBusObject(other);
+        bus.unregisterBusObject(taken);
+    }
+
     public void signalHandler4(String string) throws BusException {
         ++handledSignals4;
         MessageContext ctx = bus.getMessageContext();
@@ -560,6 +620,41 @@ public class BusAttachmentTest extends TestCase {
         proxy.ping("hello");
     }
 
+    public void testPersistentThreadAttach() throws Exception {
+        BusAttachment.setPersistentThreadAttach(true);
+        try {
+            bus = new BusAttachment(getClass().getName());
+            SimpleService service = new SimpleService();
+            assertEquals(Status.OK, bus.registerBusObject(service, "/simple"));
+
+            assertEquals(Status.OK, bus.connect());
+            DBusProxyObj control = bus.getDBusProxyObj();
+            assertEquals(DBusProxyObj.RequestNameResult.PrimaryOwner,
+                    control.RequestName("org.alljoyn.bus.BusAttachmentTest",
+                            DBusProxyObj.REQUEST_NAME_NO_FLAGS));
+            ProxyBusObject proxyObj = bus.getProxyBusObject("org.alljoyn.bus.BusAttachmentTest",
+                    "/simple",
+                    BusAttachment.SESSION_ID_ANY,
+                    new Class<?>[] { SimpleInterface.class });
+            SimpleInterface proxy = proxyObj.getInterface(SimpleInterface.class);
+
+            /* Let every dispatcher thread attach once. */
+            for (int i = 0; i < 10; ++i) {
+                assertEquals("hello", proxy.ping("hello"));
+            }
+
+            int attachCount = BusAttachment.getThreadAttachCount();
+            int detachCount = BusAttachment.getThreadDetachCount();
+            for (int i = 0; i < 100; ++i) {
+                assertEquals("hello", proxy.ping("hello"));
+            }
+            assertEquals(attachCount, BusAttachment.getThreadAttachCount());
+            assertEquals(detachCount, BusAttachment.getThreadDetachCount());
+        } finally {
+            BusAttachment.setPersistentThreadAttach(false);
+        }
+    }
+
     /* ALLJOYN-26 */
     public void testRegisterUnknownAuthListener() throws Exception {
         bus = new BusAttachment(getClass().getName());
@@ -0,0 +1,158 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+
+package org.alljoyn.bus;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+/**
+ * Measures the cost of the native bus object map: registering many objects,
+ * and looking objects up from several bus attachments at once, which used to
+ * serialize on a single global lock.
+ *
+ * Not part of the default test run; run with -Dtestcase=BusObjectMapBenchmark.
+ */
+public class BusObjectMapBenchmark extends TestCase {
+    public BusObjectMapBenchmark(String name) {
+        super(name);
+    }
+
+    static {
+        System.loadLibrary("alljoyn_java");
+    }
+
+    private static final int OBJECTS = 5000;
+    private static final int LOOKUPS = 200000;
+    private static final int THREADS = 4;
+
+    public class Service implements SimpleInterface, BusObject {
+        public String ping(String inStr) { return inStr; }
+    }
+
+    private BusAttachment[] buses;
+    private Service[][] services;
+
+    @Override
+    public void setUp() throws Exception {
+        buses = new BusAttachment[THREADS];
+        services = new Service[THREADS][OBJECTS];
+        for (int t = 0; t < THREADS; ++t) {
+            buses[t] = new BusAttachment(getClass().getName() + t);
+            for (int i = 0; i < OBJECTS; ++i) {
+                services[t][i] = new Service();
+            }
+        }
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        for (BusAttachment bus : buses) {
+            bus.release();
+        }
+        buses = null;
+        services = null;
+    }
+
+    public void testRegistration() throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < OBJECTS; ++i) {
+            assertEquals(Status.OK, buses[0].registerBusObject(services[0][i], "/obj" + i));
+        }
+        long singleNanos = System.nanoTime() - start;
+        for (Service service : services[0]) {
+            buses[0].unregisterBusObject(service);
+        }
+
+        Map<String, BusObject> tree = new HashMap<String, BusObject>();
+        for (int i = 0; i < OBJECTS; ++i) {
+            tree.put("/obj" + i, services[0][i]);
+        }
+        start = System.nanoTime();
+        assertEquals(Status.OK, buses[0].registerBusObjects(tree));
+        long bulkNanos = System.nanoTime() - start;
+        buses[0].unregisterBusObjects(tree.values());
+
+        System.out.println("BusObjectMapBenchmark: registerBusObject " + (singleNanos / OBJECTS / 1000) + " us/object, "
+                           + "registerBusObjects " + (bulkNanos / OBJECTS / 1000) + " us/object for "
+                           + OBJECTS + " objects");
+    }
+
+    /** Look up every registered object of one bus attachment in turn. */
+    private static void lookup(BusAttachment bus, Service[] services) {
+        for (int i = 0; i < LOOKUPS; ++i) {
+            bus.isBusObjectSecure(services[i % services.length]);
+        }
+    }
+
+    public void testConcurrentLookup() throws Exception {
+        for (int t = 0; t < THREADS; ++t) {
+            for (int i = 0; i < OBJECTS; ++i) {
+                assertEquals(Status.OK, buses[t].registerBusObject(services[t][i], "/obj" + i));
+            }
+        }
+
+        /* Warm up, then measure a single bus attachment on its own. */
+        lookup(buses[0], services[0]);
+        long start = System.nanoTime();
+        lookup(buses[0], services[0]);
+        long singleNanos = System.nanoTime() - start;
+
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; ++t) {
+            final int n = t;
+            threads[t] = new Thread() {
+                public void run() {
+                    lookup(buses[n], services[n]);
+                }
+            };
+        }
+        start = System.nanoTime();
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        long concurrentNanos = System.nanoTime() - start;
+
+        System.out.println("BusObjectMapBenchmark: " + (LOOKUPS * 1000000000L / singleNanos) + " lookups/s with 1 thread, "
+                           + (THREADS * LOOKUPS * 1000000000L / concurrentNanos) + " lookups/s with "
+                           + THREADS + " threads on " + THREADS + " bus attachments");
+
+        for (int t = 0; t < THREADS; ++t) {
+            for (Service service : services[t]) {
+                buses[t].unregisterBusObject(service);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import java.nio.ByteBuffer;
+
+import junit.framework.TestCase;
+
+import org.alljoyn.bus.ifaces.DBusProxyObj;
+
+public class ByteBufferTest extends TestCase {
+    public ByteBufferTest(String name) {
+        super(name);
+    }
+
+    static {
+        System.loadLibrary("alljoyn_java");
+    }
+
+    public class Service implements ByteBufferInterface, BusObject {
+        public boolean readOnly;
+        public boolean direct;
+        public ByteBuffer kept;
+        public ByteBuffer data = ByteBuffer.allocate(0);
+
+        public int checksum(ByteBuffer buffer) {
+            readOnly = buffer.isReadOnly();
+            direct = buffer.isDirect();
+            int sum = 0;
+            while (buffer.hasRemaining()) {
+                sum += buffer.get();
+            }
+            return sum;
+        }
+
+        public ByteBuffer echo(ByteBuffer buffer) {
+            ByteBuffer copy = ByteBuffer.allocateDirect(buffer.remaining());
+            copy.put(buffer);
+            copy.flip();
+            return copy;
+        }
+
+        public void keep(ByteBuffer buffer) {
+            kept = buffer;
+        }
+
+        public ByteBuffer getData() {
+            return data.duplicate();
+        }
+
+        public void setData(ByteBuffer data) {
+            this.data = data;
+        }
+    }
+
+    private BusAttachment bus;
+    private Service service;
+    private ProxyBusObject proxyObj;
+    private ByteBufferInterface proxy;
+
+    @Override
+    public void setUp() throws Exception {
+        bus = new BusAttachment(getClass().getName());
+        service = new Service();
+        assertEquals(Status.OK, bus.registerBusObject(service, "/bytebuffer"));
+        assertEquals(Status.OK, bus.connect());
+        DBusProxyObj control = bus.getDBusProxyObj();
+        assertEquals(DBusProxyObj.RequestNameResult.PrimaryOwner,
+                control.RequestName("org.alljoyn.bus.ByteBufferTest",
+                        DBusProxyObj.REQUEST_NAME_NO_FLAGS));
+        proxyObj = bus.getProxyBusObject("org.alljoyn.bus.ByteBufferTest", "/bytebuffer",
+                BusAttachment.SESSION_ID_ANY, new Class<?>[] { ByteBufferInterface.class });
+        proxy = proxyObj.getInterface(ByteBufferInterface.class);
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        proxyObj.release();
+        bus.unregisterBusObject(service);
+        bus.disconnect();
+        bus.release();
+        bus = null;
+    }
+
+    private static ByteBuffer fill(ByteBuffer buffer) {
+        for (int i = 0; i < buffer.capacity(); ++i) {
+            buffer.put(i, (byte) i);
+        }
+        return buffer;
+    }
+
+    public void testDirectArgument() throws Exception {
+        ByteBuffer buffer = fill(ByteBuffer.allocateDirect(16));
+        assertEquals(120, proxy.checksum(buffer));
+        assertTrue(service.readOnly);
+        assertTrue(service.direct);
+        assertEquals(0, buffer.position());
+    }
+
+    public void testSlicedArgument() throws Exception {
+        ByteBuffer buffer = fill(ByteBuffer.allocateDirect(16));
+        buffer.position(8);
+        assertEquals(92, proxy.checksum(buffer));
+    }
+
+    public void testHeapArgument() throws Exception {
+        assertEquals(120, proxy.checksum(fill(ByteBuffer.allocate(16))));
+    }
+
+    public void testEmptyArgument() throws Exception {
+        assertEquals(0, proxy.checksum(ByteBuffer.allocateDirect(0)));
+    }
+
+    public void testKeptArgumentIsCopied() throws Exception {
+        proxy.keep(fill(ByteBuffer.allocateDirect(16)));
+        assertFalse(service.kept.isDirect());
+        assertTrue(service.kept.isReadOnly());
+        /* Other messages reuse the memory of the released one. */
+        for (int i = 0; i < 8; ++i) {
+            proxy.echo(ByteBuffer.allocateDirect(16));
+        }
+        assertEquals(fill(ByteBuffer.allocate(16)), service.kept);
+    }
+
+    public void testPropertySetterArgumentIsCopied() throws Exception {
+        proxy.setData(fill(ByteBuffer.allocateDirect(16)));
+        assertFalse(service.data.isDirect());
+        for (int i = 0; i < 8; ++i) {
+            proxy.echo(ByteBuffer.allocateDirect(16));
+        }
+        assertEquals(fill(ByteBuffer.allocate(16)), service.data);
+        assertEquals(fill(ByteBuffer.allocate(16)), proxy.getData());
+    }
+
+    public void testReturnValue() throws Exception {
+        ByteBuffer reply = proxy.echo(fill(ByteBuffer.allocateDirect(16)));
+        assertTrue(reply.isReadOnly());
+        assertEquals(fill(ByteBuffer.allocate(16)), reply);
+    }
+}
@@ -290,6 +290,42 @@ public class InterfaceDescriptionTest extends TestCase {
         assertTrue(descs.get(0).isAnnounced());
     }
 
+    public void testMetadataCache() throws Exception {
+        InterfaceDescription.clearMetadataCache();
+        assertEquals(0, InterfaceDescription.getMetadataCacheSize());
+
+        // Every registration of the same interface shares one cache entry
+        Service[] services = new Service[100];
+        for (int i = 0; i < services.length; ++i) {
+            services[i] = new Service();
+            assertEquals(Status.OK, bus.registerBusObject(services[i], "/service" + i));
+        }
+        assertEquals(1, InterfaceDescription.getMetadataCacheSize());
+
+        SimpleInterface proxy = bus.getProxyBusObject("org.alljoyn.bus.InterfaceDescriptionTest",
+            "/service" + (services.length - 1),
+            BusAttachment.SESSION_ID_ANY,
+            new Class<?>[] { SimpleInterface.class }).getInterface(SimpleInterface.class);
+        assertEquals("cached", proxy.ping("cached"));
+
+        for (Service service : services) {
+            bus.unregisterBusObject(service);
+        }
+
+        // The same interface definition is only resolved once
+        DynamicBusObject busObj = new DynamicService();
+        InterfaceDef interfaceDef = busObj.getInterfaces().get(0);
+        for (int i = 0; i < 2; ++i) {
+            InterfaceDescription desc = new InterfaceDescription(busObj);
+            assertEquals(Status.OK, desc.create(bus, interfaceDef));
+            assertTrue(desc.isAnnounced());
+        }
+        assertEquals(2, InterfaceDescription.getMetadataCacheSize());
+
+        InterfaceDescription.clearMetadataCache();
+        assertEquals(0, InterfaceDescription.getMetadataCacheSize());
+    }
+
     public void testGetDescriptionForLanguage_withAutoSet() throws Exception {
         String description;
 
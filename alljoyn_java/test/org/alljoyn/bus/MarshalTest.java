@@ -2385,6 +2385,20 @@ public class MarshalTest extends TestCase {
         assertArrayEquals(aaess, proxy.treeDictionaryArray(aaess));
     }
 
+    public void testLargeContainers() throws Exception {
+
+        InferredTypesInterface proxy = remoteObj.getInterface(InferredTypesInterface.class);
+
+        TreeMap<String, Double> aesd = new TreeMap<String, Double>();
+        String[] as = new String[5000];
+        for (int i = 0; i < as.length; ++i) {
+            as[i] = "sensor" + i;
+            aesd.put(as[i], i + 0.5);
+        }
+        assertEquals(aesd, proxy.dictionarySD(aesd));
+        assertArrayEquals(as, proxy.stringArray(as));
+    }
+
     public void testArraySizes() throws Exception {
         if (!isAndroid) // Android device has less than 32M heap per process JVM
         {
@@ -0,0 +1,130 @@
+/**
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import junit.framework.TestCase;
+
+import org.alljoyn.bus.ifaces.DBusProxyObj;
+
+/**
+ * Measures method call throughput when every method handler looks up its
+ * MessageContext, as the number of dispatcher threads and calling threads
+ * grows.
+ *
+ * Not part of the default test run; run with -Dtestcase=MessageContextBenchmark.
+ */
+public class MessageContextBenchmark extends TestCase {
+    public MessageContextBenchmark(String name) {
+        super(name);
+    }
+
+    static {
+        System.loadLibrary("alljoyn_java");
+    }
+
+    private static final int CALLS = 2000;
+    private static final int[] CONCURRENCY = { 1, 2, 4, 8 };
+
+    public class Service implements SimpleInterface, BusObject {
+        private BusAttachment bus;
+
+        public Service(BusAttachment bus) {
+            this.bus = bus;
+        }
+
+        public String ping(String inStr) throws BusException {
+            MessageContext ctx = bus.getMessageContext();
+            if (!"Ping".equals(ctx.memberName)) {
+                throw new BusException("unexpected member " + ctx.memberName);
+            }
+            return inStr;
+        }
+    }
+
+    private long callsPerSecond(int concurrency) throws Exception {
+        BusAttachment serviceBus = new BusAttachment(getClass().getName() + "Service",
+                                                     BusAttachment.RemoteMessage.Receive, concurrency);
+        Service service = new Service(serviceBus);
+        assertEquals(Status.OK, serviceBus.registerBusObject(service, "/simple"));
+        assertEquals(Status.OK, serviceBus.connect());
+        serviceBus.enableConcurrentCallbacks();
+        String name = "org.alljoyn.bus.MessageContextBenchmark.x" + serviceBus.getGlobalGUIDString();
+        assertEquals(Status.OK, serviceBus.requestName(name, DBusProxyObj.REQUEST_NAME_NO_FLAGS));
+
+        BusAttachment bus = new BusAttachment(getClass().getName());
+        assertEquals(Status.OK, bus.connect());
+        ProxyBusObject proxyObj = bus.getProxyBusObject(name, "/simple", BusAttachment.SESSION_ID_ANY,
+                                                        new Class<?>[] { SimpleInterface.class });
+        final SimpleInterface proxy = proxyObj.getInterface(SimpleInterface.class);
+        proxy.ping("warmup");
+
+        final BusException[] failure = new BusException[1];
+        Thread[] threads = new Thread[concurrency];
+        for (int t = 0; t < concurrency; ++t) {
+            threads[t] = new Thread() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < CALLS; ++i) {
+                            proxy.ping("ping");
+                        }
+                    } catch (BusException ex) {
+                        failure[0] = ex;
+                    }
+                }
+            };
+        }
+        long start = System.nanoTime();
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        long nanos = System.nanoTime() - start;
+        assertNull(failure[0]);
+
+        proxyObj.release();
+        bus.disconnect();
+        bus.release();
+        serviceBus.releaseName(name);
+        serviceBus.unregisterBusObject(service);
+        serviceBus.disconnect();
+        serviceBus.release();
+
+        return concurrency * CALLS * 1000000000L / nanos;
+    }
+
+    public void testCallbackThroughput() throws Exception {
+        for (int concurrency : CONCURRENCY) {
+            System.out.println("MessageContextBenchmark: " + callsPerSecond(concurrency) + " calls/s with "
+                               + concurrency + " dispatcher and calling threads");
+        }
+    }
+}
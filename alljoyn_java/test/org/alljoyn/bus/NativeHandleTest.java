@@ -0,0 +1,100 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+public class NativeHandleTest extends TestCase {
+    public NativeHandleTest(String name) {
+        super(name);
+    }
+
+    static {
+        System.loadLibrary("alljoyn_java");
+    }
+
+    private static class Owner {
+    }
+
+    public void testRelease() throws Exception {
+        final AtomicInteger releases = new AtomicInteger(0);
+        NativeHandle.Releaser releaser = new NativeHandle.Releaser() {
+            public void release(long handle) {
+                assertEquals(42, handle);
+                releases.incrementAndGet();
+            }
+        };
+        assertNull(NativeHandle.register(new Owner(), 0, releaser));
+
+        Owner owner = new Owner();
+        long released = NativeHandle.getReleasedCount();
+        NativeHandle nativeHandle = NativeHandle.register(owner, 42, releaser);
+        assertTrue(NativeHandle.getLiveCount() > 0);
+
+        assertTrue(nativeHandle.release());
+        assertFalse(nativeHandle.release());
+        assertEquals(1, releases.get());
+        assertEquals(released + 1, NativeHandle.getReleasedCount());
+    }
+
+    public void testReclaim() throws Exception {
+        final CountDownLatch reclaimed = new CountDownLatch(1);
+        long reclaimedCount = NativeHandle.getReclaimedCount();
+        NativeHandle.register(new Owner(), 42, new NativeHandle.Releaser() {
+            public void release(long handle) {
+                reclaimed.countDown();
+            }
+        });
+
+        for (int i = 0; i < 50 && reclaimed.getCount() > 0; ++i) {
+            System.gc();
+            reclaimed.await(100, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(0, reclaimed.getCount());
+        assertTrue(NativeHandle.getReclaimedCount() > reclaimedCount);
+        assertTrue(NativeHandle.getReclaimedCounts().get(Owner.class) > 0);
+    }
+
+    public void testClose() throws Exception {
+        BusAttachment bus = new BusAttachment(getClass().getName());
+        ProxyBusObject proxyObj = bus.getProxyBusObject("org.alljoyn.bus.NativeHandleTest", "/test",
+                                                        BusAttachment.SESSION_ID_ANY,
+                                                        new Class<?>[] { SimpleInterface.class });
+        long released = NativeHandle.getReleasedCount();
+        proxyObj.close();
+        proxyObj.close();
+        assertEquals(released + 1, NativeHandle.getReleasedCount());
+        bus.release();
+    }
+}
@@ -1269,6 +1269,51 @@ public class ObserverTest extends TestCase {
         assertNull(obs.getFirst());
     }
 
+    public void testIndexedQueries() {
+        Participant consumer = new Participant("one");
+        Participant provider = new Participant("two");
+
+        final Observer obs = newObserver(consumer, InterfaceA.class);
+        final ObserverListener listener = new ObserverListener(consumer);
+        obs.registerListener(listener);
+
+        assertEquals(0, obs.size());
+        assertTrue(obs.getAll().isEmpty());
+        assertTrue(obs.getAll(null).isEmpty());
+        assertTrue(obs.getAllImplementing((String) null).isEmpty());
+
+        provider.createA(A);
+        provider.createAB(AB);
+        waitForEvent(listener, provider, A);
+        waitForEvent(listener, provider, AB);
+
+        String busname = provider.bus.getUniqueName();
+        assertEquals(2, obs.size());
+        List<ProxyBusObject> all = obs.getAll();
+        assertEquals(checkObjects(2, obs), all);
+        assertEquals(all, obs.getAll(busname));
+        assertTrue(obs.getAll(consumer.bus.getUniqueName()).isEmpty());
+        assertEquals(all, obs.getAllImplementing(InterfaceA.class));
+        assertEquals(all, obs.getAllImplementing(INTERFACE_A_NAME));
+
+        List<ProxyBusObject> implementingB = obs.getAllImplementing(InterfaceB.class);
+        assertEquals(1, implementingB.size());
+        assertSame(obs.get(busname, makePath(AB)), implementingB.get(0));
+
+        /* the snapshots are not affected by later discovery events */
+        waitForEvent(listener, provider, AB, false);
+        assertEquals(1, implementingB.size());
+        assertEquals(1, obs.size());
+        assertTrue(obs.getAllImplementing(INTERFACE_B_NAME).isEmpty());
+        assertEquals(1, obs.getAll(busname).size());
+        assertSame(obs.get(busname, makePath(A)), obs.getAllImplementing(InterfaceA.class).get(0));
+
+        waitForEvent(listener, provider, A, false);
+        assertEquals(0, obs.size());
+        assertTrue(obs.getAll(busname).isEmpty());
+        assertTrue(obs.getAllImplementing(InterfaceA.class).isEmpty());
+    }
+
     private void unregisterObject(Participant provider, ProxyBusObject obj,
             ObserverListener listener) {
         waitForEvent(listener, provider,
@@ -29,6 +29,7 @@
 
 package org.alljoyn.bus;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -309,6 +310,32 @@ public class PropertiesChangedTest
         assertEquals("Prop2", invalidatedPropName);
     }
 
+    public void testEmitDynamicPropertiesChangedLocalContext() throws Exception {
+        List<InterfaceDef> interfaceDefs = buildInterfaceDef(NAME_IFACE);
+
+        // The property values are read by calling the get property handler directly
+        final List<String> contexts = new ArrayList<String>();
+        service = new PropertiesTestDynamicService(bus, NAME_PATH, interfaceDefs) {
+            @Override
+            public Object getPropertyReceived() throws BusException {
+                MessageContext ctx = getBus().getMessageContext();
+                contexts.add(ctx.objectPath + " " + ctx.interfaceName + "." + ctx.memberName + " " + ctx.sender);
+                return super.getPropertyReceived();
+            }
+        };
+        Status s = bus.registerBusObject(service, NAME_PATH);
+        assertEquals(Status.OK, s);
+
+        ((PropertiesTestDynamicService)service).setProperty(NAME_IFACE, "Prop1", "Hello");
+
+        PropertyChangedEmitter pce = new PropertyChangedEmitter(service, GlobalBroadcast.On);
+        pce.PropertiesChanged(interfaceDefs.get(0), new HashSet<String>(Arrays.asList("Prop1", "Prop2")));
+
+        assertEquals(1, contexts.size());
+        assertEquals(NAME_PATH + " " + NAME_IFACE + ".Prop1 " + bus.getUniqueName(), contexts.get(0));
+        assertNull(bus.getMessageContext());
+    }
+
     private void waitFor(Semaphore sem)
         throws InterruptedException
     {
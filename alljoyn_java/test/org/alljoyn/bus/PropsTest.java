@@ -263,6 +263,76 @@ public class PropsTest extends TestCase {
         assertEquals(6, (int)map.get("IntProp").getObject(Integer.class));
     }
 
+    public void testGetPropertyPrimitive() throws Exception {
+        ProxyBusObject remoteObj = bus.getProxyBusObject(bus.getUniqueName(),
+                                                         "/testProperties",  BusAttachment.SESSION_ID_ANY,
+                                                         new Class<?>[] { PropsInterface.class });
+        Variant intProp = remoteObj.getProperty(PropsInterface.class, "IntProp");
+        assertEquals(6, intProp.getInt());
+        assertEquals(6, intProp.getInt());
+        boolean thrown = false;
+        try {
+            intProp.getLong();
+        } catch (ClassCastException ex) {
+            thrown = true;
+        } finally {
+            assertTrue(thrown);
+        }
+
+        remoteObj.setProperty(PropsInterface.class, "IntProp", new Variant(7));
+        assertEquals(7, remoteObj.getProperty(PropsInterface.class, "IntProp").getInt());
+    }
+
+    public void testGetAllPropertiesInArena() throws Exception {
+        ProxyBusObject remoteObj = bus.getProxyBusObject(bus.getUniqueName(),
+                                                         "/testProperties",  BusAttachment.SESSION_ID_ANY,
+                                                         new Class<?>[] { PropsInterface.class });
+        VariantArena.releasePool();
+        Map<String, Variant> map;
+        VariantArena arena = VariantArena.open();
+        try {
+            map = remoteObj.getAllProperties(PropsInterface.class);
+            assertEquals(2, arena.size());
+            assertEquals("Hello", map.get("StringProp").getObject(String.class));
+        } finally {
+            arena.close();
+        }
+        assertEquals(2, VariantArena.getPooledCount());
+
+        /* A value retrieved inside the arena remains available, others do not */
+        assertEquals("Hello", map.get("StringProp").getObject(String.class));
+        assertNull(map.get("IntProp").getSignature());
+
+        /* The next arena reuses the pooled native objects */
+        arena = VariantArena.open();
+        try {
+            map = remoteObj.getAllProperties(PropsInterface.class);
+            assertEquals(0, VariantArena.getPooledCount());
+            assertEquals(6, (int)map.get("IntProp").getObject(Integer.class));
+        } finally {
+            arena.close();
+        }
+        assertEquals(2, VariantArena.getPooledCount());
+        VariantArena.releasePool();
+        assertEquals(0, VariantArena.getPooledCount());
+    }
+
+    public void testArenaNesting() throws Exception {
+        VariantArena outer = VariantArena.open();
+        VariantArena inner = VariantArena.open();
+        boolean thrown = false;
+        try {
+            outer.close();
+        } catch (IllegalStateException ex) {
+            thrown = true;
+        } finally {
+            assertTrue(thrown);
+        }
+        inner.close();
+        inner.close();
+        outer.close();
+    }
+
     /* ALLJOYN-2043 */
     public void testGetAllThenMethodCall() throws Exception {
         /* Get a remote object */
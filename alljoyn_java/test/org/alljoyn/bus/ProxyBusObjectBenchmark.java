@@ -0,0 +1,216 @@
+/**
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.alljoyn.bus.ifaces.DBusProxyObj;
+
+/**
+ * Compares the cost of dispatching proxy calls through the precompiled
+ * ProxyBusObject dispatch table against the previous per-call lookup.
+ *
+ * Not part of the default test run; run with -Dtestcase=ProxyBusObjectBenchmark.
+ */
+public class ProxyBusObjectBenchmark extends TestCase {
+    public ProxyBusObjectBenchmark(String name) {
+        super(name);
+    }
+
+    static {
+        System.loadLibrary("alljoyn_java");
+    }
+
+    private static final int LOOKUPS = 2000000;
+    private static final int CALLS = 5000;
+    private static final int THREADS = 4;
+
+    /**
+     * The lookup done by ProxyBusObject.Handler before the dispatch table: a
+     * name keyed HashMap with a Method.equals fallback for overloads, followed
+     * by the chain of primitive return type checks.
+     */
+    private static class LegacyLookup {
+        private Map<String, List<ProxyBusObject.Invocation>> cache =
+            new HashMap<String, List<ProxyBusObject.Invocation>>();
+
+        public ProxyBusObject.Invocation get(Method method) throws BusException {
+            List<ProxyBusObject.Invocation> list = cache.get(method.getName());
+            if (list == null) {
+                list = new ArrayList<ProxyBusObject.Invocation>();
+                for (Method m : method.getDeclaringClass().getMethods()) {
+                    if (method.getName().equals(m.getName())) {
+                        list.add(new ProxyBusObject.Invocation(m));
+                    }
+                }
+                cache.put(method.getName(), list);
+            }
+            if (list.size() == 1) {
+                return list.get(0);
+            }
+            for (ProxyBusObject.Invocation i : list) {
+                if (method.equals(i.method)) {
+                    return i;
+                }
+            }
+            return null;
+        }
+
+        public boolean check(ProxyBusObject.Invocation invocation, Object value) {
+            Class<?> returnType = invocation.returnType;
+            if (value == null) {
+                return returnType.isPrimitive() && !returnType.isAssignableFrom(Void.TYPE);
+            } else if (returnType.isPrimitive()) {
+                return (returnType.isAssignableFrom(Byte.TYPE) && !(value instanceof Byte))
+                    || (returnType.isAssignableFrom(Short.TYPE) && !(value instanceof Short))
+                    || (returnType.isAssignableFrom(Integer.TYPE) &&  !(value instanceof Integer))
+                    || (returnType.isAssignableFrom(Long.TYPE) && !(value instanceof Long))
+                    || (returnType.isAssignableFrom(Double.TYPE) && !(value instanceof Double))
+                    || (returnType.isAssignableFrom(Boolean.TYPE) && !(value instanceof Boolean));
+            }
+            return !returnType.isAssignableFrom(value.getClass());
+        }
+    }
+
+    /** A return value of the right type for the method, so the checks take the non-throwing path. */
+    private static Object sampleValue(Class<?> type) {
+        if (type == Byte.TYPE) {
+            return (byte) 1;
+        } else if (type == Short.TYPE) {
+            return (short) 1;
+        } else if (type == Integer.TYPE) {
+            return 1;
+        } else if (type == Long.TYPE) {
+            return 1L;
+        } else if (type == Double.TYPE) {
+            return 1.0;
+        } else if (type == Boolean.TYPE) {
+            return true;
+        }
+        return null;
+    }
+
+    public void testDispatchLookup() throws Exception {
+        Method[] methods = MarshalStressInterface.class.getMethods();
+        Object[] values = new Object[methods.length];
+        for (int i = 0; i < methods.length; ++i) {
+            values[i] = sampleValue(methods[i].getReturnType());
+        }
+
+        LegacyLookup legacy = new LegacyLookup();
+        ProxyBusObject.DispatchTable table =
+            ProxyBusObject.DispatchTable.forInterfaces(new Class<?>[] { MarshalStressInterface.class });
+
+        /* Warm up both paths. */
+        for (int i = 0; i < methods.length; ++i) {
+            legacy.check(legacy.get(methods[i]), values[i]);
+            table.get(methods[i]).checkReturnValue(values[i]);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; ++i) {
+            int j = i % methods.length;
+            legacy.check(legacy.get(methods[j]), values[j]);
+        }
+        long legacyNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; ++i) {
+            int j = i % methods.length;
+            table.get(methods[j]).checkReturnValue(values[j]);
+        }
+        long tableNanos = System.nanoTime() - start;
+
+        System.out.println("ProxyBusObjectBenchmark: name keyed lookup " + (legacyNanos / LOOKUPS) + " ns/call, "
+                           + "dispatch table " + (tableNanos / LOOKUPS) + " ns/call");
+    }
+
+    public class Service implements SimpleInterface, BusObject {
+        public String ping(String inStr) { return inStr; }
+    }
+
+    public void testProxyCallThroughput() throws Exception {
+        BusAttachment serviceBus = new BusAttachment(getClass().getName() + "Service");
+        Service service = new Service();
+        assertEquals(Status.OK, serviceBus.registerBusObject(service, "/simple"));
+        assertEquals(Status.OK, serviceBus.connect());
+        String name = "org.alljoyn.bus.ProxyBusObjectBenchmark.x" + serviceBus.getGlobalGUIDString();
+        assertEquals(Status.OK, serviceBus.requestName(name, DBusProxyObj.REQUEST_NAME_NO_FLAGS));
+
+        BusAttachment bus = new BusAttachment(getClass().getName());
+        assertEquals(Status.OK, bus.connect());
+        ProxyBusObject proxyObj = bus.getProxyBusObject(name, "/simple", BusAttachment.SESSION_ID_ANY,
+                                                        new Class<?>[] { SimpleInterface.class });
+        final SimpleInterface proxy = proxyObj.getInterface(SimpleInterface.class);
+        proxy.ping("warmup");
+
+        final BusException[] failure = new BusException[1];
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; ++t) {
+            threads[t] = new Thread() {
+                public void run() {
+                    try {
+                        for (int i = 0; i < CALLS; ++i) {
+                            proxy.ping("ping");
+                        }
+                    } catch (BusException ex) {
+                        failure[0] = ex;
+                    }
+                }
+            };
+        }
+        long start = System.nanoTime();
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        long nanos = System.nanoTime() - start;
+        assertNull(failure[0]);
+
+        System.out.println("ProxyBusObjectBenchmark: " + (THREADS * CALLS * 1000000000L / nanos) + " calls/s with "
+                           + THREADS + " threads");
+
+        proxyObj.release();
+        bus.disconnect();
+        bus.release();
+        serviceBus.releaseName(name);
+        serviceBus.unregisterBusObject(service);
+        serviceBus.disconnect();
+        serviceBus.release();
+    }
+}
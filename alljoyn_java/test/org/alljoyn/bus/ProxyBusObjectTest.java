@@ -30,7 +30,11 @@
 package org.alljoyn.bus;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import junit.framework.TestCase;
@@ -152,6 +156,110 @@ public class ProxyBusObjectTest extends TestCase {
         otherBus.cancelAdvertiseName(name, SessionOpts.TRANSPORT_ANY);
     }
 
+    public void testAsyncMethodCall() throws Exception {
+        proxyObj = bus.getProxyBusObject(name, "/simple", BusAttachment.SESSION_ID_ANY, new Class<?>[] { SimpleInterface.class });
+        SimpleInterfaceAsync proxy = proxyObj.getAsyncInterface(SimpleInterface.class, SimpleInterfaceAsync.class);
+
+        final CountDownLatch completed = new CountDownLatch(100);
+        ArrayList<MethodCallFuture<String>> futures = new ArrayList<MethodCallFuture<String>>();
+        for (int i = 0; i < 100; ++i) {
+            MethodCallFuture<String> future = proxy.ping("ping" + i);
+            future.addListener(new Runnable() {
+                public void run() {
+                    completed.countDown();
+                }
+            });
+            futures.add(future);
+        }
+        for (int i = 0; i < futures.size(); ++i) {
+            assertEquals("ping" + i, futures.get(i).get(10, TimeUnit.SECONDS));
+            assertTrue(futures.get(i).isDone());
+        }
+        assertTrue(completed.await(10, TimeUnit.SECONDS));
+
+        proxyObj.release();
+    }
+
+    public void testAsyncReplyTimeout() throws Exception {
+        DelayReply service = new DelayReply();
+        assertEquals(Status.OK, otherBus.registerBusObject(service, "/delayreply"));
+
+        proxyObj = bus.getProxyBusObject(name, "/delayreply", BusAttachment.SESSION_ID_ANY, new Class<?>[] { SimpleInterface.class });
+        proxyObj.setReplyTimeout(10);
+        SimpleInterfaceAsync proxy = proxyObj.getAsyncInterface(SimpleInterface.class, SimpleInterfaceAsync.class);
+
+        MethodCallFuture<String> future = proxy.ping("testAsyncReplyTimeout");
+        boolean thrown = false;
+        try {
+            future.get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof ErrorReplyBusException);
+            thrown = true;
+        } finally {
+            assertTrue(thrown);
+        }
+        assertTrue(future.isDone());
+        assertFalse(future.isCancelled());
+
+        otherBus.unregisterBusObject(service);
+    }
+
+    public void testReleaseBusCompletesPendingAsyncCall() throws Exception {
+        final CountDownLatch unblock = new CountDownLatch(1);
+        BusObject service = new Service() {
+            @Override
+            public String ping(String str) {
+                try {
+                    unblock.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return str;
+            }
+        };
+        assertEquals(Status.OK, otherBus.registerBusObject(service, "/blocked"));
+
+        BusAttachment client = new BusAttachment(getClass().getName(), BusAttachment.RemoteMessage.Receive);
+        assertEquals(Status.OK, client.connect());
+        ProxyBusObject blocked = client.getProxyBusObject(name, "/blocked", BusAttachment.SESSION_ID_ANY,
+                                                          new Class<?>[] { SimpleInterface.class });
+        SimpleInterfaceAsync proxy = blocked.getAsyncInterface(SimpleInterface.class, SimpleInterfaceAsync.class);
+        MethodCallFuture<String> future = proxy.ping("testReleaseBusCompletesPendingAsyncCall");
+        assertFalse(future.isDone());
+
+        client.release();
+        assertTrue(future.isDone());
+        boolean thrown = false;
+        try {
+            future.get();
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof BusException);
+            thrown = true;
+        } finally {
+            assertTrue(thrown);
+        }
+
+        unblock.countDown();
+        otherBus.unregisterBusObject(service);
+    }
+
+    public interface MismatchedAsync {
+        public MethodCallFuture<String> ping(int in) throws BusException;
+    }
+
+    public void testAsyncInterfaceMismatch() throws Exception {
+        proxyObj = bus.getProxyBusObject(name, "/simple", BusAttachment.SESSION_ID_ANY, new Class<?>[] { SimpleInterface.class });
+        boolean thrown = false;
+        try {
+            proxyObj.getAsyncInterface(SimpleInterface.class, MismatchedAsync.class);
+        } catch (BusException ex) {
+            thrown = true;
+        } finally {
+            assertTrue(thrown);
+        }
+        proxyObj.release();
+    }
+
     public void testMultipleProxyBusObjects() throws Exception {
         // Connect two proxy objects
         proxyObj = bus.getProxyBusObject(name, "/simple", BusAttachment.SESSION_ID_ANY, new Class<?>[] { SimpleInterface.class });
@@ -260,6 +368,18 @@ public class ProxyBusObjectTest extends TestCase {
         proxyObj.release();
     }
 
+    public void testSharedDispatchTable() throws Exception {
+        ProxyBusObject.DispatchTable table =
+            ProxyBusObject.DispatchTable.forInterfaces(new Class<?>[] { SimpleInterface.class });
+        assertSame(table, ProxyBusObject.DispatchTable.forInterfaces(new Class<?>[] { SimpleInterface.class }));
+
+        /* The methods of java.lang.Object are resolved with the bus methods */
+        assertEquals(ProxyBusObject.Invocation.TO_STRING,
+                     table.get(Object.class.getMethod("toString")).objectMethod);
+        assertEquals(ProxyBusObject.Invocation.NONE,
+                     table.get(SimpleInterface.class.getMethod("ping", String.class)).objectMethod);
+    }
+
     public void testDynamicMethodCall() throws Exception {
         assertEquals(Status.OK, otherBus.advertiseName(name, SessionOpts.TRANSPORT_ANY));
 
@@ -436,4 +556,248 @@ public class ProxyBusObjectTest extends TestCase {
         proxyObj.release();
     }
 
+    class CountingPropsObject implements PropsInterface, BusObject {
+        private String stringProp = "Hello";
+        private int intProp = 6;
+        final AtomicInteger getCount = new AtomicInteger(0);
+        public String ping(String str) { return str; }
+        public String getStringProp() { getCount.incrementAndGet(); return stringProp; }
+        public void setStringProp(String value) { stringProp = value; }
+        public int getIntProp() { getCount.incrementAndGet(); return intProp; }
+        public void setIntProp(int value) { intProp = value; }
+    }
+
+    public void testPropertyCacheApi() throws Exception {
+        CountingPropsObject ps = new CountingPropsObject();
+        assertEquals(Status.OK, otherBus.registerBusObject(ps, "/cachedProps"));
+        proxyObj = bus.getProxyBusObject(name, "/cachedProps", BusAttachment.SESSION_ID_ANY,
+                new Class<?>[] { PropsInterface.class });
+        PropsInterface props = proxyObj.getInterface(PropsInterface.class);
+
+        PropertyCache cache = new PropertyCache(10);
+        assertEquals(Status.OK, proxyObj.enablePropertyCache(cache, PropsInterface.class, 200));
+
+        /* A miss reads the property from the remote object, a hit does not */
+        assertEquals(6, props.getIntProp());
+        assertEquals(6, props.getIntProp());
+        assertEquals(6, proxyObj.getProperty(PropsInterface.class, "IntProp").getObject(Integer.class).intValue());
+        assertEquals(1, ps.getCount.get());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        /* Each reader gets its own Variant, so closing one leaves the cached value intact */
+        proxyObj.getProperty(PropsInterface.class, "IntProp").close();
+        assertEquals(6, proxyObj.getProperty(PropsInterface.class, "IntProp").getObject(Integer.class).intValue());
+        assertEquals(1, ps.getCount.get());
+
+        /* Setting a property invalidates its cached value */
+        props.setIntProp(7);
+        assertEquals(7, props.getIntProp());
+        assertEquals(2, ps.getCount.get());
+        assertEquals(1, cache.getInvalidationCount());
+
+        /* Properties that do not emit changes go stale */
+        assertEquals("Hello", props.getStringProp());
+        assertEquals("Hello", props.getStringProp());
+        assertEquals(3, ps.getCount.get());
+        for (int i = 0; i < 100 && ps.getCount.get() == 3; ++i) {
+            Thread.sleep(10);
+            assertEquals("Hello", props.getStringProp());
+        }
+        assertEquals(4, ps.getCount.get());
+        assertEquals(1, cache.getExpirationCount());
+
+        /* Disabling the cache removes the cached properties */
+        proxyObj.disablePropertyCache(InterfaceDescription.getName(PropsInterface.class));
+        assertEquals(0, cache.size());
+        assertEquals(7, props.getIntProp());
+        assertEquals(5, ps.getCount.get());
+
+        proxyObj.release();
+        otherBus.unregisterBusObject(ps);
+    }
+
+    public void testPropertyCacheWarmUpAndEviction() throws Exception {
+        CountingPropsObject ps = new CountingPropsObject();
+        assertEquals(Status.OK, otherBus.registerBusObject(ps, "/cachedProps"));
+        String ifaceName = InterfaceDescription.getName(PropsInterface.class);
+
+        /* One cache shared by two proxies */
+        PropertyCache cache = new PropertyCache(2);
+        ProxyBusObject proxyObj1 = bus.getProxyBusObject(name, "/cachedProps", BusAttachment.SESSION_ID_ANY,
+                new Class<?>[] { PropsInterface.class });
+        ProxyBusObject proxyObj2 = bus.getProxyBusObject(name, "/cachedProps", BusAttachment.SESSION_ID_ANY,
+                new Class<?>[] { PropsInterface.class });
+        assertEquals(Status.OK, proxyObj1.enablePropertyCache(cache, ifaceName, 0));
+        assertEquals(Status.OK, proxyObj2.enablePropertyCache(cache, ifaceName, 0));
+
+        Map<String, Variant> all = proxyObj1.warmPropertyCache(ifaceName);
+        assertEquals(2, all.size());
+        assertEquals(2, cache.size());
+        assertEquals(2, ps.getCount.get());
+        assertEquals("Hello", proxyObj1.getInterface(PropsInterface.class).getStringProp());
+        assertEquals(6, proxyObj1.getInterface(PropsInterface.class).getIntProp());
+        assertEquals(2, ps.getCount.get());
+
+        /* Filling the cache from the second proxy evicts the entries of the first */
+        proxyObj2.warmPropertyCache(ifaceName);
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+
+        boolean thrown = false;
+        try {
+            proxyObj1.warmPropertyCache("org.alljoyn.bus.NotCached");
+        } catch (BusException ex) {
+            thrown = true;
+        } finally {
+            assertTrue(thrown);
+        }
+
+        proxyObj1.release();
+        proxyObj2.release();
+        assertEquals(0, cache.size());
+        otherBus.unregisterBusObject(ps);
+    }
+
+    public void testPropertyCacheStampPerProperty() throws Exception {
+        proxyObj = bus.getProxyBusObject(name, "/cachedProps", BusAttachment.SESSION_ID_ANY,
+                new Class<?>[] { PropsInterface.class });
+        String ifaceName = InterfaceDescription.getName(PropsInterface.class);
+        PropertyCache cache = new PropertyCache(2);
+
+        /* A change of another property does not keep a read from being cached */
+        long stamp = cache.stamp();
+        cache.invalidate(proxyObj, ifaceName, "StringProp");
+        cache.put(proxyObj, ifaceName, "IntProp", new Variant(6), PropertyCache.NEVER, stamp);
+        assertNotNull(cache.get(proxyObj, ifaceName, "IntProp"));
+
+        /* A change of the property itself does */
+        stamp = cache.stamp();
+        cache.invalidate(proxyObj, ifaceName, "IntProp");
+        cache.put(proxyObj, ifaceName, "IntProp", new Variant(6), PropertyCache.NEVER, stamp);
+        assertNull(cache.get(proxyObj, ifaceName, "IntProp"));
+
+        /* Even once the record of the change has been dropped */
+        stamp = cache.stamp();
+        cache.invalidate(proxyObj, ifaceName, "IntProp");
+        cache.invalidate(proxyObj, ifaceName, "A");
+        cache.invalidate(proxyObj, ifaceName, "B");
+        cache.put(proxyObj, ifaceName, "IntProp", new Variant(6), PropertyCache.NEVER, stamp);
+        assertNull(cache.get(proxyObj, ifaceName, "IntProp"));
+
+        proxyObj.release();
+    }
+
+    public void testPropertyCacheOutlivesArena() throws Exception {
+        CountingPropsObject ps = new CountingPropsObject();
+        assertEquals(Status.OK, otherBus.registerBusObject(ps, "/cachedProps"));
+        String ifaceName = InterfaceDescription.getName(PropsInterface.class);
+        proxyObj = bus.getProxyBusObject(name, "/cachedProps", BusAttachment.SESSION_ID_ANY,
+                new Class<?>[] { PropsInterface.class });
+        PropertyCache cache = new PropertyCache(10);
+        assertEquals(Status.OK, proxyObj.enablePropertyCache(cache, ifaceName, 0));
+
+        /* Values read inside an arena are cached, and stay readable once it is closed */
+        VariantArena arena = VariantArena.open();
+        try {
+            assertEquals(2, proxyObj.getAllProperties(ifaceName).size());
+            assertEquals("Hello", proxyObj.getProperty(PropsInterface.class, "StringProp").getObject(String.class));
+        } finally {
+            arena.close();
+        }
+        assertEquals(2, ps.getCount.get());
+        assertEquals(6, proxyObj.getProperty(PropsInterface.class, "IntProp").getObject(Integer.class).intValue());
+        assertEquals("Hello", proxyObj.getInterface(PropsInterface.class).getStringProp());
+        assertEquals(2, ps.getCount.get());
+
+        proxyObj.release();
+        otherBus.unregisterBusObject(ps);
+    }
+
+    public void testGetAllPropertiesMany() throws Exception {
+        final int count = 8;
+        CountingPropsObject[] objs = new CountingPropsObject[count];
+        List<ProxyBusObject> proxies = new ArrayList<ProxyBusObject>();
+        for (int i = 0; i < count; ++i) {
+            objs[i] = new CountingPropsObject();
+            objs[i].setIntProp(i);
+            assertEquals(Status.OK, otherBus.registerBusObject(objs[i], "/props" + i));
+            proxies.add(bus.getProxyBusObject(name, "/props" + i, BusAttachment.SESSION_ID_ANY,
+                                              new Class<?>[] { PropsInterface.class }));
+        }
+        /* An object that does not exist fails without affecting the others */
+        ProxyBusObject missing = bus.getProxyBusObject(name, "/missing", BusAttachment.SESSION_ID_ANY,
+                                                       new Class<?>[] { PropsInterface.class });
+        proxies.add(missing);
+
+        final CountDownLatch replies = new CountDownLatch(count + 1);
+        Map<ProxyBusObject, MethodCallFuture<Map<String, Variant>>> futures =
+            ProxyBusObject.getAllPropertiesOfAll(proxies, PropsInterface.class);
+        assertEquals(count + 1, futures.size());
+        for (MethodCallFuture<Map<String, Variant>> future : futures.values()) {
+            future.addListener(new Runnable() {
+                public void run() {
+                    replies.countDown();
+                }
+            });
+        }
+        assertTrue(replies.await(10, TimeUnit.SECONDS));
+
+        for (int i = 0; i < count; ++i) {
+            Map<String, Variant> map = futures.get(proxies.get(i)).get();
+            assertEquals(i, map.get("IntProp").getObject(Integer.class).intValue());
+            assertEquals("Hello", map.get("StringProp").getObject(String.class));
+        }
+        boolean thrown = false;
+        try {
+            futures.get(missing).get();
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof BusException);
+            thrown = true;
+        } finally {
+            assertTrue(thrown);
+        }
+
+        for (int i = 0; i < count; ++i) {
+            proxies.get(i).release();
+            otherBus.unregisterBusObject(objs[i]);
+        }
+        missing.release();
+    }
+
+    public void testReleaseCompletesPendingGetAll() throws Exception {
+        final CountDownLatch unblock = new CountDownLatch(1);
+        CountingPropsObject ps = new CountingPropsObject() {
+            @Override
+            public int getIntProp() {
+                try {
+                    unblock.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getIntProp();
+            }
+        };
+        assertEquals(Status.OK, otherBus.registerBusObject(ps, "/blockedProps"));
+        ProxyBusObject blocked = bus.getProxyBusObject(name, "/blockedProps", BusAttachment.SESSION_ID_ANY,
+                                                       new Class<?>[] { PropsInterface.class });
+        MethodCallFuture<Map<String, Variant>> future =
+            blocked.getAllPropertiesAsync(InterfaceDescription.getName(PropsInterface.class));
+        assertFalse(future.isDone());
+
+        blocked.release();
+        assertTrue(future.isDone());
+        boolean thrown = false;
+        try {
+            future.get();
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof BusException);
+            thrown = true;
+        } finally {
+            assertTrue(thrown);
+        }
+
+        unblock.countDown();
+        otherBus.unregisterBusObject(ps);
+    }
 }
@@ -0,0 +1,204 @@
+/*
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+
+package org.alljoyn.bus;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class RawSessionChannelTest extends TestCase {
+    public RawSessionChannelTest(String name) {
+        super(name);
+    }
+
+    static {
+        System.loadLibrary("alljoyn_java");
+    }
+
+    /*
+     * The streams whose descriptors were handed to a channel.  They are kept
+     * reachable so that they are never finalized and close a descriptor the
+     * channel owns.
+     */
+    private static final List<FileOutputStream> donors = new ArrayList<FileOutputStream>();
+
+    private BusAttachment bus;
+
+    @Override
+    public void setUp() throws Exception {
+        bus = new BusAttachment(getClass().getName());
+        assertEquals(Status.OK, bus.connect());
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        bus.disconnect();
+        bus.release();
+        bus = null;
+    }
+
+    /*
+     * Opens a channel over the descriptor of a temporary file.  Returns null
+     * where the descriptor cannot be found, i.e. without /proc.
+     */
+    private RawSessionChannel openChannel() throws Exception {
+        File fdDirectory = new File("/proc/self/fd");
+        if (!fdDirectory.isDirectory()) {
+            return null;
+        }
+        File file = File.createTempFile("RawSessionChannelTest", null);
+        file.deleteOnExit();
+        FileOutputStream stream = new FileOutputStream(file);
+        donors.add(stream);
+        String path = file.getCanonicalPath();
+        String[] names = fdDirectory.list();
+        for (String name : names) {
+            if (new File(fdDirectory, name).getCanonicalPath().equals(path)) {
+                return new RawSessionChannel(Integer.parseInt(name));
+            }
+        }
+        return null;
+    }
+
+    public void testInvalidSocket() throws Exception {
+        try {
+            new RawSessionChannel(-1);
+            fail("RawSessionChannel accepted an invalid socket");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    public void testGetSessionChannelInvalidSession() throws Exception {
+        try {
+            bus.getSessionChannel(0x7fff1234);
+            fail("getSessionChannel succeeded for an invalid session");
+        } catch (BusException ex) {
+            // expected
+        }
+    }
+
+    public void testGetSessionChannelMessageSession() throws Exception {
+        BusAttachment clientBus = new BusAttachment(getClass().getName() + "Client");
+        assertEquals(Status.OK, clientBus.connect());
+        try {
+            Mutable.ShortValue port = new Mutable.ShortValue(BusAttachment.SESSION_PORT_ANY);
+            assertEquals(Status.OK, bus.bindSessionPort(port, new SessionOpts(), new SessionPortListener() {
+                @Override
+                public boolean acceptSessionJoiner(short sessionPort, String joiner, SessionOpts opts) {
+                    return true;
+                }
+            }));
+            Mutable.IntegerValue sessionId = new Mutable.IntegerValue();
+            assertEquals(Status.OK, clientBus.joinSession(bus.getUniqueName(), port.value, sessionId,
+                                                          new SessionOpts(), new SessionListener()));
+            try {
+                clientBus.getSessionChannel(sessionId.value);
+                fail("getSessionChannel succeeded for a message based session");
+            } catch (BusException ex) {
+                // expected
+            }
+            assertEquals(Status.OK, clientBus.leaveSession(sessionId.value));
+        } finally {
+            clientBus.disconnect();
+            clientBus.release();
+        }
+    }
+
+    public void testAwaitArguments() throws Exception {
+        RawSessionChannel channel = openChannel();
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.await(SelectionKey.OP_ACCEPT, 0);
+            fail("await accepted OP_ACCEPT");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            channel.await(SelectionKey.OP_READ | SelectionKey.OP_CONNECT, 0);
+            fail("await accepted OP_CONNECT");
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+        channel.close();
+        try {
+            channel.await(SelectionKey.OP_READ, 0);
+            fail("await succeeded on a closed channel");
+        } catch (ClosedChannelException ex) {
+            // expected
+        }
+    }
+
+    public void testCloseTwice() throws Exception {
+        RawSessionChannel channel = openChannel();
+        if (channel == null) {
+            return;
+        }
+        assertTrue(channel.isOpen());
+        channel.close();
+        assertFalse(channel.isOpen());
+        channel.close();
+        assertFalse(channel.isOpen());
+    }
+
+    public void testInterruptCloses() throws Exception {
+        RawSessionChannel channel = openChannel();
+        if (channel == null) {
+            return;
+        }
+        Thread.currentThread().interrupt();
+        try {
+            channel.write(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+            fail("write succeeded on an interrupted thread");
+        } catch (ClosedByInterruptException ex) {
+            // expected
+        } finally {
+            Thread.interrupted();
+        }
+        assertFalse(channel.isOpen());
+        try {
+            channel.configureBlocking(false);
+            fail("configureBlocking succeeded on a closed channel");
+        } catch (ClosedChannelException ex) {
+            // expected
+        }
+        channel.close();
+    }
+}
@@ -61,8 +61,9 @@ public class SignalEmitterTest extends TestCase {
 
     private DynamicEmitter dynamicEmitter;
     private int receivedGetSignalHandler; // relates to DynamicBusObject.getSignalHandler() called
-    private int receivedSignal;           // relates to SignalEmitterTest.signalHandler() called
+    private volatile int receivedSignal;  // relates to SignalEmitterTest.signalHandler() called
     private int receivedSignalInDynBusObj; // relates to DynamicEmitter.receiveSignal() called
+    private String lastSignal;            // the argument of the last SignalEmitterTest.signalHandler() call
 
     public SignalEmitterTest(String name) {
         super(name);
@@ -232,6 +233,18 @@ public class SignalEmitterTest extends TestCase {
             return local.getMessageContext();
         }
 
+        public void enableBatching(int maxSignals, int maxDelayMsecs, boolean coalesce) throws BusException {
+            local.enableBatching(maxSignals, maxDelayMsecs, coalesce);
+        }
+
+        public void disableBatching() throws BusException {
+            local.disableBatching();
+        }
+
+        public void flush() throws BusException {
+            local.flush();
+        }
+
         public Status cancelSessionlessSignal(int serialNum) {
             return local.cancelSessionlessSignal(serialNum);
         }
@@ -414,6 +427,7 @@ public class SignalEmitterTest extends TestCase {
 
     public void signalHandler(String string) throws BusException {
         receivedSignal++;
+        lastSignal = string;
 
         MessageContext ctx = bus.getMessageContext();
         System.out.println("SignalEmitterTest.signalHandler() received " +
@@ -456,6 +470,80 @@ public class SignalEmitterTest extends TestCase {
         assertEquals("s", ctx.signature);
     }
 
+    public void testBatching() throws Exception {
+        emitter.setEmitter(Emitter.LOCAL);
+        emitter.enableBatching(5, 0, false);
+        for (int i = 0; i < 4; ++i) {
+            emitter.emit("batched" + i);
+        }
+        Thread.sleep(500);
+        assertEquals(0, receivedSignal);
+
+        // The fifth signal fills the batch
+        emitter.emit("batched4");
+        Thread.sleep(500);
+        assertEquals(5, receivedSignal);
+        assertEquals("Emit", emitter.getMessageContext().memberName);
+
+        emitter.emit("batched5");
+        emitter.disableBatching();
+        Thread.sleep(500);
+        assertEquals(6, receivedSignal);
+    }
+
+    public void testBatchingDelay() throws Exception {
+        emitter.setEmitter(Emitter.LOCAL);
+        emitter.enableBatching(100, 100, false);
+        emitter.emit("delayed0");
+        emitter.emit("delayed1");
+        Thread.sleep(1000);
+        assertEquals(2, receivedSignal);
+        emitter.disableBatching();
+    }
+
+    public void testBatchingCoalesce() throws Exception {
+        emitter.setEmitter(Emitter.LOCAL);
+        emitter.enableBatching(100, 0, true);
+        for (int i = 0; i < 10; ++i) {
+            emitter.emit("coalesced" + i);
+        }
+        emitter.flush();
+        Thread.sleep(500);
+        assertEquals(1, receivedSignal);
+        assertEquals("coalesced9", lastSignal);
+        emitter.disableBatching();
+    }
+
+    public void testBatchingToggle() throws Exception {
+        emitter.setEmitter(Emitter.LOCAL);
+        final int count = 200;
+        final Exception[] failure = new Exception[1];
+        Thread sender = new Thread() {
+            public void run() {
+                try {
+                    for (int i = 0; i < count; ++i) {
+                        emitter.emit("toggled" + i);
+                    }
+                } catch (Exception ex) {
+                    failure[0] = ex;
+                }
+            }
+        };
+        sender.start();
+        // No delay, so a signal left in a swapped out batch would never be sent
+        while (sender.isAlive()) {
+            emitter.enableBatching(1000, 0, false);
+            emitter.disableBatching();
+        }
+        sender.join();
+        assertNull(failure[0]);
+
+        for (int i = 0; i < 100 && receivedSignal < count; ++i) {
+            Thread.sleep(100);
+        }
+        assertEquals(count, receivedSignal);
+    }
+
     public void testCancelSessionless() throws Exception {
         emitter.setCompressHeader(false);
         emitter.setSessionlessFlag(true);
@@ -0,0 +1,83 @@
+/**
+ *    Copyright (c) Open Connectivity Foundation (OCF), AllJoyn Open Source
+ *    Project (AJOSP) Contributors and others.
+ *
+ *    SPDX-License-Identifier: Apache-2.0
+ *
+ *    All rights reserved. This program and the accompanying materials are
+ *    made available under the terms of the Apache License, Version 2.0
+ *    which accompanies this distribution, and is available at
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Copyright (c) Open Connectivity Foundation and Contributors to AllSeen
+ *    Alliance. All rights reserved.
+ *
+ *    Permission to use, copy, modify, and/or distribute this software for
+ *    any purpose with or without fee is hereby granted, provided that the
+ *    above copyright notice and this permission notice appear in all
+ *    copies.
+ *
+ *    THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL
+ *    WARRANTIES WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED
+ *    WARRANTIES OF MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE
+ *    AUTHOR BE LIABLE FOR ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL
+ *    DAMAGES OR ANY DAMAGES WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR
+ *    PROFITS, WHETHER IN AN ACTION OF CONTRACT, NEGLIGENCE OR OTHER
+ *    TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR
+ *    PERFORMANCE OF THIS SOFTWARE.
+*/
+
+package org.alljoyn.bus;
+
+import junit.framework.TestCase;
+
+/**
+ * Compares splitting signatures in native code on every call against the
+ * memoized Signature.split.
+ *
+ * Not part of the default test run; run with -Dtestcase=SignatureBenchmark.
+ */
+public class SignatureBenchmark extends TestCase {
+    public SignatureBenchmark(String name) {
+        super(name);
+    }
+
+    static {
+        System.loadLibrary("alljoyn_java");
+    }
+
+    private static final int SPLITS = 1000000;
+
+    private static final String[] SIGNATURES = {
+        "s", "sis", "a{sv}", "(iii)", "a(sayd)", "ya{ss}as", "(ia{s(ii)})v", "yynqiuxtdsogv"
+    };
+
+    public void testSplit() throws Exception {
+        /* Warm up both paths. */
+        for (String sig : SIGNATURES) {
+            assertEquals(Signature.nativeSplit(sig).length, Signature.splitShared(sig).length);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SPLITS; ++i) {
+            Signature.nativeSplit(SIGNATURES[i % SIGNATURES.length]);
+        }
+        long nativeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < SPLITS; ++i) {
+            Signature.splitShared(SIGNATURES[i % SIGNATURES.length]);
+        }
+        long sharedNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < SPLITS; ++i) {
+            Signature.split(SIGNATURES[i % SIGNATURES.length]);
+        }
+        long copyNanos = System.nanoTime() - start;
+
+        System.out.println("SignatureBenchmark: native split " + (nativeNanos / SPLITS) + " ns/call, "
+                           + "memoized " + (sharedNanos / SPLITS) + " ns/call, "
+                           + "memoized copy " + (copyNanos / SPLITS) + " ns/call");
+    }
+}
@@ -30,6 +30,7 @@
 package org.alljoyn.bus;
 
 import org.alljoyn.bus.Signature;
+import org.alljoyn.bus.annotation.Position;
 
 import junit.framework.TestCase;
 import static org.alljoyn.bus.Assert.*;
@@ -48,4 +49,58 @@ public class SignatureTest extends TestCase {
         assertArrayEquals(struct, Signature.structArgs(struct));
     }
 
+    public void testSplit() throws Exception {
+        assertArrayEquals(new String[] { "i", "a{sv}", "(ss)" }, Signature.split("ia{sv}(ss)"));
+        assertSame(Signature.splitShared("ia{sv}(ss)"), Signature.splitShared("ia{sv}(ss)"));
+
+        String[] types = Signature.split("ia{sv}(ss)");
+        types[0] = "x";
+        assertEquals("i", Signature.split("ia{sv}(ss)")[0]);
+
+        assertNull(Signature.split(null));
+        assertNull(Signature.split("a{"));
+    }
+
+    public static class Struct {
+        @Position(1)
+        public String s;
+        @Position(0)
+        public int i;
+        @Position(2)
+        public double[] d;
+
+        public static final int IGNORED = 1;
+    }
+
+    public void testStructCodec() throws Exception {
+        Struct struct = new Struct();
+        struct.i = 1;
+        struct.s = "two";
+        struct.d = new double[] { 3.0 };
+
+        assertArrayEquals(new Object[] { 1, "two", struct.d }, Signature.structArgs(struct));
+        assertEquals("isad", Signature.structSig(Struct.class));
+        assertEquals(int.class, Signature.structTypes(Struct.class)[0]);
+        assertEquals("d", Signature.structFields(Struct.class)[2].getName());
+        assertSame(Signature.structCodec(Struct.class), Signature.structCodec(Struct.class));
+
+        Struct created = (Struct) Signature.structCodec(Struct.class).newInstance();
+        assertNotNull(created);
+    }
+
+    public static class UnannotatedStruct {
+        public int i;
+    }
+
+    public void testStructCodec_missingPosition() throws Exception {
+        boolean thrown = false;
+        try {
+            Signature.structTypes(UnannotatedStruct.class);
+        } catch (AnnotationBusException ex) {
+            thrown = true;
+        } finally {
+            assertTrue(thrown);
+        }
+    }
+
 }
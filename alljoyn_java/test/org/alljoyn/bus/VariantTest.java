@@ -29,6 +29,9 @@
 
 package org.alljoyn.bus;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
 import org.alljoyn.bus.Variant;
 
 import junit.framework.TestCase;
@@ -92,4 +95,63 @@ public class VariantTest extends TestCase {
          v = new Variant();
          assertNull(v.getSignature());
     }
+
+    public void testPrimitiveAccessors() throws Exception {
+        assertEquals((byte) 1, new Variant((byte) 1).getByte());
+        assertTrue(new Variant(true).getBoolean());
+        assertEquals((short) 2, new Variant((short) 2).getShort());
+        assertEquals(3, new Variant(3).getInt());
+        assertEquals(4L, new Variant(4L).getLong());
+        assertEquals(4.1, new Variant(4.1).getDouble());
+
+        /* Unsigned signatures */
+        Variant v = new Variant(5, "u");
+        assertEquals("u", v.getSignature());
+        assertEquals(5, v.getInt());
+        assertEquals(Integer.valueOf(5), v.getObject(Integer.class));
+        assertEquals("t", new Variant(6L, "t").getSignature());
+
+        /* A byte with a signature does not widen to a 16-bit integer */
+        v = new Variant((byte) 1, "y");
+        assertEquals("y", v.getSignature());
+        assertEquals((byte) 1, v.getByte());
+        assertEquals(Byte.valueOf((byte) 1), v.getObject(byte.class));
+        assertTrue(new Variant(true, "b").getBoolean());
+        assertEquals(Double.valueOf(7.1), new Variant(7.1, "d").getObject(double.class));
+
+        /* Boxed values are read without unmarshalling */
+        assertEquals(7, new Variant(Integer.valueOf(7)).getInt());
+        assertEquals(new Variant(8), new Variant(Integer.valueOf(8)));
+
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        assertEquals(3, new Variant(new byte[] { 1, 2, 3 }).getBytes(buffer));
+        assertEquals(3, buffer.position());
+        boolean thrown = false;
+        try {
+            new Variant(new byte[] { 4, 5 }).getBytes(buffer);
+        } catch (BufferOverflowException ex) {
+            thrown = true;
+        } finally {
+            assertTrue(thrown);
+        }
+        assertEquals(3, buffer.position());
+
+        thrown = false;
+        try {
+            new Variant(9).getDouble();
+        } catch (ClassCastException ex) {
+            thrown = true;
+        } finally {
+            assertTrue(thrown);
+        }
+
+        thrown = false;
+        try {
+            new Variant().getInt();
+        } catch (BusException ex) {
+            thrown = true;
+        } finally {
+            assertTrue(thrown);
+        }
+    }
 }